@@ -23,6 +23,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import static org.kie.efesto.common.api.utils.FileUtils.getInputStreamFromFileName;
 
@@ -31,6 +36,13 @@ public class JavaParserUtils {
     private static final Logger logger = LoggerFactory.getLogger(JavaParserUtils.class.getName());
     public static final String MAIN_CLASS_NOT_FOUND = "Main class not found";
 
+    /**
+     * Parsed templates, by <code>ClassLoader</code> and template name.
+     * Cached instances are never returned directly: callers always receive a clone
+     */
+    private static final Map<ClassLoader, Map<String, CompilationUnit>> TEMPLATE_CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     private JavaParserUtils() {
     }
 
@@ -46,8 +58,7 @@ public class JavaParserUtils {
                                                      final String javaTemplate,
                                                      final String modelClassName) {
         logger.trace("getCompilationUnit {} {}", className, packageName);
-        CompilationUnit templateCU = getFromFileName(javaTemplate);
-        CompilationUnit toReturn = templateCU.clone();
+        CompilationUnit toReturn = getFromFileName(javaTemplate);
         if (packageName != null && !packageName.isEmpty()) {
             toReturn.setPackageDeclaration(packageName);
         }
@@ -72,9 +83,53 @@ public class JavaParserUtils {
         return packageName + "." + className;
     }
 
-    private static CompilationUnit getFromFileName(String fileName) {
-        try {
-            final InputStream resource = getInputStreamFromFileName(fileName);
+    /**
+     * Returns a <b>clone</b> of the <code>CompilationUnit</code> parsed from the given <b>file</b>.
+     * The template is read and parsed only once for each <code>ClassLoader</code>
+     *
+     * @param fileName
+     * @return
+     */
+    public static CompilationUnit getFromFileName(String fileName) {
+        return getTemplateCompilationUnit(fileName, JavaParserUtils::parseFromFileName);
+    }
+
+    /**
+     * Returns a <b>clone</b> of the <code>CompilationUnit</code> cached for the given <b>file</b> and the current
+     * context <code>ClassLoader</code>, using the given <code>parser</code> to populate the cache on first access.
+     * Any exception thrown by <code>parser</code> is propagated unchanged.
+     *
+     * @param fileName
+     * @param parser
+     * @return
+     */
+    public static CompilationUnit getTemplateCompilationUnit(String fileName, Function<String, CompilationUnit> parser) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Map<String, CompilationUnit> classLoaderTemplates = TEMPLATE_CACHE.computeIfAbsent(classLoader,
+                key -> new ConcurrentHashMap<>());
+        CompilationUnit template = classLoaderTemplates.get(fileName);
+        if (template == null) {
+            logger.debug("Parsing template {}", fileName);
+            template = parser.apply(fileName);
+            CompilationUnit existing = classLoaderTemplates.putIfAbsent(fileName, template);
+            if (existing != null) {
+                template = existing;
+            }
+        }
+        synchronized (template) {
+            return template.clone();
+        }
+    }
+
+    /**
+     * Remove all the cached templates
+     */
+    public static void clearTemplateCache() {
+        TEMPLATE_CACHE.clear();
+    }
+
+    static CompilationUnit parseFromFileName(String fileName) {
+        try (InputStream resource = getInputStreamFromFileName(fileName)) {
             return StaticJavaParser.parse(resource);
         } catch (Exception e) {
             throw new KieEfestoCommonException(String.format("Failed to parse %s due to %s", fileName,
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.utils;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.exceptions.KieEfestoCommonException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class JavaParserUtilsTest {
+
+    private static final String TEMPLATE_FILE = "TestingTemplate.tmpl";
+    private static final String TEMPLATE_CLASS = "TestingTemplate";
+
+    @BeforeEach
+    void setUp() {
+        JavaParserUtils.clearTemplateCache();
+    }
+
+    @Test
+    void getCompilationUnit() {
+        String className = "ClassName";
+        String packageName = "apackage";
+        CompilationUnit retrieved = JavaParserUtils.getCompilationUnit(className, packageName, TEMPLATE_FILE, TEMPLATE_CLASS);
+        assertThat(retrieved.getPackageDeclaration()).isPresent();
+        assertThat(retrieved.getPackageDeclaration().get().getName().asString()).isEqualTo(packageName);
+        assertThat(retrieved.getClassByName(className)).isPresent();
+        assertThat(retrieved.getClassByName(TEMPLATE_CLASS)).isNotPresent();
+        assertThat(JavaParserUtils.getFullClassName(retrieved)).isEqualTo(packageName + "." + className);
+    }
+
+    @Test
+    void getCompilationUnitNotExistingClass() {
+        assertThatExceptionOfType(KieEfestoCommonException.class).isThrownBy(() ->
+                JavaParserUtils.getCompilationUnit("ClassName", "apackage", TEMPLATE_FILE, "NotExisting"));
+    }
+
+    @Test
+    void getFromFileNameNotExisting() {
+        assertThatExceptionOfType(KieEfestoCommonException.class).isThrownBy(() ->
+                JavaParserUtils.getFromFileName("NotExisting.tmpl"));
+    }
+
+    @Test
+    void getFromFileNameReturnsIndependentClones() {
+        CompilationUnit first = JavaParserUtils.getCompilationUnit("First", "first", TEMPLATE_FILE, TEMPLATE_CLASS);
+        CompilationUnit second = JavaParserUtils.getCompilationUnit("Second", "second", TEMPLATE_FILE, TEMPLATE_CLASS);
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.getClassByName("First")).isPresent();
+        assertThat(second.getClassByName("First")).isNotPresent();
+        CompilationUnit template = JavaParserUtils.getFromFileName(TEMPLATE_FILE);
+        assertThat(template.getClassByName(TEMPLATE_CLASS)).isPresent();
+        assertThat(template.getPackageDeclaration().get().getName().asString()).isEqualTo("org.kie.efesto.common.utils");
+    }
+
+    @Test
+    void getTemplateCompilationUnitParsesOnce() {
+        AtomicInteger parsed = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            CompilationUnit retrieved = JavaParserUtils.getTemplateCompilationUnit(TEMPLATE_FILE, fileName -> {
+                parsed.incrementAndGet();
+                return JavaParserUtils.parseFromFileName(fileName);
+            });
+            assertThat(retrieved.getClassByName(TEMPLATE_CLASS)).isPresent();
+        }
+        assertThat(parsed.get()).isEqualTo(1);
+        JavaParserUtils.clearTemplateCache();
+        JavaParserUtils.getTemplateCompilationUnit(TEMPLATE_FILE, fileName -> {
+            parsed.incrementAndGet();
+            return JavaParserUtils.parseFromFileName(fileName);
+        });
+        assertThat(parsed.get()).isEqualTo(2);
+    }
+}
@@ -63,6 +63,8 @@ public class Constants {
 
     //
     public static final String INDEXFILE_DIRECTORY_PROPERTY = "indexfile.directory";
+    public static final String INDEXFILE_IN_MEMORY_PROPERTY = "indexfile.inmemory";
+    public static final String INDEXFILE_SHARDS_PROPERTY = "indexfile.shards";
 
     private Constants() {
         // Avoid instantiation
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.io;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.kie.efesto.common.api.model.FRI;
+
+/**
+ * Description of the shards of the <code>IndexFile</code> of a model type (see <code>IndexFileShards</code>): the
+ * number of shards the <code>FRI</code>s are distributed over and the shards actually written
+ */
+public final class IndexFileManifest implements Serializable {
+
+    private static final long serialVersionUID = 2563402254106227419L;
+
+    /**
+     * the number of shards the <code>FRI</code>s are distributed over
+     */
+    private final int shardCount;
+    /**
+     * the names of the written shards
+     */
+    private final SortedSet<String> shards;
+
+    public IndexFileManifest() {
+        this(0, null);
+    }
+
+    public IndexFileManifest(int shardCount, SortedSet<String> shards) {
+        this.shardCount = shardCount;
+        this.shards = shards != null ? Collections.unmodifiableSortedSet(shards) : Collections.emptySortedSet();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public SortedSet<String> getShards() {
+        return shards;
+    }
+
+    /**
+     * @param fri
+     * @return the name of the shard the given <code>FRI</code> belongs to
+     */
+    public String getShard(FRI fri) {
+        return IndexFileShards.getShard(fri, shardCount);
+    }
+
+    /**
+     * @param shard
+     * @return a copy of this manifest with the given shard added
+     */
+    public IndexFileManifest withShard(String shard) {
+        SortedSet<String> toSet = new TreeSet<>(shards);
+        toSet.add(shard);
+        return new IndexFileManifest(shardCount, toSet);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndexFileManifest that = (IndexFileManifest) o;
+        return shardCount == that.shardCount && Objects.equals(shards, that.shards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(shardCount, shards);
+    }
+
+    @Override
+    public String toString() {
+        return "IndexFileManifest{" +
+                "shardCount=" + shardCount +
+                ", shards=" + shards +
+                '}';
+    }
+}
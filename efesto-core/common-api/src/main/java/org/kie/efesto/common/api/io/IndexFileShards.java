@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.io;
+
+import java.io.File;
+
+import org.kie.efesto.common.api.model.FRI;
+
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_SHARDS_PROPERTY;
+import static org.kie.efesto.common.api.io.IndexFile.INDEX_FILE;
+
+/**
+ * Layout of the sharded <code>IndexFile</code>s, written instead of the single <code>IndexFile</code> of a model type
+ * when the <b>indexfile.shards</b> property is greater than one (e.g. for model types with thousands of models).
+ * <p>
+ * Each <code>GeneratedResource</code> is stored in the shard selected by the hash of the <code>FRI</code> base path
+ * of the compilation output it comes from, and the written shards are listed by a small manifest:
+ * <pre>
+ * IndexFile.&lt;model&gt;_shards/manifest_json
+ * IndexFile.&lt;model&gt;_shards/&lt;shard&gt;/IndexFile.&lt;model&gt;_json
+ * </pre>
+ * so that the lookup of a given <code>FRI</code> reads only the manifest and one shard. Every shard is a plain
+ * <code>IndexFile</code>, that may be read on its own.
+ * The shard count is stored in the manifest, and readers always rely on it, so that the property is needed only
+ * when writing
+ */
+public class IndexFileShards {
+
+    public static final String SHARDS_SUFFIX = "_shards";
+    public static final String MANIFEST_FILE = "manifest_json";
+    public static final int MAX_SHARDS = 256;
+
+    private IndexFileShards() {
+    }
+
+    public static boolean isEnabled() {
+        return getShardCount() > 1;
+    }
+
+    /**
+     * @return the number of shards to write, as defined by the <b>indexfile.shards</b> property (at most
+     * {@link #MAX_SHARDS})
+     */
+    public static int getShardCount() {
+        return Math.min(Integer.getInteger(INDEXFILE_SHARDS_PROPERTY, 0), MAX_SHARDS);
+    }
+
+    /**
+     * @param fri
+     * @param shardCount
+     * @return the name of the shard the given <code>FRI</code> belongs to, out of the given number of shards
+     */
+    public static String getShard(FRI fri, int shardCount) {
+        int shard = shardCount > 1 ? Math.floorMod(fri.getBasePath().hashCode(), shardCount) : 0;
+        return String.format("%02x", shard);
+    }
+
+    /**
+     * @param modelType
+     * @return the name of the directory containing the shards of the given model type
+     */
+    public static String getShardsDirectoryName(String modelType) {
+        return String.format("%s.%s%s", INDEX_FILE, modelType, SHARDS_SUFFIX);
+    }
+
+    /**
+     * @param modelType
+     * @return the (classpath) resource name of the manifest of the given model type
+     */
+    public static String getManifestResourceName(String modelType) {
+        return getShardsDirectoryName(modelType) + "/" + MANIFEST_FILE;
+    }
+
+    /**
+     * @param shard
+     * @param modelType
+     * @return the name of the given shard, relative to the directory containing the manifest
+     */
+    public static String getShardRelativeName(String shard, String modelType) {
+        return shard + "/" + new IndexFile(modelType).getName();
+    }
+
+    public static File getManifestFile(String parentPath, String modelType) {
+        return new File(new File(parentPath, getShardsDirectoryName(modelType)), MANIFEST_FILE);
+    }
+
+    public static IndexFile getShardIndexFile(String parentPath, String modelType, String shard) {
+        return new IndexFile(new File(new File(parentPath, getShardsDirectoryName(modelType)), shard).getPath(), modelType);
+    }
+
+    /**
+     * @param indexFile
+     * @return <code>true</code> if the given <code>IndexFile</code> is a shard
+     */
+    public static boolean isShard(IndexFile indexFile) {
+        File shardsDirectory = indexFile.getAbsoluteFile().getParentFile().getParentFile();
+        return shardsDirectory != null && shardsDirectory.getName().equals(getShardsDirectoryName(indexFile.getModel()));
+    }
+
+    /**
+     * @param shard
+     * @return the path of the directory containing the shards directory of the given shard
+     */
+    public static String getParentPath(IndexFile shard) {
+        return shard.getAbsoluteFile().getParentFile().getParentFile().getParent();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modification counter of the <code>IndexFile</code>s written by the current JVM, both on the file system and in
+ * memory (see <code>MemoryIndexFiles</code>), so that structures built on top of them know when to be rebuilt.
+ * <code>IndexFile</code>s made available by other means (e.g. jars added to the classpath) are not tracked
+ */
+public class IndexFileVersion {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private IndexFileVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    public static void increment() {
+        VERSION.incrementAndGet();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.io;
+
+import org.kie.efesto.common.api.model.GeneratedResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_IN_MEMORY_PROPERTY;
+
+/**
+ * In-memory sink for the content of <code>IndexFile</code>s, used instead of the file system when the
+ * <b>indexfile.inmemory</b> property is <code>true</code> (e.g. for services running on read-only file systems).
+ * Content is kept by model type; each update replaces the stored <code>GeneratedResources</code> with a new one, so
+ * that readers never see a partially updated index
+ */
+public class MemoryIndexFiles {
+
+    private static final Map<String, GeneratedResources> INDEXES = new ConcurrentHashMap<>();
+
+    private MemoryIndexFiles() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(INDEXFILE_IN_MEMORY_PROPERTY);
+    }
+
+    /**
+     * Returns a copy of the <code>GeneratedResources</code> stored for the given model type, if any
+     *
+     * @param modelType
+     * @return
+     */
+    public static Optional<GeneratedResources> getGeneratedResources(String modelType) {
+        GeneratedResources stored = INDEXES.get(modelType);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        GeneratedResources toReturn = new GeneratedResources();
+        toReturn.addAll(stored);
+        return Optional.of(toReturn);
+    }
+
+    public static void addGeneratedResources(String modelType, Collection<? extends GeneratedResource> toAdd) {
+        INDEXES.compute(modelType, (key, existing) -> {
+            GeneratedResources toReturn = new GeneratedResources();
+            if (existing != null) {
+                toReturn.addAll(existing);
+            }
+            toReturn.addAll(toAdd);
+            return toReturn;
+        });
+        IndexFileVersion.increment();
+    }
+
+    /**
+     * Atomically replace the <code>GeneratedResources</code> stored for the given model type with the ones returned
+     * by the given function, that receives a copy of the stored ones (empty if none); an empty result removes the
+     * model type
+     *
+     * @param modelType
+     * @param updater
+     */
+    public static void updateGeneratedResources(String modelType, UnaryOperator<GeneratedResources> updater) {
+        INDEXES.compute(modelType, (key, existing) -> {
+            GeneratedResources toUpdate = new GeneratedResources();
+            if (existing != null) {
+                toUpdate.addAll(existing);
+            }
+            GeneratedResources toReturn = updater.apply(toUpdate);
+            return toReturn == null || toReturn.isEmpty() ? null : toReturn;
+        });
+        IndexFileVersion.increment();
+    }
+
+    public static void removeGeneratedResources(String modelType) {
+        INDEXES.remove(modelType);
+        IndexFileVersion.increment();
+    }
+
+    /**
+     * @return the model types stored in memory
+     */
+    public static Set<String> getModelTypes() {
+        return Collections.unmodifiableSet(new HashSet<>(INDEXES.keySet()));
+    }
+
+    public static void clear() {
+        INDEXES.clear();
+        IndexFileVersion.increment();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.kie.efesto.Codegen")
+@Label("Code Generation")
+@Description("Processing of a resource by a compiler service")
+@Category({"Efesto", "Compilation"})
+@StackTrace(false)
+public class CodegenEvent extends Event {
+
+    @Label("Resource Type")
+    public String resourceType;
+
+    @Label("Compiler Service")
+    public String compilerService;
+
+    @Label("Models")
+    @Description("The full resource identifiers of the generated models")
+    public String models;
+
+    @Label("Outputs")
+    public int outputs;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.kie.efesto.Evaluation")
+@Label("Evaluation")
+@Description("Evaluation of an input by the runtime manager")
+@Category({"Efesto", "Runtime"})
+@StackTrace(false)
+public class EvaluationEvent extends Event {
+
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not found";
+    public static final String EMPTY = "empty";
+    public static final String FAILURE = "failure";
+
+    @Label("FRI")
+    public String fri;
+
+    @Label("Input Type")
+    public String inputType;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -41,6 +41,23 @@ public class FRI implements Serializable {
         fri = generateFri(basePath, model);
     }
 
+    /**
+     * Returns the <code>FRI</code> of the given full representation (as returned by {@link #getFri()}), with or
+     * without the leading slash
+     *
+     * @param fri the full <code>FRI</code>, i.e. <code>/model/basePath</code>
+     * @return
+     * @throws IllegalArgumentException if the given string has no <b>model</b> or no <b>basePath</b>
+     */
+    public static FRI parseFri(String fri) {
+        String toParse = fri.startsWith(SLASH) ? fri.substring(1) : fri;
+        int separatorIndex = toParse.indexOf(SLASH);
+        if (separatorIndex <= 0 || separatorIndex == toParse.length() - 1) {
+            throw new IllegalArgumentException(String.format("Invalid FRI %s, expected /model/basePath", fri));
+        }
+        return new FRI(toParse.substring(separatorIndex), toParse.substring(0, separatorIndex));
+    }
+
     public String getBasePath() {
         return basePath;
     }
@@ -53,6 +70,22 @@ public class FRI implements Serializable {
         return fri;
     }
 
+    /**
+     * Returns <code>true</code> if the given <code>FRI</code> is the current one or one of its descendants
+     * (e.g. <b>/pmml/models/first</b> is contained by <b>/pmml/models</b>)
+     *
+     * @param toCheck
+     * @return
+     */
+    public boolean contains(FRI toCheck) {
+        if (toCheck == null || fri == null || toCheck.getFri() == null) {
+            return false;
+        }
+        String toCheckFri = toCheck.getFri();
+        return toCheckFri.startsWith(fri) &&
+                (toCheckFri.length() == fri.length() || fri.endsWith(SLASH) || toCheckFri.startsWith(SLASH, fri.length()));
+    }
+
     @Override
     public String toString() {
         return "FRI{" +
@@ -15,6 +15,8 @@
  */
 package org.kie.efesto.common.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.Objects;
 
@@ -32,13 +34,37 @@ public final class GeneratedExecutableResource implements GeneratedResource {
 
     private final List<String> fullClassNames;
 
+    /**
+     * optional description of the model, omitted from the <code>IndexFile</code> when missing
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final ModelMetadata metadata;
+
+    /**
+     * optional names of all the classes generated with the model, entry points and helpers, omitted from the
+     * <code>IndexFile</code> when missing
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final List<String> generatedClassNames;
+
     public GeneratedExecutableResource() {
         this(null, null);
     }
 
     public GeneratedExecutableResource(FRI fri, List<String> fullClassNames) {
+        this(fri, fullClassNames, null);
+    }
+
+    public GeneratedExecutableResource(FRI fri, List<String> fullClassNames, ModelMetadata metadata) {
+        this(fri, fullClassNames, metadata, null);
+    }
+
+    public GeneratedExecutableResource(FRI fri, List<String> fullClassNames, ModelMetadata metadata,
+                                       List<String> generatedClassNames) {
         this.fri = fri;
         this.fullClassNames = fullClassNames;
+        this.metadata = metadata;
+        this.generatedClassNames = generatedClassNames;
     }
 
     public FRI getFri() {
@@ -49,6 +75,14 @@ public final class GeneratedExecutableResource implements GeneratedResource {
         return fullClassNames;
     }
 
+    public ModelMetadata getMetadata() {
+        return metadata;
+    }
+
+    public List<String> getGeneratedClassNames() {
+        return generatedClassNames;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(fri);
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.model;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Basic, engine-agnostic, description of a compiled model, stored inside its <code>GeneratedExecutableResource</code>
+ * so that models may be listed without loading them
+ */
+public final class ModelMetadata implements Serializable {
+
+    private static final long serialVersionUID = -4453409406125853962L;
+
+    /**
+     * the name of the model, as declared in its source
+     */
+    private final String name;
+    /**
+     * the names of the fields expected in input
+     */
+    private final List<String> inputFields;
+    /**
+     * the name of the field predicted by the model, if any
+     */
+    private final String target;
+    /**
+     * the kind of function implemented by the model (e.g. "regression"), if any
+     */
+    private final String modelFunction;
+
+    public ModelMetadata() {
+        this(null, null, null, null);
+    }
+
+    public ModelMetadata(String name, List<String> inputFields, String target, String modelFunction) {
+        this.name = name;
+        this.inputFields = inputFields != null ? Collections.unmodifiableList(inputFields) : Collections.emptyList();
+        this.target = target;
+        this.modelFunction = modelFunction;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getInputFields() {
+        return inputFields;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public String getModelFunction() {
+        return modelFunction;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ModelMetadata that = (ModelMetadata) o;
+        return Objects.equals(name, that.name) && Objects.equals(inputFields, that.inputFields) &&
+                Objects.equals(target, that.target) && Objects.equals(modelFunction, that.modelFunction);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, inputFields, target, modelFunction);
+    }
+
+    @Override
+    public String toString() {
+        return "ModelMetadata{" +
+                "name='" + name + '\'' +
+                ", inputFields=" + inputFields +
+                ", target='" + target + '\'' +
+                ", modelFunction='" + modelFunction + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.kie.efesto.common.api.exceptions.KieEfestoCommonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Eager, parallel, discovery of services.
+ * <p>
+ * {@link #bootstrap(Collection, ClassLoader)} discovers the implementations of all the given service types and
+ * instantiates them (i.e. initializes their classes) in parallel, then publishes a {@link ServiceRegistry} for each
+ * type, only if all the implementations have been instantiated. Lookups of the bootstrapped types (e.g. the
+ * <code>SPIUtils</code> of the managers) then return the published instances, without scanning the class path again;
+ * the types that have not been bootstrapped are still discovered lazily, on each lookup.
+ * <p>
+ * Implementations are instantiated in parallel: their static initialization must not depend on each other.
+ */
+public final class ServiceRegistries {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceRegistries.class.getName());
+
+    /**
+     * Service types of the efesto modules, bootstrapped by {@link #bootstrap()} if available
+     */
+    public static final List<String> EFESTO_SERVICE_TYPES = Collections.unmodifiableList(Arrays.asList(
+            "org.kie.efesto.compilationmanager.api.service.CompilationManager",
+            "org.kie.efesto.compilationmanager.api.service.KieCompilerService",
+            "org.kie.efesto.runtimemanager.api.service.RuntimeManager",
+            "org.kie.efesto.runtimemanager.api.service.KieRuntimeService",
+            "org.kie.pmml.compilation.api.provider.ModelImplementationProvider",
+            "org.kie.pmml.runtime.core.executor.PMMLModelEvaluator"));
+
+    static final long BOOTSTRAP_TIMEOUT_SECONDS = 120;
+
+    private static final Map<Class<?>, ServiceRegistry<?>> REGISTRIES = new ConcurrentHashMap<>();
+
+    private ServiceRegistries() {
+    }
+
+    /**
+     * Bootstrap the {@link #EFESTO_SERVICE_TYPES} available to the context <code>ClassLoader</code>
+     */
+    public static void bootstrap() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> serviceTypes = new ArrayList<>();
+        for (String serviceTypeName : EFESTO_SERVICE_TYPES) {
+            try {
+                serviceTypes.add(Class.forName(serviceTypeName, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                logger.debug("{} not available", serviceTypeName);
+            }
+        }
+        bootstrap(serviceTypes, classLoader);
+    }
+
+    /**
+     * Discover and instantiate the implementations of the given service types in parallel, and publish their
+     * registries; nothing is published if any implementation can not be instantiated
+     *
+     * @param serviceTypes
+     * @param classLoader
+     * @throws KieEfestoCommonException if any implementation can not be instantiated
+     */
+    public static void bootstrap(Collection<Class<?>> serviceTypes, ClassLoader classLoader) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(Runtime.getRuntime().availableProcessors(), 2),
+                                                                new BootstrapThreadFactory());
+        try {
+            Map<Class<?>, CompletableFuture<List<Object>>> instantiated = new LinkedHashMap<>();
+            for (Class<?> serviceType : serviceTypes) {
+                instantiated.put(serviceType, CompletableFuture
+                        .supplyAsync(() -> discover(serviceType, classLoader), executor)
+                        .thenCompose(providers -> instantiate(providers, executor)));
+            }
+            CompletableFuture<Void> all = CompletableFuture.allOf(instantiated.values().toArray(new CompletableFuture[0]));
+            try {
+                all.get(BOOTSTRAP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                // failures are reported by type below
+            }
+            List<String> errors = new ArrayList<>();
+            Throwable cause = null;
+            Map<Class<?>, ServiceRegistry<?>> toPublish = new LinkedHashMap<>();
+            for (Map.Entry<Class<?>, CompletableFuture<List<Object>>> entry : instantiated.entrySet()) {
+                CompletableFuture<List<Object>> services = entry.getValue();
+                if (!services.isDone()) {
+                    errors.add(String.format("%s: not instantiated in %d seconds", entry.getKey().getName(), BOOTSTRAP_TIMEOUT_SECONDS));
+                } else if (services.isCompletedExceptionally()) {
+                    Throwable error = getCause(services);
+                    errors.add(String.format("%s: %s", entry.getKey().getName(), error.getMessage()));
+                    cause = cause != null ? cause : error;
+                } else {
+                    toPublish.put(entry.getKey(), getRegistry(entry.getKey(), services.join()));
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new KieEfestoCommonException("Failed to bootstrap services " + errors, cause);
+            }
+            toPublish.values().stream()
+                    .filter(registry -> registry.getServices().isEmpty())
+                    .forEach(registry -> logger.warn("No implementation of {}", registry.getServiceType().getName()));
+            REGISTRIES.putAll(toPublish);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Bootstrapped {} in {} ms", toPublish.values(), (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param serviceType
+     * @param <T>
+     * @return the registry of the given service type, if it has been bootstrapped
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<ServiceRegistry<T>> getRegistry(Class<T> serviceType) {
+        return Optional.ofNullable((ServiceRegistry<T>) REGISTRIES.get(serviceType));
+    }
+
+    public static boolean isBootstrapped(Class<?> serviceType) {
+        return REGISTRIES.containsKey(serviceType);
+    }
+
+    /**
+     * Discard all the registries, so that services are discovered lazily again
+     */
+    public static void clear() {
+        REGISTRIES.clear();
+    }
+
+    private static List<ServiceLoader.Provider<?>> discover(Class<?> serviceType, ClassLoader classLoader) {
+        return ServiceLoader.load(serviceType, classLoader).stream().collect(Collectors.toList());
+    }
+
+    private static CompletableFuture<List<Object>> instantiate(List<ServiceLoader.Provider<?>> providers, ExecutorService executor) {
+        List<CompletableFuture<Object>> instances = providers.stream()
+                .map(provider -> CompletableFuture.supplyAsync(() -> (Object) provider.get(), executor))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(instances.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> instances.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ServiceRegistry<T> getRegistry(Class<T> serviceType, List<Object> services) {
+        return new ServiceRegistry<>(serviceType, (List<T>) services);
+    }
+
+    private static Throwable getCause(CompletableFuture<?> failed) {
+        try {
+            failed.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private static final class BootstrapThreadFactory implements java.util.concurrent.ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread toReturn = new Thread(runnable, "efesto-bootstrap-" + counter.incrementAndGet());
+            toReturn.setDaemon(true);
+            return toReturn;
+        }
+    }
+}
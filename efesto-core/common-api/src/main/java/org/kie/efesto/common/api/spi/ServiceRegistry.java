@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.spi;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable list of the implementations of a service, discovered and instantiated once by {@link ServiceRegistries}
+ *
+ * @param <T>
+ */
+public final class ServiceRegistry<T> {
+
+    private final Class<T> serviceType;
+    private final List<T> services;
+
+    ServiceRegistry(Class<T> serviceType, List<T> services) {
+        this.serviceType = serviceType;
+        this.services = Collections.unmodifiableList(services);
+    }
+
+    public Class<T> getServiceType() {
+        return serviceType;
+    }
+
+    /**
+     * @return the implementations, in <code>ServiceLoader</code> order
+     */
+    public List<T> getServices() {
+        return services;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceRegistry{" +
+                "serviceType=" + serviceType.getName() +
+                ", services=" + services +
+                '}';
+    }
+}
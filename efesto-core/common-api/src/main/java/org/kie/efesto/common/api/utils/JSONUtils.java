@@ -15,50 +15,206 @@
  */
 package org.kie.efesto.common.api.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.io.IndexFileManifest;
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.common.api.jfr.IndexFileReadEvent;
+import org.kie.efesto.common.api.jfr.IndexFileWriteEvent;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.common.api.model.GeneratedResource;
 import org.kie.efesto.common.api.model.GeneratedResources;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public class JSONUtils {
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Readers and writers are immutable and thread-safe: building them once avoids the per-call lookup of the
+    // (polymorphic) root (de)serializers done by the ObjectMapper
+    private static final ObjectReader generatedResourceReader = objectMapper.readerFor(GeneratedResource.class);
+    private static final ObjectReader generatedResourcesReader = objectMapper.readerFor(GeneratedResources.class);
+    private static final ObjectReader friReader = objectMapper.readerFor(FRI.class);
+    private static final ObjectWriter generatedResourceWriter = objectMapper.writerFor(GeneratedResource.class);
+    private static final ObjectWriter generatedResourcesWriter = objectMapper.writerFor(GeneratedResources.class);
+    private static final ObjectWriter friWriter = objectMapper.writerFor(FRI.class);
+    private static final ObjectReader indexFileManifestReader = objectMapper.readerFor(IndexFileManifest.class);
+    private static final ObjectWriter indexFileManifestWriter = objectMapper.writerFor(IndexFileManifest.class);
+
     private JSONUtils() {
     }
 
     public static String getGeneratedResourceString(GeneratedResource generatedResource) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(generatedResource);
+        return generatedResourceWriter.writeValueAsString(generatedResource);
     }
 
     public static GeneratedResource getGeneratedResourceObject(String generatedResourceString) throws JsonProcessingException {
-        return objectMapper.readValue(generatedResourceString, GeneratedResource.class);
+        return generatedResourceReader.readValue(generatedResourceString);
     }
 
     public static String getGeneratedResourcesString(GeneratedResources generatedResources) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(generatedResources);
+        return generatedResourcesWriter.writeValueAsString(generatedResources);
     }
 
     public static GeneratedResources getGeneratedResourcesObject(String generatedResourcesString) throws JsonProcessingException {
-        return objectMapper.readValue(generatedResourcesString, GeneratedResources.class);
+        return generatedResourcesReader.readValue(generatedResourcesString);
     }
 
     public static GeneratedResources getGeneratedResourcesObject(IndexFile indexFile) throws IOException {
-        return indexFile.length() == 0 ? new GeneratedResources() : objectMapper.readValue(indexFile, GeneratedResources.class);
+        IndexFileReadEvent event = new IndexFileReadEvent();
+        event.begin();
+        GeneratedResources toReturn = indexFile.length() == 0 ? new GeneratedResources() : generatedResourcesReader.readValue(indexFile);
+        event.end();
+        if (event.shouldCommit()) {
+            event.indexFile = indexFile.getPath();
+            event.entries = toReturn.size();
+            event.commit();
+        }
+        return toReturn;
+    }
+
+    /**
+     * Read the <code>GeneratedResources</code> from the given <code>InputStream</code>, e.g. an <code>IndexFile</code>
+     * packaged inside a jar. The stream is not closed.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    public static GeneratedResources getGeneratedResourcesObject(InputStream inputStream) throws IOException {
+        IndexFileReadEvent event = new IndexFileReadEvent();
+        event.begin();
+        byte[] content = inputStream.readAllBytes();
+        GeneratedResources toReturn = content.length == 0 ? new GeneratedResources() : generatedResourcesReader.readValue(content);
+        event.end();
+        if (event.shouldCommit()) {
+            event.entries = toReturn.size();
+            event.commit();
+        }
+        return toReturn;
+    }
+
+    /**
+     * Search the given <code>IndexFile</code> for the first <code>GeneratedResource</code> of the given type that
+     * satisfies the given filter. The file is parsed token by token, one <code>GeneratedResource</code> at a time,
+     * and the parsing stops as soon as a match is found
+     *
+     * @param indexFile
+     * @param resourceType
+     * @param filter
+     * @param <T>
+     * @return
+     * @throws IOException
+     */
+    public static <T extends GeneratedResource> Optional<T> findGeneratedResource(IndexFile indexFile,
+                                                                                  Class<T> resourceType,
+                                                                                  Predicate<T> filter) throws IOException {
+        if (indexFile.length() == 0) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = new FileInputStream(indexFile)) {
+            return findGeneratedResource(inputStream, indexFile.getPath(), resourceType, filter);
+        }
+    }
+
+    /**
+     * Search the given <code>InputStream</code> for the first <code>GeneratedResource</code> of the given type that
+     * satisfies the given filter. The content is parsed token by token, one <code>GeneratedResource</code> at a time,
+     * and the parsing stops as soon as a match is found. The stream is not closed.
+     *
+     * @param inputStream
+     * @param resourceType
+     * @param filter
+     * @param <T>
+     * @return
+     * @throws IOException
+     */
+    public static <T extends GeneratedResource> Optional<T> findGeneratedResource(InputStream inputStream,
+                                                                                  Class<T> resourceType,
+                                                                                  Predicate<T> filter) throws IOException {
+        return findGeneratedResource(inputStream, null, resourceType, filter);
     }
 
     public static void writeGeneratedResourcesObject(GeneratedResources toWrite, IndexFile indexFile) throws IOException {
-        objectMapper.writeValue(indexFile, toWrite);
+        IndexFileWriteEvent event = new IndexFileWriteEvent();
+        event.begin();
+        generatedResourcesWriter.writeValue(indexFile, toWrite);
+        IndexFileVersion.increment();
+        event.end();
+        if (event.shouldCommit()) {
+            event.indexFile = indexFile.getPath();
+            event.entries = toWrite.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Read the <code>IndexFileManifest</code> from the given <code>InputStream</code>. The stream is not closed.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    public static IndexFileManifest getIndexFileManifestObject(InputStream inputStream) throws IOException {
+        return indexFileManifestReader.readValue(inputStream.readAllBytes());
+    }
+
+    public static IndexFileManifest getIndexFileManifestObject(File manifestFile) throws IOException {
+        return indexFileManifestReader.readValue(manifestFile);
+    }
+
+    public static void writeIndexFileManifestObject(IndexFileManifest toWrite, File manifestFile) throws IOException {
+        indexFileManifestWriter.writeValue(manifestFile, toWrite);
     }
 
     public static String getFRIString(FRI fri) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(fri);
+        return friWriter.writeValueAsString(fri);
     }
 
     public static FRI getFRIObject(String friString) throws JsonProcessingException {
-        return objectMapper.readValue(friString, FRI.class);
+        return friReader.readValue(friString);
+    }
+
+    private static <T extends GeneratedResource> Optional<T> findGeneratedResource(InputStream inputStream,
+                                                                                   String indexFileName,
+                                                                                   Class<T> resourceType,
+                                                                                   Predicate<T> filter) throws IOException {
+        IndexFileReadEvent event = new IndexFileReadEvent();
+        event.begin();
+        int entries = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return Optional.empty();
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                GeneratedResource generatedResource = generatedResourceReader.readValue(parser);
+                entries++;
+                if (resourceType.isInstance(generatedResource)) {
+                    T toCheck = resourceType.cast(generatedResource);
+                    if (filter.test(toCheck)) {
+                        return Optional.of(toCheck);
+                    }
+                }
+            }
+            return Optional.empty();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.indexFile = indexFileName;
+                event.entries = entries;
+                event.commit();
+            }
+        }
     }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.io;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_SHARDS_PROPERTY;
+
+class IndexFileShardsTest {
+
+    @AfterEach
+    void cleanUp() {
+        System.clearProperty(INDEXFILE_SHARDS_PROPERTY);
+    }
+
+    @Test
+    void isEnabled() {
+        assertThat(IndexFileShards.isEnabled()).isFalse();
+        System.setProperty(INDEXFILE_SHARDS_PROPERTY, "1");
+        assertThat(IndexFileShards.isEnabled()).isFalse();
+        System.setProperty(INDEXFILE_SHARDS_PROPERTY, "16");
+        assertThat(IndexFileShards.isEnabled()).isTrue();
+        assertThat(IndexFileShards.getShardCount()).isEqualTo(16);
+        System.setProperty(INDEXFILE_SHARDS_PROPERTY, "100000");
+        assertThat(IndexFileShards.getShardCount()).isEqualTo(IndexFileShards.MAX_SHARDS);
+    }
+
+    @Test
+    void getShard() {
+        FRI fri = new FRI("this/is/fri", "foo");
+        assertThat(IndexFileShards.getShard(fri, 16)).isEqualTo(IndexFileShards.getShard(new FRI("this/is/fri", "foo"), 16));
+        assertThat(IndexFileShards.getShard(fri, 0)).isEqualTo("00");
+        assertThat(IndexFileShards.getShard(fri, 1)).isEqualTo("00");
+        Set<String> shards = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String shard = IndexFileShards.getShard(new FRI("this/is/fri_" + i, "foo"), IndexFileShards.MAX_SHARDS);
+            assertThat(shard).hasSize(2);
+            shards.add(shard);
+        }
+        // base paths are spread over the shards
+        assertThat(shards).hasSizeGreaterThan(IndexFileShards.MAX_SHARDS / 2);
+    }
+
+    @Test
+    void getShardIndexFile() {
+        String parentPath = File.separator + "this" + File.separator + "is";
+        IndexFile retrieved = IndexFileShards.getShardIndexFile(parentPath, "foo", "0a");
+        assertThat(retrieved.getName()).isEqualTo("IndexFile.foo_json");
+        assertThat(retrieved.getModel()).isEqualTo("foo");
+        assertThat(retrieved.getParentFile().getName()).isEqualTo("0a");
+        assertThat(IndexFileShards.isShard(retrieved)).isTrue();
+        assertThat(IndexFileShards.getParentPath(retrieved)).isEqualTo(new File(parentPath).getAbsolutePath());
+        assertThat(IndexFileShards.isShard(new IndexFile(parentPath, "foo"))).isFalse();
+        assertThat(IndexFileShards.getManifestFile(parentPath, "foo"))
+                .isEqualTo(new File(retrieved.getParentFile().getParentFile(), IndexFileShards.MANIFEST_FILE));
+        assertThat(IndexFileShards.getManifestResourceName("foo")).isEqualTo("IndexFile.foo_shards/manifest_json");
+        assertThat(IndexFileShards.getShardRelativeName("0a", "foo")).isEqualTo("0a/IndexFile.foo_json");
+    }
+
+    @Test
+    void withShard() {
+        IndexFileManifest manifest = new IndexFileManifest(16, null);
+        IndexFileManifest retrieved = manifest.withShard("0a").withShard("03").withShard("0a");
+        assertThat(manifest.getShards()).isEmpty();
+        assertThat(retrieved.getShardCount()).isEqualTo(16);
+        assertThat(retrieved.getShards()).containsExactly("03", "0a");
+        assertThat(retrieved).isEqualTo(new IndexFileManifest(16, new TreeSet<>(Set.of("03", "0a"))));
+        FRI fri = new FRI("this/is/fri", "foo");
+        assertThat(retrieved.getShard(fri)).isEqualTo(IndexFileShards.getShard(fri, 16));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedClassResource;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryIndexFilesTest {
+
+    private static final String MODEL_TYPE = "memory";
+
+    @AfterEach
+    void cleanUp() {
+        MemoryIndexFiles.clear();
+    }
+
+    @Test
+    void addGeneratedResources() {
+        assertThat(MemoryIndexFiles.getGeneratedResources(MODEL_TYPE)).isNotPresent();
+        GeneratedExecutableResource executableResource = new GeneratedExecutableResource(new FRI("this/is/fri", MODEL_TYPE),
+                                                                                         Collections.singletonList("full.class.Name"));
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(executableResource));
+        GeneratedClassResource classResource = new GeneratedClassResource("full.class.Name");
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(classResource));
+        Optional<GeneratedResources> retrieved = MemoryIndexFiles.getGeneratedResources(MODEL_TYPE);
+        assertThat(retrieved).isPresent();
+        assertThat(retrieved.get()).containsExactlyInAnyOrder(executableResource, classResource);
+        assertThat(MemoryIndexFiles.getGeneratedResources("notexisting")).isNotPresent();
+    }
+
+    @Test
+    void getGeneratedResourcesReturnsCopy() {
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(new GeneratedClassResource("full.class.Name")));
+        MemoryIndexFiles.getGeneratedResources(MODEL_TYPE).ifPresent(GeneratedResources::clear);
+        assertThat(MemoryIndexFiles.getGeneratedResources(MODEL_TYPE)).hasValueSatisfying(generatedResources ->
+                                                                                               assertThat(generatedResources).hasSize(1));
+    }
+
+    @Test
+    void getModelTypes() {
+        assertThat(MemoryIndexFiles.getModelTypes()).isEmpty();
+        long version = IndexFileVersion.current();
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(new GeneratedClassResource("full.class.Name")));
+        assertThat(MemoryIndexFiles.getModelTypes()).containsExactly(MODEL_TYPE);
+        assertThat(IndexFileVersion.current()).isGreaterThan(version);
+    }
+
+    @Test
+    void removeGeneratedResources() {
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(new GeneratedClassResource("full.class.Name")));
+        MemoryIndexFiles.removeGeneratedResources(MODEL_TYPE);
+        assertThat(MemoryIndexFiles.getGeneratedResources(MODEL_TYPE)).isNotPresent();
+    }
+
+    @Test
+    void updateGeneratedResources() {
+        GeneratedClassResource classResource = new GeneratedClassResource("full.class.Name");
+        MemoryIndexFiles.updateGeneratedResources(MODEL_TYPE, generatedResources -> {
+            generatedResources.add(classResource);
+            return generatedResources;
+        });
+        assertThat(MemoryIndexFiles.getGeneratedResources(MODEL_TYPE)).hasValueSatisfying(generatedResources ->
+                                                                                               assertThat(generatedResources).containsExactly(classResource));
+        MemoryIndexFiles.updateGeneratedResources(MODEL_TYPE, generatedResources -> {
+            generatedResources.remove(classResource);
+            return generatedResources;
+        });
+        assertThat(MemoryIndexFiles.getGeneratedResources(MODEL_TYPE)).isNotPresent();
+    }
+}
@@ -17,6 +17,7 @@ package org.kie.efesto.common.api.model;/*
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.kie.efesto.common.api.model.FRI.SLASH;
 
 class FRITest {
@@ -68,4 +69,26 @@ class FRITest {
         retrieved = FRI.generateFri(basePath + SLASH + "notmodel", model);
         assertThat(retrieved).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    void contains() {
+        FRI parent = new FRI("base/Path", model);
+        assertThat(parent.contains(parent)).isTrue();
+        assertThat(parent.contains(new FRI("base/Path/child", model))).isTrue();
+        assertThat(parent.contains(new FRI("base/PathOther", model))).isFalse();
+        assertThat(parent.contains(new FRI("base", model))).isFalse();
+        assertThat(parent.contains(new FRI("base/Path/child", "other"))).isFalse();
+        assertThat(parent.contains(null)).isFalse();
+    }
+
+    @Test
+    void parseFri() {
+        assertThat(FRI.parseFri("/pmml/fileName/modelName")).isEqualTo(new FRI("fileName/modelName", "pmml"));
+        assertThat(FRI.parseFri("foo/model")).isEqualTo(new FRI("model", "foo"));
+        FRI fri = new FRI(basePath, model);
+        assertThat(FRI.parseFri(fri.getFri())).isEqualTo(fri);
+        assertThatThrownBy(() -> FRI.parseFri("/pmml")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FRI.parseFri("/pmml/")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FRI.parseFri("//model")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
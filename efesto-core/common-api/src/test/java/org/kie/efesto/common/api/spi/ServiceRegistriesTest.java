@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.common.api.spi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.exceptions.KieEfestoCommonException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceRegistriesTest {
+
+    @AfterEach
+    void cleanUp() {
+        ServiceRegistries.clear();
+    }
+
+    @Test
+    void bootstrap() {
+        assertThat(ServiceRegistries.isBootstrapped(TestingService.class)).isFalse();
+        assertThat(ServiceRegistries.getRegistry(TestingService.class)).isEmpty();
+        ServiceRegistries.bootstrap(Arrays.asList(TestingService.class, TestingEmptyService.class), getClass().getClassLoader());
+        ServiceRegistry<TestingService> retrieved = ServiceRegistries.getRegistry(TestingService.class).orElseThrow();
+        assertThat(retrieved.getServiceType()).isEqualTo(TestingService.class);
+        assertThat(retrieved.getServices().stream().map(TestingService::getName).collect(Collectors.toList()))
+                .containsExactly("first", "second");
+        assertThat(retrieved.getServices().stream().map(TestingService::getThreadName).collect(Collectors.toList()))
+                .allSatisfy(threadName -> assertThat(threadName).startsWith("efesto-bootstrap-"));
+        assertThatThrownBy(() -> retrieved.getServices().clear()).isInstanceOf(UnsupportedOperationException.class);
+        // instances are created once
+        ServiceRegistry<TestingService> retrievedAgain = ServiceRegistries.getRegistry(TestingService.class).orElseThrow();
+        assertThat(retrievedAgain.getServices().get(0)).isSameAs(retrieved.getServices().get(0));
+        assertThat(ServiceRegistries.getRegistry(TestingEmptyService.class).orElseThrow().getServices()).isEmpty();
+    }
+
+    @Test
+    void bootstrapFailing() {
+        List<Class<?>> serviceTypes = Arrays.asList(TestingService.class, TestingFailingService.class);
+        assertThatThrownBy(() -> ServiceRegistries.bootstrap(serviceTypes, getClass().getClassLoader()))
+                .isInstanceOf(KieEfestoCommonException.class)
+                .hasMessageContaining(TestingFailingService.class.getName())
+                .hasRootCauseMessage(TestingFailingServiceImpl.FAILURE);
+        // nothing is published
+        assertThat(ServiceRegistries.isBootstrapped(TestingService.class)).isFalse();
+        assertThat(ServiceRegistries.isBootstrapped(TestingFailingService.class)).isFalse();
+    }
+
+    @Test
+    void bootstrapEfestoServiceTypes() {
+        // efesto service types are not available to this module: nothing to bootstrap
+        ServiceRegistries.bootstrap();
+        ServiceRegistries.EFESTO_SERVICE_TYPES.forEach(serviceTypeName -> assertThat(serviceTypeName).startsWith("org.kie."));
+        assertThat(ServiceRegistries.isBootstrapped(TestingService.class)).isFalse();
+        ServiceRegistries.bootstrap(Collections.emptyList(), getClass().getClassLoader());
+        assertThat(ServiceRegistries.isBootstrapped(TestingService.class)).isFalse();
+    }
+
+    public interface TestingService {
+
+        String getName();
+
+        String getThreadName();
+    }
+
+    public interface TestingEmptyService {
+
+    }
+
+    public interface TestingFailingService {
+
+    }
+
+    public static class TestingServiceFirst implements TestingService {
+
+        private final String threadName = Thread.currentThread().getName();
+
+        @Override
+        public String getName() {
+            return "first";
+        }
+
+        @Override
+        public String getThreadName() {
+            return threadName;
+        }
+    }
+
+    public static class TestingServiceSecond extends TestingServiceFirst {
+
+        @Override
+        public String getName() {
+            return "second";
+        }
+    }
+
+    public static class TestingFailingServiceImpl implements TestingFailingService {
+
+        static final String FAILURE = "Failing on purpose";
+
+        public TestingFailingServiceImpl() {
+            throw new IllegalStateException(FAILURE);
+        }
+    }
+}
@@ -16,13 +16,29 @@
 package org.kie.efesto.common.api.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.io.IndexFileManifest;
+import org.kie.efesto.common.api.jfr.IndexFileReadEvent;
+import org.kie.efesto.common.api.jfr.IndexFileWriteEvent;
 import org.kie.efesto.common.api.model.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -66,6 +82,31 @@ class JSONUtilsTest {
         assertThat(retrieved).isNotNull().isInstanceOf(GeneratedExecutableResource.class);
     }
 
+    @Test
+    void getGeneratedResourceWithMetadata() throws JsonProcessingException {
+        FRI fri = new FRI("this/is/fri", "foo");
+        ModelMetadata metadata = new ModelMetadata("fri", List.of("input1", "input2"), "target", "regression");
+        GeneratedExecutableResource generatedResource = new GeneratedExecutableResource(fri, Collections.singletonList("full.class.Name"), metadata);
+        String generatedResourceString = JSONUtils.getGeneratedResourceString(generatedResource);
+        assertThat(generatedResourceString).contains("\"metadata\":{");
+        GeneratedResource retrieved = JSONUtils.getGeneratedResourceObject(generatedResourceString);
+        assertThat(retrieved).isInstanceOf(GeneratedExecutableResource.class);
+        assertThat(((GeneratedExecutableResource) retrieved).getMetadata()).isEqualTo(metadata);
+    }
+
+    @Test
+    void getGeneratedResourceWithGeneratedClassNames() throws JsonProcessingException {
+        FRI fri = new FRI("this/is/fri", "foo");
+        List<String> generatedClassNames = List.of("full.class.Name", "full.class.Helper");
+        GeneratedExecutableResource generatedResource = new GeneratedExecutableResource(fri, Collections.singletonList("full.class.Name"),
+                                                                                        null, generatedClassNames);
+        String generatedResourceString = JSONUtils.getGeneratedResourceString(generatedResource);
+        assertThat(generatedResourceString).contains("\"generatedClassNames\":[").doesNotContain("metadata");
+        GeneratedResource retrieved = JSONUtils.getGeneratedResourceObject(generatedResourceString);
+        assertThat(retrieved).isInstanceOf(GeneratedExecutableResource.class);
+        assertThat(((GeneratedExecutableResource) retrieved).getGeneratedClassNames()).isEqualTo(generatedClassNames);
+    }
+
     @Test
     void getGeneratedResourcesString() throws JsonProcessingException {
         String fullClassName = "full.class.Name";
@@ -118,6 +159,110 @@ class JSONUtilsTest {
         }
     }
 
+    @Test
+    void getGeneratedResourcesObjectFromInputStream() throws IOException {
+        String fileName = "IndexFile.test_json";
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName)) {
+            assertThat(inputStream).isNotNull();
+            GeneratedResources retrieved = JSONUtils.getGeneratedResourcesObject(inputStream);
+            assertThat(retrieved).isNotNull();
+            String fullClassName = "full.class.Name";
+            GeneratedResource expected1 = new GeneratedClassResource(fullClassName);
+            String model = "foo";
+            FRI fri = new FRI("this/is/fri", model);
+            GeneratedResource expected2 = new GeneratedExecutableResource(fri, Collections.singletonList(fullClassName));
+            assertThat(retrieved).contains(expected1);
+            assertThat(retrieved).contains(expected2);
+        }
+        GeneratedResources retrieved = JSONUtils.getGeneratedResourcesObject(new ByteArrayInputStream(new byte[0]));
+        assertThat(retrieved).isNotNull().isEmpty();
+    }
+
+    @Test
+    void findGeneratedResourceFromFile() throws Exception {
+        URL resource = Thread.currentThread().getContextClassLoader().getResource("IndexFile.test_json");
+        assertThat(resource).isNotNull();
+        IndexFile indexFile = new IndexFile(new File(resource.toURI()));
+        FRI fri = new FRI("this/is/fri", "foo");
+        Optional<GeneratedExecutableResource> retrieved = JSONUtils.findGeneratedResource(indexFile,
+                GeneratedExecutableResource.class,
+                generatedResource -> generatedResource.getFri().equals(fri));
+        assertThat(retrieved).isPresent();
+        assertThat(retrieved.get().getFullClassNames()).containsExactly("full.class.Name");
+
+        FRI notExisting = new FRI("this/is/not_existing", "foo");
+        assertThat(JSONUtils.findGeneratedResource(indexFile, GeneratedExecutableResource.class,
+                generatedResource -> generatedResource.getFri().equals(notExisting))).isNotPresent();
+        assertThat(JSONUtils.findGeneratedResource(indexFile, GeneratedRedirectResource.class,
+                generatedResource -> generatedResource.getFri().equals(fri))).isNotPresent();
+    }
+
+    @Test
+    void findGeneratedResourceFromInputStream() throws IOException {
+        GeneratedResources generatedResources = new GeneratedResources();
+        for (int i = 0; i < 10; i++) {
+            generatedResources.add(new GeneratedExecutableResource(new FRI("this/is/fri_" + i, "foo"),
+                                                                   Collections.singletonList("full.class.Name" + i)));
+        }
+        byte[] content = JSONUtils.getGeneratedResourcesString(generatedResources).getBytes(StandardCharsets.UTF_8);
+        FRI fri = new FRI("this/is/fri_5", "foo");
+        List<FRI> visited = new ArrayList<>();
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            Optional<GeneratedExecutableResource> retrieved = JSONUtils.findGeneratedResource(inputStream,
+                    GeneratedExecutableResource.class,
+                    generatedResource -> {
+                        visited.add(generatedResource.getFri());
+                        return generatedResource.getFri().equals(fri);
+                    });
+            assertThat(retrieved).isPresent();
+            assertThat(retrieved.get().getFullClassNames()).containsExactly("full.class.Name5");
+        }
+        // parsing stops at the first match
+        assertThat(visited).isNotEmpty().endsWith(fri).doesNotHaveDuplicates();
+        assertThat(JSONUtils.findGeneratedResource(new ByteArrayInputStream(new byte[0]),
+                GeneratedExecutableResource.class, generatedResource -> true)).isNotPresent();
+    }
+
+    @Test
+    void indexFileEvents() throws Exception {
+        Path recordingFile = Files.createTempFile("indexFileEvents", ".jfr");
+        IndexFile indexFile = new IndexFile(Files.createTempFile("IndexFile", ".test_json").toFile());
+        GeneratedResources generatedResources = new GeneratedResources();
+        generatedResources.add(new GeneratedClassResource("full.class.Name"));
+        try (Recording recording = new Recording()) {
+            recording.enable(IndexFileReadEvent.class);
+            recording.enable(IndexFileWriteEvent.class);
+            recording.start();
+            JSONUtils.writeGeneratedResourcesObject(generatedResources, indexFile);
+            JSONUtils.getGeneratedResourcesObject(indexFile);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        List<RecordedEvent> retrieved = RecordingFile.readAllEvents(recordingFile);
+        assertThat(retrieved).extracting(recordedEvent -> recordedEvent.getEventType().getName())
+                .containsExactly("org.kie.efesto.IndexFileWrite", "org.kie.efesto.IndexFileRead");
+        assertThat(retrieved).allSatisfy(recordedEvent -> {
+            assertThat(recordedEvent.getString("indexFile")).isEqualTo(indexFile.getPath());
+            assertThat(recordedEvent.getInt("entries")).isEqualTo(1);
+        });
+        Files.delete(recordingFile);
+        Files.delete(indexFile.toPath());
+    }
+
+    @Test
+    void indexFileManifest() throws IOException {
+        IndexFileManifest manifest = new IndexFileManifest(16, new TreeSet<>(List.of("0a", "03")));
+        File manifestFile = Files.createTempFile("manifest", "_json").toFile();
+        JSONUtils.writeIndexFileManifestObject(manifest, manifestFile);
+        IndexFileManifest retrieved = JSONUtils.getIndexFileManifestObject(manifestFile);
+        assertThat(retrieved).isEqualTo(manifest);
+        assertThat(retrieved.getShards()).containsExactly("03", "0a");
+        try (InputStream inputStream = Files.newInputStream(manifestFile.toPath())) {
+            assertThat(JSONUtils.getIndexFileManifestObject(inputStream)).isEqualTo(manifest);
+        }
+        Files.delete(manifestFile.toPath());
+    }
+
     @Test
     void getFRIString() throws JsonProcessingException {
         String model = "foo";
@@ -16,6 +16,7 @@
 package org.kie.efesto.compilationmanager.api.model;
 
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.ModelMetadata;
 
 import java.util.List;
 
@@ -37,4 +38,14 @@ public interface EfestoCallableOutput extends EfestoCompilationOutput {
      * @return
      */
     List<String> getFullClassNames();
+
+    /**
+     * Returns the description of the model, stored in the <code>IndexFile</code> to list models without loading them.
+     * By default no metadata is provided
+     *
+     * @return
+     */
+    default ModelMetadata getMetadata() {
+        return null;
+    }
 }
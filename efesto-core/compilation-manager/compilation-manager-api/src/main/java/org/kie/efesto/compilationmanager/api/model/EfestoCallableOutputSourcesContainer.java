@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.model;
+
+import org.kie.efesto.common.api.model.FRI;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A <code>EfestoCallableOutputClassesContainer</code> whose compiled classes are populated <b>after</b> creation,
+ * so that the sources of all the engines involved in the same compilation batch could be compiled together
+ */
+public abstract class EfestoCallableOutputSourcesContainer extends EfestoCallableOutputClassesContainer implements EfestoSourcesContainer {
+
+    private final Map<String, String> sourcesMap;
+    private boolean compiled;
+
+    protected EfestoCallableOutputSourcesContainer(FRI fri, String fullClassName, Map<String, String> sourcesMap) {
+        super(fri, fullClassName, new HashMap<>());
+        this.sourcesMap = sourcesMap;
+    }
+
+    protected EfestoCallableOutputSourcesContainer(FRI fri, List<String> fullClassNames, Map<String, String> sourcesMap) {
+        super(fri, fullClassNames, new HashMap<>());
+        this.sourcesMap = sourcesMap;
+    }
+
+    @Override
+    public Map<String, String> getSourcesMap() {
+        return sourcesMap;
+    }
+
+    /**
+     * Store the given <code>compiled bytecode</code>, marking the current instance as <b>compiled</b>
+     *
+     * @param compiledClasses
+     */
+    public void setCompiledClasses(Map<String, byte[]> compiledClasses) {
+        getCompiledClassesMap().putAll(compiledClasses);
+        compiled = true;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+}
@@ -22,7 +22,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
-public final class EfestoFileResource implements EfestoResource<File> {
+public final class EfestoFileResource implements EfestoModelResource<File> {
 
     private final File modelFile;
 
@@ -35,17 +35,25 @@ public final class EfestoFileResource implements EfestoResource<File> {
         return modelFile;
     }
 
+    @Override
     public String getModelType() {
         return FileNameUtils.getSuffix(modelFile.getName());
     }
 
+    @Override
     public InputStream getInputStream() throws IOException {
         return new FileInputStream(modelFile);
     }
 
+    @Override
     public String getSourcePath() {
         return modelFile.getPath();
     }
 
+    @Override
+    public String getFileName() {
+        return modelFile.getName();
+    }
+
 
 }
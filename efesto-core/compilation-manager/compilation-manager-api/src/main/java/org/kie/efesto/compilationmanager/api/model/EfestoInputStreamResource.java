@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.model;
+
+import org.kie.efesto.common.api.utils.FileNameUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * In-memory model source, so that models may be compiled without writing temporary files.
+ * The content is buffered once, so that it may be read by more then one <code>KieCompilerService</code>.
+ * The model type is derived from the <code>sourcePath</code> suffix, exactly as for <code>EfestoFileResource</code>
+ */
+public final class EfestoInputStreamResource implements EfestoModelResource<InputStream> {
+
+    private final byte[] content;
+    private final String sourcePath;
+
+    public EfestoInputStreamResource(InputStream inputStream, String sourcePath) {
+        this(readAllBytes(inputStream), sourcePath);
+    }
+
+    public EfestoInputStreamResource(byte[] content, String sourcePath) {
+        this.content = content;
+        this.sourcePath = sourcePath;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return getInputStream();
+    }
+
+    @Override
+    public String getModelType() {
+        return FileNameUtils.getSuffix(sourcePath);
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    @Override
+    public String getFileName() {
+        return FileNameUtils.getFileName(sourcePath);
+    }
+
+    public byte[] getBytes() {
+        return content.clone();
+    }
+
+    static byte[] readAllBytes(InputStream inputStream) {
+        try (InputStream toRead = inputStream) {
+            return toRead.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A single model source, whatever its origin (e.g. a <code>File</code> or an in-memory content).
+ * <code>KieCompilerService</code>s should rely on this abstraction, instead of the concrete content, to read the model
+ *
+ * @param <T>
+ */
+public interface EfestoModelResource<T> extends EfestoResource<T> {
+
+    String getModelType();
+
+    /**
+     * Returns a <b>new</b> <code>InputStream</code> over the model source; it is up to the caller to close it
+     * @return
+     * @throws IOException
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * The path that identifies the model source (e.g. used to build the <code>FRI</code>)
+     * @return
+     */
+    String getSourcePath();
+
+    /**
+     * The name (i.e. the last segment of the <b>source path</b>) of the model source
+     * @return
+     */
+    String getFileName();
+}
@@ -16,9 +16,13 @@
 package org.kie.efesto.compilationmanager.api.service;
 
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedResources;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 
 public interface CompilationManager {
@@ -33,6 +37,46 @@ public interface CompilationManager {
      */
     List<IndexFile> processResource(EfestoResource toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader);
 
+    /**
+     * Compile the given resources in chunks of (at most) <code>chunkSize</code> elements, so that peak memory depends
+     * on the chunk size and not on the number of resources.
+     * <p>
+     * Resources are pulled from the given <code>Iterator</code> only when their chunk is processed.
+     * Each chunk is compiled as a single batch inside its own <code>MemoryCompilerClassLoader</code>, that writes
+     * the generated classes inside <code>classesDirectory</code> and is discarded afterwards; entries of the
+     * <code>IndexFile</code>s are written once per chunk.
+     * Generated classes could reference classes generated by other chunks only if those are available to
+     * <code>parentClassLoader</code> (e.g. <code>classesDirectory</code> is in its classpath)
+     *
+     * @param toProcess
+     * @param classesDirectory
+     * @param chunkSize
+     * @param parentClassLoader
+     * @return the (distinct) <code>IndexFile</code>s populated
+     */
+    List<IndexFile> processResources(Iterator<? extends EfestoResource> toProcess, Path classesDirectory, int chunkSize, ClassLoader parentClassLoader);
+
+    /**
+     * Remove the given <code>FRI</code>, and the classes referenced only by it, from the <code>IndexFile</code>s
+     * written by the current process (both on the file system and in memory).
+     * <code>IndexFile</code>s packaged inside jars are read-only, and are left untouched.
+     * Generated classes are released together with the <code>ClassLoader</code> they have been loaded into, once it is
+     * no more referenced (see <code>RuntimeManager.unloadModel(FRI)</code>)
+     *
+     * @param fri
+     * @return the removed <code>GeneratedResources</code>
+     */
+    GeneratedResources unloadModel(FRI fri);
+
+    /**
+     * As {@link #unloadModel(FRI)}, for all the <code>FRI</code>s contained by the given one (e.g. all the models of
+     * a given path)
+     *
+     * @param basePath
+     * @return the removed <code>GeneratedResources</code>
+     */
+    GeneratedResources unloadModels(FRI basePath);
+
 //    /**
 //     * Produce a <code>List&lt;EfestoCallableOutput&gt;</code> from the given <code>List&lt;EfestoRedirectOutput&gt;</code>
 //     *
@@ -15,11 +15,13 @@
  */
 package org.kie.efesto.compilationmanager.api.service;
 
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * The compilation-related interface to be implemented by engine-plugin.
@@ -44,4 +46,13 @@ public interface KieCompilerService {
      */
     <T extends EfestoResource, E extends EfestoCompilationOutput> List<E> processResource(T toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader);
 
+    /**
+     * Release what the current engine keeps for the models matching the given filter, once they are unloaded (see
+     * <code>CompilationManager.unloadModel(FRI)</code>). By default nothing is kept
+     *
+     * @param toUnload
+     */
+    default void unloadModels(Predicate<FRI> toUnload) {
+    }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.utils;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Emits the <code>bytecode</code> of trivial generated classes (empty classes, classes that only forward constant
+ * values to their parent constructor, factories that only instantiate other classes) <b>directly</b>, without
+ * generating and compiling their sources.
+ * <p>
+ * The emitted classes are equivalent to the ones <code>javac</code> produces for the corresponding sources (same
+ * modifiers, hierarchy, members and generic signatures), without debug attributes.
+ * Direct emission is enabled per model type listing them, comma-separated, in the
+ * <b>efesto.compilation.bytecode</b> property (<code>*</code> enables it for all the model types)
+ */
+public class BytecodeUtils {
+
+    public static final String BYTECODE_PROPERTY = "efesto.compilation.bytecode";
+
+    static final String ALL_MODEL_TYPES = "*";
+
+    /**
+     * Java 11, i.e. the target of the generated sources
+     */
+    static final int CLASS_VERSION = Opcodes.V11;
+
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    private static final String STATIC_INITIALIZER_NAME = "<clinit>";
+    private static final String NO_ARGS_DESCRIPTOR = "()V";
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String STRING = Type.getInternalName(String.class);
+    private static final String LIST_DESCRIPTOR = Type.getDescriptor(List.class);
+    private static final String AS_LIST_DESCRIPTOR = "([Ljava/lang/Object;)" + LIST_DESCRIPTOR;
+    private static final String UNMODIFIABLE_LIST_DESCRIPTOR = "(" + LIST_DESCRIPTOR + ")" + LIST_DESCRIPTOR;
+
+    private BytecodeUtils() {
+    }
+
+    public static boolean isBytecodeEnabled(String modelType) {
+        String property = System.getProperty(BYTECODE_PROPERTY, "");
+        return Arrays.stream(property.split(","))
+                .map(String::trim)
+                .anyMatch(enabled -> enabled.equals(ALL_MODEL_TYPES) || enabled.equals(modelType));
+    }
+
+    /**
+     * Returns the <code>bytecode</code> of
+     * <pre>
+     * public class <i>fullClassName</i> {
+     * }
+     * </pre>
+     *
+     * @param fullClassName
+     * @return
+     */
+    public static byte[] getEmptyClass(String fullClassName) {
+        ClassWriter classWriter = getClassWriter(fullClassName, OBJECT, null);
+        addDefaultConstructor(classWriter, OBJECT);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Returns the <code>bytecode</code> of
+     * <pre>
+     * public class <i>fullClassName</i> extends <i>superClassName</i> {
+     *     public <i>simpleClassName</i>() {
+     *         super(Arrays.asList(<i>values...</i>));
+     *     }
+     * }
+     * </pre>
+     *
+     * @param fullClassName
+     * @param superClassName the parent class, that must declare a <code>List</code> constructor
+     * @param values
+     * @return
+     */
+    public static byte[] getStringListConstructorClass(String fullClassName, String superClassName, Collection<String> values) {
+        String superName = getInternalName(superClassName);
+        ClassWriter classWriter = getClassWriter(fullClassName, superName, null);
+        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, CONSTRUCTOR_NAME, NO_ARGS_DESCRIPTOR, null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+        pushInt(methodVisitor, values.size());
+        methodVisitor.visitTypeInsn(Opcodes.ANEWARRAY, STRING);
+        int index = 0;
+        for (String value : values) {
+            methodVisitor.visitInsn(Opcodes.DUP);
+            pushInt(methodVisitor, index++);
+            methodVisitor.visitLdcInsn(value);
+            methodVisitor.visitInsn(Opcodes.AASTORE);
+        }
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Arrays.class), "asList", AS_LIST_DESCRIPTOR, false);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, CONSTRUCTOR_NAME, "(" + LIST_DESCRIPTOR + ")V", false);
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Returns the <code>bytecode</code> of
+     * <pre>
+     * public class <i>fullClassName</i> implements <i>interfaceName</i> {
+     *     private static final List&lt;<i>elementClassName</i>&gt; <i>fieldName</i> = Arrays.asList(new <i>instantiatedClassNames...</i>());
+     *
+     *     public List&lt;<i>elementClassName</i>&gt; <i>getterName</i>() {
+     *         return Collections.unmodifiableList(<i>fieldName</i>);
+     *     }
+     * }
+     * </pre>
+     *
+     * @param fullClassName
+     * @param interfaceName the implemented interface, that must declare the getter
+     * @param getterName
+     * @param fieldName
+     * @param elementClassName
+     * @param instantiatedClassNames classes with a public no-args constructor, assignable to <i>elementClassName</i>
+     * @return
+     */
+    public static byte[] getListProviderClass(String fullClassName, String interfaceName, String getterName,
+                                              String fieldName, String elementClassName,
+                                              Collection<String> instantiatedClassNames) {
+        String internalName = getInternalName(fullClassName);
+        String elementName = getInternalName(elementClassName);
+        String listSignature = "Ljava/util/List<L" + elementName + ";>;";
+        ClassWriter classWriter = getClassWriter(fullClassName, OBJECT, new String[]{getInternalName(interfaceName)});
+        FieldVisitor fieldVisitor = classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+                                                           fieldName, LIST_DESCRIPTOR, listSignature, null);
+        fieldVisitor.visitEnd();
+        addDefaultConstructor(classWriter, OBJECT);
+
+        MethodVisitor getter = classWriter.visitMethod(Opcodes.ACC_PUBLIC, getterName, "()" + LIST_DESCRIPTOR, "()" + listSignature, null);
+        getter.visitCode();
+        getter.visitFieldInsn(Opcodes.GETSTATIC, internalName, fieldName, LIST_DESCRIPTOR);
+        getter.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Collections.class), "unmodifiableList", UNMODIFIABLE_LIST_DESCRIPTOR, false);
+        getter.visitInsn(Opcodes.ARETURN);
+        getter.visitMaxs(0, 0);
+        getter.visitEnd();
+
+        MethodVisitor staticInitializer = classWriter.visitMethod(Opcodes.ACC_STATIC, STATIC_INITIALIZER_NAME, NO_ARGS_DESCRIPTOR, null, null);
+        staticInitializer.visitCode();
+        pushInt(staticInitializer, instantiatedClassNames.size());
+        staticInitializer.visitTypeInsn(Opcodes.ANEWARRAY, elementName);
+        int index = 0;
+        for (String instantiatedClassName : instantiatedClassNames) {
+            String instantiatedName = getInternalName(instantiatedClassName);
+            staticInitializer.visitInsn(Opcodes.DUP);
+            pushInt(staticInitializer, index++);
+            staticInitializer.visitTypeInsn(Opcodes.NEW, instantiatedName);
+            staticInitializer.visitInsn(Opcodes.DUP);
+            staticInitializer.visitMethodInsn(Opcodes.INVOKESPECIAL, instantiatedName, CONSTRUCTOR_NAME, NO_ARGS_DESCRIPTOR, false);
+            staticInitializer.visitInsn(Opcodes.AASTORE);
+        }
+        staticInitializer.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Arrays.class), "asList", AS_LIST_DESCRIPTOR, false);
+        staticInitializer.visitFieldInsn(Opcodes.PUTSTATIC, internalName, fieldName, LIST_DESCRIPTOR);
+        staticInitializer.visitInsn(Opcodes.RETURN);
+        staticInitializer.visitMaxs(0, 0);
+        staticInitializer.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    static String getInternalName(String fullClassName) {
+        return fullClassName.replace('.', '/');
+    }
+
+    private static ClassWriter getClassWriter(String fullClassName, String superName, String[] interfaces) {
+        // generated methods have no branches, so stack map frames are not needed
+        ClassWriter toReturn = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        toReturn.visit(CLASS_VERSION, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, getInternalName(fullClassName), null,
+                       superName, interfaces);
+        return toReturn;
+    }
+
+    private static void addDefaultConstructor(ClassWriter classWriter, String superName) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, CONSTRUCTOR_NAME, NO_ARGS_DESCRIPTOR, null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, CONSTRUCTOR_NAME, NO_ARGS_DESCRIPTOR, false);
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor methodVisitor, int value) {
+        if (value >= -1 && value <= 5) {
+            methodVisitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            methodVisitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            methodVisitor.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            methodVisitor.visitLdcInsn(value);
+        }
+    }
+}
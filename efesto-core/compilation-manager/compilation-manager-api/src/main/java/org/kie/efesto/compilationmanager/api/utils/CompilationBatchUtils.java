@@ -0,0 +1,277 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.utils;
+
+import org.kie.efesto.common.api.jfr.JavacEvent;
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
+import org.kie.efesto.compilationmanager.api.utils.SourcesDeduplicationUtils.DeduplicatedSources;
+import org.kie.memorycompiler.JavaConfiguration;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.kie.efesto.compilationmanager.api.utils.SourcesDeduplicationUtils.deduplicate;
+import static org.kie.efesto.compilationmanager.api.utils.SourcesDeduplicationUtils.isDeduplicationEnabled;
+
+/**
+ * Collects the sources generated by all the engines involved in a single <code>CompilationManager</code> invocation
+ * (including nested redirects), so that they are compiled with <b>one</b> javac invocation instead of one per engine.
+ * <p>
+ * The batch is bound to the current thread: outside of an open batch, sources are compiled immediately.
+ */
+public class CompilationBatchUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationBatchUtils.class.getName());
+
+    private static final ThreadLocal<CompilationBatch> CURRENT_BATCH = new ThreadLocal<>();
+
+    private CompilationBatchUtils() {
+    }
+
+    public static boolean isBatchOpen() {
+        return CURRENT_BATCH.get() != null;
+    }
+
+    /**
+     * Open a new compilation batch bound to the current thread
+     *
+     * @throws KieCompilerServiceException if a batch is already open
+     */
+    public static void openBatch() {
+        if (isBatchOpen()) {
+            throw new KieCompilerServiceException("Compilation batch already open");
+        }
+        CURRENT_BATCH.set(new CompilationBatch());
+    }
+
+    /**
+     * Compile all the sources collected by the current batch, distribute the bytecode to their outputs and
+     * execute the registered post-compilation tasks. The batch is closed in any case.
+     *
+     * @param memoryCompilerClassLoader
+     * @throws KieCompilerServiceException if there is not an open batch
+     */
+    public static void closeBatch(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        CompilationBatch batch = CURRENT_BATCH.get();
+        if (batch == null) {
+            throw new KieCompilerServiceException("No compilation batch open");
+        }
+        try {
+            flush(batch, memoryCompilerClassLoader);
+        } finally {
+            CURRENT_BATCH.remove();
+        }
+    }
+
+    /**
+     * Compile the sources collected so far by the current batch, if any, and execute the registered
+     * post-compilation tasks, keeping the batch open (e.g. before handing back the result of a nested invocation)
+     *
+     * @param memoryCompilerClassLoader
+     */
+    public static void flushBatch(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        CompilationBatch batch = CURRENT_BATCH.get();
+        if (batch != null) {
+            flush(batch, memoryCompilerClassLoader);
+        }
+    }
+
+    /**
+     * Close the current batch, if any, without compiling its content
+     */
+    public static void discardBatch() {
+        CURRENT_BATCH.remove();
+    }
+
+    /**
+     * Enqueue the given output in the current batch, if open; otherwise compile it immediately
+     *
+     * @param toCompile
+     * @param memoryCompilerClassLoader
+     * @param <T>
+     * @return
+     */
+    public static <T extends EfestoCallableOutputSourcesContainer> T compileOrDefer(T toCompile, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        CompilationBatch batch = CURRENT_BATCH.get();
+        if (batch != null) {
+            batch.pendingOutputs.add(toCompile);
+        } else {
+            compileClasses(List.of(toCompile), memoryCompilerClassLoader);
+        }
+        return toCompile;
+    }
+
+    /**
+     * Enqueue the given outputs in the current batch, if open; otherwise compile them immediately, together
+     *
+     * @param toCompile
+     * @param memoryCompilerClassLoader
+     * @param <T>
+     * @return
+     */
+    public static <T extends EfestoCallableOutputSourcesContainer> List<T> compileOrDefer(List<T> toCompile, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        CompilationBatch batch = CURRENT_BATCH.get();
+        if (batch != null) {
+            batch.pendingOutputs.addAll(toCompile);
+        } else if (!toCompile.isEmpty()) {
+            compileClasses(new ArrayList<>(toCompile), memoryCompilerClassLoader);
+        }
+        return toCompile;
+    }
+
+    /**
+     * Register a task to execute once the current batch has been compiled; without an open batch, the task is
+     * executed immediately
+     *
+     * @param task
+     */
+    public static void addPostCompilationTask(Runnable task) {
+        CompilationBatch batch = CURRENT_BATCH.get();
+        if (batch != null) {
+            batch.postCompilationTasks.add(task);
+        } else {
+            task.run();
+        }
+    }
+
+    private static void flush(CompilationBatch batch, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        List<EfestoCallableOutputSourcesContainer> pendingOutputs = new ArrayList<>(batch.pendingOutputs);
+        List<Runnable> postCompilationTasks = new ArrayList<>(batch.postCompilationTasks);
+        batch.pendingOutputs.clear();
+        batch.postCompilationTasks.clear();
+        compileClasses(pendingOutputs, memoryCompilerClassLoader);
+        postCompilationTasks.forEach(Runnable::run);
+    }
+
+    static void compileClasses(List<EfestoCallableOutputSourcesContainer> toCompile, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        for (Map<String, String> partition : getPartitions(toCompile)) {
+            List<EfestoCallableOutputSourcesContainer> partitionOutputs = toCompile.stream()
+                    .filter(output -> !output.isCompiled() && partition.entrySet().containsAll(output.getSourcesMap().entrySet()))
+                    .collect(Collectors.toList());
+            DeduplicatedSources deduplicatedSources = getDeduplicatedSources(partition, partitionOutputs);
+            Map<String, String> toCompileSources = deduplicatedSources.getSourcesMap();
+            logger.debug("Compiling {} sources in a single batch", toCompileSources.size());
+            JavacEvent event = new JavacEvent();
+            event.begin();
+            Map<String, byte[]> compiledClasses = KieMemoryCompiler.compileNoLoad(toCompileSources, memoryCompilerClassLoader, JavaConfiguration.CompilerType.NATIVE);
+            event.end();
+            if (event.shouldCommit()) {
+                event.sources = toCompileSources.size();
+                event.classes = compiledClasses.size();
+                event.commit();
+            }
+            partitionOutputs.forEach(output -> output.setCompiledClasses(getCompiledClasses(getCanonicalClassNames(output.getSourcesMap().keySet(), deduplicatedSources), compiledClasses)));
+        }
+    }
+
+    static DeduplicatedSources getDeduplicatedSources(Map<String, String> partition, List<EfestoCallableOutputSourcesContainer> partitionOutputs) {
+        if (!isDeduplicationEnabled()) {
+            return new DeduplicatedSources(partition, Collections.emptyMap());
+        }
+        Set<String> protectedClassNames = partitionOutputs.stream()
+                .flatMap(output -> getProtectedClassNames(output).stream())
+                .collect(Collectors.toSet());
+        return deduplicate(partition, protectedClassNames);
+    }
+
+    /**
+     * Returns the classes of the given output that must never be replaced, i.e. the ones referenced by the
+     * <code>IndexFile</code>s and, if the output already contains directly emitted <code>bytecode</code> (see
+     * <code>BytecodeUtils</code>), all its sources, since references inside that bytecode could not be rewritten
+     *
+     * @param output
+     * @return
+     */
+    static Set<String> getProtectedClassNames(EfestoCallableOutputSourcesContainer output) {
+        Set<String> toReturn = new HashSet<>();
+        if (output.getFullClassNames() != null) {
+            toReturn.addAll(output.getFullClassNames());
+        }
+        if (!output.getCompiledClassesMap().isEmpty()) {
+            toReturn.addAll(output.getSourcesMap().keySet());
+        }
+        return toReturn;
+    }
+
+    static Set<String> getCanonicalClassNames(Set<String> fullClassNames, DeduplicatedSources deduplicatedSources) {
+        return fullClassNames.stream()
+                .map(deduplicatedSources::getCanonicalClassName)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Merge the sources of the given outputs in as few maps as possible. A new partition is created only when the
+     * same class name is generated with different source code by different outputs
+     *
+     * @param toCompile
+     * @return
+     */
+    static List<Map<String, String>> getPartitions(List<EfestoCallableOutputSourcesContainer> toCompile) {
+        List<Map<String, String>> toReturn = new ArrayList<>();
+        for (EfestoCallableOutputSourcesContainer output : toCompile) {
+            Map<String, String> partition = toReturn.stream()
+                    .filter(candidate -> isCompatible(candidate, output.getSourcesMap()))
+                    .findFirst()
+                    .orElseGet(() -> {
+                        Map<String, String> toAdd = new HashMap<>();
+                        toReturn.add(toAdd);
+                        return toAdd;
+                    });
+            partition.putAll(output.getSourcesMap());
+        }
+        return toReturn;
+    }
+
+    static boolean isCompatible(Map<String, String> partition, Map<String, String> sourcesMap) {
+        return sourcesMap.entrySet().stream()
+                .allMatch(entry -> !partition.containsKey(entry.getKey()) || partition.get(entry.getKey()).equals(entry.getValue()));
+    }
+
+    /**
+     * Returns the <code>compiled bytecode</code> of the given (top level) classes, including nested/inner classes
+     *
+     * @param topLevelClassNames
+     * @param compiledClasses
+     * @return
+     */
+    static Map<String, byte[]> getCompiledClasses(Set<String> topLevelClassNames, Map<String, byte[]> compiledClasses) {
+        Map<String, byte[]> toReturn = new HashMap<>();
+        compiledClasses.forEach((fullClassName, bytecode) -> {
+            int innerClassIndex = fullClassName.indexOf('$');
+            String topLevelClassName = innerClassIndex > -1 ? fullClassName.substring(0, innerClassIndex) : fullClassName;
+            if (topLevelClassNames.contains(topLevelClassName)) {
+                toReturn.put(fullClassName, bytecode);
+            }
+        });
+        return toReturn;
+    }
+
+    private static class CompilationBatch {
+
+        private final List<EfestoCallableOutputSourcesContainer> pendingOutputs = new ArrayList<>();
+        private final List<Runnable> postCompilationTasks = new ArrayList<>();
+    }
+}
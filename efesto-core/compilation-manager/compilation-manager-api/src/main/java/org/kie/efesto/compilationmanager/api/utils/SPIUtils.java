@@ -15,6 +15,9 @@
  */
 package org.kie.efesto.compilationmanager.api.utils;
 
+import org.kie.efesto.common.api.jfr.SPILookupEvent;
+import org.kie.efesto.common.api.spi.ServiceRegistries;
+import org.kie.efesto.common.api.spi.ServiceRegistry;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.CompilationManager;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
@@ -35,8 +38,18 @@ public class SPIUtils {
 
     public static Optional<KieCompilerService> getKieCompilerService(EfestoResource resource, boolean refresh) {
         logger.debug("getKieCompilerService {} {}", resource, refresh);
+        SPILookupEvent event = new SPILookupEvent();
+        event.begin();
         List<KieCompilerService> retrieved = getKieCompilerServices(refresh);
-        return retrieved.stream().filter(service -> service.canManageResource(resource)).findFirst();
+        Optional<KieCompilerService> toReturn = retrieved.stream().filter(service -> service.canManageResource(resource)).findFirst();
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = KieCompilerService.class.getName();
+            event.target = resource.getClass().getName();
+            event.found = toReturn.isPresent();
+            event.commit();
+        }
+        return toReturn;
     }
 
     public static List<KieCompilerService> getKieCompilerServices(boolean refresh) {
@@ -60,6 +73,11 @@ public class SPIUtils {
     }
 
     private static Iterator<KieCompilerService> getServices(boolean refresh) {
+        Optional<ServiceRegistry<KieCompilerService>> registry = ServiceRegistries.getRegistry(KieCompilerService.class);
+        if (registry.isPresent()) {
+            // bootstrapped: instances are shared and never reloaded
+            return registry.get().getServices().iterator();
+        }
         if (refresh) {
             kieCompilerServiceLoader.reload();
         }
@@ -67,6 +85,11 @@ public class SPIUtils {
     }
 
     private static Iterator<CompilationManager> getManagers(boolean refresh) {
+        Optional<ServiceRegistry<CompilationManager>> registry = ServiceRegistries.getRegistry(CompilationManager.class);
+        if (registry.isPresent()) {
+            // bootstrapped: instances are shared and never reloaded
+            return registry.get().getServices().iterator();
+        }
         if (refresh) {
             compilationManagerLoader.reload();
         }
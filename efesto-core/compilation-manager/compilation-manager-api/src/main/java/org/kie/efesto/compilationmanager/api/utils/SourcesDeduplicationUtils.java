@@ -0,0 +1,263 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Detects generated classes that are <b>structurally identical</b>, i.e. whose sources differ only by their own
+ * name, so that only one of them (the <b>canonical</b> one) is compiled and loaded.
+ * References to the removed classes (the <b>aliases</b>) are rewritten to the canonical class, both as identifiers
+ * and as string literals that exactly match the full class name (e.g. class names registered for reflective loading);
+ * since this could make other classes identical, the process is repeated until no more aliases are found.
+ * <p>
+ * Only classes of the same package are deduplicated, and the <b>protected</b> classes (i.e. the ones directly
+ * referenced by the <code>IndexFile</code>s) are never removed.
+ * Deduplication could be disabled setting the <b>efesto.compilation.deduplication</b> property to <code>false</code>
+ */
+public class SourcesDeduplicationUtils {
+
+    public static final String DEDUPLICATION_PROPERTY = "efesto.compilation.deduplication";
+
+    private static final Logger logger = LoggerFactory.getLogger(SourcesDeduplicationUtils.class.getName());
+
+    private static final String SELF_PLACEHOLDER = "#SELF#";
+
+    private SourcesDeduplicationUtils() {
+    }
+
+    public static boolean isDeduplicationEnabled() {
+        return Boolean.parseBoolean(System.getProperty(DEDUPLICATION_PROPERTY, "true"));
+    }
+
+    /**
+     * Returns the sources to actually compile, together with the <code>alias -> canonical</code> class names
+     *
+     * @param sourcesMap full class name -> source
+     * @param protectedClassNames
+     * @return
+     */
+    public static DeduplicatedSources deduplicate(Map<String, String> sourcesMap, Set<String> protectedClassNames) {
+        Map<String, String> sources = new TreeMap<>(sourcesMap);
+        Map<String, String> aliases = new HashMap<>();
+        boolean found = true;
+        while (found) {
+            Map<String, String> newAliases = getAliases(sources, protectedClassNames);
+            newAliases.keySet().forEach(sources::remove);
+            aliases.replaceAll((alias, canonical) -> newAliases.getOrDefault(canonical, canonical));
+            aliases.putAll(newAliases);
+            sources.replaceAll((fullClassName, source) -> replaceReferences(fullClassName, source, newAliases));
+            found = !newAliases.isEmpty();
+        }
+        if (!aliases.isEmpty()) {
+            logger.debug("Deduplicated {} of {} generated classes", aliases.size(), sourcesMap.size());
+        }
+        return new DeduplicatedSources(sources, aliases);
+    }
+
+    /**
+     * Returns the <code>alias -> canonical</code> class names of structurally identical sources
+     *
+     * @param sources
+     * @param protectedClassNames
+     * @return
+     */
+    static Map<String, String> getAliases(Map<String, String> sources, Set<String> protectedClassNames) {
+        Map<String, List<String>> byStructure = new LinkedHashMap<>();
+        sources.forEach((fullClassName, source) -> byStructure
+                .computeIfAbsent(getStructuralKey(fullClassName, source), key -> new ArrayList<>())
+                .add(fullClassName));
+        Map<String, String> toReturn = new HashMap<>();
+        for (List<String> identicals : byStructure.values()) {
+            if (identicals.size() < 2) {
+                continue;
+            }
+            String canonical = identicals.stream()
+                    .filter(protectedClassNames::contains)
+                    .findFirst()
+                    .orElse(identicals.get(0));
+            identicals.stream()
+                    .filter(fullClassName -> !fullClassName.equals(canonical) && !protectedClassNames.contains(fullClassName))
+                    .forEach(alias -> toReturn.put(alias, canonical));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns the given source with its own name (both as identifier and as full class name literal) replaced by a
+     * placeholder and without comments; the package declaration is left untouched, so that only classes of the same
+     * package match
+     *
+     * @param fullClassName
+     * @param source
+     * @return
+     */
+    static String getStructuralKey(String fullClassName, String source) {
+        return rewrite(source,
+                       Collections.singletonMap(getSimpleName(fullClassName), SELF_PLACEHOLDER),
+                       Collections.singletonMap(fullClassName, SELF_PLACEHOLDER),
+                       true);
+    }
+
+    /**
+     * Rewrite the references to the given aliases inside the given source. Aliases are replaced by simple name only
+     * inside the same package or when their full class name is mentioned (e.g. imported)
+     *
+     * @param fullClassName
+     * @param source
+     * @param aliases
+     * @return
+     */
+    static String replaceReferences(String fullClassName, String source, Map<String, String> aliases) {
+        String packageName = getPackageName(fullClassName);
+        Map<String, String> identifiers = new HashMap<>();
+        Map<String, String> literals = new HashMap<>();
+        aliases.forEach((alias, canonical) -> {
+            if (!source.contains(getSimpleName(alias))) {
+                return;
+            }
+            literals.put(alias, canonical);
+            if (packageName.equals(getPackageName(alias)) || source.contains(alias)) {
+                identifiers.put(getSimpleName(alias), getSimpleName(canonical));
+            }
+        });
+        return literals.isEmpty() ? source : rewrite(source, identifiers, literals, false);
+    }
+
+    /**
+     * Replace identifiers and (whole) string literals of the given source, leaving char literals untouched.
+     * Comments are either removed or copied as they are
+     *
+     * @param source
+     * @param identifiers
+     * @param literals
+     * @param stripComments
+     * @return
+     */
+    static String rewrite(String source, Map<String, String> identifiers, Map<String, String> literals, boolean stripComments) {
+        StringBuilder toReturn = new StringBuilder(source.length());
+        int length = source.length();
+        int index = 0;
+        while (index < length) {
+            char current = source.charAt(index);
+            char next = index + 1 < length ? source.charAt(index + 1) : 0;
+            int end;
+            if (current == '/' && next == '/') {
+                end = source.indexOf('\n', index);
+                end = end < 0 ? length : end;
+                if (!stripComments) {
+                    toReturn.append(source, index, end);
+                }
+            } else if (current == '/' && next == '*') {
+                end = source.indexOf("*/", index + 2);
+                end = end < 0 ? length : end + 2;
+                if (!stripComments) {
+                    toReturn.append(source, index, end);
+                }
+            } else if (current == '"' || current == '\'') {
+                end = getLiteralEnd(source, index, current);
+                String content = source.substring(index + 1, end - 1);
+                String replacement = current == '"' ? literals.get(content) : null;
+                toReturn.append(current).append(replacement != null ? replacement : content).append(current);
+            } else if (Character.isJavaIdentifierStart(current)) {
+                end = index + 1;
+                while (end < length && Character.isJavaIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                String identifier = source.substring(index, end);
+                toReturn.append(identifiers.getOrDefault(identifier, identifier));
+            } else if (Character.isDigit(current)) {
+                end = index + 1;
+                while (end < length && Character.isJavaIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                toReturn.append(source, index, end);
+            } else {
+                end = index + 1;
+                toReturn.append(current);
+            }
+            index = end;
+        }
+        return toReturn.toString();
+    }
+
+    static int getLiteralEnd(String source, int start, char delimiter) {
+        int index = start + 1;
+        while (index < source.length()) {
+            char current = source.charAt(index);
+            if (current == '\\') {
+                index += 2;
+            } else if (current == delimiter) {
+                return index + 1;
+            } else {
+                index++;
+            }
+        }
+        return source.length();
+    }
+
+    static String getSimpleName(String fullClassName) {
+        return fullClassName.substring(fullClassName.lastIndexOf('.') + 1);
+    }
+
+    static String getPackageName(String fullClassName) {
+        int index = fullClassName.lastIndexOf('.');
+        return index > -1 ? fullClassName.substring(0, index) : "";
+    }
+
+    public static class DeduplicatedSources {
+
+        private final Map<String, String> sourcesMap;
+        private final Map<String, String> aliases;
+
+        DeduplicatedSources(Map<String, String> sourcesMap, Map<String, String> aliases) {
+            this.sourcesMap = sourcesMap;
+            this.aliases = aliases;
+        }
+
+        /**
+         * The sources to compile, with references to the aliases replaced by their canonical class
+         *
+         * @return
+         */
+        public Map<String, String> getSourcesMap() {
+            return sourcesMap;
+        }
+
+        /**
+         * <code>alias -> canonical</code> full class names
+         *
+         * @return
+         */
+        public Map<String, String> getAliases() {
+            return aliases;
+        }
+
+        public String getCanonicalClassName(String fullClassName) {
+            return aliases.getOrDefault(fullClassName, fullClassName);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.compilationmanager.api.mocks.MockElement;
+import org.kie.efesto.compilationmanager.api.mocks.MockElementsProvider;
+import org.kie.efesto.compilationmanager.api.mocks.MockStringListHolder;
+import org.kie.efesto.compilationmanager.api.mocks.MockSubElement;
+import org.kie.memorycompiler.JavaConfiguration;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BytecodeUtilsTest {
+
+    private static final String PACKAGE_NAME = "org.kie.test";
+
+    @AfterEach
+    void cleanUp() {
+        System.clearProperty(BytecodeUtils.BYTECODE_PROPERTY);
+    }
+
+    @Test
+    void isBytecodeEnabled() {
+        assertThat(BytecodeUtils.isBytecodeEnabled("foo")).isFalse();
+        System.setProperty(BytecodeUtils.BYTECODE_PROPERTY, "bar, foo");
+        assertThat(BytecodeUtils.isBytecodeEnabled("foo")).isTrue();
+        assertThat(BytecodeUtils.isBytecodeEnabled("bar")).isTrue();
+        assertThat(BytecodeUtils.isBytecodeEnabled("pmml")).isFalse();
+        System.setProperty(BytecodeUtils.BYTECODE_PROPERTY, BytecodeUtils.ALL_MODEL_TYPES);
+        assertThat(BytecodeUtils.isBytecodeEnabled("pmml")).isTrue();
+    }
+
+    @Test
+    void getEmptyClass() throws Exception {
+        String fullClassName = PACKAGE_NAME + ".EmptyClass";
+        String source = "package org.kie.test;\n" +
+                "public class EmptyClass {\n" +
+                "}";
+        Class<?> expected = compile(fullClassName, source);
+        Class<?> retrieved = load(fullClassName, BytecodeUtils.getEmptyClass(fullClassName));
+        assertEquivalent(expected, retrieved);
+        assertThat(retrieved.getConstructor().newInstance()).isNotNull();
+    }
+
+    @Test
+    void getStringListConstructorClass() throws Exception {
+        String fullClassName = PACKAGE_NAME + ".StringListClass";
+        List<String> values = Stream.iterate(0, i -> i + 1)
+                .limit(200)
+                .map(i -> "value" + i)
+                .collect(Collectors.toList());
+        String source = "package org.kie.test;\n" +
+                "import java.util.Arrays;\n" +
+                "public class StringListClass extends " + MockStringListHolder.class.getCanonicalName() + " {\n" +
+                "    public StringListClass() {\n" +
+                "        super(Arrays.asList(" + values.stream().map(value -> "\"" + value + "\"").collect(Collectors.joining(", ")) + "));\n" +
+                "    }\n" +
+                "}";
+        Class<?> expected = compile(fullClassName, source);
+        Class<?> retrieved = load(fullClassName, BytecodeUtils.getStringListConstructorClass(fullClassName, MockStringListHolder.class.getName(), values));
+        assertEquivalent(expected, retrieved);
+        MockStringListHolder expectedInstance = (MockStringListHolder) expected.getConstructor().newInstance();
+        MockStringListHolder retrievedInstance = (MockStringListHolder) retrieved.getConstructor().newInstance();
+        assertThat(retrievedInstance.getValues()).isEqualTo(expectedInstance.getValues()).isEqualTo(values);
+    }
+
+    @Test
+    void getStringListConstructorClassEmpty() throws Exception {
+        String fullClassName = PACKAGE_NAME + ".EmptyStringListClass";
+        Class<?> retrieved = load(fullClassName, BytecodeUtils.getStringListConstructorClass(fullClassName, MockStringListHolder.class.getName(), Collections.emptyList()));
+        assertThat(((MockStringListHolder) retrieved.getConstructor().newInstance()).getValues()).isEmpty();
+    }
+
+    @Test
+    void getListProviderClass() throws Exception {
+        String fullClassName = PACKAGE_NAME + ".ListProviderClass";
+        List<String> instantiatedClassNames = Arrays.asList(MockElement.class.getName(), MockSubElement.class.getName());
+        String source = "package org.kie.test;\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.Collections;\n" +
+                "import java.util.List;\n" +
+                "public class ListProviderClass implements " + MockElementsProvider.class.getCanonicalName() + " {\n" +
+                "    private static final List<" + MockElement.class.getCanonicalName() + "> ELEMENTS = Arrays.asList(new " +
+                MockElement.class.getCanonicalName() + "(), new " + MockSubElement.class.getCanonicalName() + "());\n" +
+                "    @Override\n" +
+                "    public List<" + MockElement.class.getCanonicalName() + "> getElements() {\n" +
+                "        return Collections.unmodifiableList(ELEMENTS);\n" +
+                "    }\n" +
+                "}";
+        Class<?> expected = compile(fullClassName, source);
+        Class<?> retrieved = load(fullClassName, BytecodeUtils.getListProviderClass(fullClassName,
+                                                                                     MockElementsProvider.class.getName(),
+                                                                                     "getElements",
+                                                                                     "ELEMENTS",
+                                                                                     MockElement.class.getName(),
+                                                                                     instantiatedClassNames));
+        assertEquivalent(expected, retrieved);
+        List<MockElement> expectedElements = ((MockElementsProvider) expected.getConstructor().newInstance()).getElements();
+        List<MockElement> retrievedElements = ((MockElementsProvider) retrieved.getConstructor().newInstance()).getElements();
+        assertThat(retrievedElements.stream().map(element -> element.getClass().getName()))
+                .containsExactlyElementsOf(expectedElements.stream().map(element -> element.getClass().getName()).collect(Collectors.toList()))
+                .containsExactlyElementsOf(instantiatedClassNames);
+    }
+
+    private static Class<?> compile(String fullClassName, String source) throws ClassNotFoundException {
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(BytecodeUtilsTest.class.getClassLoader());
+        Map<String, byte[]> compiledClasses = KieMemoryCompiler.compileNoLoad(Collections.singletonMap(fullClassName, source), classLoader, JavaConfiguration.CompilerType.NATIVE);
+        compiledClasses.forEach(classLoader::addCode);
+        return classLoader.loadClass(fullClassName);
+    }
+
+    private static Class<?> load(String fullClassName, byte[] bytecode) throws ClassNotFoundException {
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(BytecodeUtilsTest.class.getClassLoader());
+        classLoader.addCode(fullClassName, bytecode);
+        return classLoader.loadClass(fullClassName);
+    }
+
+    private static void assertEquivalent(Class<?> expected, Class<?> retrieved) {
+        assertThat(retrieved.getName()).isEqualTo(expected.getName());
+        assertThat(retrieved.getModifiers()).isEqualTo(expected.getModifiers());
+        assertThat(retrieved.getGenericSuperclass()).isEqualTo(expected.getGenericSuperclass());
+        assertThat(retrieved.getGenericInterfaces()).containsExactly(expected.getGenericInterfaces());
+        assertThat(getFields(retrieved)).isEqualTo(getFields(expected));
+        assertThat(getConstructors(retrieved)).isEqualTo(getConstructors(expected));
+        assertThat(getMethods(retrieved)).isEqualTo(getMethods(expected));
+    }
+
+    private static Set<String> getFields(Class<?> clazz) {
+        return Arrays.stream(clazz.getDeclaredFields())
+                .map(Field::toGenericString)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> getConstructors(Class<?> clazz) {
+        return Arrays.stream(clazz.getDeclaredConstructors())
+                .map(Constructor::toGenericString)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> getMethods(Class<?> clazz) {
+        return Arrays.stream(clazz.getDeclaredMethods())
+                .map(Method::toGenericString)
+                .collect(Collectors.toSet());
+    }
+}
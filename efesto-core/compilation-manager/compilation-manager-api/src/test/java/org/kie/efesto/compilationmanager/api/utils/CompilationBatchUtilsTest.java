@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.efesto.compilationmanager.api.mocks.MockEfestoCallableOutputSources;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompilationBatchUtilsTest {
+
+    private static final String SOURCE_TEMPLATE = "package org.kie.batch;\n" +
+            "public class %1$s {\n" +
+            "    public String getValue() {\n" +
+            "        return \"%2$s\";\n" +
+            "    }\n" +
+            "    public static class Inner {\n" +
+            "    }\n" +
+            "}";
+
+    private final KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader =
+            new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+
+    @AfterEach
+    void tearDown() {
+        CompilationBatchUtils.discardBatch();
+    }
+
+    @Test
+    void compileOrDeferOutsideBatch() {
+        MockEfestoCallableOutputSources toCompile = getOutput("ModelA", "a");
+        assertThat(CompilationBatchUtils.isBatchOpen()).isFalse();
+        assertThat(CompilationBatchUtils.compileOrDefer(toCompile, memoryCompilerClassLoader)).isSameAs(toCompile);
+        assertThat(toCompile.isCompiled()).isTrue();
+        assertThat(toCompile.getCompiledClassesMap()).containsOnlyKeys("org.kie.batch.ModelA", "org.kie.batch.ModelA$Inner");
+    }
+
+    @Test
+    void compileOrDeferListOutsideBatch() {
+        // outputs sharing the same sources, e.g. the factories of a PMML file
+        Map<String, String> sourcesMap = getSourcesMap("ModelA", "a");
+        List<MockEfestoCallableOutputSources> toCompile = Arrays.asList(new MockEfestoCallableOutputSources(new FRI("batch/first", "mock"), "org.kie.batch.ModelA", sourcesMap),
+                                                                        new MockEfestoCallableOutputSources(new FRI("batch/second", "mock"), "org.kie.batch.ModelA", sourcesMap));
+        assertThat(CompilationBatchUtils.compileOrDefer(toCompile, memoryCompilerClassLoader)).isSameAs(toCompile);
+        assertThat(toCompile).allMatch(EfestoCallableOutputSourcesContainer::isCompiled);
+        // compiled together: the bytecode is shared
+        assertThat(toCompile.get(0).getCompiledClassesMap().get("org.kie.batch.ModelA"))
+                .isSameAs(toCompile.get(1).getCompiledClassesMap().get("org.kie.batch.ModelA"));
+    }
+
+    @Test
+    void compileOrDeferInsideBatch() {
+        MockEfestoCallableOutputSources first = getOutput("ModelA", "a");
+        MockEfestoCallableOutputSources second = getOutput("ModelB", "b");
+        CompilationBatchUtils.openBatch();
+        assertThat(CompilationBatchUtils.isBatchOpen()).isTrue();
+        CompilationBatchUtils.compileOrDefer(first, memoryCompilerClassLoader);
+        CompilationBatchUtils.compileOrDefer(Collections.singletonList(second), memoryCompilerClassLoader);
+        assertThat(first.isCompiled()).isFalse();
+        assertThat(second.isCompiled()).isFalse();
+        CompilationBatchUtils.closeBatch(memoryCompilerClassLoader);
+        assertThat(CompilationBatchUtils.isBatchOpen()).isFalse();
+        assertThat(first.getCompiledClassesMap()).containsOnlyKeys("org.kie.batch.ModelA", "org.kie.batch.ModelA$Inner");
+        assertThat(second.getCompiledClassesMap()).containsOnlyKeys("org.kie.batch.ModelB", "org.kie.batch.ModelB$Inner");
+    }
+
+    @Test
+    void openBatchAlreadyOpen() {
+        CompilationBatchUtils.openBatch();
+        assertThatThrownBy(CompilationBatchUtils::openBatch).isInstanceOf(KieCompilerServiceException.class);
+    }
+
+    @Test
+    void closeBatchNotOpen() {
+        assertThatThrownBy(() -> CompilationBatchUtils.closeBatch(memoryCompilerClassLoader)).isInstanceOf(KieCompilerServiceException.class);
+    }
+
+    @Test
+    void discardBatch() {
+        MockEfestoCallableOutputSources deferred = getOutput("ModelA", "a");
+        List<String> executed = new ArrayList<>();
+        CompilationBatchUtils.openBatch();
+        try {
+            CompilationBatchUtils.compileOrDefer(deferred, memoryCompilerClassLoader);
+            CompilationBatchUtils.addPostCompilationTask(() -> executed.add("task"));
+            throw new IllegalStateException("processing failed");
+        } catch (IllegalStateException e) {
+            CompilationBatchUtils.discardBatch();
+        }
+        assertThat(CompilationBatchUtils.isBatchOpen()).isFalse();
+        assertThat(deferred.isCompiled()).isFalse();
+        assertThat(executed).isEmpty();
+        // nothing is left to the following batch
+        CompilationBatchUtils.openBatch();
+        CompilationBatchUtils.closeBatch(memoryCompilerClassLoader);
+        assertThat(deferred.isCompiled()).isFalse();
+        assertThat(executed).isEmpty();
+    }
+
+    @Test
+    void closeBatchFailing() {
+        CompilationBatchUtils.openBatch();
+        CompilationBatchUtils.addPostCompilationTask(() -> {
+            throw new IllegalStateException("task failed");
+        });
+        assertThatThrownBy(() -> CompilationBatchUtils.closeBatch(memoryCompilerClassLoader)).isInstanceOf(IllegalStateException.class);
+        // the batch is closed anyway
+        assertThat(CompilationBatchUtils.isBatchOpen()).isFalse();
+    }
+
+    @Test
+    void addPostCompilationTask() {
+        MockEfestoCallableOutputSources deferred = getOutput("ModelA", "a");
+        List<String> executed = new ArrayList<>();
+        CompilationBatchUtils.openBatch();
+        CompilationBatchUtils.addPostCompilationTask(() -> executed.add("first " + deferred.isCompiled()));
+        CompilationBatchUtils.compileOrDefer(deferred, memoryCompilerClassLoader);
+        CompilationBatchUtils.addPostCompilationTask(() -> executed.add("second " + deferred.isCompiled()));
+        assertThat(executed).isEmpty();
+        CompilationBatchUtils.closeBatch(memoryCompilerClassLoader);
+        // executed in registration order, after the compilation of the whole batch
+        assertThat(executed).containsExactly("first true", "second true");
+        // without an open batch tasks are executed immediately
+        CompilationBatchUtils.addPostCompilationTask(() -> executed.add("third"));
+        assertThat(executed).containsExactly("first true", "second true", "third");
+    }
+
+    @Test
+    void flushBatch() {
+        MockEfestoCallableOutputSources first = getOutput("ModelA", "a");
+        MockEfestoCallableOutputSources second = getOutput("ModelB", "b");
+        List<String> executed = new ArrayList<>();
+        // without an open batch nothing is done
+        CompilationBatchUtils.flushBatch(memoryCompilerClassLoader);
+        CompilationBatchUtils.openBatch();
+        CompilationBatchUtils.compileOrDefer(first, memoryCompilerClassLoader);
+        CompilationBatchUtils.addPostCompilationTask(() -> executed.add("first"));
+        CompilationBatchUtils.flushBatch(memoryCompilerClassLoader);
+        assertThat(CompilationBatchUtils.isBatchOpen()).isTrue();
+        assertThat(first.isCompiled()).isTrue();
+        assertThat(executed).containsExactly("first");
+        CompilationBatchUtils.compileOrDefer(second, memoryCompilerClassLoader);
+        CompilationBatchUtils.addPostCompilationTask(() -> executed.add("second"));
+        CompilationBatchUtils.closeBatch(memoryCompilerClassLoader);
+        assertThat(second.isCompiled()).isTrue();
+        // flushed tasks are not executed again
+        assertThat(executed).containsExactly("first", "second");
+    }
+
+    @Test
+    void compileClassesConflicting() {
+        // same class name, different sources: compiled in different partitions
+        MockEfestoCallableOutputSources first = getOutput("ModelA", "a");
+        MockEfestoCallableOutputSources second = getOutput("ModelA", "b");
+        CompilationBatchUtils.compileClasses(Arrays.asList(first, second), memoryCompilerClassLoader);
+        assertThat(first.isCompiled()).isTrue();
+        assertThat(second.isCompiled()).isTrue();
+        assertThat(first.getCompiledClassesMap().get("org.kie.batch.ModelA"))
+                .isNotEqualTo(second.getCompiledClassesMap().get("org.kie.batch.ModelA"));
+    }
+
+    @Test
+    void getPartitions() {
+        EfestoCallableOutputSourcesContainer first = getOutput("ModelA", "a");
+        EfestoCallableOutputSourcesContainer sameSources = getOutput("ModelA", "a");
+        EfestoCallableOutputSourcesContainer otherClass = getOutput("ModelB", "b");
+        EfestoCallableOutputSourcesContainer conflicting = getOutput("ModelA", "c");
+        List<Map<String, String>> retrieved = CompilationBatchUtils.getPartitions(Arrays.asList(first, sameSources, otherClass, conflicting));
+        assertThat(retrieved).hasSize(2);
+        assertThat(retrieved.get(0)).containsOnlyKeys("org.kie.batch.ModelA", "org.kie.batch.ModelB");
+        assertThat(retrieved.get(0).get("org.kie.batch.ModelA")).isEqualTo(first.getSourcesMap().get("org.kie.batch.ModelA"));
+        assertThat(retrieved.get(1)).isEqualTo(conflicting.getSourcesMap());
+        assertThat(CompilationBatchUtils.getPartitions(Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    void isCompatible() {
+        Map<String, String> partition = new HashMap<>(getSourcesMap("ModelA", "a"));
+        assertThat(CompilationBatchUtils.isCompatible(partition, getSourcesMap("ModelA", "a"))).isTrue();
+        assertThat(CompilationBatchUtils.isCompatible(partition, getSourcesMap("ModelB", "b"))).isTrue();
+        assertThat(CompilationBatchUtils.isCompatible(partition, getSourcesMap("ModelA", "b"))).isFalse();
+    }
+
+    @Test
+    void getCompiledClasses() {
+        Map<String, byte[]> compiledClasses = new HashMap<>();
+        compiledClasses.put("org.kie.batch.ModelA", new byte[1]);
+        compiledClasses.put("org.kie.batch.ModelA$Inner", new byte[1]);
+        compiledClasses.put("org.kie.batch.ModelB", new byte[1]);
+        assertThat(CompilationBatchUtils.getCompiledClasses(Collections.singleton("org.kie.batch.ModelA"), compiledClasses))
+                .containsOnlyKeys("org.kie.batch.ModelA", "org.kie.batch.ModelA$Inner");
+    }
+
+    private static MockEfestoCallableOutputSources getOutput(String simpleClassName, String value) {
+        return new MockEfestoCallableOutputSources(new FRI("batch/" + simpleClassName + "/" + value, "mock"),
+                                                   "org.kie.batch." + simpleClassName,
+                                                   getSourcesMap(simpleClassName, value));
+    }
+
+    private static Map<String, String> getSourcesMap(String simpleClassName, String value) {
+        return Collections.singletonMap("org.kie.batch." + simpleClassName, String.format(SOURCE_TEMPLATE, simpleClassName, value));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.api.utils;
+
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.compilationmanager.api.utils.SourcesDeduplicationUtils.DeduplicatedSources;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourcesDeduplicationUtilsTest {
+
+    private static final String TARGET_TEMPLATE = "package org.kie.test;\n" +
+            "public class %1$s {\n" +
+            "    public %1$s() {\n" +
+            "    }\n" +
+            "    public double getValue() {\n" +
+            "        return 3.5;\n" +
+            "    }\n" +
+            "}";
+
+    private static final String MODEL_TEMPLATE = "package org.kie.test;\n" +
+            "public class %1$s {\n" +
+            "    // model %1$s\n" +
+            "    private final %2$s target = new %2$s();\n" +
+            "    public String getName() {\n" +
+            "        return \"%3$s\";\n" +
+            "    }\n" +
+            "}";
+
+    private static final String RESOURCES_TEMPLATE = "package org.kie.resources;\n" +
+            "public class %1$s {\n" +
+            "    public String getModelClass() {\n" +
+            "        return \"org.kie.test.%2$s\";\n" +
+            "    }\n" +
+            "}";
+
+    @Test
+    void deduplicate() {
+        Map<String, String> sourcesMap = new HashMap<>();
+        sourcesMap.put("org.kie.test.TargetA", String.format(TARGET_TEMPLATE, "TargetA"));
+        sourcesMap.put("org.kie.test.TargetB", String.format(TARGET_TEMPLATE, "TargetB"));
+        sourcesMap.put("org.kie.test.ModelA", String.format(MODEL_TEMPLATE, "ModelA", "TargetA", "model"));
+        sourcesMap.put("org.kie.test.ModelB", String.format(MODEL_TEMPLATE, "ModelB", "TargetB", "model"));
+        sourcesMap.put("org.kie.resources.ResourcesA", String.format(RESOURCES_TEMPLATE, "ResourcesA", "ModelA"));
+        sourcesMap.put("org.kie.resources.ResourcesB", String.format(RESOURCES_TEMPLATE, "ResourcesB", "ModelB"));
+        Set<String> protectedClassNames = Set.of("org.kie.resources.ResourcesA", "org.kie.resources.ResourcesB");
+        DeduplicatedSources retrieved = SourcesDeduplicationUtils.deduplicate(sourcesMap, protectedClassNames);
+        // ModelB becomes identical to ModelA only after TargetB has been replaced
+        assertThat(retrieved.getAliases()).containsOnly(Map.entry("org.kie.test.TargetB", "org.kie.test.TargetA"),
+                                                        Map.entry("org.kie.test.ModelB", "org.kie.test.ModelA"));
+        assertThat(retrieved.getSourcesMap()).containsOnlyKeys("org.kie.test.TargetA", "org.kie.test.ModelA",
+                                                               "org.kie.resources.ResourcesA", "org.kie.resources.ResourcesB");
+        assertThat(retrieved.getSourcesMap().get("org.kie.resources.ResourcesB")).contains("\"org.kie.test.ModelA\"")
+                .doesNotContain("ModelB\"");
+        assertThat(retrieved.getCanonicalClassName("org.kie.test.ModelB")).isEqualTo("org.kie.test.ModelA");
+        assertThat(retrieved.getCanonicalClassName("org.kie.test.ModelA")).isEqualTo("org.kie.test.ModelA");
+    }
+
+    @Test
+    void deduplicateDifferentLiterals() {
+        Map<String, String> sourcesMap = new HashMap<>();
+        sourcesMap.put("org.kie.test.ModelA", String.format(MODEL_TEMPLATE, "ModelA", "Target", "ModelA"));
+        sourcesMap.put("org.kie.test.ModelB", String.format(MODEL_TEMPLATE, "ModelB", "Target", "ModelB"));
+        DeduplicatedSources retrieved = SourcesDeduplicationUtils.deduplicate(sourcesMap, Collections.emptySet());
+        assertThat(retrieved.getAliases()).isEmpty();
+        assertThat(retrieved.getSourcesMap()).isEqualTo(sourcesMap);
+    }
+
+    @Test
+    void deduplicateDifferentPackages() {
+        Map<String, String> sourcesMap = new HashMap<>();
+        sourcesMap.put("org.kie.test.TargetA", String.format(TARGET_TEMPLATE, "TargetA"));
+        sourcesMap.put("org.kie.other.TargetB", String.format(TARGET_TEMPLATE, "TargetB").replace("org.kie.test", "org.kie.other"));
+        DeduplicatedSources retrieved = SourcesDeduplicationUtils.deduplicate(sourcesMap, Collections.emptySet());
+        assertThat(retrieved.getAliases()).isEmpty();
+    }
+
+    @Test
+    void deduplicateProtected() {
+        Map<String, String> sourcesMap = new HashMap<>();
+        sourcesMap.put("org.kie.test.TargetA", String.format(TARGET_TEMPLATE, "TargetA"));
+        sourcesMap.put("org.kie.test.TargetB", String.format(TARGET_TEMPLATE, "TargetB"));
+        sourcesMap.put("org.kie.test.TargetC", String.format(TARGET_TEMPLATE, "TargetC"));
+        DeduplicatedSources retrieved = SourcesDeduplicationUtils.deduplicate(sourcesMap, Set.of("org.kie.test.TargetB", "org.kie.test.TargetC"));
+        assertThat(retrieved.getAliases()).containsOnly(Map.entry("org.kie.test.TargetA", "org.kie.test.TargetB"));
+    }
+
+    @Test
+    void rewrite() {
+        String source = "class A { String a = \"A\"; String b = \"x.A\"; char c = '\\''; // A\n /* A */ A next; A1 other; }";
+        String retrieved = SourcesDeduplicationUtils.rewrite(source, Collections.singletonMap("A", "B"), Collections.singletonMap("x.A", "x.B"), false);
+        assertThat(retrieved).isEqualTo("class B { String a = \"A\"; String b = \"x.B\"; char c = '\\''; // A\n /* A */ B next; A1 other; }");
+        retrieved = SourcesDeduplicationUtils.rewrite(source, Collections.singletonMap("A", "B"), Collections.emptyMap(), true);
+        assertThat(retrieved).isEqualTo("class B { String a = \"A\"; String b = \"x.A\"; char c = '\\''; \n  B next; A1 other; }");
+    }
+}
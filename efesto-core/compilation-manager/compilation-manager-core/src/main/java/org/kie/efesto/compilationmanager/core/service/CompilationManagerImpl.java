@@ -16,27 +16,115 @@
 package org.kie.efesto.compilationmanager.core.service;
 
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.CompilationManager;
+import org.kie.efesto.compilationmanager.core.utils.FlushingClassLoader;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.closeBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.discardBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.flushBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.isBatchOpen;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.openBatch;
+import static org.kie.efesto.compilationmanager.api.utils.SPIUtils.getKieCompilerServices;
+import static org.kie.efesto.compilationmanager.core.utils.CompilationManagerUtils.deferIndexFiles;
+import static org.kie.efesto.compilationmanager.core.utils.CompilationManagerUtils.discardIndexFiles;
+import static org.kie.efesto.compilationmanager.core.utils.CompilationManagerUtils.flushIndexFiles;
 import static org.kie.efesto.compilationmanager.core.utils.CompilationManagerUtils.populateIndexFilesWithProcessedResource;
+import static org.kie.efesto.compilationmanager.core.utils.CompilationManagerUtils.removeFromIndexFiles;
 
 public class CompilationManagerImpl implements CompilationManager {
     private static final Logger logger = LoggerFactory.getLogger(CompilationManagerImpl.class.getName());
 
+    /**
+     * Sources generated by all the engines involved are compiled together once the whole resource has been processed.
+     * Invocations nested inside another one (e.g. engines that directly invoke the <code>CompilationManager</code>
+     * for their redirects) join the enclosing batch, and flush it before returning, so that the returned
+     * <code>IndexFile</code>s are populated and their classes loaded.
+     */
     @Override
     public List<IndexFile> processResource(EfestoResource toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         final List<IndexFile> toReturn = new ArrayList<>();
-        populateIndexFilesWithProcessedResource(toReturn, toProcess, memoryCompilerClassLoader);
+        if (isBatchOpen()) {
+            populateIndexFilesWithProcessedResource(toReturn, toProcess, memoryCompilerClassLoader);
+            flushBatch(memoryCompilerClassLoader);
+            return toReturn;
+        }
+        openBatch();
+        try {
+            populateIndexFilesWithProcessedResource(toReturn, toProcess, memoryCompilerClassLoader);
+        } catch (RuntimeException e) {
+            discardBatch();
+            throw e;
+        }
+        closeBatch(memoryCompilerClassLoader);
         return toReturn;
     }
 
+    @Override
+    public List<IndexFile> processResources(Iterator<? extends EfestoResource> toProcess, Path classesDirectory, int chunkSize, ClassLoader parentClassLoader) {
+        if (chunkSize < 1) {
+            throw new KieCompilerServiceException("Chunk size must be positive, not " + chunkSize);
+        }
+        if (isBatchOpen()) {
+            throw new KieCompilerServiceException("Chunked compilation can not join an enclosing compilation batch");
+        }
+        final Set<IndexFile> toReturn = new LinkedHashSet<>();
+        int processedResources = 0;
+        int flushedClasses = 0;
+        while (toProcess.hasNext()) {
+            // nothing created for a chunk is referenced once it has been flushed
+            FlushingClassLoader chunkClassLoader = new FlushingClassLoader(parentClassLoader, classesDirectory);
+            List<IndexFile> chunkIndexFiles = new ArrayList<>();
+            openBatch();
+            deferIndexFiles();
+            try {
+                for (int i = 0; i < chunkSize && toProcess.hasNext(); i++) {
+                    populateIndexFilesWithProcessedResource(chunkIndexFiles, toProcess.next(), chunkClassLoader);
+                    processedResources++;
+                }
+                closeBatch(chunkClassLoader);
+            } catch (RuntimeException e) {
+                discardBatch();
+                discardIndexFiles();
+                throw e;
+            }
+            flushIndexFiles();
+            toReturn.addAll(chunkIndexFiles);
+            flushedClasses += chunkClassLoader.getFlushedClasses();
+            logger.debug("Compiled {} resources, {} classes written to {}", processedResources, flushedClasses, classesDirectory);
+        }
+        return new ArrayList<>(toReturn);
+    }
+
+    @Override
+    public GeneratedResources unloadModel(FRI fri) {
+        return unload(fri.getModel(), fri::equals);
+    }
+
+    @Override
+    public GeneratedResources unloadModels(FRI basePath) {
+        return unload(basePath.getModel(), basePath::contains);
+    }
+
+    private GeneratedResources unload(String modelType, Predicate<FRI> toUnload) {
+        getKieCompilerServices(false).forEach(kieCompilerService -> kieCompilerService.unloadModels(toUnload));
+        return removeFromIndexFiles(modelType, toUnload);
+    }
+
 
 //    @Override
 //    public List<IndexFile>  processResources(List<EfestoRedirectOutput> toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
@@ -17,6 +17,11 @@ package org.kie.efesto.compilationmanager.core.utils;
 
 import org.kie.efesto.common.api.exceptions.KieEfestoCommonException;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.io.IndexFileManifest;
+import org.kie.efesto.common.api.io.IndexFileShards;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.jfr.ClassLoadingEvent;
+import org.kie.efesto.common.api.jfr.CodegenEvent;
 import org.kie.efesto.common.api.model.*;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.*;
@@ -28,21 +33,31 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
 import static org.kie.efesto.common.api.utils.FileUtils.getFileFromFileName;
 import static org.kie.efesto.common.api.utils.JSONUtils.getGeneratedResourcesObject;
+import static org.kie.efesto.common.api.utils.JSONUtils.getIndexFileManifestObject;
 import static org.kie.efesto.common.api.utils.JSONUtils.writeGeneratedResourcesObject;
+import static org.kie.efesto.common.api.utils.JSONUtils.writeIndexFileManifestObject;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.addPostCompilationTask;
 import static org.kie.efesto.compilationmanager.api.utils.SPIUtils.getKieCompilerService;
 
 public class CompilationManagerUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(CompilationManagerUtils.class.getName());
     private static final String DEFAULT_INDEXFILE_DIRECTORY = "./target/classes";
+    private static final ThreadLocal<Map<IndexFile, GeneratedResources>> PENDING_INDEX_ENTRIES = new ThreadLocal<>();
 
     private CompilationManagerUtils() {
     }
@@ -53,15 +68,17 @@ public class CompilationManagerUtils {
             logger.warn("Cannot find KieCompilerService for {}", toProcess.getClass());
             return;
         }
-        Optional<List<EfestoCompilationOutput>> darCompilationOutputOptional = retrieved.map(service -> service.processResource(toProcess, memoryCompilerClassLoader));
+        Optional<List<EfestoCompilationOutput>> darCompilationOutputOptional = retrieved.map(service -> processResource(service, toProcess, memoryCompilerClassLoader));
         darCompilationOutputOptional.ifPresent(darCompilationOutputs -> {
             Optional<IndexFile> indexFileOptional = getIndexFileFromCompilationOutputs(darCompilationOutputs);
             indexFileOptional.ifPresent(indexFile -> {
                 toPopulate.add(indexFile);
                 darCompilationOutputs.forEach(darCompilationOutput -> {
-                    populateIndexFile(indexFile, darCompilationOutput);
-                    if (darCompilationOutput instanceof EfestoCallableOutputClassesContainer) {
-                        loadClasses(((EfestoCallableOutputClassesContainer) darCompilationOutput).getCompiledClassesMap(), memoryCompilerClassLoader);
+                    if (darCompilationOutput instanceof EfestoCallableOutputSourcesContainer && !((EfestoCallableOutputSourcesContainer) darCompilationOutput).isCompiled()) {
+                        // bytecode will be available only after the batch compilation
+                        addPostCompilationTask(() -> populateIndexFileAndLoadClasses(indexFile, darCompilationOutput, memoryCompilerClassLoader));
+                    } else {
+                        populateIndexFileAndLoadClasses(indexFile, darCompilationOutput, memoryCompilerClassLoader);
                     }
                     if (darCompilationOutput instanceof EfestoRedirectOutput) {
                         populateIndexFilesWithProcessedResource(toPopulate, (EfestoRedirectOutput) darCompilationOutput, memoryCompilerClassLoader);
@@ -71,6 +88,31 @@ public class CompilationManagerUtils {
         });
     }
 
+    static List<EfestoCompilationOutput> processResource(KieCompilerService service, EfestoResource toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        CodegenEvent event = new CodegenEvent();
+        event.begin();
+        List<EfestoCompilationOutput> toReturn = service.processResource(toProcess, memoryCompilerClassLoader);
+        event.end();
+        if (event.shouldCommit()) {
+            event.resourceType = toProcess.getClass().getName();
+            event.compilerService = service.getClass().getName();
+            event.models = toReturn.stream()
+                    .filter(EfestoCallableOutput.class::isInstance)
+                    .map(output -> ((EfestoCallableOutput) output).getFri().getFri())
+                    .collect(Collectors.joining(","));
+            event.outputs = toReturn.size();
+            event.commit();
+        }
+        return toReturn;
+    }
+
+    static void populateIndexFileAndLoadClasses(IndexFile indexFile, EfestoCompilationOutput compilationOutput, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        populateIndexFile(indexFile, compilationOutput);
+        if (compilationOutput instanceof EfestoCallableOutputClassesContainer) {
+            loadClasses(((EfestoCallableOutputClassesContainer) compilationOutput).getCompiledClassesMap(), memoryCompilerClassLoader);
+        }
+    }
+
     static Optional<IndexFile> getIndexFileFromCompilationOutputs(List<EfestoCompilationOutput> compilationOutputs) {
         return compilationOutputs.stream()
                 .filter(EfestoCallableOutput.class::isInstance)
@@ -80,7 +122,14 @@ public class CompilationManagerUtils {
     }
 
     static IndexFile getIndexFile(EfestoCallableOutput compilationOutput) {
+        if (MemoryIndexFiles.isEnabled()) {
+            // only used as reference to the in-memory index: nothing is created on the file system
+            return new IndexFile(compilationOutput.getFri().getModel());
+        }
         String parentPath = System.getProperty(INDEXFILE_DIRECTORY_PROPERTY, DEFAULT_INDEXFILE_DIRECTORY);
+        if (IndexFileShards.isEnabled()) {
+            return getShardIndexFile(parentPath, compilationOutput.getFri());
+        }
         IndexFile toReturn = new IndexFile(parentPath, compilationOutput.getFri().getModel());
         File existingFile;
         try {
@@ -94,6 +143,37 @@ public class CompilationManagerUtils {
         return toReturn;
     }
 
+    /**
+     * Returns the shard (see <code>IndexFileShards</code>) of the given <code>FRI</code> inside the given directory,
+     * creating it, and adding it to the manifest, if needed.
+     * The shard count of an existing manifest always wins over the <b>indexfile.shards</b> property, so that
+     * already written shards stay valid
+     *
+     * @param parentPath
+     * @param fri
+     * @return
+     */
+    static synchronized IndexFile getShardIndexFile(String parentPath, FRI fri) {
+        File manifestFile = IndexFileShards.getManifestFile(parentPath, fri.getModel());
+        try {
+            IndexFileManifest manifest = manifestFile.exists() ? getIndexFileManifestObject(manifestFile) :
+                    new IndexFileManifest(IndexFileShards.getShardCount(), null);
+            String shard = manifest.getShard(fri);
+            IndexFile toReturn = IndexFileShards.getShardIndexFile(parentPath, fri.getModel(), shard);
+            if (!toReturn.exists()) {
+                logger.debug("IndexFile shard {} does not exists, creating it...", toReturn.getPath());
+                toReturn.getParentFile().mkdirs();
+                createIndexFile(toReturn);
+            }
+            if (!manifest.getShards().contains(shard)) {
+                writeIndexFileManifestObject(manifest.withShard(shard), manifestFile);
+            }
+            return toReturn;
+        } catch (IOException e) {
+            throw new KieCompilerServiceException("Failed to update " + manifestFile.getPath(), e);
+        }
+    }
+
     static void createIndexFile(IndexFile toCreate) {
         try {
             logger.debug("Writing file {}", toCreate.getPath());
@@ -106,7 +186,29 @@ public class CompilationManagerUtils {
         }
     }
 
-    static void populateIndexFile(IndexFile toPopulate, EfestoCompilationOutput compilationOutput) {
+    /**
+     * Add the <code>GeneratedResource</code>s of the given output to the given <code>IndexFile</code> (or to its
+     * in-memory counterpart, see <code>MemoryIndexFiles</code>)
+     *
+     * @param toPopulate
+     * @param compilationOutput
+     */
+    public static void populateIndexFile(IndexFile toPopulate, EfestoCompilationOutput compilationOutput) {
+        if (MemoryIndexFiles.isEnabled()) {
+            GeneratedResources generatedResources = new GeneratedResources();
+            populateGeneratedResources(generatedResources, compilationOutput);
+            MemoryIndexFiles.addGeneratedResources(toPopulate.getModel(), generatedResources);
+            return;
+        }
+        if (IndexFileShards.isShard(toPopulate) && compilationOutput instanceof EfestoCallableOutput) {
+            // each output goes to the shard of its own FRI, that may differ from the one of the first output
+            toPopulate = getShardIndexFile(IndexFileShards.getParentPath(toPopulate), ((EfestoCallableOutput) compilationOutput).getFri());
+        }
+        Map<IndexFile, GeneratedResources> pendingIndexEntries = PENDING_INDEX_ENTRIES.get();
+        if (pendingIndexEntries != null) {
+            populateGeneratedResources(pendingIndexEntries.computeIfAbsent(toPopulate, indexFile -> new GeneratedResources()), compilationOutput);
+            return;
+        }
         try {
             GeneratedResources generatedResources = getGeneratedResourcesObject(toPopulate);
             populateGeneratedResources(generatedResources, compilationOutput);
@@ -116,6 +218,149 @@ public class CompilationManagerUtils {
         }
     }
 
+    /**
+     * Keep the entries added to the file system <code>IndexFile</code>s by the current thread in memory, until
+     * {@link #flushIndexFiles()} is invoked, so that each <code>IndexFile</code> is read and written only once
+     */
+    public static void deferIndexFiles() {
+        PENDING_INDEX_ENTRIES.set(new LinkedHashMap<>());
+    }
+
+    /**
+     * Write the entries kept since {@link #deferIndexFiles()} to their <code>IndexFile</code>s
+     */
+    public static void flushIndexFiles() {
+        Map<IndexFile, GeneratedResources> pendingIndexEntries = PENDING_INDEX_ENTRIES.get();
+        PENDING_INDEX_ENTRIES.remove();
+        if (pendingIndexEntries == null) {
+            return;
+        }
+        for (Map.Entry<IndexFile, GeneratedResources> entry : pendingIndexEntries.entrySet()) {
+            try {
+                GeneratedResources generatedResources = getGeneratedResourcesObject(entry.getKey());
+                generatedResources.addAll(entry.getValue());
+                writeGeneratedResourcesObject(generatedResources, entry.getKey());
+            } catch (IOException e) {
+                throw new KieCompilerServiceException(e);
+            }
+        }
+    }
+
+    /**
+     * Drop the entries kept since {@link #deferIndexFiles()}, without writing them
+     */
+    public static void discardIndexFiles() {
+        PENDING_INDEX_ENTRIES.remove();
+    }
+
+    /**
+     * Remove the <code>GeneratedResource</code>s matching the given filter from both the in-memory and the file system
+     * <code>IndexFile</code> of the given model type
+     *
+     * @param modelType
+     * @param toRemove
+     * @return the removed <code>GeneratedResources</code>
+     */
+    public static GeneratedResources removeFromIndexFiles(String modelType, Predicate<FRI> toRemove) {
+        GeneratedResources toReturn = new GeneratedResources();
+        MemoryIndexFiles.updateGeneratedResources(modelType, generatedResources -> {
+            toReturn.addAll(removeGeneratedResources(generatedResources, toRemove));
+            return generatedResources;
+        });
+        if (!MemoryIndexFiles.isEnabled()) {
+            getExistingIndexFile(modelType).ifPresent(indexFile -> toReturn.addAll(removeFromIndexFile(indexFile, toRemove)));
+            getExistingShardIndexFiles(modelType).forEach(indexFile -> toReturn.addAll(removeFromIndexFile(indexFile, toRemove)));
+        }
+        logger.debug("Removed {} GeneratedResources from {} IndexFiles", toReturn.size(), modelType);
+        return toReturn;
+    }
+
+    static Optional<IndexFile> getExistingIndexFile(String modelType) {
+        String parentPath = System.getProperty(INDEXFILE_DIRECTORY_PROPERTY, DEFAULT_INDEXFILE_DIRECTORY);
+        try {
+            return Optional.of(new IndexFile(getFileFromFileName(new IndexFile(parentPath, modelType).getName())));
+        } catch (KieEfestoCommonException e) {
+            return Optional.empty();
+        }
+    }
+
+    static List<IndexFile> getExistingShardIndexFiles(String modelType) {
+        String parentPath = System.getProperty(INDEXFILE_DIRECTORY_PROPERTY, DEFAULT_INDEXFILE_DIRECTORY);
+        File manifestFile = IndexFileShards.getManifestFile(parentPath, modelType);
+        if (!manifestFile.exists()) {
+            return Collections.emptyList();
+        }
+        try {
+            return getIndexFileManifestObject(manifestFile).getShards().stream()
+                    .map(shard -> IndexFileShards.getShardIndexFile(parentPath, modelType, shard))
+                    .filter(File::exists)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new KieCompilerServiceException("Failed to read " + manifestFile.getPath(), e);
+        }
+    }
+
+    static GeneratedResources removeFromIndexFile(IndexFile toUpdate, Predicate<FRI> toRemove) {
+        try {
+            GeneratedResources generatedResources = getGeneratedResourcesObject(toUpdate);
+            GeneratedResources toReturn = removeGeneratedResources(generatedResources, toRemove);
+            if (!toReturn.isEmpty()) {
+                writeGeneratedResourcesObject(generatedResources, toUpdate);
+            }
+            return toReturn;
+        } catch (IOException e) {
+            throw new KieCompilerServiceException(e);
+        }
+    }
+
+    /**
+     * Remove from the given <code>GeneratedResources</code> the executable and redirect resources whose
+     * <code>FRI</code> matches the given filter, and the class resources referenced only by the removed ones
+     * (nested classes included)
+     *
+     * @param toUpdate
+     * @param toRemove
+     * @return the removed <code>GeneratedResources</code>
+     */
+    static GeneratedResources removeGeneratedResources(GeneratedResources toUpdate, Predicate<FRI> toRemove) {
+        GeneratedResources toReturn = new GeneratedResources();
+        Set<String> removedClasses = new HashSet<>();
+        Set<String> usedClasses = new HashSet<>();
+        for (GeneratedResource generatedResource : toUpdate) {
+            FRI fri = getFri(generatedResource);
+            boolean removed = fri != null && toRemove.test(fri);
+            if (removed) {
+                toReturn.add(generatedResource);
+            }
+            if (generatedResource instanceof GeneratedExecutableResource &&
+                    ((GeneratedExecutableResource) generatedResource).getFullClassNames() != null) {
+                (removed ? removedClasses : usedClasses).addAll(((GeneratedExecutableResource) generatedResource).getFullClassNames());
+            }
+        }
+        removedClasses.removeAll(usedClasses);
+        toUpdate.stream()
+                .filter(GeneratedClassResource.class::isInstance)
+                .filter(generatedResource -> isReferenced(((GeneratedClassResource) generatedResource).getFullClassName(), removedClasses))
+                .forEach(toReturn::add);
+        toUpdate.removeAll(toReturn);
+        return toReturn;
+    }
+
+    static FRI getFri(GeneratedResource generatedResource) {
+        if (generatedResource instanceof GeneratedExecutableResource) {
+            return ((GeneratedExecutableResource) generatedResource).getFri();
+        } else if (generatedResource instanceof GeneratedRedirectResource) {
+            return ((GeneratedRedirectResource) generatedResource).getFri();
+        } else {
+            return null;
+        }
+    }
+
+    static boolean isReferenced(String fullClassName, Set<String> referencedClasses) {
+        int innerClassIndex = fullClassName.indexOf('$');
+        return referencedClasses.contains(innerClassIndex > -1 ? fullClassName.substring(0, innerClassIndex) : fullClassName);
+    }
+
     static void populateGeneratedResources(GeneratedResources toPopulate, EfestoCompilationOutput compilationOutput) {
         toPopulate.add(getGeneratedResource(compilationOutput));
         if (compilationOutput instanceof EfestoClassesContainer) {
@@ -127,7 +372,12 @@ public class CompilationManagerUtils {
         if (compilationOutput instanceof EfestoRedirectOutput) {
             return new GeneratedRedirectResource(((EfestoRedirectOutput) compilationOutput).getFri(), ((EfestoRedirectOutput) compilationOutput).getTargetEngine());
         } else if (compilationOutput instanceof EfestoCallableOutput) {
-            return new GeneratedExecutableResource(((EfestoCallableOutput) compilationOutput).getFri(), ((EfestoCallableOutput) compilationOutput).getFullClassNames());
+            EfestoCallableOutput callableOutput = (EfestoCallableOutput) compilationOutput;
+            // all the classes compiled with the model, to be read back e.g. by the ModelGovernor
+            List<String> generatedClassNames = compilationOutput instanceof EfestoClassesContainer ?
+                    new ArrayList<>(((EfestoClassesContainer) compilationOutput).getCompiledClassesMap().keySet()) : null;
+            return new GeneratedExecutableResource(callableOutput.getFri(), callableOutput.getFullClassNames(), callableOutput.getMetadata(),
+                                                   generatedClassNames);
         } else {
             throw new KieCompilerServiceException("Unmanaged type " + compilationOutput.getClass().getName());
         }
@@ -145,6 +395,8 @@ public class CompilationManagerUtils {
     }
 
     static void loadClasses(Map<String, byte[]> compiledClassesMap, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        ClassLoadingEvent event = new ClassLoadingEvent();
+        event.begin();
         for (Map.Entry<String, byte[]> entry : compiledClassesMap.entrySet()) {
             memoryCompilerClassLoader.addCode(entry.getKey(), entry.getValue());
             try {
@@ -153,7 +405,10 @@ public class CompilationManagerUtils {
                 throw new KieMemoryCompilerException(e.getMessage(), e);
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.classes = compiledClassesMap.size();
+            event.commit();
+        }
     }
 }
-
-
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.core.utils;
+
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <code>MemoryCompilerClassLoader</code> that writes every class added to it inside the given directory, so that the
+ * generated bytecode outlives the class loader itself
+ */
+public class FlushingClassLoader extends KieMemoryCompiler.MemoryCompilerClassLoader {
+
+    private final Path classesDirectory;
+    private int flushedClasses;
+
+    public FlushingClassLoader(ClassLoader parent, Path classesDirectory) {
+        super(parent);
+        this.classesDirectory = classesDirectory;
+    }
+
+    @Override
+    public void addCode(String name, byte[] bytes) {
+        super.addCode(name, bytes);
+        writeClass(classesDirectory, name, bytes);
+        flushedClasses++;
+    }
+
+    public int getFlushedClasses() {
+        return flushedClasses;
+    }
+
+    /**
+     * Write the given <code>bytecode</code> inside the given directory, in the file matching the given class name
+     *
+     * @param classesDirectory
+     * @param fullClassName
+     * @param bytes
+     */
+    public static void writeClass(Path classesDirectory, String fullClassName, byte[] bytes) {
+        Path classFile = classesDirectory.resolve(fullClassName.replace('.', File.separatorChar) + ".class");
+        try {
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, bytes);
+        } catch (IOException e) {
+            throw new KieCompilerServiceException("Failed to write " + classFile, e);
+        }
+    }
+}
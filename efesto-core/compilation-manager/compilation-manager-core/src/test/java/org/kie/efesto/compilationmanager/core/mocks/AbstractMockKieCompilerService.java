@@ -15,6 +15,7 @@
  */
 package org.kie.efesto.compilationmanager.core.mocks;
 
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
@@ -23,9 +24,17 @@ import org.kie.memorycompiler.KieMemoryCompiler;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 public abstract class AbstractMockKieCompilerService implements KieCompilerService {
 
+    private static final List<Predicate<FRI>> UNLOADED = new CopyOnWriteArrayList<>();
+
+    public static boolean isUnloaded(FRI fri) {
+        return UNLOADED.stream().anyMatch(toUnload -> toUnload.test(fri));
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T extends EfestoResource, E extends EfestoCompilationOutput> List<E> processResource(T toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
@@ -35,4 +44,9 @@ public abstract class AbstractMockKieCompilerService implements KieCompilerServi
         return (List<E>) Collections.singletonList(new MockEfestoCallableOutput());
     }
 
+    @Override
+    public void unloadModels(Predicate<FRI> toUnload) {
+        UNLOADED.add(toUnload);
+    }
+
 }
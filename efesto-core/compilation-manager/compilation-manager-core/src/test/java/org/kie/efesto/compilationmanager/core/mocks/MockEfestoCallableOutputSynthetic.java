@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.core.mocks;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
+
+import java.util.Map;
+
+public class MockEfestoCallableOutputSynthetic extends EfestoCallableOutputSourcesContainer {
+
+    // as the unmarshalled model retained by actual outputs
+    private final byte[] model;
+
+    public MockEfestoCallableOutputSynthetic(FRI fri, String fullClassName, Map<String, String> sourcesMap, byte[] model) {
+        super(fri, fullClassName, sourcesMap);
+        this.model = model;
+    }
+
+    public byte[] getModel() {
+        return model;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.core.mocks;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.compileOrDefer;
+
+public class MockKieCompilerServiceSynthetic implements KieCompilerService {
+
+    public static final String SYNTHETIC_MODEL_TYPE = "synthetic";
+    public static final String SYNTHETIC_PACKAGE_NAME = "org.kie.efesto.synthetic";
+
+    private static final Consumer<KieMemoryCompiler.MemoryCompilerClassLoader> NO_OP_LISTENER = classLoader -> {
+    };
+
+    private static volatile Consumer<KieMemoryCompiler.MemoryCompilerClassLoader> classLoaderListener = NO_OP_LISTENER;
+
+    /**
+     * Set the listener notified with the <code>MemoryCompilerClassLoader</code> of every processed resource;
+     * <code>null</code> removes it
+     *
+     * @param listener
+     */
+    public static void setClassLoaderListener(Consumer<KieMemoryCompiler.MemoryCompilerClassLoader> listener) {
+        classLoaderListener = listener != null ? listener : NO_OP_LISTENER;
+    }
+
+    @Override
+    public <T extends EfestoResource> boolean canManageResource(T toProcess) {
+        return toProcess instanceof MockSyntheticResource;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends EfestoResource, E extends EfestoCompilationOutput> List<E> processResource(T toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        classLoaderListener.accept(memoryCompilerClassLoader);
+        MockSyntheticResource resource = (MockSyntheticResource) toProcess;
+        String simpleClassName = "Model" + resource.getIndex();
+        String fullClassName = SYNTHETIC_PACKAGE_NAME + "." + simpleClassName;
+        String source = String.format("package %s;%npublic class %s {%n}%n", SYNTHETIC_PACKAGE_NAME, simpleClassName);
+        FRI fri = new FRI("synthetic/model" + resource.getIndex(), SYNTHETIC_MODEL_TYPE);
+        MockEfestoCallableOutputSynthetic toReturn = new MockEfestoCallableOutputSynthetic(fri, fullClassName,
+                                                                                           Collections.singletonMap(fullClassName, source),
+                                                                                           resource.getContent());
+        // inside a batch, the output (and its model) is retained until the batch is closed
+        return (List<E>) Collections.singletonList(compileOrDefer(toReturn, memoryCompilerClassLoader));
+    }
+}
@@ -16,19 +16,52 @@ package org.kie.efesto.compilationmanager.core.service;/*
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoRedirectOutput;
 import org.kie.efesto.compilationmanager.api.service.CompilationManager;
+import org.kie.efesto.compilationmanager.core.mocks.AbstractMockKieCompilerService;
 import org.kie.efesto.compilationmanager.core.mocks.MockEfestoRedirectOutputA;
 import org.kie.efesto.compilationmanager.core.mocks.MockEfestoRedirectOutputB;
 import org.kie.efesto.compilationmanager.core.mocks.MockEfestoRedirectOutputC;
 import org.kie.efesto.compilationmanager.core.mocks.MockEfestoRedirectOutputD;
+import org.kie.efesto.compilationmanager.core.mocks.MockKieCompilerServiceSynthetic;
+import org.kie.efesto.compilationmanager.core.mocks.MockSyntheticResource;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+import static org.kie.efesto.common.api.utils.JSONUtils.getGeneratedResourcesObject;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.closeBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.discardBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.isBatchOpen;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.openBatch;
+import static org.kie.efesto.compilationmanager.core.mocks.MockKieCompilerServiceSynthetic.SYNTHETIC_MODEL_TYPE;
+import static org.kie.efesto.compilationmanager.core.mocks.MockKieCompilerServiceSynthetic.SYNTHETIC_PACKAGE_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -62,6 +95,131 @@ class TestCompilationManagerImpl {
         assertThat(retrieved.isEmpty()).isTrue();
     }
 
+    @Test
+    void processResourceNested(@TempDir Path indexFileDirectory) throws Exception {
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(getClass().getClassLoader());
+        System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, indexFileDirectory.toString());
+        openBatch();
+        try {
+            List<IndexFile> retrieved = compilationManager.processResource(new MockSyntheticResource(0, 16), classLoader);
+            // the nested invocation joins the enclosing batch, but hands back populated IndexFiles and loaded classes
+            assertThat(isBatchOpen()).isTrue();
+            assertThat(retrieved).hasSize(1);
+            assertThat(getGeneratedResourcesObject(retrieved.get(0)).stream().filter(GeneratedExecutableResource.class::isInstance)).hasSize(1);
+            assertThat(classLoader.loadClass(SYNTHETIC_PACKAGE_NAME + ".Model0").getClassLoader()).isSameAs(classLoader);
+            closeBatch(classLoader);
+        } finally {
+            discardBatch();
+            System.clearProperty(INDEXFILE_DIRECTORY_PROPERTY);
+        }
+    }
+
+    @Test
+    void processResourcesBoundedMemory(@TempDir Path classesDirectory) throws Exception {
+        int resources = 1000;
+        int chunkSize = 100;
+        Map<Integer, Long> flushedClasses = new LinkedHashMap<>();
+        Map<Integer, Long> indexedModels = new LinkedHashMap<>();
+        Iterator<MockSyntheticResource> toProcess = new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < resources;
+            }
+
+            @Override
+            public MockSyntheticResource next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (index % (chunkSize / 2) == 0) {
+                    flushedClasses.put(index, countClassFiles(classesDirectory));
+                    indexedModels.put(index, countIndexedModels(classesDirectory));
+                }
+                return new MockSyntheticResource(index++, 1024);
+            }
+        };
+        List<Reference<ClassLoader>> chunkClassLoaders = new ArrayList<>();
+        ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+        MockKieCompilerServiceSynthetic.setClassLoaderListener(classLoader -> {
+            if (chunkClassLoaders.isEmpty() || chunkClassLoaders.get(chunkClassLoaders.size() - 1).get() != classLoader) {
+                chunkClassLoaders.add(new WeakReference<>(classLoader, queue));
+            }
+        });
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        // the created IndexFile has to be found on the classpath by the following chunks
+        try (URLClassLoader indexFileClassLoader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, contextClassLoader)) {
+            System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, classesDirectory.toString());
+            Thread.currentThread().setContextClassLoader(indexFileClassLoader);
+            List<IndexFile> retrieved = compilationManager.processResources(toProcess, classesDirectory, chunkSize, getClass().getClassLoader());
+            // classes and IndexFile entries are written once per chunk, and only then
+            flushedClasses.forEach((index, flushed) -> assertThat(flushed).as("classes flushed before resource %s", index)
+                    .isEqualTo(index / chunkSize * chunkSize));
+            indexedModels.forEach((index, indexed) -> assertThat(indexed).as("models indexed before resource %s", index)
+                    .isEqualTo(index / chunkSize * chunkSize));
+            assertThat(countClassFiles(classesDirectory)).isEqualTo(resources);
+            assertThat(retrieved).hasSize(1);
+            assertThat(countIndexedModels(classesDirectory)).isEqualTo(resources);
+        } finally {
+            MockKieCompilerServiceSynthetic.setClassLoaderListener(null);
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+            System.clearProperty(INDEXFILE_DIRECTORY_PROPERTY);
+        }
+        // each chunk has its own class loader, that is not retained once the chunk is flushed
+        assertThat(chunkClassLoaders).hasSize(resources / chunkSize);
+        assertThat(awaitCollection(queue, chunkClassLoaders.size())).isEqualTo(chunkClassLoaders.size());
+    }
+
+    @Test
+    void processResourcesWrongChunkSize(@TempDir Path classesDirectory) {
+        assertThatThrownBy(() -> compilationManager.processResources(Collections.emptyIterator(), classesDirectory, 0, getClass().getClassLoader()))
+                .isInstanceOf(KieCompilerServiceException.class);
+    }
+
+    @Test
+    void unloadModels() {
+        FRI unloaded = new FRI("this/is/unloaded", "unloading");
+        FRI other = new FRI("this/is/other", "unloading");
+        compilationManager.unloadModel(unloaded);
+        // engines are notified of the unloaded models
+        assertThat(AbstractMockKieCompilerService.isUnloaded(unloaded)).isTrue();
+        assertThat(AbstractMockKieCompilerService.isUnloaded(other)).isFalse();
+        compilationManager.unloadModels(new FRI("this/is", "unloading"));
+        assertThat(AbstractMockKieCompilerService.isUnloaded(other)).isTrue();
+    }
+
+    private static long countClassFiles(Path classesDirectory) {
+        try (Stream<Path> classFiles = Files.walk(classesDirectory)) {
+            return classFiles.filter(path -> path.toString().endsWith(".class")).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long countIndexedModels(Path classesDirectory) {
+        IndexFile indexFile = new IndexFile(classesDirectory.toString(), SYNTHETIC_MODEL_TYPE);
+        if (!indexFile.exists()) {
+            return 0;
+        }
+        try {
+            return getGeneratedResourcesObject(indexFile).stream().filter(GeneratedExecutableResource.class::isInstance).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int awaitCollection(ReferenceQueue<ClassLoader> queue, int expected) throws InterruptedException {
+        int collected = 0;
+        for (int i = 0; i < 10 && collected < expected; i++) {
+            System.gc();
+            while (collected < expected && queue.remove(500) != null) {
+                collected++;
+            }
+        }
+        return collected;
+    }
+
     // TODO restore
 //    @Test
 //    void processResources() {
@@ -15,11 +15,18 @@ package org.kie.efesto.compilationmanager.core.utils;/*
  */
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.io.IndexFileManifest;
+import org.kie.efesto.common.api.io.IndexFileShards;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
 import org.kie.efesto.common.api.model.*;
 import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputClassesContainer;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,7 +34,11 @@ import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_IN_MEMORY_PROPERTY;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_SHARDS_PROPERTY;
 import static org.kie.efesto.common.api.utils.JSONUtils.getGeneratedResourcesObject;
+import static org.kie.efesto.common.api.utils.JSONUtils.getIndexFileManifestObject;
 import static org.kie.efesto.common.api.utils.JSONUtils.writeGeneratedResourcesObject;
 
 class CompilationManagerUtilsTest {
@@ -100,6 +111,106 @@ class CompilationManagerUtilsTest {
         writeGeneratedResourcesObject(originalGeneratedResources, toPopulate);
     }
 
+    @Test
+    void populateIndexFileInMemory() {
+        System.setProperty(INDEXFILE_IN_MEMORY_PROPERTY, "true");
+        try {
+            EfestoCallableOutputClassesContainer notExistingOutput = getEfestoFinalOutputClassesContainer(notExistingfri);
+            IndexFile toPopulate = CompilationManagerUtils.getIndexFile(notExistingOutput);
+            assertThat(toPopulate).doesNotExist();
+            CompilationManagerUtils.populateIndexFile(toPopulate, notExistingOutput);
+            assertThat(toPopulate).doesNotExist();
+            GeneratedResources generatedResources = MemoryIndexFiles.getGeneratedResources("notexisting").orElse(null);
+            assertThat(generatedResources).isNotNull();
+            int expectedResources = 4; // 1 final resource + 3 intermediate resources
+            assertThat(generatedResources).hasSize(expectedResources);
+        } finally {
+            System.clearProperty(INDEXFILE_IN_MEMORY_PROPERTY);
+            MemoryIndexFiles.clear();
+        }
+    }
+
+    @Test
+    void populateIndexFileSharded(@TempDir Path indexFileDirectory) throws IOException {
+        System.setProperty(INDEXFILE_SHARDS_PROPERTY, "16");
+        System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, indexFileDirectory.toString());
+        try {
+            String parentPath = indexFileDirectory.toString();
+            FRI firstFri = new FRI("models/first", "sharded");
+            // a base path that lands in another shard
+            FRI secondFri = IntStream.range(0, 100)
+                    .mapToObj(i -> new FRI("models/second_" + i, "sharded"))
+                    .filter(toCheck -> !IndexFileShards.getShard(toCheck, 16).equals(IndexFileShards.getShard(firstFri, 16)))
+                    .findFirst()
+                    .orElseThrow();
+            EfestoCallableOutputClassesContainer firstOutput = getEfestoFinalOutputClassesContainer(firstFri);
+            EfestoCallableOutputClassesContainer secondOutput = getEfestoFinalOutputClassesContainer(secondFri);
+            IndexFile toPopulate = CompilationManagerUtils.getIndexFile(firstOutput);
+            assertThat(toPopulate).exists();
+            assertThat(IndexFileShards.isShard(toPopulate)).isTrue();
+            // both outputs are populated through the IndexFile of the first one, as for multi-model resources
+            CompilationManagerUtils.populateIndexFile(toPopulate, firstOutput);
+            CompilationManagerUtils.populateIndexFile(toPopulate, secondOutput);
+
+            IndexFileManifest manifest = getIndexFileManifestObject(IndexFileShards.getManifestFile(parentPath, "sharded"));
+            assertThat(manifest.getShardCount()).isEqualTo(16);
+            assertThat(manifest.getShards()).containsExactlyInAnyOrder(manifest.getShard(firstFri), manifest.getShard(secondFri));
+            GeneratedResources firstShard = getGeneratedResourcesObject(IndexFileShards.getShardIndexFile(parentPath, "sharded", manifest.getShard(firstFri)));
+            GeneratedResources secondShard = getGeneratedResourcesObject(IndexFileShards.getShardIndexFile(parentPath, "sharded", manifest.getShard(secondFri)));
+            assertThat(firstShard).hasSize(4).contains(new GeneratedExecutableResource(firstFri, null));
+            assertThat(secondShard).hasSize(4).contains(new GeneratedExecutableResource(secondFri, null));
+
+            // the shard count of the manifest wins over the property
+            System.setProperty(INDEXFILE_SHARDS_PROPERTY, "4");
+            assertThat(CompilationManagerUtils.getIndexFile(secondOutput).getParentFile().getName()).isEqualTo(manifest.getShard(secondFri));
+
+            assertThat(CompilationManagerUtils.getExistingShardIndexFiles("sharded")).hasSize(2);
+            GeneratedResources removed = CompilationManagerUtils.removeFromIndexFiles("sharded", firstFri::equals);
+            assertThat(removed).contains(new GeneratedExecutableResource(firstFri, null));
+            assertThat(getGeneratedResourcesObject(IndexFileShards.getShardIndexFile(parentPath, "sharded", manifest.getShard(firstFri))))
+                    .doesNotContain(new GeneratedExecutableResource(firstFri, null));
+        } finally {
+            System.clearProperty(INDEXFILE_SHARDS_PROPERTY);
+            System.clearProperty(INDEXFILE_DIRECTORY_PROPERTY);
+        }
+    }
+
+    @Test
+    void removeGeneratedResources() {
+        FRI firstFri = new FRI("models/first", modelType);
+        FRI secondFri = new FRI("models/second", modelType);
+        GeneratedResources toUpdate = new GeneratedResources();
+        toUpdate.add(new GeneratedExecutableResource(firstFri, Collections.singletonList("first.Resources")));
+        toUpdate.add(new GeneratedExecutableResource(secondFri, Arrays.asList("second.Resources", "shared.Resources")));
+        toUpdate.add(new GeneratedRedirectResource(new FRI("models/first/redirect", modelType), "foo"));
+        toUpdate.add(new GeneratedClassResource("first.Resources"));
+        toUpdate.add(new GeneratedClassResource("first.Resources$Inner"));
+        toUpdate.add(new GeneratedClassResource("second.Resources"));
+        toUpdate.add(new GeneratedClassResource("shared.Resources"));
+        GeneratedResources retrieved = CompilationManagerUtils.removeGeneratedResources(toUpdate, new FRI("models/first", modelType)::contains);
+        assertThat(retrieved).hasSize(4);
+        assertThat(toUpdate).hasSize(3)
+                .contains(new GeneratedExecutableResource(secondFri, null),
+                          new GeneratedClassResource("second.Resources"),
+                          new GeneratedClassResource("shared.Resources"));
+        retrieved = CompilationManagerUtils.removeGeneratedResources(toUpdate, firstFri::equals);
+        assertThat(retrieved).isEmpty();
+    }
+
+    @Test
+    void removeFromIndexFilesInMemory() {
+        FRI toRemove = new FRI("models/first", "unloading");
+        MemoryIndexFiles.addGeneratedResources("unloading", Arrays.asList(new GeneratedExecutableResource(toRemove, Collections.singletonList("first.Resources")),
+                                                                          new GeneratedClassResource("first.Resources")));
+        try {
+            GeneratedResources retrieved = CompilationManagerUtils.removeFromIndexFiles("unloading", toRemove::equals);
+            assertThat(retrieved).hasSize(2);
+            assertThat(MemoryIndexFiles.getGeneratedResources("unloading")).isNotPresent();
+        } finally {
+            MemoryIndexFiles.clear();
+        }
+    }
+
     @Test
     void populateGeneratedResources() {
         GeneratedResources toPopulate = new GeneratedResources();
@@ -119,6 +230,27 @@ class CompilationManagerUtilsTest {
         commonEvaluateGeneratedExecutableResource(retrieved);
     }
 
+    @Test
+    void getGeneratedResourceWithGeneratedClassNames() {
+        GeneratedResource retrieved = CompilationManagerUtils.getGeneratedResource(finalOutput);
+        assertThat(((GeneratedExecutableResource) retrieved).getGeneratedClassNames()).containsExactlyInAnyOrderElementsOf(compiledClassMap.keySet());
+    }
+
+    @Test
+    void getGeneratedResourceWithMetadata() {
+        ModelMetadata metadata = new ModelMetadata("model", Collections.singletonList("input"), "target", "regression");
+        EfestoCallableOutputClassesContainer withMetadata = new EfestoCallableOutputClassesContainer(fri, fri.getModel() + "Resources", compiledClassMap) {
+            @Override
+            public ModelMetadata getMetadata() {
+                return metadata;
+            }
+        };
+        GeneratedResource retrieved = CompilationManagerUtils.getGeneratedResource(withMetadata);
+        assertThat(retrieved).isInstanceOf(GeneratedExecutableResource.class);
+        assertThat(((GeneratedExecutableResource) retrieved).getMetadata()).isEqualTo(metadata);
+        assertThat(((GeneratedExecutableResource) CompilationManagerUtils.getGeneratedResource(finalOutput)).getMetadata()).isNull();
+    }
+
     @Test
     void getGeneratedResources() {
         List<GeneratedResource> retrieved = CompilationManagerUtils.getGeneratedResources(finalOutput);
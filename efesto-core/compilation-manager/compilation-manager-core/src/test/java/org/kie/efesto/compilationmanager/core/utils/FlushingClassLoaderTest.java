@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.compilationmanager.core.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getEmptyClass;
+
+class FlushingClassLoaderTest {
+
+    private static final String FULL_CLASS_NAME = "org.kie.efesto.flushed.FlushedClass";
+
+    @TempDir
+    Path classesDirectory;
+
+    @Test
+    void addCode() throws Exception {
+        byte[] bytecode = getEmptyClass(FULL_CLASS_NAME);
+        FlushingClassLoader flushingClassLoader = new FlushingClassLoader(getClass().getClassLoader(), classesDirectory);
+        flushingClassLoader.addCode(FULL_CLASS_NAME, bytecode);
+        assertThat(flushingClassLoader.getFlushedClasses()).isEqualTo(1);
+        assertThat(classesDirectory.resolve("org/kie/efesto/flushed/FlushedClass.class")).hasBinaryContent(bytecode);
+        Class<?> retrieved = flushingClassLoader.loadClass(FULL_CLASS_NAME);
+        assertThat(retrieved.getName()).isEqualTo(FULL_CLASS_NAME);
+        assertThat(retrieved.getClassLoader()).isSameAs(flushingClassLoader);
+    }
+
+    @Test
+    void writeClass() throws IOException {
+        byte[] bytecode = {1, 2, 3};
+        FlushingClassLoader.writeClass(classesDirectory, FULL_CLASS_NAME + "$Inner", bytecode);
+        Path expected = classesDirectory.resolve("org/kie/efesto/flushed/FlushedClass$Inner.class");
+        assertThat(Files.readAllBytes(expected)).containsExactly(bytecode);
+        // existing files are overwritten
+        FlushingClassLoader.writeClass(classesDirectory, FULL_CLASS_NAME + "$Inner", new byte[]{4});
+        assertThat(Files.readAllBytes(expected)).containsExactly(4);
+    }
+}
@@ -27,7 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class TestSPIUtils {
 
-    private static final List<Class<? extends KieCompilerService>> KIE_COMPILER_SERVICES = Arrays.asList(MockKieCompilerServiceAB.class, MockKieCompilerServiceC.class);
+    private static final List<Class<? extends KieCompilerService>> KIE_COMPILER_SERVICES = Arrays.asList(MockKieCompilerServiceAB.class, MockKieCompilerServiceC.class, MockKieCompilerServiceSynthetic.class);
 
     @Test
     void getKieCompilerService() {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedClassResource;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.common.api.utils.JSONUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup of a <code>GeneratedExecutableResource</code> by <code>FRI</code> inside an <code>IndexFile</code> content of
+ * <code>entries</code> executable resources (each one with its class resource).
+ * <code>fullParse</code> is the former path (the whole <code>GeneratedResources</code> are read, then filtered),
+ * <code>streamingFind</code> parses the content token by token and stops at the first match.
+ * <code>target</code> selects a resource in the middle of the file, or a missing one (i.e. the whole file is parsed
+ * by both).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2)
+public class IndexFileLookupBenchmark {
+
+    private static final String MODEL = "foo";
+
+    @Param({"10", "1000", "100000"})
+    public int entries;
+
+    @Param({"middle", "missing"})
+    public String target;
+
+    private byte[] content;
+    private FRI toFind;
+
+    @Setup
+    public void setup() throws IOException {
+        GeneratedResources generatedResources = new GeneratedResources();
+        for (int i = 0; i < entries; i++) {
+            String fullClassName = "org.kie.efesto.benchmarks.Model" + i;
+            generatedResources.add(new GeneratedClassResource(fullClassName));
+            generatedResources.add(new GeneratedExecutableResource(new FRI("model/" + i, MODEL),
+                                                                   Collections.singletonList(fullClassName)));
+        }
+        content = JSONUtils.getGeneratedResourcesString(generatedResources).getBytes(StandardCharsets.UTF_8);
+        if ("missing".equals(target)) {
+            toFind = new FRI("model/missing", MODEL);
+        } else {
+            // the serialized order is the HashSet one: retrieve it to pick the resource actually in the middle
+            List<FRI> serializedOrder = new ArrayList<>();
+            JSONUtils.findGeneratedResource(new ByteArrayInputStream(content), GeneratedExecutableResource.class,
+                                            generatedResource -> !serializedOrder.add(generatedResource.getFri()));
+            toFind = serializedOrder.get(serializedOrder.size() / 2);
+        }
+    }
+
+    @Benchmark
+    public Optional<GeneratedExecutableResource> fullParse() throws IOException {
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            return JSONUtils.getGeneratedResourcesObject(inputStream).stream()
+                    .filter(generatedResource -> generatedResource instanceof GeneratedExecutableResource &&
+                            ((GeneratedExecutableResource) generatedResource).getFri().equals(toFind))
+                    .findFirst()
+                    .map(GeneratedExecutableResource.class::cast);
+        }
+    }
+
+    @Benchmark
+    public Optional<GeneratedExecutableResource> streamingFind() throws IOException {
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            return JSONUtils.findGeneratedResource(inputStream, GeneratedExecutableResource.class,
+                                                   generatedResource -> generatedResource.getFri().equals(toFind));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpan;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracer;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of the tracing hook on an evaluation instrumented like the <code>RuntimeManager</code> one (an outer span
+ * with the lookup and execution spans inside it).
+ * <code>baseline</code> is the evaluation without spans; <code>traced</code> opens the spans with the given
+ * <code>tracer</code>: <code>noop</code> is the default, disabled, one, <code>discarding</code> creates contexts and
+ * propagates them, but does not retain the ended spans (i.e. the cost of the hook itself, not of a backend).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2)
+public class TracingOverheadBenchmark {
+
+    private static final FRI FRI = new FRI("model/traced", "foo");
+
+    @Param({"noop", "discarding"})
+    public String tracer;
+
+    private double[] coefficients;
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        EfestoTracing.setTracer("discarding".equals(tracer) ? new DiscardingTracer() : null);
+        coefficients = ThreadLocalRandom.current().doubles(16).toArray();
+        values = ThreadLocalRandom.current().doubles(16).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        EfestoTracing.setTracer(null);
+    }
+
+    @Benchmark
+    public double baseline() {
+        return evaluate();
+    }
+
+    @Benchmark
+    public double traced() {
+        try (EfestoSpan span = EfestoTracing.startSpan("evaluateInput", FRI)) {
+            try (EfestoSpan lookupSpan = EfestoTracing.startSpan("lookup", FRI)) {
+                // nothing to look up
+            }
+            try (EfestoSpan executeSpan = EfestoTracing.startSpan("execute", FRI)) {
+                double toReturn = evaluate();
+                span.setAttribute("outcome", "success");
+                return toReturn;
+            }
+        }
+    }
+
+    /**
+     * A small regression-like evaluation
+     */
+    private double evaluate() {
+        double toReturn = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            toReturn += coefficients[i] * values[i];
+        }
+        return toReturn;
+    }
+
+    private static final class DiscardingTracer implements EfestoTracer {
+
+        @Override
+        public EfestoSpan startSpan(String name, FRI fri, EfestoSpanContext parent) {
+            long traceId = parent != null ? parent.getTraceId() : ThreadLocalRandom.current().nextLong();
+            EfestoSpanContext context = new EfestoSpanContext(traceId, ThreadLocalRandom.current().nextLong());
+            return new EfestoSpan() {
+
+                @Override
+                public EfestoSpanContext getContext() {
+                    return context;
+                }
+
+                @Override
+                public EfestoSpan setAttribute(String key, Object value) {
+                    return this;
+                }
+
+                @Override
+                public void setError(Throwable error) {
+                    // discarded
+                }
+
+                @Override
+                public void close() {
+                    // discarded
+                }
+            };
+        }
+    }
+}
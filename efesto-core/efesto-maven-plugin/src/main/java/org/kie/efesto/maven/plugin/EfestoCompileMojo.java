@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.maven.plugin;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.utils.FileNameUtils;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileSetResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+import org.kie.efesto.compilationmanager.api.service.CompilationManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+import static org.kie.efesto.compilationmanager.api.utils.SPIUtils.getCompilationManager;
+import static org.kie.efesto.compilationmanager.api.utils.SPIUtils.getKieCompilerService;
+
+/**
+ * Compile all the models found inside <code>resourcesDirectory</code> with the <code>CompilationManager</code>,
+ * writing generated classes and <code>IndexFile</code>s inside <code>outputDirectory</code>, so that they are
+ * packaged in the project artifact and the runtime does not need the compilation modules at all.
+ * <p>
+ * Engines are discovered via SPI: their compilation modules have to be declared as <b>plugin</b> dependencies.
+ */
+@Mojo(name = "compile",
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.COMPILE)
+public class EfestoCompileMojo extends AbstractMojo {
+
+    /**
+     * Lazily compiled PMML models are only indexed, and their classes are generated inside the evaluating JVM:
+     * written to the project artifact, their <code>IndexFile</code>s would reference classes that never exist
+     */
+    static final String PMML_LAZY_COMPILATION_PROPERTY = "efesto.pmml.compilation.lazy";
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${project.basedir}/src/main/resources", required = true)
+    private File resourcesDirectory;
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    /**
+     * Model types whose files are compiled together as a single <code>EfestoFileSetResource</code>
+     * (e.g. <b>drl</b>) instead of one <code>EfestoFileResource</code> each
+     */
+    @Parameter
+    private List<String> fileSetModelTypes = Collections.singletonList("drl");
+
+    /**
+     * <b>Base path</b> of the <code>FRI</code> generated for file sets
+     */
+    @Parameter(defaultValue = "${project.artifactId}", required = true)
+    private String fileSetBasePath;
+
+    /**
+     * Number of resources compiled together; generated bytecode is released after each chunk
+     */
+    @Parameter(property = "efesto.compile.chunkSize", defaultValue = "100")
+    private int chunkSize;
+
+    @Parameter(property = "efesto.compile.skip", defaultValue = "false")
+    private boolean skip;
+
+    public EfestoCompileMojo() {
+    }
+
+    EfestoCompileMojo(File resourcesDirectory, File outputDirectory, List<String> fileSetModelTypes, String fileSetBasePath, int chunkSize) {
+        this.resourcesDirectory = resourcesDirectory;
+        this.outputDirectory = outputDirectory;
+        this.fileSetModelTypes = fileSetModelTypes;
+        this.fileSetBasePath = fileSetBasePath;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Efesto compilation skipped");
+            return;
+        }
+        if (!resourcesDirectory.isDirectory()) {
+            getLog().info("No resources directory " + resourcesDirectory + ", nothing to compile");
+            return;
+        }
+        try (URLClassLoader projectClassLoader = getProjectClassLoader()) {
+            List<IndexFile> indexFiles = compile(projectClassLoader);
+            getLog().info(String.format("Generated %s IndexFiles in %s",
+                    indexFiles.stream().map(File::getName).distinct().count(),
+                    outputDirectory));
+        } catch (IOException | DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Failed to compile models in " + resourcesDirectory, e);
+        }
+    }
+
+    /**
+     * Compile the models found inside <code>resourcesDirectory</code>, resolving classes and <code>IndexFile</code>s
+     * with the given <code>ClassLoader</code>, that is expected to include <code>outputDirectory</code>
+     *
+     * @param projectClassLoader
+     * @return
+     * @throws IOException
+     * @throws MojoExecutionException
+     */
+    List<IndexFile> compile(ClassLoader projectClassLoader) throws IOException, MojoExecutionException {
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        String originalIndexFileDirectory = System.getProperty(INDEXFILE_DIRECTORY_PROPERTY);
+        String originalLazyCompilation = System.getProperty(PMML_LAZY_COMPILATION_PROPERTY);
+        try {
+            // IndexFiles are looked for in, and written to, the build output directory
+            Thread.currentThread().setContextClassLoader(projectClassLoader);
+            System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, outputDirectory.getAbsolutePath());
+            // every class has to be generated at build time
+            if (Boolean.parseBoolean(originalLazyCompilation)) {
+                getLog().warn(PMML_LAZY_COMPILATION_PROPERTY + " is ignored, models are compiled eagerly");
+            }
+            System.clearProperty(PMML_LAZY_COMPILATION_PROPERTY);
+            CompilationManager compilationManager = getCompilationManager(true)
+                    .orElseThrow(() -> new MojoExecutionException("Cannot find CompilationManager"));
+            // classes and IndexFiles are written chunk by chunk, so that memory does not grow with the number of models
+            return compilationManager.processResources(getEfestoResources(getModelFiles()).iterator(),
+                                                       outputDirectory.toPath(),
+                                                       chunkSize,
+                                                       projectClassLoader);
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+            restoreProperty(INDEXFILE_DIRECTORY_PROPERTY, originalIndexFileDirectory);
+            restoreProperty(PMML_LAZY_COMPILATION_PROPERTY, originalLazyCompilation);
+        }
+    }
+
+    private static void restoreProperty(String key, String originalValue) {
+        if (originalValue != null) {
+            System.setProperty(key, originalValue);
+        } else {
+            System.clearProperty(key);
+        }
+    }
+
+    List<File> getModelFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(resourcesDirectory.toPath())) {
+            return paths.filter(Files::isRegularFile)
+                    .map(Path::toFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the <code>EfestoResource</code>s to compile, ignoring files that no engine is able to manage
+     *
+     * @param modelFiles
+     * @return
+     */
+    List<EfestoResource> getEfestoResources(List<File> modelFiles) {
+        List<EfestoResource> toReturn = new ArrayList<>();
+        Map<String, Set<File>> fileSets = new TreeMap<>();
+        for (File modelFile : modelFiles) {
+            String modelType = FileNameUtils.getSuffix(modelFile.getName());
+            if (fileSetModelTypes.contains(modelType)) {
+                fileSets.computeIfAbsent(modelType, type -> new HashSet<>()).add(modelFile);
+            } else {
+                addIfManaged(new EfestoFileResource(modelFile), toReturn);
+            }
+        }
+        fileSets.forEach((modelType, files) -> addIfManaged(new EfestoFileSetResource(files, modelType, fileSetBasePath), toReturn));
+        return toReturn;
+    }
+
+    void addIfManaged(EfestoResource toAdd, List<EfestoResource> toPopulate) {
+        if (getKieCompilerService(toAdd, false).isPresent()) {
+            toPopulate.add(toAdd);
+        } else {
+            getLog().debug("No engine found for " + toAdd.getContent());
+        }
+    }
+
+    URLClassLoader getProjectClassLoader() throws DependencyResolutionRequiredException, MalformedURLException {
+        List<String> classpathElements = project.getCompileClasspathElements();
+        URL[] urls = new URL[classpathElements.size()];
+        for (int i = 0; i < classpathElements.size(); i++) {
+            urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+        }
+        return new URLClassLoader(urls, getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileSetResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+import static org.kie.efesto.maven.plugin.EfestoCompileMojo.PMML_LAZY_COMPILATION_PROPERTY;
+import static org.kie.efesto.maven.plugin.mocks.MockKieCompilerService.LAZY_COMPILATION_VALUES;
+import static org.kie.efesto.maven.plugin.mocks.MockKieCompilerService.MOCK_PACKAGE_NAME;
+
+class EfestoCompileMojoTest {
+
+    private static final String FILE_SET_BASE_PATH = "project";
+
+    @Test
+    void getModelFiles(@TempDir Path resourcesDirectory) throws IOException {
+        List<File> modelFiles = createModelFiles(resourcesDirectory, "sub/second.mock", "first.mock");
+        EfestoCompileMojo mojo = getMojo(resourcesDirectory, resourcesDirectory, Collections.singletonList("drl"), 10);
+        assertThat(mojo.getModelFiles()).containsExactly(modelFiles.get(1), modelFiles.get(0));
+    }
+
+    @Test
+    void getEfestoResources(@TempDir Path resourcesDirectory) throws IOException {
+        List<File> modelFiles = createModelFiles(resourcesDirectory, "first.mock", "first.drl", "second.mock", "second.drl", "ignored.txt");
+        EfestoCompileMojo mojo = getMojo(resourcesDirectory, resourcesDirectory, Collections.singletonList("drl"), 10);
+        List<EfestoResource> retrieved = mojo.getEfestoResources(modelFiles);
+        // one resource for each mock file, one file set for all the drl files, nothing for unmanaged files
+        assertThat(retrieved).hasSize(3);
+        assertThat(retrieved.get(0)).isInstanceOf(EfestoFileResource.class);
+        assertThat(((EfestoFileResource) retrieved.get(0)).getContent()).isEqualTo(modelFiles.get(0));
+        assertThat(retrieved.get(1)).isInstanceOf(EfestoFileResource.class);
+        assertThat(((EfestoFileResource) retrieved.get(1)).getContent()).isEqualTo(modelFiles.get(2));
+        assertThat(retrieved.get(2)).isInstanceOf(EfestoFileSetResource.class);
+        EfestoFileSetResource fileSet = (EfestoFileSetResource) retrieved.get(2);
+        assertThat(fileSet.getModelType()).isEqualTo("drl");
+        assertThat(fileSet.getBasePath()).isEqualTo(FILE_SET_BASE_PATH);
+        assertThat(fileSet.getContent()).containsExactlyInAnyOrder(modelFiles.get(1), modelFiles.get(3));
+    }
+
+    @Test
+    void getEfestoResourcesFileSetModelTypes(@TempDir Path resourcesDirectory) throws IOException {
+        List<File> modelFiles = createModelFiles(resourcesDirectory, "first.mock", "first.drl", "second.mock");
+        // mock files grouped in a file set, drl files compiled one by one: no engine manages any of them
+        EfestoCompileMojo mojo = getMojo(resourcesDirectory, resourcesDirectory, Collections.singletonList("mock"), 10);
+        assertThat(mojo.getEfestoResources(modelFiles)).isEmpty();
+        mojo = getMojo(resourcesDirectory, resourcesDirectory, Arrays.asList("mock", "drl"), 10);
+        List<EfestoResource> retrieved = mojo.getEfestoResources(modelFiles);
+        assertThat(retrieved).hasSize(1);
+        assertThat(((EfestoFileSetResource) retrieved.get(0)).getContent()).containsExactly(modelFiles.get(1));
+    }
+
+    @Test
+    void compile(@TempDir Path resourcesDirectory, @TempDir Path outputDirectory) throws Exception {
+        createModelFiles(resourcesDirectory, "first.mock", "first.drl", "second.drl");
+        // the second model depends on the first one, compiled in a previous chunk
+        Files.write(resourcesDirectory.resolve("second.mock"), (MOCK_PACKAGE_NAME + ".Mockfirst").getBytes(StandardCharsets.UTF_8));
+        EfestoCompileMojo mojo = getMojo(resourcesDirectory, outputDirectory, Collections.singletonList("drl"), 1);
+        String indexFileDirectory = System.getProperty(INDEXFILE_DIRECTORY_PROPERTY);
+        try (RecordingClassLoader projectClassLoader = new RecordingClassLoader(outputDirectory, getClass().getClassLoader())) {
+            List<IndexFile> retrieved = mojo.compile(projectClassLoader);
+            assertThat(retrieved.stream().map(File::getName).collect(Collectors.toSet()))
+                    .containsExactlyInAnyOrder("IndexFile.mock_json", "IndexFile.drl_json");
+            assertThat(retrieved).allMatch(indexFile -> indexFile.toPath().startsWith(outputDirectory));
+            Path packageDirectory = outputDirectory.resolve(MOCK_PACKAGE_NAME.replace('.', File.separatorChar));
+            assertThat(packageDirectory.resolve("Mockfirst.class")).exists();
+            assertThat(packageDirectory.resolve("Mocksecond.class")).exists();
+            assertThat(packageDirectory.resolve("FileSet2.class")).exists();
+            // generated classes, including the one the second chunk depends on, are read back from the output directory
+            assertThat(projectClassLoader.getRecordedClasses()).containsExactly(MOCK_PACKAGE_NAME + ".Mockfirst",
+                                                                                MOCK_PACKAGE_NAME + ".Mocksecond",
+                                                                                MOCK_PACKAGE_NAME + ".FileSet2");
+        }
+        // the original configuration is restored
+        assertThat(System.getProperty(INDEXFILE_DIRECTORY_PROPERTY)).isEqualTo(indexFileDirectory);
+    }
+
+    @Test
+    void compileIgnoringLazyCompilation(@TempDir Path resourcesDirectory, @TempDir Path outputDirectory) throws Exception {
+        createModelFiles(resourcesDirectory, "first.mock");
+        EfestoCompileMojo mojo = getMojo(resourcesDirectory, outputDirectory, Collections.singletonList("drl"), 1);
+        LAZY_COMPILATION_VALUES.clear();
+        System.setProperty(PMML_LAZY_COMPILATION_PROPERTY, "true");
+        try (RecordingClassLoader projectClassLoader = new RecordingClassLoader(outputDirectory, getClass().getClassLoader())) {
+            mojo.compile(projectClassLoader);
+            // models are compiled eagerly, so that the IndexFiles only reference packaged classes
+            assertThat(LAZY_COMPILATION_VALUES).containsExactly("null");
+            assertThat(outputDirectory.resolve(MOCK_PACKAGE_NAME.replace('.', File.separatorChar)).resolve("Mockfirst.class")).exists();
+            // the original configuration is restored
+            assertThat(System.getProperty(PMML_LAZY_COMPILATION_PROPERTY)).isEqualTo("true");
+        } finally {
+            System.clearProperty(PMML_LAZY_COMPILATION_PROPERTY);
+        }
+    }
+
+    private static EfestoCompileMojo getMojo(Path resourcesDirectory, Path outputDirectory, List<String> fileSetModelTypes, int chunkSize) {
+        return new EfestoCompileMojo(resourcesDirectory.toFile(), outputDirectory.toFile(), fileSetModelTypes, FILE_SET_BASE_PATH, chunkSize);
+    }
+
+    private static List<File> createModelFiles(Path resourcesDirectory, String... fileNames) throws IOException {
+        List<File> toReturn = new ArrayList<>();
+        for (String fileName : fileNames) {
+            Path modelFile = resourcesDirectory.resolve(fileName);
+            Files.createDirectories(modelFile.getParent());
+            toReturn.add(Files.createFile(modelFile).toFile());
+        }
+        return toReturn;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.maven.plugin;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Project <code>ClassLoader</code> that keeps track of all the classes it loads from the build output directory, i.e.
+ * of the generated classes that are not retained in memory
+ */
+class RecordingClassLoader extends URLClassLoader {
+
+    private final List<String> recordedClasses = new ArrayList<>();
+
+    RecordingClassLoader(Path outputDirectory, ClassLoader parent) throws MalformedURLException {
+        super(new URL[]{outputDirectory.toUri().toURL()}, parent);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> toReturn = super.findClass(name);
+        recordedClasses.add(name);
+        return toReturn;
+    }
+
+    List<String> getRecordedClasses() {
+        return Collections.unmodifiableList(recordedClasses);
+    }
+}
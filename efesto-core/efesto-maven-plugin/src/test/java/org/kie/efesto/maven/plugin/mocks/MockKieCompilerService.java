@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.maven.plugin.mocks;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileSetResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.compileOrDefer;
+
+/**
+ * Manages <b>mock</b> files, and <b>drl</b> files only as a file set.
+ * The content of a <b>mock</b> file is the (optional) name of a class it depends on, that is loaded while compiling it
+ */
+public class MockKieCompilerService implements KieCompilerService {
+
+    public static final String MOCK_MODEL_TYPE = "mock";
+    public static final String FILE_SET_MODEL_TYPE = "drl";
+    public static final String MOCK_PACKAGE_NAME = "org.kie.efesto.maven.plugin.generated";
+    /**
+     * Value of the PMML lazy compilation property seen by each processed resource
+     */
+    public static final List<String> LAZY_COMPILATION_VALUES = new CopyOnWriteArrayList<>();
+
+    @Override
+    public <T extends EfestoResource> boolean canManageResource(T toProcess) {
+        if (toProcess instanceof EfestoFileResource) {
+            return MOCK_MODEL_TYPE.equals(((EfestoFileResource) toProcess).getModelType());
+        }
+        return toProcess instanceof EfestoFileSetResource && FILE_SET_MODEL_TYPE.equals(((EfestoFileSetResource) toProcess).getModelType());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends EfestoResource, E extends EfestoCompilationOutput> List<E> processResource(T toProcess, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        LAZY_COMPILATION_VALUES.add(String.valueOf(System.getProperty("efesto.pmml.compilation.lazy")));
+        MockEfestoCallableOutput toReturn;
+        if (toProcess instanceof EfestoFileResource) {
+            EfestoFileResource resource = (EfestoFileResource) toProcess;
+            String modelName = resource.getFileName().substring(0, resource.getFileName().lastIndexOf('.'));
+            loadDependency(resource, memoryCompilerClassLoader);
+            toReturn = getOutput(new FRI("mock/" + modelName, MOCK_MODEL_TYPE), "Mock" + modelName);
+        } else {
+            EfestoFileSetResource resource = (EfestoFileSetResource) toProcess;
+            toReturn = getOutput(new FRI(resource.getBasePath() + "/drl", FILE_SET_MODEL_TYPE), "FileSet" + resource.getContent().size());
+        }
+        return (List<E>) Collections.singletonList(compileOrDefer(toReturn, memoryCompilerClassLoader));
+    }
+
+    private static void loadDependency(EfestoFileResource resource, ClassLoader classLoader) {
+        try {
+            String dependency = new String(Files.readAllBytes(resource.getContent().toPath()), StandardCharsets.UTF_8).trim();
+            if (!dependency.isEmpty()) {
+                classLoader.loadClass(dependency);
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new KieCompilerServiceException(e);
+        }
+    }
+
+    private static MockEfestoCallableOutput getOutput(FRI fri, String simpleClassName) {
+        String fullClassName = MOCK_PACKAGE_NAME + "." + simpleClassName;
+        String source = String.format("package %s;%npublic class %s {%n}%n", MOCK_PACKAGE_NAME, simpleClassName);
+        return new MockEfestoCallableOutput(fri, fullClassName, Collections.singletonMap(fullClassName, source));
+    }
+}
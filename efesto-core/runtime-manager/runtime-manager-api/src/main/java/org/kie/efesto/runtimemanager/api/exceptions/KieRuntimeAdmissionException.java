@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.exceptions;
+
+/**
+ * Thrown when an <code>EfestoInput</code> is not admitted to evaluation, because the concurrency limits of its model
+ * (or the global ones) are saturated and the waiting queue is full or the wait timed out
+ */
+public class KieRuntimeAdmissionException extends KieRuntimeServiceException {
+
+    public KieRuntimeAdmissionException(String message) {
+        super(message);
+    }
+
+    public KieRuntimeAdmissionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.exceptions;
+
+/**
+ * Thrown by engines that stop an evaluation because its deadline expired
+ *
+ * @see org.kie.efesto.runtimemanager.api.utils.DeadlineUtils
+ */
+public class KieRuntimeTimeoutException extends KieRuntimeServiceException {
+
+    public KieRuntimeTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -16,15 +16,22 @@
 package org.kie.efesto.runtimemanager.api.model;
 
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
 
 public abstract class AbstractEfestoInput<T> implements EfestoInput<T> {
 
     private final FRI fri;
     private final T inputData;
+    private final EfestoSpanContext spanContext;
 
     protected AbstractEfestoInput(FRI fri, T inputData) {
+        this(fri, inputData, null);
+    }
+
+    protected AbstractEfestoInput(FRI fri, T inputData, EfestoSpanContext spanContext) {
         this.fri = fri;
         this.inputData = inputData;
+        this.spanContext = spanContext;
     }
 
     @Override
@@ -36,4 +43,9 @@ public abstract class AbstractEfestoInput<T> implements EfestoInput<T> {
     public T getInputData() {
         return inputData;
     }
+
+    @Override
+    public EfestoSpanContext getSpanContext() {
+        return spanContext;
+    }
 }
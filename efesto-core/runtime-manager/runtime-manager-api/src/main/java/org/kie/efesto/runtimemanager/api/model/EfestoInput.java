@@ -16,6 +16,7 @@
 package org.kie.efesto.runtimemanager.api.model;
 
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
 
 /**
  * A generic <i>input</i> to be consumed
@@ -30,4 +31,13 @@ public interface EfestoInput<T> {
     FRI getFRI();
 
     T getInputData();
+
+    /**
+     * The context of the span the evaluation has been requested from (e.g. a redirect hop), if any
+     *
+     * @return
+     */
+    default EfestoSpanContext getSpanContext() {
+        return null;
+    }
 }
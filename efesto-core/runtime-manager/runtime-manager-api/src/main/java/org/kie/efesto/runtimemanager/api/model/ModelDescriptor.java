@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.model;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.ModelMetadata;
+
+/**
+ * Entry of the model catalog: a deployed <code>FRI</code>, either directly executable or redirected to another
+ * engine, with the <code>ModelMetadata</code> stored at compilation time, if any
+ */
+public final class ModelDescriptor {
+
+    private final FRI fri;
+    private final ModelMetadata metadata;
+    private final String redirectTarget;
+
+    public ModelDescriptor(FRI fri, ModelMetadata metadata, String redirectTarget) {
+        this.fri = fri;
+        this.metadata = metadata;
+        this.redirectTarget = redirectTarget;
+    }
+
+    public FRI getFri() {
+        return fri;
+    }
+
+    public String getModelType() {
+        return fri.getModel();
+    }
+
+    public Optional<ModelMetadata> getMetadata() {
+        return Optional.ofNullable(metadata);
+    }
+
+    /**
+     * @return the engine the evaluation is redirected to, if the model is not directly executable
+     */
+    public Optional<String> getRedirectTarget() {
+        return Optional.ofNullable(redirectTarget);
+    }
+
+    @Override
+    public String toString() {
+        return "ModelDescriptor{" +
+                "fri=" + fri +
+                ", metadata=" + metadata +
+                ", redirectTarget='" + redirectTarget + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ModelDescriptor that = (ModelDescriptor) o;
+        return Objects.equals(fri, that.fri) &&
+                Objects.equals(metadata, that.metadata) &&
+                Objects.equals(redirectTarget, that.redirectTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fri, metadata, redirectTarget);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.service;
+
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+
+import java.util.Optional;
+
+/**
+ * An engine-specific executor <b>bound</b> to a given <code>FRI</code>: it already carries everything resolved
+ * for it (e.g. the <code>GeneratedExecutableResource</code> and the loaded classes), so that subsequent inputs
+ * for the same <code>FRI</code> could be evaluated without further lookups.
+ * Instances are meant to be cached by the <code>RuntimeManager</code>, so they have to be thread-safe.
+ */
+@FunctionalInterface
+public interface EfestoBoundExecutor<T extends EfestoInput, E extends EfestoOutput> {
+
+    /**
+     * Produce one <code>EfestoOutput</code> from the given <code>EfestoInput</code>
+     *
+     * @param toEvaluate
+     * @return
+     */
+    Optional<E> evaluateInput(T toEvaluate);
+}
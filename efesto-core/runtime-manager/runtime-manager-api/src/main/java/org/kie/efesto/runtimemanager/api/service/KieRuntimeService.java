@@ -15,11 +15,14 @@
  */
 package org.kie.efesto.runtimemanager.api.service;
 
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * The compilation-related interface to be implemented by engine-plugin.
@@ -49,4 +52,93 @@ public interface KieRuntimeService<S, U, T extends EfestoInput<S>, E extends Efe
      */
     Optional<E> evaluateInput(T toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader);
 
+    /**
+     * Returns an <code>EfestoBoundExecutor</code> for the <code>FRI</code> of the given <code>EfestoInput</code>, if
+     * the current engine can manage it. Returned instance will be cached and used for all the subsequent inputs
+     * with the same <code>FRI</code> and type.
+     * <p>
+     * Default implementation simply delegates to {@link #canManageInput(EfestoInput, KieMemoryCompiler.MemoryCompilerClassLoader)}
+     * and {@link #evaluateInput(EfestoInput, KieMemoryCompiler.MemoryCompilerClassLoader)}; engines should override it
+     * to resolve generated resources only once.
+     *
+     * @param toEvaluate
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    default Optional<EfestoBoundExecutor<T, E>> getBoundExecutor(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        if (!canManageInput(toEvaluate, memoryCompilerClassLoader)) {
+            return Optional.empty();
+        }
+        return Optional.of(input -> evaluateInput(input, memoryCompilerClassLoader));
+    }
+
+    /**
+     * Returns the model type managed by the current engine (i.e. the one of its <code>IndexFile</code>), used to list
+     * the deployed models. By default no model type is declared
+     *
+     * @return
+     */
+    default String getModelType() {
+        return null;
+    }
+
+    /**
+     * Returns an input with synthetic data for the given model, used to exercise the engine without actual data
+     * (e.g. to record the classes loaded by an evaluation). The evaluation of the returned input may fail.
+     * By default no input is provided
+     *
+     * @param modelDescriptor
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    default Optional<T> getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns an input for the given model with the given data, as decoded from JSON (i.e. <code>Map</code>s,
+     * <code>List</code>s, <code>String</code>s, <code>Number</code>s, <code>Boolean</code>s or <code>null</code>),
+     * used to evaluate models from a generic client (e.g. the HTTP endpoint).
+     * By default no input is provided, i.e. JSON data are not supported
+     *
+     * @param modelDescriptor
+     * @param inputData
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    default Optional<T> getInput(ModelDescriptor modelDescriptor, Object inputData, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the in-memory representation of the given model (e.g. its <code>KiePMMLModel</code>s or its
+     * <code>KieBase</code>), used to measure its footprint. By default no instance is provided
+     *
+     * @param modelDescriptor
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    default Optional<Object> getModelInstance(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.empty();
+    }
+
+    /**
+     * Release what the current engine keeps for the given <code>ClassLoader</code> (e.g. resources loaded through
+     * it), once the <code>RuntimeManager</code> does not use it anymore (e.g. the one of a spilled or unloaded model).
+     * By default nothing is kept
+     *
+     * @param memoryCompilerClassLoader
+     */
+    default void releaseClassLoader(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+    }
+
+    /**
+     * Release what the current engine keeps for the models matching the given filter, once they are unloaded (see
+     * <code>RuntimeManager.unloadModel(FRI)</code>). By default nothing is kept
+     *
+     * @param toUnload
+     */
+    default void unloadModels(Predicate<FRI> toUnload) {
+    }
+
 }
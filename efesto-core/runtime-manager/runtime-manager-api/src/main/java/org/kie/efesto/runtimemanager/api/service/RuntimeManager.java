@@ -15,11 +15,15 @@
  */
 package org.kie.efesto.runtimemanager.api.service;
 
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface RuntimeManager {
@@ -31,6 +35,18 @@ public interface RuntimeManager {
      */
     Optional<EfestoOutput> evaluateInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader);
 
+    /**
+     * Evaluate the given <code>EfestoInput</code> within the given timeout. If the evaluation does not complete in
+     * time, the caller gets an <code>EfestoTimeoutOutput</code> while the evaluation is abandoned and engines are
+     * requested to stop it (see <code>DeadlineUtils</code>)
+     *
+     * @param toEvaluate
+     * @param memoryCompilerClassLoader
+     * @param timeout
+     * @return
+     */
+    Optional<EfestoOutput> evaluateInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, Duration timeout);
+
     /**
      * Produce a <code>List&lt;EfestoOutput&gt;</code> from the given <code>List&lt;EfestoInput&gt;</code>
      *
@@ -39,4 +55,49 @@ public interface RuntimeManager {
      * @return
      */
     List<EfestoOutput> evaluateInputs(List<EfestoInput> toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader);
+
+    /**
+     * Release everything retained for the given <code>FRI</code> (e.g. cached executors), so that its generated classes
+     * could be garbage collected together with their <code>ClassLoader</code>, once the latter is no more referenced
+     * by the caller. Index entries are removed by <code>CompilationManager.unloadModel(FRI)</code>
+     *
+     * @param fri
+     */
+    void unloadModel(FRI fri);
+
+    /**
+     * As {@link #unloadModel(FRI)}, for all the <code>FRI</code>s contained by the given one (e.g. all the models of
+     * a given path)
+     *
+     * @param basePath
+     */
+    void unloadModels(FRI basePath);
+
+    /**
+     * Returns all the deployed models, by model type, sorted by <code>FRI</code>.
+     * Models are read from an in-memory catalog, rebuilt only when <code>IndexFile</code>s change.
+     * The catalog belongs to this instance: managers obtained separately (e.g. by each
+     * <code>SPIUtils.getRuntimeManager(true)</code> invocation, unless services are bootstrapped) read and keep
+     * their own copy
+     *
+     * @return
+     */
+    Map<String, List<ModelDescriptor>> getModels();
+
+    /**
+     * Returns the deployed models of the given model type, sorted by <code>FRI</code>
+     *
+     * @param modelType
+     * @return
+     */
+    List<ModelDescriptor> getModels(String modelType);
+
+    /**
+     * Returns the deployed models contained by the given <code>FRI</code> (e.g. all the models of a given path),
+     * sorted by <code>FRI</code>
+     *
+     * @param basePath
+     * @return
+     */
+    List<ModelDescriptor> getModels(FRI basePath);
 }
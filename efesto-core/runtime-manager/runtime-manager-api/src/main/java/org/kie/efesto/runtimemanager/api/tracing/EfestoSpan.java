@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+/**
+ * A timed operation, ended by {@link #close()}
+ */
+public interface EfestoSpan extends AutoCloseable {
+
+    /**
+     * @return the context to propagate to the nested spans; <code>null</code> when tracing is disabled
+     */
+    EfestoSpanContext getContext();
+
+    EfestoSpan setAttribute(String key, Object value);
+
+    void setError(Throwable error);
+
+    @Override
+    void close();
+}
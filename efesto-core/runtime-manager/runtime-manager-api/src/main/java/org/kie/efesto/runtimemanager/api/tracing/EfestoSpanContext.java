@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+import java.util.Objects;
+
+/**
+ * Identifier of a span, propagated to the spans started inside it (also through <code>EfestoInput</code>s, e.g. on
+ * redirects to other engines)
+ */
+public final class EfestoSpanContext {
+
+    private final long traceId;
+    private final long spanId;
+
+    public EfestoSpanContext(long traceId, long spanId) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    @Override
+    public String toString() {
+        return "EfestoSpanContext{" +
+                "traceId=" + Long.toHexString(traceId) +
+                ", spanId=" + Long.toHexString(spanId) +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EfestoSpanContext that = (EfestoSpanContext) o;
+        return traceId == that.traceId && spanId == that.spanId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+import org.kie.efesto.common.api.model.FRI;
+
+/**
+ * Tracing hook of the runtime, discovered with SPI (the first one found is used): it is invoked per
+ * <code>RuntimeManager</code> evaluation, per redirect hop and per engine phase.
+ * Adapters for external tracing systems implement this interface.
+ *
+ * @see EfestoTracing
+ */
+public interface EfestoTracer {
+
+    /**
+     * @param name
+     * @param fri the evaluated <code>FRI</code>, if any
+     * @param parent the context of the enclosing span, if any
+     * @return
+     */
+    EfestoSpan startSpan(String name, FRI fri, EfestoSpanContext parent);
+
+    /**
+     * @return <code>false</code> to skip span creation altogether
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
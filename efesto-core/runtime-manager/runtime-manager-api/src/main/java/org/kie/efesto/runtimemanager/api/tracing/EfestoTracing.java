@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entry point of the tracing hook.
+ * <p>
+ * The <code>EfestoTracer</code> is the first one found with SPI, or the no-op one; started spans are the
+ * <i>current</i> one of their thread until they are closed, so that nested spans are started inside them.
+ * A parent context carried by an <code>EfestoInput</code> wins over the current one, to follow evaluations that
+ * change thread.
+ * When tracing is disabled, starting a span only costs a volatile read, and returns a shared no-op span.
+ */
+public class EfestoTracing {
+
+    private static final Logger logger = LoggerFactory.getLogger(EfestoTracing.class.getName());
+
+    private static final ThreadLocal<EfestoSpanContext> CURRENT_CONTEXT = new ThreadLocal<>();
+
+    private static volatile EfestoTracer tracer;
+
+    private EfestoTracing() {
+    }
+
+    public static EfestoTracer getTracer() {
+        EfestoTracer toReturn = tracer;
+        if (toReturn == null) {
+            synchronized (EfestoTracing.class) {
+                if (tracer == null) {
+                    tracer = loadTracer();
+                }
+                toReturn = tracer;
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Replace the current <code>EfestoTracer</code>; <code>null</code> restores the no-op one
+     *
+     * @param toSet
+     */
+    public static void setTracer(EfestoTracer toSet) {
+        tracer = toSet != null ? toSet : NoopEfestoTracer.INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return getTracer().isEnabled();
+    }
+
+    /**
+     * @return the context of the span currently open in the calling thread, if any
+     */
+    public static EfestoSpanContext currentContext() {
+        return isEnabled() ? CURRENT_CONTEXT.get() : null;
+    }
+
+    /**
+     * Start a span for the given input, inside the context carried by the input or, if none, inside the current one
+     *
+     * @param name
+     * @param input
+     * @return
+     */
+    public static EfestoSpan startSpan(String name, EfestoInput<?> input) {
+        EfestoTracer currentTracer = getTracer();
+        if (!currentTracer.isEnabled()) {
+            return NoopEfestoTracer.NOOP_SPAN;
+        }
+        EfestoSpanContext parent = input.getSpanContext();
+        return start(currentTracer, name, input.getFRI(), parent != null ? parent : CURRENT_CONTEXT.get());
+    }
+
+    /**
+     * Start a span inside the current one
+     *
+     * @param name
+     * @param fri
+     * @return
+     */
+    public static EfestoSpan startSpan(String name, FRI fri) {
+        EfestoTracer currentTracer = getTracer();
+        if (!currentTracer.isEnabled()) {
+            return NoopEfestoTracer.NOOP_SPAN;
+        }
+        return start(currentTracer, name, fri, CURRENT_CONTEXT.get());
+    }
+
+    /**
+     * Execute the given task with the given context as the current one, e.g. in a thread other than the one of the
+     * enclosing span
+     *
+     * @param context
+     * @param task
+     * @param <T>
+     * @return
+     */
+    public static <T> T callWithContext(EfestoSpanContext context, Supplier<T> task) {
+        if (context == null) {
+            return task.get();
+        }
+        EfestoSpanContext previous = CURRENT_CONTEXT.get();
+        CURRENT_CONTEXT.set(context);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static EfestoSpan start(EfestoTracer currentTracer, String name, FRI fri, EfestoSpanContext parent) {
+        EfestoSpan span = currentTracer.startSpan(name, fri, parent);
+        if (span.getContext() == null) {
+            return span;
+        }
+        EfestoSpanContext previous = CURRENT_CONTEXT.get();
+        CURRENT_CONTEXT.set(span.getContext());
+        return new ScopedSpan(span, previous);
+    }
+
+    private static void restore(EfestoSpanContext previous) {
+        if (previous != null) {
+            CURRENT_CONTEXT.set(previous);
+        } else {
+            CURRENT_CONTEXT.remove();
+        }
+    }
+
+    private static EfestoTracer loadTracer() {
+        Iterator<EfestoTracer> tracers = ServiceLoader.load(EfestoTracer.class).iterator();
+        if (tracers.hasNext()) {
+            EfestoTracer toReturn = tracers.next();
+            logger.debug("Using EfestoTracer {}", toReturn);
+            return toReturn;
+        }
+        return NoopEfestoTracer.INSTANCE;
+    }
+
+    /**
+     * Restores the previous current context on close
+     */
+    private static final class ScopedSpan implements EfestoSpan {
+
+        private final EfestoSpan delegate;
+        private final EfestoSpanContext previous;
+        private final Thread owner = Thread.currentThread();
+
+        private ScopedSpan(EfestoSpan delegate, EfestoSpanContext previous) {
+            this.delegate = delegate;
+            this.previous = previous;
+        }
+
+        @Override
+        public EfestoSpanContext getContext() {
+            return delegate.getContext();
+        }
+
+        @Override
+        public EfestoSpan setAttribute(String key, Object value) {
+            delegate.setAttribute(key, value);
+            return this;
+        }
+
+        @Override
+        public void setError(Throwable error) {
+            delegate.setError(error);
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (owner == Thread.currentThread()) {
+                    restore(previous);
+                }
+            }
+        }
+    }
+}
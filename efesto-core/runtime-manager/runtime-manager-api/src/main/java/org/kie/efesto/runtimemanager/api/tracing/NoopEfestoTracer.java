@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+import org.kie.efesto.common.api.model.FRI;
+
+/**
+ * Default <code>EfestoTracer</code>, used when none is found with SPI: it always returns the same, stateless, span
+ */
+public final class NoopEfestoTracer implements EfestoTracer {
+
+    public static final NoopEfestoTracer INSTANCE = new NoopEfestoTracer();
+
+    static final EfestoSpan NOOP_SPAN = new EfestoSpan() {
+
+        @Override
+        public EfestoSpanContext getContext() {
+            return null;
+        }
+
+        @Override
+        public EfestoSpan setAttribute(String key, Object value) {
+            return this;
+        }
+
+        @Override
+        public void setError(Throwable error) {
+            // nothing to record
+        }
+
+        @Override
+        public void close() {
+            // nothing to record
+        }
+    };
+
+    private NoopEfestoTracer() {
+    }
+
+    @Override
+    public EfestoSpan startSpan(String name, FRI fri, EfestoSpanContext parent) {
+        return NOOP_SPAN;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
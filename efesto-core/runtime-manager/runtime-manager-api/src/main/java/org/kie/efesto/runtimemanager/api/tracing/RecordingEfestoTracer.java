@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.kie.efesto.common.api.model.FRI;
+
+/**
+ * <code>EfestoTracer</code> that keeps the ended spans in memory, e.g. to verify the spans created in tests
+ */
+public class RecordingEfestoTracer implements EfestoTracer {
+
+    private final List<RecordedSpan> spans = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public EfestoSpan startSpan(String name, FRI fri, EfestoSpanContext parent) {
+        long traceId = parent != null ? parent.getTraceId() : ThreadLocalRandom.current().nextLong();
+        EfestoSpanContext context = new EfestoSpanContext(traceId, ThreadLocalRandom.current().nextLong());
+        return new RecordedSpan(name, fri, context, parent);
+    }
+
+    /**
+     * @return the ended spans, in ending order
+     */
+    public List<RecordedSpan> getSpans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    public List<RecordedSpan> getSpans(String name) {
+        return getSpans().stream().filter(span -> span.getName().equals(name)).collect(Collectors.toList());
+    }
+
+    /**
+     * @param parent
+     * @return the ended spans directly started inside the given one
+     */
+    public List<RecordedSpan> getChildren(RecordedSpan parent) {
+        return getSpans().stream()
+                .filter(span -> parent.getContext().equals(span.getParentContext()))
+                .collect(Collectors.toList());
+    }
+
+    public void clear() {
+        spans.clear();
+    }
+
+    public final class RecordedSpan implements EfestoSpan {
+
+        private final String name;
+        private final FRI fri;
+        private final EfestoSpanContext context;
+        private final EfestoSpanContext parentContext;
+        private final long startNanos;
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private long endNanos = -1;
+        private Throwable error;
+
+        private RecordedSpan(String name, FRI fri, EfestoSpanContext context, EfestoSpanContext parentContext) {
+            this.name = name;
+            this.fri = fri;
+            this.context = context;
+            this.parentContext = parentContext;
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public EfestoSpanContext getContext() {
+            return context;
+        }
+
+        @Override
+        public synchronized EfestoSpan setAttribute(String key, Object value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public synchronized void setError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (endNanos >= 0) {
+                    return;
+                }
+                endNanos = System.nanoTime();
+            }
+            spans.add(this);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public FRI getFri() {
+            return fri;
+        }
+
+        public EfestoSpanContext getParentContext() {
+            return parentContext;
+        }
+
+        public synchronized Map<String, Object> getAttributes() {
+            return new LinkedHashMap<>(attributes);
+        }
+
+        public synchronized Optional<Throwable> getError() {
+            return Optional.ofNullable(error);
+        }
+
+        public synchronized long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "RecordedSpan{" +
+                    "name='" + name + '\'' +
+                    ", fri=" + fri +
+                    ", context=" + context +
+                    ", parentContext=" + parentContext +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.utils;
+
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeTimeoutException;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the evaluation running in the current thread.
+ * <p>
+ * The deadline is set by the <code>RuntimeManager</code>; long-running engines are expected to cooperatively check
+ * it (<code>checkDeadline()</code>) inside their loops, or to schedule their own stop (<code>scheduleAtDeadline</code>)
+ * when the work is done by a third-party library, and to stop as soon as it expires.
+ */
+public class DeadlineUtils {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread toReturn = new Thread(runnable, "efesto-deadline-scheduler");
+        toReturn.setDaemon(true);
+        return toReturn;
+    });
+
+    private DeadlineUtils() {
+    }
+
+    /**
+     * Execute the given <code>Supplier</code> with the given deadline (as <code>System.nanoTime()</code>).
+     * Nested invocations can only shorten the current deadline, that is restored at the end
+     *
+     * @param deadlineNanos
+     * @param toExecute
+     * @param <T>
+     * @return
+     */
+    public static <T> T executeWithDeadline(long deadlineNanos, Supplier<T> toExecute) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(previous != null && previous - deadlineNanos < 0 ? previous : deadlineNanos);
+        try {
+            return toExecute.get();
+        } finally {
+            if (previous != null) {
+                DEADLINE.set(previous);
+            } else {
+                DEADLINE.remove();
+            }
+        }
+    }
+
+    public static boolean hasDeadline() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * @return <code>true</code> if the deadline of the current thread expired or the thread has been interrupted
+     * (e.g. because the evaluation has been abandoned)
+     */
+    public static boolean isExpired() {
+        return getRemainingNanos() <= 0 || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * @return the nanoseconds left before the deadline, or <code>Long.MAX_VALUE</code> if there is not a deadline
+     */
+    public static long getRemainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? deadline - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * @throws KieRuntimeTimeoutException if the deadline of the current thread expired
+     */
+    public static void checkDeadline() {
+        if (isExpired()) {
+            throw new KieRuntimeTimeoutException("Evaluation deadline expired");
+        }
+    }
+
+    /**
+     * Schedule the given task at the deadline of the current thread, if any. The returned <code>ScheduledFuture</code>
+     * should be cancelled if the work completes before the deadline
+     *
+     * @param toSchedule
+     * @return
+     */
+    public static Optional<ScheduledFuture<?>> scheduleAtDeadline(Runnable toSchedule) {
+        if (!hasDeadline()) {
+            return Optional.empty();
+        }
+        return Optional.of(SCHEDULER.schedule(toSchedule, Math.max(getRemainingNanos(), 0), TimeUnit.NANOSECONDS));
+    }
+}
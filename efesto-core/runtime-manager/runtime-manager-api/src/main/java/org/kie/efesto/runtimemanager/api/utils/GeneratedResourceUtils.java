@@ -17,16 +17,34 @@ package org.kie.efesto.runtimemanager.api.utils;
 
 import org.kie.efesto.common.api.exceptions.KieEfestoCommonException;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.io.IndexFileManifest;
+import org.kie.efesto.common.api.io.IndexFileShards;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedClassResource;
 import org.kie.efesto.common.api.model.GeneratedExecutableResource;
 import org.kie.efesto.common.api.model.GeneratedRedirectResource;
+import org.kie.efesto.common.api.model.GeneratedResource;
 import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.common.api.utils.JSONUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static org.kie.efesto.common.api.utils.FileUtils.getFileFromFileName;
@@ -47,37 +65,185 @@ public class GeneratedResourceUtils {
     }
 
     public static Optional<GeneratedExecutableResource> getGeneratedExecutableResource(FRI fri, String modelType) {
-        return getIndexFile(modelType).map(indexFile -> {
-            try {
-                GeneratedResources generatedResources = getGeneratedResourcesObject(indexFile);
-                return generatedResources.stream()
-                        .filter(generatedResource -> generatedResource instanceof GeneratedExecutableResource &&
-                                ((GeneratedExecutableResource) generatedResource).getFri().equals(fri))
-                        .findFirst()
-                        .map(GeneratedExecutableResource.class::cast)
-                        .orElse(null);
-            } catch (IOException e) {
-                logger.debug("Failed to read GeneratedResources from {}.", indexFile.getName(), e);
-                return null;
-            }
-        });
+        return findGeneratedResource(modelType, fri, GeneratedExecutableResource.class,
+                                     generatedResource -> generatedResource.getFri().equals(fri));
     }
 
     public static Optional<GeneratedRedirectResource> getGeneratedRedirectResource(FRI fri, String modelType) {
-        return getIndexFile(modelType).map(indexFile -> {
-            try {
-                GeneratedResources generatedResources = getGeneratedResourcesObject(indexFile);
-                return generatedResources.stream()
-                        .filter(generatedResource -> generatedResource instanceof GeneratedRedirectResource &&
-                                ((GeneratedRedirectResource) generatedResource).getFri().equals(fri))
-                        .findFirst()
-                        .map(GeneratedRedirectResource.class::cast)
-                        .orElse(null);
+        return findGeneratedResource(modelType, fri, GeneratedRedirectResource.class,
+                                     generatedResource -> generatedResource.getFri().equals(fri));
+    }
+
+    /**
+     * Returns the bytecode of the classes generated for the given model, read as class resources of the given
+     * <code>ClassLoader</code>: all the generated classes listed by its <code>GeneratedExecutableResource</code>,
+     * or, for <code>IndexFile</code>s written without them, its entry points and their nested classes only (the other
+     * classes they use are then left to the given <code>ClassLoader</code>)
+     *
+     * @param fri
+     * @param classLoader
+     * @return the bytecode by class name, empty if the model is not executable or any of its classes is not available
+     */
+    public static Map<String, byte[]> getCompiledClasses(FRI fri, ClassLoader classLoader) {
+        Optional<GeneratedExecutableResource> executableResource = getGeneratedExecutableResource(fri, fri.getModel());
+        if (executableResource.isEmpty() || executableResource.get().getFullClassNames() == null) {
+            return Collections.emptyMap();
+        }
+        Set<String> classNames = new LinkedHashSet<>(executableResource.get().getFullClassNames());
+        if (executableResource.get().getGeneratedClassNames() != null) {
+            classNames.addAll(executableResource.get().getGeneratedClassNames());
+        } else {
+            getGeneratedResources(fri.getModel()).ifPresent(generatedResources -> generatedResources.stream()
+                    .filter(GeneratedClassResource.class::isInstance)
+                    .map(generatedResource -> ((GeneratedClassResource) generatedResource).getFullClassName())
+                    .filter(fullClassName -> isNested(fullClassName, executableResource.get().getFullClassNames()))
+                    .forEach(classNames::add));
+        }
+        Map<String, byte[]> toReturn = new LinkedHashMap<>();
+        for (String className : classNames) {
+            try (InputStream inputStream = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+                if (inputStream == null) {
+                    logger.debug("Bytecode of {} of {} not available", className, fri);
+                    return Collections.emptyMap();
+                }
+                toReturn.put(className, inputStream.readAllBytes());
             } catch (IOException e) {
-                logger.debug("Failed to read GeneratedResources from {}.", indexFile.getName(), e);
-                return null;
+                logger.debug("Failed to read bytecode of {} of {}", className, fri, e);
+                return Collections.emptyMap();
+            }
+        }
+        return toReturn;
+    }
+
+    static boolean isNested(String fullClassName, Collection<String> outerClassNames) {
+        int innerClassIndex = fullClassName.indexOf('$');
+        return innerClassIndex > 0 && outerClassNames.contains(fullClassName.substring(0, innerClassIndex));
+    }
+
+    /**
+     * Returns the first <code>GeneratedResource</code> of the given type that satisfies the given filter, searching
+     * the in-memory index (see <code>MemoryIndexFiles</code>) and then <b>all</b> the <code>IndexFile</code>s of the
+     * given model type available in the classpath, shards included (see <code>IndexFileShards</code>).
+     * Each <code>IndexFile</code> is parsed as a stream, that stops at the first match, so that the whole
+     * <code>GeneratedResources</code> are never materialized
+     *
+     * @param modelType
+     * @param resourceType
+     * @param filter
+     * @param <T>
+     * @return
+     */
+    static <T extends GeneratedResource> Optional<T> findGeneratedResource(String modelType, Class<T> resourceType,
+                                                                           Predicate<T> filter) {
+        return findGeneratedResource(modelType, null, resourceType, filter);
+    }
+
+    /**
+     * Same as {@link #findGeneratedResource(String, Class, Predicate)}, but only the shards of the given
+     * <code>FRI</code> are read, when the filter only accepts resources of that <code>FRI</code>; a <code>null</code>
+     * <code>FRI</code> means all the shards
+     *
+     * @param modelType
+     * @param fri
+     * @param resourceType
+     * @param filter
+     * @param <T>
+     * @return
+     */
+    static <T extends GeneratedResource> Optional<T> findGeneratedResource(String modelType, FRI fri,
+                                                                           Class<T> resourceType,
+                                                                           Predicate<T> filter) {
+        Optional<T> fromMemory = MemoryIndexFiles.getGeneratedResources(modelType)
+                .flatMap(generatedResources -> generatedResources.stream()
+                        .filter(resourceType::isInstance)
+                        .map(resourceType::cast)
+                        .filter(filter)
+                        .findFirst());
+        if (fromMemory.isPresent()) {
+            logger.debug("{} found in memory for {}", resourceType.getSimpleName(), modelType);
+            return fromMemory;
+        }
+        String indexFileName = new IndexFile(modelType).getName();
+        try {
+            List<URL> indexFileUrls = new ArrayList<>(Collections.list(Thread.currentThread().getContextClassLoader().getResources(indexFileName)));
+            indexFileUrls.addAll(getShardUrls(modelType, fri));
+            for (URL indexFileUrl : indexFileUrls) {
+                try (InputStream inputStream = indexFileUrl.openStream()) {
+                    Optional<T> toReturn = JSONUtils.findGeneratedResource(inputStream, resourceType, filter);
+                    if (toReturn.isPresent()) {
+                        logger.debug("{} found in IndexFile {} at {}", resourceType.getSimpleName(), indexFileName, indexFileUrl);
+                        return toReturn;
+                    }
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.debug("Failed to read {} from {}.", resourceType.getSimpleName(), indexFileName, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the <code>GeneratedResources</code> merged from <b>all</b> the <code>IndexFile</code>s of the given
+     * model type available in the classpath, both as plain files (e.g. generated in-memory at runtime) and packaged
+     * inside jars (e.g. generated at build time by <b>efesto-maven-plugin</b>), together with the in-memory index
+     * (see <code>MemoryIndexFiles</code>)
+     *
+     * @param modelType
+     * @return
+     */
+    public static Optional<GeneratedResources> getGeneratedResources(String modelType) {
+        String indexFileName = new IndexFile(modelType).getName();
+        Optional<GeneratedResources> fromMemory = MemoryIndexFiles.getGeneratedResources(modelType);
+        try {
+            List<URL> indexFileUrls = new ArrayList<>(Collections.list(Thread.currentThread().getContextClassLoader().getResources(indexFileName)));
+            indexFileUrls.addAll(getShardUrls(modelType, null));
+            if (indexFileUrls.isEmpty()) {
+                logger.debug("IndexFile {} does not exists.", indexFileName);
+                return fromMemory;
             }
-        });
+            GeneratedResources toReturn = fromMemory.orElseGet(GeneratedResources::new);
+            for (URL indexFileUrl : indexFileUrls) {
+                logger.debug("IndexFile {} found at {}", indexFileName, indexFileUrl);
+                try (InputStream inputStream = indexFileUrl.openStream()) {
+                    toReturn.addAll(getGeneratedResourcesObject(inputStream));
+                }
+            }
+            return Optional.of(toReturn);
+        } catch (IOException e) {
+            logger.debug("Failed to read GeneratedResources from {}.", indexFileName, e);
+            return fromMemory;
+        }
+    }
+
+    /**
+     * Returns the <code>URL</code>s of the written shards of the given model type, for <b>each</b> manifest available
+     * in the classpath; when an <code>FRI</code> is given, only its shard is returned, for each manifest.
+     * Shards are resolved against the location of their own manifest, so that the shards packaged in different
+     * jars never get mixed
+     *
+     * @param modelType
+     * @param fri
+     * @return
+     * @throws IOException
+     */
+    static Collection<URL> getShardUrls(String modelType, FRI fri) throws IOException {
+        List<URL> toReturn = new ArrayList<>();
+        Enumeration<URL> manifestUrls = Thread.currentThread().getContextClassLoader().getResources(IndexFileShards.getManifestResourceName(modelType));
+        while (manifestUrls.hasMoreElements()) {
+            URL manifestUrl = manifestUrls.nextElement();
+            IndexFileManifest manifest;
+            try (InputStream inputStream = manifestUrl.openStream()) {
+                manifest = JSONUtils.getIndexFileManifestObject(inputStream);
+            }
+            Collection<String> shards = fri != null ? Collections.singleton(manifest.getShard(fri)) : manifest.getShards();
+            for (String shard : shards) {
+                if (manifest.getShards().contains(shard)) {
+                    toReturn.add(new URL(manifestUrl, IndexFileShards.getShardRelativeName(shard, modelType)));
+                }
+            }
+        }
+        return toReturn;
     }
 
     public static Optional<IndexFile> getIndexFile(String modelType) {
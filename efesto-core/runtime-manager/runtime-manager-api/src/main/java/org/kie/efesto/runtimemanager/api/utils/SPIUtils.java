@@ -15,7 +15,11 @@
  */
 package org.kie.efesto.runtimemanager.api.utils;
 
+import org.kie.efesto.common.api.jfr.SPILookupEvent;
+import org.kie.efesto.common.api.spi.ServiceRegistries;
+import org.kie.efesto.common.api.spi.ServiceRegistry;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
 import org.kie.memorycompiler.KieMemoryCompiler;
@@ -37,8 +41,36 @@ public class SPIUtils {
 
     public static Optional<KieRuntimeService> getKieRuntimeService(EfestoInput<?> darInput, boolean refresh, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         logger.debug("getKieRuntimeService {} {}", darInput, refresh);
+        SPILookupEvent event = new SPILookupEvent();
+        event.begin();
         List<KieRuntimeService> retrieved = getKieRuntimeServices(refresh);
-        return retrieved.stream().filter(service -> service.canManageInput(darInput, memoryCompilerClassLoader)).findFirst();
+        Optional<KieRuntimeService> toReturn = retrieved.stream().filter(service -> service.canManageInput(darInput, memoryCompilerClassLoader)).findFirst();
+        commitLookupEvent(event, KieRuntimeService.class, darInput, toReturn.isPresent());
+        return toReturn;
+    }
+
+    /**
+     * Returns the <code>EfestoBoundExecutor</code> provided by the first <code>KieRuntimeService</code> able to
+     * manage the given <code>EfestoInput</code>
+     *
+     * @param darInput
+     * @param refresh
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<EfestoBoundExecutor> getBoundExecutor(EfestoInput<?> darInput, boolean refresh, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        logger.debug("getBoundExecutor {} {}", darInput, refresh);
+        SPILookupEvent event = new SPILookupEvent();
+        event.begin();
+        List<KieRuntimeService> retrieved = getKieRuntimeServices(refresh);
+        Optional<EfestoBoundExecutor> toReturn = retrieved.stream()
+                .map(service -> (Optional<EfestoBoundExecutor>) service.getBoundExecutor(darInput, memoryCompilerClassLoader))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+        commitLookupEvent(event, EfestoBoundExecutor.class, darInput, toReturn.isPresent());
+        return toReturn;
     }
 
     public static List<KieRuntimeService> getKieRuntimeServices(boolean refresh) {
@@ -62,7 +94,22 @@ public class SPIUtils {
     }
 
 
+    private static void commitLookupEvent(SPILookupEvent event, Class<?> service, EfestoInput<?> darInput, boolean found) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = service.getName();
+            event.target = String.valueOf(darInput.getFRI());
+            event.found = found;
+            event.commit();
+        }
+    }
+
     private static Iterator<KieRuntimeService> getServices(boolean refresh) {
+        Optional<ServiceRegistry<KieRuntimeService>> registry = ServiceRegistries.getRegistry(KieRuntimeService.class);
+        if (registry.isPresent()) {
+            // bootstrapped: instances are shared and never reloaded
+            return registry.get().getServices().iterator();
+        }
         if (refresh) {
             kieRuntimeServiceLoader.reload();
         }
@@ -70,6 +117,11 @@ public class SPIUtils {
     }
 
     private static Iterator<RuntimeManager> getManagers(boolean refresh) {
+        Optional<ServiceRegistry<RuntimeManager>> registry = ServiceRegistries.getRegistry(RuntimeManager.class);
+        if (registry.isPresent()) {
+            // bootstrapped: instances are shared and never reloaded
+            return registry.get().getServices().iterator();
+        }
         if (refresh) {
             runtimeManagerLoader.reload();
         }
@@ -18,10 +18,12 @@ package org.kie.efesto.runtimemanager.api.mocks;
 
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
 
 public abstract class AbstractMockEfestoInput implements EfestoInput<String> {
 
     private final FRI fri = new FRI(this.getClass().getPackageName(), this.getClass().getSimpleName());
+    private EfestoSpanContext spanContext;
 
     @Override
     public FRI getFRI() {
@@ -32,4 +34,13 @@ public abstract class AbstractMockEfestoInput implements EfestoInput<String> {
     public String getInputData() {
         return null;
     }
+
+    @Override
+    public EfestoSpanContext getSpanContext() {
+        return spanContext;
+    }
+
+    public void setSpanContext(EfestoSpanContext spanContext) {
+        this.spanContext = spanContext;
+    }
 }
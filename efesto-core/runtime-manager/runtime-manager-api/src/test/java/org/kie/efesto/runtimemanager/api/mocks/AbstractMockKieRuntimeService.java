@@ -15,14 +15,33 @@
  */
 package org.kie.efesto.runtimemanager.api.mocks;
 
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 public abstract class AbstractMockKieRuntimeService<T extends AbstractMockEfestoInput> implements KieRuntimeService<String, String, T, MockEfestoOutput> {
 
+    private static final Set<ClassLoader> RELEASED_CLASSLOADERS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final List<Predicate<FRI>> UNLOADED = new CopyOnWriteArrayList<>();
+
+    public static boolean isReleased(ClassLoader classLoader) {
+        return RELEASED_CLASSLOADERS.contains(classLoader);
+    }
+
+    public static boolean isUnloaded(FRI fri) {
+        return UNLOADED.stream().anyMatch(toUnload -> toUnload.test(fri));
+    }
+
     @Override
     public Optional<MockEfestoOutput> evaluateInput(T toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         if (!canManageInput(toEvaluate, memoryCompilerClassLoader)) {
@@ -31,4 +50,14 @@ public abstract class AbstractMockKieRuntimeService<T extends AbstractMockEfesto
         return Optional.of(new MockEfestoOutput());
     }
 
+    @Override
+    public void releaseClassLoader(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        RELEASED_CLASSLOADERS.add(memoryCompilerClassLoader);
+    }
+
+    @Override
+    public void unloadModels(Predicate<FRI> toUnload) {
+        UNLOADED.add(toUnload);
+    }
+
 }
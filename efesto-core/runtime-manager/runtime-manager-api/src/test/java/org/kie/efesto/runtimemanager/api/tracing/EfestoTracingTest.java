@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.tracing;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputA;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EfestoTracingTest {
+
+    private static final FRI FRI_A = new FRI("this/is/fri_a", "foo");
+
+    @AfterEach
+    void cleanUp() {
+        EfestoTracing.setTracer(null);
+    }
+
+    @Test
+    void disabled() {
+        EfestoTracing.setTracer(null);
+        assertThat(EfestoTracing.isEnabled()).isFalse();
+        try (EfestoSpan span = EfestoTracing.startSpan("outer", FRI_A)) {
+            assertThat(span).isSameAs(NoopEfestoTracer.NOOP_SPAN);
+            assertThat(span.getContext()).isNull();
+            assertThat(EfestoTracing.currentContext()).isNull();
+        }
+    }
+
+    @Test
+    void nestedSpans() {
+        RecordingEfestoTracer tracer = new RecordingEfestoTracer();
+        EfestoTracing.setTracer(tracer);
+        try (EfestoSpan outer = EfestoTracing.startSpan("outer", FRI_A)) {
+            assertThat(EfestoTracing.currentContext()).isEqualTo(outer.getContext());
+            try (EfestoSpan inner = EfestoTracing.startSpan("inner", FRI_A)) {
+                inner.setAttribute("key", "value");
+                assertThat(EfestoTracing.currentContext()).isEqualTo(inner.getContext());
+            }
+            assertThat(EfestoTracing.currentContext()).isEqualTo(outer.getContext());
+        }
+        assertThat(EfestoTracing.currentContext()).isNull();
+        List<RecordingEfestoTracer.RecordedSpan> spans = tracer.getSpans();
+        assertThat(spans).extracting(RecordingEfestoTracer.RecordedSpan::getName).containsExactly("inner", "outer");
+        RecordingEfestoTracer.RecordedSpan outer = spans.get(1);
+        RecordingEfestoTracer.RecordedSpan inner = spans.get(0);
+        assertThat(outer.getParentContext()).isNull();
+        assertThat(tracer.getChildren(outer)).containsExactly(inner);
+        assertThat(inner.getContext().getTraceId()).isEqualTo(outer.getContext().getTraceId());
+        assertThat(inner.getAttributes()).containsEntry("key", "value");
+        assertThat(outer.getDurationNanos()).isGreaterThanOrEqualTo(inner.getDurationNanos());
+    }
+
+    @Test
+    void inputContext() {
+        RecordingEfestoTracer tracer = new RecordingEfestoTracer();
+        EfestoTracing.setTracer(tracer);
+        EfestoSpanContext parent = new EfestoSpanContext(1, 2);
+        MockEfestoInputA input = new MockEfestoInputA();
+        input.setSpanContext(parent);
+        try (EfestoSpan ignored = EfestoTracing.startSpan("current", FRI_A)) {
+            // the context carried by the input wins over the current one
+            EfestoTracing.startSpan("hop", input).close();
+        }
+        RecordingEfestoTracer.RecordedSpan hop = tracer.getSpans("hop").get(0);
+        assertThat(hop.getParentContext()).isEqualTo(parent);
+        assertThat(hop.getContext().getTraceId()).isEqualTo(1);
+        assertThat(hop.getFri()).isEqualTo(input.getFRI());
+    }
+
+    @Test
+    void callWithContext() throws InterruptedException {
+        RecordingEfestoTracer tracer = new RecordingEfestoTracer();
+        EfestoTracing.setTracer(tracer);
+        EfestoSpanContext parent;
+        try (EfestoSpan span = EfestoTracing.startSpan("caller", FRI_A)) {
+            parent = span.getContext();
+        }
+        Thread thread = new Thread(() -> EfestoTracing.callWithContext(parent, () -> {
+            EfestoTracing.startSpan("callee", FRI_A).close();
+            return null;
+        }));
+        thread.start();
+        thread.join();
+        assertThat(tracer.getSpans("callee")).singleElement()
+                .satisfies(callee -> assertThat(callee.getParentContext()).isEqualTo(parent));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.api.utils;
+
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeTimeoutException;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineUtilsTest {
+
+    @Test
+    void withoutDeadline() {
+        assertThat(DeadlineUtils.hasDeadline()).isFalse();
+        assertThat(DeadlineUtils.isExpired()).isFalse();
+        assertThat(DeadlineUtils.getRemainingNanos()).isEqualTo(Long.MAX_VALUE);
+        assertThat(DeadlineUtils.scheduleAtDeadline(() -> {
+        })).isEmpty();
+        DeadlineUtils.checkDeadline();
+    }
+
+    @Test
+    void executeWithDeadline() {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        boolean retrieved = DeadlineUtils.executeWithDeadline(deadline, () -> {
+            assertThat(DeadlineUtils.hasDeadline()).isTrue();
+            assertThat(DeadlineUtils.isExpired()).isFalse();
+            // nested deadlines can only be shorter
+            DeadlineUtils.executeWithDeadline(deadline + TimeUnit.MINUTES.toNanos(1), () -> {
+                assertThat(DeadlineUtils.getRemainingNanos()).isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(1));
+                return null;
+            });
+            DeadlineUtils.executeWithDeadline(System.nanoTime() - 1, () -> {
+                assertThat(DeadlineUtils.isExpired()).isTrue();
+                assertThatThrownBy(DeadlineUtils::checkDeadline).isInstanceOf(KieRuntimeTimeoutException.class);
+                return null;
+            });
+            // the outer deadline is restored
+            return DeadlineUtils.isExpired();
+        });
+        assertThat(retrieved).isFalse();
+        assertThat(DeadlineUtils.hasDeadline()).isFalse();
+    }
+
+    @Test
+    void scheduleAtDeadline() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(1);
+        Optional<ScheduledFuture<?>> retrieved = DeadlineUtils.executeWithDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10),
+                                                                                   () -> DeadlineUtils.scheduleAtDeadline(executed::countDown));
+        assertThat(retrieved).isPresent();
+        assertThat(executed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
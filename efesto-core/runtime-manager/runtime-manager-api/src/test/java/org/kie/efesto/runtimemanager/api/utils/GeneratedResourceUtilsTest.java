@@ -16,11 +16,30 @@ package org.kie.efesto.runtimemanager.api.utils;/*
 
 import org.junit.jupiter.api.Test;
 import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.api.io.IndexFileManifest;
+import org.kie.efesto.common.api.io.IndexFileShards;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedClassResource;
 import org.kie.efesto.common.api.model.GeneratedExecutableResource;
 import org.kie.efesto.common.api.model.GeneratedRedirectResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.common.api.utils.JSONUtils;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -51,4 +70,148 @@ class GeneratedResourceUtilsTest {
         Optional<IndexFile> retrieved = GeneratedResourceUtils.getIndexFile("test");
         assertThat(retrieved).isNotNull().isPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getGeneratedResources() {
+        Optional<GeneratedResources> retrieved = GeneratedResourceUtils.getGeneratedResources("test");
+        assertThat(retrieved).isNotNull().isPresent();
+        assertThat(retrieved.get()).isNotEmpty();
+        retrieved = GeneratedResourceUtils.getGeneratedResources("notexisting");
+        assertThat(retrieved).isNotNull().isNotPresent();
+    }
+
+    @Test
+    void getGeneratedResourcesFromJar() throws Exception {
+        String indexFileName = new IndexFile("jarred").getName();
+        File jarFile = File.createTempFile("prebuilt", ".jar");
+        jarFile.deleteOnExit();
+        try (JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jarFile));
+             InputStream indexFileContent = Thread.currentThread().getContextClassLoader().getResourceAsStream(new IndexFile("test").getName())) {
+            jarOutputStream.putNextEntry(new ZipEntry(indexFileName));
+            indexFileContent.transferTo(jarOutputStream);
+            jarOutputStream.closeEntry();
+        }
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader jarClassLoader = new URLClassLoader(new URL[]{jarFile.toURI().toURL()}, originalClassLoader)) {
+            Thread.currentThread().setContextClassLoader(jarClassLoader);
+            FRI fri = new FRI("testmod", "test");
+            Optional<GeneratedExecutableResource> retrieved = GeneratedResourceUtils.getGeneratedExecutableResource(fri, "jarred");
+            assertThat(retrieved).isNotNull().isPresent();
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    @Test
+    void getGeneratedResourcesFromMemory() {
+        FRI fri = new FRI("memorymod", "inmemory");
+        GeneratedExecutableResource executableResource = new GeneratedExecutableResource(fri, Collections.singletonList("full.class.Name"));
+        try {
+            MemoryIndexFiles.addGeneratedResources("inmemory", Collections.singletonList(executableResource));
+            assertThat(GeneratedResourceUtils.getGeneratedExecutableResource(fri, "inmemory")).contains(executableResource);
+            assertThat(GeneratedResourceUtils.isPresentExecutableOrRedirect(fri, "inmemory")).isTrue();
+            Optional<GeneratedResources> retrieved = GeneratedResourceUtils.getGeneratedResources("inmemory");
+            assertThat(retrieved).isNotNull().isPresent();
+            assertThat(retrieved.get()).containsExactly(executableResource);
+        } finally {
+            MemoryIndexFiles.clear();
+        }
+    }
+
+    @Test
+    void getCompiledClasses() {
+        FRI fri = new FRI("compiled", "inmemory");
+        String entryPoint = GeneratedResourceUtilsTest.class.getName();
+        try {
+            MemoryIndexFiles.addGeneratedResources("inmemory", Arrays.asList(new GeneratedExecutableResource(fri, Collections.singletonList(entryPoint)),
+                                                                             new GeneratedClassResource(entryPoint),
+                                                                             new GeneratedClassResource(Nested.class.getName()),
+                                                                             new GeneratedClassResource(GeneratedResourceUtils.class.getName())));
+            Map<String, byte[]> retrieved = GeneratedResourceUtils.getCompiledClasses(fri, getClass().getClassLoader());
+            assertThat(retrieved).containsOnlyKeys(entryPoint, Nested.class.getName());
+            assertThat(retrieved.get(entryPoint)).startsWith((byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE);
+            // classes not available
+            FRI notAvailable = new FRI("notavailable", "inmemory");
+            MemoryIndexFiles.addGeneratedResources("inmemory", Collections.singletonList(new GeneratedExecutableResource(notAvailable, Collections.singletonList("full.class.Name"))));
+            assertThat(GeneratedResourceUtils.getCompiledClasses(notAvailable, getClass().getClassLoader())).isEmpty();
+            assertThat(GeneratedResourceUtils.getCompiledClasses(new FRI("notexecutable", "inmemory"), getClass().getClassLoader())).isEmpty();
+        } finally {
+            MemoryIndexFiles.clear();
+        }
+    }
+
+    @Test
+    void getCompiledClassesWithGeneratedClassNames() {
+        FRI fri = new FRI("compiled", "inmemory");
+        String entryPoint = GeneratedResourceUtilsTest.class.getName();
+        try {
+            // all the listed classes are read, even the ones not nested in the entry points
+            MemoryIndexFiles.addGeneratedResources("inmemory", Arrays.asList(new GeneratedExecutableResource(fri, Collections.singletonList(entryPoint), null,
+                                                                                                             Arrays.asList(entryPoint, GeneratedResourceUtils.class.getName())),
+                                                                             new GeneratedClassResource(entryPoint),
+                                                                             new GeneratedClassResource(Nested.class.getName()),
+                                                                             new GeneratedClassResource(GeneratedResourceUtils.class.getName())));
+            Map<String, byte[]> retrieved = GeneratedResourceUtils.getCompiledClasses(fri, getClass().getClassLoader());
+            assertThat(retrieved).containsOnlyKeys(entryPoint, GeneratedResourceUtils.class.getName());
+        } finally {
+            MemoryIndexFiles.clear();
+        }
+    }
+
+    @Test
+    void isNested() {
+        assertThat(GeneratedResourceUtils.isNested("a.B$C", Collections.singleton("a.B"))).isTrue();
+        assertThat(GeneratedResourceUtils.isNested("a.B$C$D", Collections.singleton("a.B"))).isTrue();
+        assertThat(GeneratedResourceUtils.isNested("a.B", Collections.singleton("a.B"))).isFalse();
+        assertThat(GeneratedResourceUtils.isNested("a.BC$D", Collections.singleton("a.B"))).isFalse();
+    }
+
+    @Test
+    void getGeneratedResourcesFromShards() throws Exception {
+        String modelType = "sharded";
+        int shardCount = 4;
+        FRI fri = new FRI("shardedmod", modelType);
+        GeneratedExecutableResource executableResource = new GeneratedExecutableResource(fri, Collections.singletonList("full.class.Name"));
+        String shard = IndexFileShards.getShard(fri, shardCount);
+        IndexFileManifest manifest = new IndexFileManifest(shardCount, null);
+        File jarFile = File.createTempFile("sharded", ".jar");
+        jarFile.deleteOnExit();
+        try (JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jarFile))) {
+            for (int i = 0; i < shardCount; i++) {
+                String toWrite = String.format("%02x", i);
+                manifest = manifest.withShard(toWrite);
+                GeneratedResources generatedResources = new GeneratedResources();
+                if (toWrite.equals(shard)) {
+                    generatedResources.add(executableResource);
+                }
+                // other shards are not valid json: they must never be read when looking for the given FRI
+                String content = toWrite.equals(shard) ? JSONUtils.getGeneratedResourcesString(generatedResources) : "[ not json";
+                jarOutputStream.putNextEntry(new ZipEntry(IndexFileShards.getShardsDirectoryName(modelType) + "/" +
+                                                                  IndexFileShards.getShardRelativeName(toWrite, modelType)));
+                jarOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+                jarOutputStream.closeEntry();
+            }
+            File manifestFile = File.createTempFile("manifest", "_json");
+            manifestFile.deleteOnExit();
+            JSONUtils.writeIndexFileManifestObject(manifest, manifestFile);
+            jarOutputStream.putNextEntry(new ZipEntry(IndexFileShards.getManifestResourceName(modelType)));
+            jarOutputStream.write(Files.readAllBytes(manifestFile.toPath()));
+            jarOutputStream.closeEntry();
+        }
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader jarClassLoader = new URLClassLoader(new URL[]{jarFile.toURI().toURL()}, originalClassLoader)) {
+            Thread.currentThread().setContextClassLoader(jarClassLoader);
+            assertThat(GeneratedResourceUtils.getShardUrls(modelType, fri)).singleElement()
+                    .satisfies(url -> assertThat(url.toString()).endsWith(IndexFileShards.getShardRelativeName(shard, modelType)));
+            assertThat(GeneratedResourceUtils.getShardUrls(modelType, null)).hasSize(shardCount);
+            assertThat(GeneratedResourceUtils.getGeneratedExecutableResource(fri, modelType)).contains(executableResource);
+            assertThat(GeneratedResourceUtils.isPresentExecutableOrRedirect(fri, modelType)).isTrue();
+            assertThat(GeneratedResourceUtils.getShardUrls("notexisting", fri)).isEmpty();
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    private static final class Nested {
+    }
+}
@@ -15,14 +15,19 @@ package org.kie.efesto.runtimemanager.api.utils;/*
  */
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.spi.ServiceRegistries;
 import org.kie.efesto.runtimemanager.api.mocks.MockKieRuntimeServiceAB;
 import org.kie.efesto.runtimemanager.api.mocks.MockKieRuntimeServiceC;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class TestSPIUtils {
 
     private static final List<Class<? extends KieRuntimeService>> KIE_RUNTIME_SERVICES = Arrays.asList(MockKieRuntimeServiceAB.class, MockKieRuntimeServiceC.class);
@@ -34,6 +39,24 @@ class TestSPIUtils {
         memoryCompilerClassLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
     }
 
+    @Test
+    void getKieRuntimeServicesBootstrapped() {
+        try {
+            ServiceRegistries.bootstrap(Collections.singletonList(KieRuntimeService.class), Thread.currentThread().getContextClassLoader());
+            List<KieRuntimeService> retrieved = SPIUtils.getKieRuntimeServices(true);
+            assertThat(retrieved).hasSize(3);
+            assertThat(retrieved.get(0)).isInstanceOf(MockKieRuntimeServiceAB.class);
+            // bootstrapped instances are shared, even on refresh
+            List<KieRuntimeService> retrievedAgain = SPIUtils.getKieRuntimeServices(true);
+            for (int i = 0; i < retrieved.size(); i++) {
+                assertThat(retrievedAgain.get(i)).isSameAs(retrieved.get(i));
+            }
+        } finally {
+            ServiceRegistries.clear();
+        }
+        assertThat(SPIUtils.getKieRuntimeServices(false).get(0)).isNotSameAs(SPIUtils.getKieRuntimeServices(true).get(0));
+    }
+
 
 //    @Test
 //    void getKieRuntimeService() {
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.admission;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static org.kie.efesto.common.api.model.FRI.SLASH;
+
+/**
+ * Admission control of evaluations.
+ * <p>
+ * Every evaluation has to acquire a slot of its model <b>and</b> a global one before running.
+ * The model slot is acquired first, so that requests of a saturated model wait in the queue of that model, and do
+ * not hold global slots needed by other models.
+ * <p>
+ * Limits are defined
+ * <ul>
+ * <li>globally (<code>efesto.runtime.admission.global</code>)</li>
+ * <li>for each model without a more specific configuration (<code>efesto.runtime.admission.model</code>)</li>
+ * <li>for a model path, shared by all the models under it (<code>efesto.runtime.admission.path.&lt;path&gt;</code>, e.g.
+ * <code>efesto.runtime.admission.path./pmml/LoanApproval</code>); the longest matching path wins</li>
+ * </ul>
+ * all in the <code>maxConcurrent[,maxQueued]</code> format. <code>efesto.runtime.admission.queueTimeoutMillis</code>
+ * bounds the time spent in queue (no timeout by default).
+ * Without any limit, admission control is disabled and does not add any overhead.
+ */
+public final class AdmissionController {
+
+    public static final String ADMISSION_PROPERTY_PREFIX = "efesto.runtime.admission.";
+    public static final String GLOBAL_LIMITS_PROPERTY = ADMISSION_PROPERTY_PREFIX + "global";
+    public static final String MODEL_LIMITS_PROPERTY = ADMISSION_PROPERTY_PREFIX + "model";
+    public static final String PATH_LIMITS_PROPERTY_PREFIX = ADMISSION_PROPERTY_PREFIX + "path.";
+    public static final String QUEUE_TIMEOUT_PROPERTY = ADMISSION_PROPERTY_PREFIX + "queueTimeoutMillis";
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class.getName());
+
+    private static final Permit NO_OP_PERMIT = () -> {
+    };
+
+    private final boolean enabled;
+    private final Limiter globalLimiter;
+    private final AdmissionLimits modelLimits;
+    private final Map<String, Limiter> pathLimiters;
+    private final Map<FRI, Limiter> modelLimiters = new ConcurrentHashMap<>();
+    private final long queueTimeoutMillis;
+
+    public AdmissionController(AdmissionLimits globalLimits, AdmissionLimits modelLimits,
+                               Map<String, AdmissionLimits> pathLimits, long queueTimeoutMillis) {
+        this.globalLimiter = new Limiter("global", globalLimits);
+        this.modelLimits = modelLimits;
+        Map<String, Limiter> limiters = new LinkedHashMap<>();
+        pathLimits.forEach((path, limits) -> limiters.put(path, new Limiter(path, limits)));
+        this.pathLimiters = Collections.unmodifiableMap(limiters);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.enabled = !globalLimits.isUnlimited() || !modelLimits.isUnlimited() ||
+                pathLimits.values().stream().anyMatch(limits -> !limits.isUnlimited());
+    }
+
+    /**
+     * @return an <code>AdmissionController</code> that admits everything
+     */
+    public static AdmissionController unlimited() {
+        return new AdmissionController(AdmissionLimits.UNLIMITED, AdmissionLimits.UNLIMITED, Collections.emptyMap(), 0);
+    }
+
+    /**
+     * @return an <code>AdmissionController</code> configured with the <code>efesto.runtime.admission.*</code> system properties
+     */
+    public static AdmissionController fromSystemProperties() {
+        return fromProperties(System.getProperties());
+    }
+
+    public static AdmissionController fromProperties(Properties properties) {
+        AdmissionLimits globalLimits = getLimits(properties, GLOBAL_LIMITS_PROPERTY);
+        AdmissionLimits modelLimits = getLimits(properties, MODEL_LIMITS_PROPERTY);
+        Map<String, AdmissionLimits> pathLimits = new LinkedHashMap<>();
+        properties.stringPropertyNames().stream()
+                .filter(propertyName -> propertyName.startsWith(PATH_LIMITS_PROPERTY_PREFIX))
+                .sorted()
+                .forEach(propertyName -> pathLimits.put(propertyName.substring(PATH_LIMITS_PROPERTY_PREFIX.length()),
+                                                        getLimits(properties, propertyName)));
+        long queueTimeoutMillis = Long.parseLong(properties.getProperty(QUEUE_TIMEOUT_PROPERTY, "0").trim());
+        AdmissionController toReturn = new AdmissionController(globalLimits, modelLimits, pathLimits, queueTimeoutMillis);
+        if (toReturn.isEnabled()) {
+            logger.info("Admission control enabled: global {}, model {}, paths {}, queue timeout {} ms",
+                        globalLimits, modelLimits, pathLimits, queueTimeoutMillis);
+        }
+        return toReturn;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Acquire the slots needed to evaluate the given model, waiting in queue if needed. The returned
+     * <code>Permit</code> <b>must</b> be closed when the evaluation is over.
+     *
+     * @param fri
+     * @return
+     * @throws KieRuntimeAdmissionException if the evaluation is rejected
+     */
+    public Permit acquire(FRI fri) {
+        if (!enabled) {
+            return NO_OP_PERMIT;
+        }
+        Limiter modelLimiter = fri != null ? getModelLimiter(fri) : null;
+        if (modelLimiter != null) {
+            modelLimiter.acquire(queueTimeoutMillis);
+        }
+        try {
+            globalLimiter.acquire(queueTimeoutMillis);
+        } catch (KieRuntimeAdmissionException e) {
+            if (modelLimiter != null) {
+                modelLimiter.release();
+            }
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                globalLimiter.release();
+                if (modelLimiter != null) {
+                    modelLimiter.release();
+                }
+            }
+        };
+    }
+
+    public AdmissionCounters getGlobalCounters() {
+        return globalLimiter.getCounters();
+    }
+
+    /**
+     * @param fri
+     * @return the counters of the scope (model path or single model) the given model belongs to, if it has
+     * already been evaluated
+     */
+    public Optional<AdmissionCounters> getCounters(FRI fri) {
+        Limiter toReturn = fri != null ? modelLimiters.get(fri) : null;
+        return toReturn != null ? Optional.of(toReturn.getCounters()) : Optional.empty();
+    }
+
+    /**
+     * @return the counters of all the scopes (model paths and single models) by name
+     */
+    public Map<String, AdmissionCounters> getCounters() {
+        Map<String, AdmissionCounters> toReturn = new LinkedHashMap<>();
+        toReturn.put(globalLimiter.getName(), globalLimiter.getCounters());
+        pathLimiters.forEach((path, limiter) -> toReturn.put(path, limiter.getCounters()));
+        modelLimiters.values().forEach(limiter -> toReturn.putIfAbsent(limiter.getName(), limiter.getCounters()));
+        return toReturn;
+    }
+
+    /**
+     * Forget the per-model counters of the <code>FRI</code>s matching the given filter (e.g. unloaded models)
+     *
+     * @param toRemove
+     */
+    public void removeModels(Predicate<FRI> toRemove) {
+        modelLimiters.keySet().removeIf(toRemove);
+    }
+
+    Limiter getModelLimiter(FRI fri) {
+        return modelLimiters.computeIfAbsent(fri, this::resolveModelLimiter);
+    }
+
+    private Limiter resolveModelLimiter(FRI fri) {
+        String friString = fri.getFri();
+        String matchingPath = null;
+        for (String path : pathLimiters.keySet()) {
+            if (isUnderPath(friString, path) && (matchingPath == null || path.length() > matchingPath.length())) {
+                matchingPath = path;
+            }
+        }
+        return matchingPath != null ? pathLimiters.get(matchingPath) : new Limiter(friString, modelLimits);
+    }
+
+    static boolean isUnderPath(String friString, String path) {
+        return friString.startsWith(path) &&
+                (friString.length() == path.length() || path.endsWith(SLASH) || friString.startsWith(SLASH, path.length()));
+    }
+
+    private static AdmissionLimits getLimits(Properties properties, String propertyName) {
+        String value = properties.getProperty(propertyName);
+        return value == null || value.isBlank() ? AdmissionLimits.UNLIMITED : AdmissionLimits.parse(value);
+    }
+
+    /**
+     * Slots acquired for an evaluation; closing it more than once is harmless
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of an admission scope (a model path, a single model or the global one)
+ */
+public final class AdmissionCounters {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @return the evaluations currently running
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * @return the evaluations currently waiting for a free slot
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return the evaluations admitted so far
+     */
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * @return the evaluations rejected so far
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    AtomicInteger active() {
+        return active;
+    }
+
+    AtomicInteger queued() {
+        return queued;
+    }
+
+    void admitted() {
+        admitted.increment();
+    }
+
+    void rejected() {
+        rejected.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionCounters{" +
+                "active=" + getActive() +
+                ", queued=" + getQueued() +
+                ", admitted=" + getAdmitted() +
+                ", rejected=" + getRejected() +
+                '}';
+    }
+}
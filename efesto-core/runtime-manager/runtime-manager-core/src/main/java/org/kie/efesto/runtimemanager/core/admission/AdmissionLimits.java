@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.admission;
+
+import java.util.Objects;
+
+/**
+ * Concurrency limits of a model (or global ones): at most <code>maxConcurrent</code> evaluations run at the same time
+ * and at most <code>maxQueued</code> wait for a free slot; further requests are rejected.
+ * A <code>maxConcurrent</code> lesser than 1 means <b>unlimited</b>
+ */
+public final class AdmissionLimits {
+
+    public static final AdmissionLimits UNLIMITED = new AdmissionLimits(0, 0);
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+
+    public AdmissionLimits(int maxConcurrent, int maxQueued) {
+        this.maxConcurrent = Math.max(maxConcurrent, 0);
+        this.maxQueued = Math.max(maxQueued, 0);
+    }
+
+    /**
+     * Parse limits in the <code>maxConcurrent[,maxQueued]</code> format (e.g. "4,100")
+     *
+     * @param toParse
+     * @return
+     */
+    public static AdmissionLimits parse(String toParse) {
+        String[] values = toParse.split(",");
+        try {
+            int maxConcurrent = Integer.parseInt(values[0].trim());
+            int maxQueued = values.length > 1 ? Integer.parseInt(values[1].trim()) : 0;
+            return new AdmissionLimits(maxConcurrent, maxQueued);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid admission limits '%s', expected maxConcurrent[,maxQueued]", toParse), e);
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public boolean isUnlimited() {
+        return maxConcurrent == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AdmissionLimits that = (AdmissionLimits) o;
+        return maxConcurrent == that.maxConcurrent && maxQueued == that.maxQueued;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxConcurrent, maxQueued);
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionLimits{" +
+                "maxConcurrent=" + maxConcurrent +
+                ", maxQueued=" + maxQueued +
+                '}';
+    }
+}
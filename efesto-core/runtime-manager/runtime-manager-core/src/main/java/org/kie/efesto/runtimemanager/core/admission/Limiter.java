@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.admission;
+
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforce the <code>AdmissionLimits</code> of a single scope. Waiting requests are served in arrival order
+ * (<b>fair</b> <code>Semaphore</code>), so that a burst can not indefinitely overtake earlier requests
+ */
+final class Limiter {
+
+    private final String name;
+    private final AdmissionLimits limits;
+    private final Semaphore semaphore;
+    private final AdmissionCounters counters = new AdmissionCounters();
+
+    Limiter(String name, AdmissionLimits limits) {
+        this.name = name;
+        this.limits = limits;
+        this.semaphore = limits.isUnlimited() ? null : new Semaphore(limits.getMaxConcurrent(), true);
+    }
+
+    /**
+     * Wait for a free slot, up to <code>queueTimeoutMillis</code> (forever if lesser than 1)
+     *
+     * @param queueTimeoutMillis
+     * @throws KieRuntimeAdmissionException if the queue is full, the wait timed out or the thread has been interrupted
+     */
+    void acquire(long queueTimeoutMillis) {
+        if (semaphore != null) {
+            try {
+                // the timed version honours the fairness setting, while tryAcquire() would barge
+                if (!semaphore.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                    waitForPermit(queueTimeoutMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                counters.rejected();
+                throw new KieRuntimeAdmissionException(String.format("Interrupted while waiting admission to %s", name), e);
+            }
+        }
+        counters.active().incrementAndGet();
+        counters.admitted();
+    }
+
+    void release() {
+        counters.active().decrementAndGet();
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    AdmissionLimits getLimits() {
+        return limits;
+    }
+
+    AdmissionCounters getCounters() {
+        return counters;
+    }
+
+    private void waitForPermit(long queueTimeoutMillis) throws InterruptedException {
+        if (counters.queued().incrementAndGet() > limits.getMaxQueued()) {
+            counters.queued().decrementAndGet();
+            counters.rejected();
+            throw new KieRuntimeAdmissionException(String.format("Admission queue of %s is full (%s)", name, limits));
+        }
+        try {
+            if (queueTimeoutMillis < 1) {
+                semaphore.acquire();
+            } else if (!semaphore.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                counters.rejected();
+                throw new KieRuntimeAdmissionException(String.format("Admission to %s timed out after %d ms", name, queueTimeoutMillis));
+            }
+        } finally {
+            counters.queued().decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.GeneratedRedirectResource;
+import org.kie.efesto.common.api.model.GeneratedResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.utils.GeneratedResourceUtils;
+import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory catalog of the deployed models.
+ * <p>
+ * The <code>IndexFile</code>s of each model type are read once, and their executable and redirect resources are kept
+ * sorted by <code>FRI</code>, so that listing a model type is a lookup and a path query is a range scan.
+ * The entries of a model type are rebuilt on the first request after any <code>IndexFile</code> has been written by
+ * the current JVM (see <code>IndexFileVersion</code>); {@link #refresh()} forces the rebuild, e.g. after new jars
+ * have been added to the classpath.
+ * <p>
+ * Listed model types are the ones declared by the <code>KieRuntimeService</code>s, the ones stored in memory (see
+ * <code>MemoryIndexFiles</code>) and the ones already requested.
+ * <p>
+ * Catalogs are not shared: each <code>RuntimeManagerImpl</code> owns one, that reads the <code>IndexFile</code>s on
+ * its own first request. <code>IndexFile</code>s are looked up with the context <code>ClassLoader</code> of the
+ * thread that (re)builds the entries, so a catalog is meant to serve a single application <code>ClassLoader</code>.
+ */
+public final class ModelCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelCatalog.class.getName());
+
+    private final Supplier<Set<String>> declaredModelTypesSupplier;
+    private final Function<String, Optional<GeneratedResources>> generatedResourcesReader;
+    private final Map<String, CatalogEntries> entriesByModelType = new ConcurrentHashMap<>();
+    private volatile Set<String> declaredModelTypes;
+
+    public ModelCatalog() {
+        this(ModelCatalog::getKieRuntimeServicesModelTypes, GeneratedResourceUtils::getGeneratedResources);
+    }
+
+    ModelCatalog(Supplier<Set<String>> declaredModelTypesSupplier,
+                 Function<String, Optional<GeneratedResources>> generatedResourcesReader) {
+        this.declaredModelTypesSupplier = declaredModelTypesSupplier;
+        this.generatedResourcesReader = generatedResourcesReader;
+    }
+
+    /**
+     * @return the non-empty lists of models, by model type (sorted)
+     */
+    public Map<String, List<ModelDescriptor>> getModels() {
+        Set<String> modelTypes = new TreeSet<>(getDeclaredModelTypes());
+        modelTypes.addAll(MemoryIndexFiles.getModelTypes());
+        modelTypes.addAll(entriesByModelType.keySet());
+        Map<String, List<ModelDescriptor>> toReturn = new LinkedHashMap<>();
+        for (String modelType : modelTypes) {
+            List<ModelDescriptor> models = getModels(modelType);
+            if (!models.isEmpty()) {
+                toReturn.put(modelType, models);
+            }
+        }
+        return Collections.unmodifiableMap(toReturn);
+    }
+
+    /**
+     * @param modelType
+     * @return the (unmodifiable) list of models of the given type, sorted by <code>FRI</code>
+     */
+    public List<ModelDescriptor> getModels(String modelType) {
+        return modelType != null ? getEntries(modelType).models : Collections.emptyList();
+    }
+
+    /**
+     * @param basePath
+     * @return the models contained by the given <code>FRI</code>, sorted by <code>FRI</code>
+     */
+    public List<ModelDescriptor> getModels(FRI basePath) {
+        if (basePath == null || basePath.getModel() == null || basePath.getFri() == null) {
+            return Collections.emptyList();
+        }
+        String prefix = basePath.getFri();
+        // every contained FRI starts with the given one: only that range has to be checked
+        return getEntries(basePath.getModel()).modelsByFri
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+                .values()
+                .stream()
+                .filter(modelDescriptor -> basePath.contains(modelDescriptor.getFri()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Discard all the entries, so that they are read again on next request
+     */
+    public void refresh() {
+        declaredModelTypes = null;
+        entriesByModelType.clear();
+    }
+
+    private CatalogEntries getEntries(String modelType) {
+        long version = IndexFileVersion.current();
+        CatalogEntries toReturn = entriesByModelType.get(modelType);
+        if (toReturn == null || toReturn.version != version) {
+            toReturn = readEntries(modelType, version);
+            entriesByModelType.put(modelType, toReturn);
+        }
+        return toReturn;
+    }
+
+    private CatalogEntries readEntries(String modelType, long version) {
+        long start = System.nanoTime();
+        TreeMap<String, ModelDescriptor> modelsByFri = new TreeMap<>();
+        Optional<GeneratedResources> generatedResources = generatedResourcesReader.apply(modelType);
+        generatedResources.ifPresent(resources -> {
+            for (GeneratedResource generatedResource : resources) {
+                if (generatedResource instanceof GeneratedExecutableResource) {
+                    GeneratedExecutableResource executableResource = (GeneratedExecutableResource) generatedResource;
+                    addEntry(modelsByFri, new ModelDescriptor(executableResource.getFri(), executableResource.getMetadata(), null), true);
+                }
+            }
+            for (GeneratedResource generatedResource : resources) {
+                if (generatedResource instanceof GeneratedRedirectResource) {
+                    GeneratedRedirectResource redirectResource = (GeneratedRedirectResource) generatedResource;
+                    // executable resources win over redirect ones with the same FRI
+                    addEntry(modelsByFri, new ModelDescriptor(redirectResource.getFri(), null, redirectResource.getTarget()), false);
+                }
+            }
+        });
+        logger.debug("{} models of type {} read in {} ms", modelsByFri.size(), modelType, (System.nanoTime() - start) / 1_000_000);
+        return new CatalogEntries(version, modelsByFri);
+    }
+
+    private static void addEntry(TreeMap<String, ModelDescriptor> modelsByFri, ModelDescriptor toAdd, boolean replace) {
+        if (toAdd.getFri() == null || toAdd.getFri().getFri() == null) {
+            return;
+        }
+        if (replace) {
+            modelsByFri.put(toAdd.getFri().getFri(), toAdd);
+        } else {
+            modelsByFri.putIfAbsent(toAdd.getFri().getFri(), toAdd);
+        }
+    }
+
+    private Set<String> getDeclaredModelTypes() {
+        Set<String> toReturn = declaredModelTypes;
+        if (toReturn == null) {
+            toReturn = declaredModelTypesSupplier.get();
+            declaredModelTypes = toReturn;
+        }
+        return toReturn;
+    }
+
+    static Set<String> getKieRuntimeServicesModelTypes() {
+        return SPIUtils.getKieRuntimeServices(false).stream()
+                .map(KieRuntimeService::getModelType)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Immutable models of a given type, as read at the given <code>IndexFileVersion</code>
+     */
+    private static final class CatalogEntries {
+
+        private final long version;
+        private final TreeMap<String, ModelDescriptor> modelsByFri;
+        private final List<ModelDescriptor> models;
+
+        private CatalogEntries(long version, TreeMap<String, ModelDescriptor> modelsByFri) {
+            this.version = version;
+            this.modelsByFri = modelsByFri;
+            this.models = Collections.unmodifiableList(new ArrayList<>(modelsByFri.values()));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.cds;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates an AppCDS archive of the classes loaded to score a given set of models, to reduce the startup time of the
+ * JVMs serving them.
+ * <p>
+ * A {@link TrainingRun} is executed in a JVM that dumps the list of loaded classes, then the archive is created from
+ * that list with <code>-Xshare:dump</code>; both only need the JDK (11 or later). The archive is used by starting the
+ * serving JVM with the same class path and the options returned by {@link #getRuntimeOptions(Path)}.
+ * <p>
+ * Only the classes loaded from the class path are archived: it should be made of jar files only (non-empty
+ * directories are rejected by the JVM), and classes generated on-the-fly (i.e. compiled in memory) are not archived,
+ * while the ones of precompiled models in jar files are.
+ * <p>
+ * Usage: <code>java -cp &lt;class path&gt; org.kie.efesto.runtimemanager.core.cds.AppCDSArchiver &lt;output
+ * directory&gt; [FRI...]</code>
+ */
+public final class AppCDSArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppCDSArchiver.class.getName());
+
+    public static final String CLASS_LIST_FILE_NAME = "efesto.classlist";
+    public static final String ARCHIVE_FILE_NAME = "efesto.jsa";
+
+    private final String javaExecutable;
+    private final String classPath;
+
+    public AppCDSArchiver(String classPath) {
+        this(getJavaExecutable(), classPath);
+    }
+
+    public AppCDSArchiver(String javaExecutable, String classPath) {
+        this.javaExecutable = javaExecutable;
+        this.classPath = classPath;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: AppCDSArchiver <output directory> [FRI...]");
+        }
+        AppCDSArchiver archiver = new AppCDSArchiver(System.getProperty("java.class.path"));
+        Path archive = archiver.createArchive(Paths.get(args[0]), Arrays.asList(args).subList(1, args.length));
+        System.out.println("Start the JVM with " + String.join(" ", getRuntimeOptions(archive)));
+    }
+
+    /**
+     * Execute the training run of the given models, then create the archive from the classes it has loaded
+     *
+     * @param outputDirectory where the class list, the archive and the logs of the executed JVMs are written
+     * @param fris the models to train, all the deployed ones if empty
+     * @return the archive
+     * @throws IOException
+     */
+    public Path createArchive(Path outputDirectory, List<String> fris) throws IOException {
+        List<String> notJars = getNotJarEntries();
+        if (!notJars.isEmpty()) {
+            logger.warn("Class path entries other than jar files are not archived, and must be empty directories: {}", notJars);
+        }
+        Files.createDirectories(outputDirectory);
+        Path classList = outputDirectory.resolve(CLASS_LIST_FILE_NAME);
+        Path archive = outputDirectory.resolve(ARCHIVE_FILE_NAME);
+        execute(getTrainingCommand(classList, fris), outputDirectory.resolve("training.log"));
+        execute(getDumpCommand(classList, archive), outputDirectory.resolve("dump.log"));
+        try (Stream<String> classes = Files.lines(classList)) {
+            logger.info("Created {} from {} classes", archive, classes.count());
+        }
+        return archive;
+    }
+
+    List<String> getTrainingCommand(Path classList, List<String> fris) {
+        List<String> toReturn = new ArrayList<>();
+        toReturn.add(javaExecutable);
+        toReturn.add("-Xshare:off");
+        toReturn.add("-XX:DumpLoadedClassList=" + classList);
+        toReturn.add("-cp");
+        toReturn.add(classPath);
+        toReturn.add(TrainingRun.class.getName());
+        toReturn.addAll(fris);
+        return toReturn;
+    }
+
+    List<String> getDumpCommand(Path classList, Path archive) {
+        return Arrays.asList(javaExecutable,
+                             "-Xshare:dump",
+                             "-XX:SharedClassListFile=" + classList,
+                             "-XX:SharedArchiveFile=" + archive,
+                             "-cp",
+                             classPath);
+    }
+
+    /**
+     * @param archive
+     * @return the JVM options to use the given archive; the JVM starts anyway if the archive can not be mapped
+     */
+    public static List<String> getRuntimeOptions(Path archive) {
+        return Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + archive);
+    }
+
+    List<String> getNotJarEntries() {
+        return Arrays.stream(classPath.split(File.pathSeparator))
+                .filter(entry -> !entry.isEmpty() && !entry.endsWith(".jar"))
+                .collect(Collectors.toList());
+    }
+
+    String getClassPath() {
+        return classPath;
+    }
+
+    String getJava() {
+        return javaExecutable;
+    }
+
+    static String getJavaExecutable() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static void execute(List<String> command, Path log) throws IOException {
+        logger.debug("Executing {}", command);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            int exitValue = process.waitFor();
+            if (exitValue != 0) {
+                throw new KieRuntimeServiceException(String.format("JVM exited with %d, see %s", exitValue, log));
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new KieRuntimeServiceException("Interrupted while executing " + command, e);
+        }
+    }
+}
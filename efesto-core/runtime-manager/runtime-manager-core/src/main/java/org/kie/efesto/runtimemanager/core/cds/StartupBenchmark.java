@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.cds;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+
+/**
+ * Compares the time-to-first-score of cold JVMs started with and without an AppCDS archive created by
+ * {@link AppCDSArchiver}: each iteration starts a new JVM executing a {@link TrainingRun} of the given models, and
+ * measures the time from its launch to the print of {@link TrainingRun#FIRST_SCORE_MARKER}.
+ * <p>
+ * Usage: <code>java -cp &lt;class path&gt; org.kie.efesto.runtimemanager.core.cds.StartupBenchmark &lt;archive&gt;
+ * &lt;iterations&gt; [FRI...]</code>; the class path must be the one used to create the archive.
+ */
+public final class StartupBenchmark {
+
+    private final AppCDSArchiver archiver;
+
+    public StartupBenchmark(AppCDSArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark <archive> <iterations> [FRI...]");
+        }
+        Path archive = Paths.get(args[0]);
+        int iterations = Integer.parseInt(args[1]);
+        List<String> fris = Arrays.asList(args).subList(2, args.length);
+        StartupBenchmark benchmark = new StartupBenchmark(new AppCDSArchiver(System.getProperty("java.class.path")));
+        // the default CDS archive of the JDK is used by both
+        long[] withoutArchive = benchmark.measure(Collections.emptyList(), fris, iterations);
+        long[] withArchive = benchmark.measure(AppCDSArchiver.getRuntimeOptions(archive), fris, iterations);
+        System.out.printf("time-to-first-score (ms)  median  min  max%n");
+        System.out.printf("without AppCDS            %6d %4d %4d%n", median(withoutArchive), withoutArchive[0], withoutArchive[iterations - 1]);
+        System.out.printf("with AppCDS               %6d %4d %4d%n", median(withArchive), withArchive[0], withArchive[iterations - 1]);
+    }
+
+    /**
+     * @param jvmOptions
+     * @param fris
+     * @param iterations
+     * @return the sorted time-to-first-score of each iteration, in milliseconds
+     * @throws IOException
+     */
+    public long[] measure(List<String> jvmOptions, List<String> fris, int iterations) throws IOException {
+        long[] toReturn = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            toReturn[i] = measure(getCommand(jvmOptions, fris));
+        }
+        Arrays.sort(toReturn);
+        return toReturn;
+    }
+
+    List<String> getCommand(List<String> jvmOptions, List<String> fris) {
+        List<String> toReturn = new ArrayList<>();
+        toReturn.add(archiver.getJava());
+        toReturn.addAll(jvmOptions);
+        toReturn.add("-cp");
+        toReturn.add(archiver.getClassPath());
+        toReturn.add(TrainingRun.class.getName());
+        toReturn.addAll(fris);
+        return toReturn;
+    }
+
+    static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private static long measure(List<String> command) throws IOException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (TrainingRun.FIRST_SCORE_MARKER.equals(line)) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            }
+            throw new KieRuntimeServiceException("No model has been scored by " + command);
+        } finally {
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.cds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.efesto.common.api.model.FRI.parseFri;
+
+/**
+ * Evaluates the given models (or all the deployed ones) once, with the synthetic input provided by their
+ * <code>KieRuntimeService</code>, so that the classes needed to score them are loaded.
+ * <p>
+ * Executed as <code>main</code> it is the training run of {@link AppCDSArchiver}: the arguments are the
+ * <code>FRI</code>s to evaluate (e.g. <code>/pmml/fileName/modelName</code>), no argument meaning all the models
+ * listed by the <code>RuntimeManager</code>. {@link #FIRST_SCORE_MARKER} is printed as soon as the first model
+ * has been scored, for {@link StartupBenchmark}.
+ */
+public final class TrainingRun {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingRun.class.getName());
+
+    public static final String FIRST_SCORE_MARKER = "efesto-first-score";
+
+    private final RuntimeManager runtimeManager;
+    private final List<KieRuntimeService> kieRuntimeServices;
+
+    public TrainingRun() {
+        this(new RuntimeManagerImpl(), SPIUtils.getKieRuntimeServices(false));
+    }
+
+    public TrainingRun(RuntimeManager runtimeManager, List<KieRuntimeService> kieRuntimeServices) {
+        this.runtimeManager = runtimeManager;
+        this.kieRuntimeServices = kieRuntimeServices;
+    }
+
+    public static void main(String[] args) {
+        TrainingRun trainingRun = new TrainingRun();
+        List<FRI> toTrain = new ArrayList<>();
+        for (String arg : args) {
+            toTrain.add(parseFri(arg));
+        }
+        if (toTrain.isEmpty()) {
+            toTrain = trainingRun.getDeployedModels();
+        }
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader =
+                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        Report report = trainingRun.train(toTrain, memoryCompilerClassLoader, () -> {
+            System.out.println(FIRST_SCORE_MARKER);
+            System.out.flush();
+        });
+        System.out.println(report);
+    }
+
+    /**
+     * @return the executable models listed by the <code>RuntimeManager</code>
+     */
+    public List<FRI> getDeployedModels() {
+        return runtimeManager.getModels().values().stream()
+                .flatMap(List::stream)
+                .filter(modelDescriptor -> modelDescriptor.getRedirectTarget().isEmpty())
+                .map(ModelDescriptor::getFri)
+                .collect(Collectors.toList());
+    }
+
+    public Report train(List<FRI> toTrain, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return train(toTrain, memoryCompilerClassLoader, () -> {
+        });
+    }
+
+    Report train(List<FRI> toTrain, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, Runnable onFirstScore) {
+        Report toReturn = new Report();
+        for (FRI fri : toTrain) {
+            ModelDescriptor modelDescriptor = getModelDescriptor(fri);
+            Optional<EfestoInput<?>> input = getSyntheticInput(modelDescriptor, memoryCompilerClassLoader);
+            if (input.isEmpty()) {
+                logger.warn("No synthetic input for {}", fri);
+                toReturn.skipped.add(fri);
+                continue;
+            }
+            try {
+                Optional<EfestoOutput> output = runtimeManager.evaluateInput(input.get(), memoryCompilerClassLoader);
+                if (output.isPresent()) {
+                    if (toReturn.evaluated.isEmpty()) {
+                        onFirstScore.run();
+                    }
+                    toReturn.evaluated.add(fri);
+                } else {
+                    toReturn.failed.add(fri);
+                }
+            } catch (Exception e) {
+                // synthetic data may be rejected by the model: the classes have been loaded anyway
+                logger.debug("Failed to evaluate {}", fri, e);
+                toReturn.failed.add(fri);
+            }
+        }
+        return toReturn;
+    }
+
+    @SuppressWarnings("unchecked")
+    Optional<EfestoInput<?>> getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        for (KieRuntimeService kieRuntimeService : kieRuntimeServices) {
+            if (!modelDescriptor.getModelType().equals(kieRuntimeService.getModelType())) {
+                continue;
+            }
+            Optional<EfestoInput<?>> toReturn = kieRuntimeService.getSyntheticInput(modelDescriptor, memoryCompilerClassLoader);
+            if (toReturn.isPresent()) {
+                return toReturn;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param fri
+     * @return the catalog entry of the given <code>FRI</code>, with its <code>ModelMetadata</code>, if any
+     */
+    private ModelDescriptor getModelDescriptor(FRI fri) {
+        return runtimeManager.getModels(fri).stream()
+                .filter(modelDescriptor -> modelDescriptor.getFri().equals(fri))
+                .findFirst()
+                .orElseGet(() -> new ModelDescriptor(fri, null, null));
+    }
+
+    /**
+     * Outcome of a training run, by <code>FRI</code>
+     */
+    public static final class Report {
+
+        private final List<FRI> evaluated = new ArrayList<>();
+        private final List<FRI> failed = new ArrayList<>();
+        private final List<FRI> skipped = new ArrayList<>();
+
+        public List<FRI> getEvaluated() {
+            return Collections.unmodifiableList(evaluated);
+        }
+
+        /**
+         * @return the models whose evaluation failed or has been empty
+         */
+        public List<FRI> getFailed() {
+            return Collections.unmodifiableList(failed);
+        }
+
+        /**
+         * @return the models without synthetic input, i.e. not evaluated
+         */
+        public List<FRI> getSkipped() {
+            return Collections.unmodifiableList(skipped);
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                    "evaluated=" + evaluated.size() +
+                    ", failed=" + failed +
+                    ", skipped=" + skipped +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.footprint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedClassResource;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.GeneratedResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.efesto.runtimemanager.api.utils.GeneratedResourceUtils;
+import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the memory footprint of the given models (or of all the deployed ones):
+ * <ul>
+ *     <li>the generated classes loaded for the model (its entry points and the classes of its objects) and their
+ *     bytecode size</li>
+ *     <li>the retained heap size of its in-memory representation (e.g. <code>KiePMMLModel</code>s,
+ *     <code>KieBase</code>), provided by its <code>KieRuntimeService</code> and walked by
+ *     {@link ObjectGraphSizer}</li>
+ *     <li>its <code>IndexFile</code> entries</li>
+ * </ul>
+ * <p>
+ * Executed as <code>main</code> it prints the report of the <code>FRI</code>s given as arguments (e.g.
+ * <code>/pmml/fileName/modelName</code>), no argument meaning all the models listed by the
+ * <code>RuntimeManager</code>. Models are loaded in a dedicated <code>ClassLoader</code>.
+ */
+public final class FootprintAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FootprintAnalyzer.class.getName());
+
+    private static final String LAMBDA_MARKER = "$$Lambda";
+
+    private final RuntimeManager runtimeManager;
+    private final List<KieRuntimeService> kieRuntimeServices;
+    private final Function<String, Optional<GeneratedResources>> generatedResourcesReader;
+
+    public FootprintAnalyzer() {
+        this(new RuntimeManagerImpl(), SPIUtils.getKieRuntimeServices(false));
+    }
+
+    public FootprintAnalyzer(RuntimeManager runtimeManager, List<KieRuntimeService> kieRuntimeServices) {
+        this(runtimeManager, kieRuntimeServices, GeneratedResourceUtils::getGeneratedResources);
+    }
+
+    FootprintAnalyzer(RuntimeManager runtimeManager, List<KieRuntimeService> kieRuntimeServices,
+                      Function<String, Optional<GeneratedResources>> generatedResourcesReader) {
+        this.runtimeManager = runtimeManager;
+        this.kieRuntimeServices = kieRuntimeServices;
+        this.generatedResourcesReader = generatedResourcesReader;
+    }
+
+    public static void main(String[] args) {
+        FootprintAnalyzer footprintAnalyzer = new FootprintAnalyzer();
+        List<FRI> toAnalyze = new ArrayList<>();
+        for (String arg : args) {
+            toAnalyze.add(FRI.parseFri(arg));
+        }
+        if (toAnalyze.isEmpty()) {
+            toAnalyze = footprintAnalyzer.getDeployedModels();
+        }
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader =
+                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        System.out.println(footprintAnalyzer.analyze(toAnalyze, memoryCompilerClassLoader));
+    }
+
+    /**
+     * @return the executable models listed by the <code>RuntimeManager</code>
+     */
+    public List<FRI> getDeployedModels() {
+        return runtimeManager.getModels().values().stream()
+                .flatMap(List::stream)
+                .filter(modelDescriptor -> modelDescriptor.getRedirectTarget().isEmpty())
+                .map(ModelDescriptor::getFri)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param toAnalyze
+     * @param memoryCompilerClassLoader
+     * @return the footprints of the given models, largest first
+     */
+    public Report analyze(List<FRI> toAnalyze, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        Map<String, Optional<GeneratedResources>> generatedResourcesByModelType = new HashMap<>();
+        List<ModelFootprint> footprints = new ArrayList<>();
+        for (FRI fri : toAnalyze) {
+            Optional<GeneratedResources> generatedResources =
+                    generatedResourcesByModelType.computeIfAbsent(fri.getModel(), generatedResourcesReader);
+            footprints.add(analyze(fri, generatedResources.orElseGet(GeneratedResources::new), memoryCompilerClassLoader));
+        }
+        footprints.sort(ModelFootprint.BY_TOTAL_BYTES_DESC);
+        return new Report(footprints);
+    }
+
+    ModelFootprint analyze(FRI fri, GeneratedResources generatedResources, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        ModelDescriptor modelDescriptor = getModelDescriptor(fri);
+        Set<String> generatedClassNames = new LinkedHashSet<>();
+        List<String> entryPoints = new ArrayList<>();
+        for (GeneratedResource generatedResource : generatedResources) {
+            if (generatedResource instanceof GeneratedClassResource) {
+                generatedClassNames.add(((GeneratedClassResource) generatedResource).getFullClassName());
+            } else if (generatedResource instanceof GeneratedExecutableResource &&
+                    fri.equals(((GeneratedExecutableResource) generatedResource).getFri())) {
+                entryPoints.addAll(((GeneratedExecutableResource) generatedResource).getFullClassNames());
+            }
+        }
+        generatedClassNames.addAll(entryPoints);
+        Set<Class<?>> generatedClasses = new LinkedHashSet<>();
+        for (String entryPoint : entryPoints) {
+            try {
+                generatedClasses.add(Class.forName(entryPoint, false, memoryCompilerClassLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.warn("Failed to load {} of {}", entryPoint, fri);
+            }
+        }
+        Optional<Object> modelInstance = getModelInstance(modelDescriptor, memoryCompilerClassLoader);
+        ObjectGraphSizer.GraphSize graphSize = ObjectGraphSizer.measure(modelInstance.orElse(null));
+        for (Class<?> clazz : graphSize.getClasses()) {
+            getGeneratedClass(clazz, generatedClassNames).ifPresent(generatedClasses::add);
+        }
+        long generatedClassesBytes = 0;
+        for (Class<?> generatedClass : generatedClasses) {
+            generatedClassesBytes += getBytecodeSize(generatedClass, memoryCompilerClassLoader);
+        }
+        return new ModelFootprint(fri, generatedClasses.size(), generatedClassesBytes, modelInstance.isPresent(),
+                                  graphSize.getBytes(), graphSize.getObjects(), runtimeManager.getModels(fri).size());
+    }
+
+    Optional<Object> getModelInstance(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        for (KieRuntimeService kieRuntimeService : kieRuntimeServices) {
+            if (!modelDescriptor.getModelType().equals(kieRuntimeService.getModelType())) {
+                continue;
+            }
+            try {
+                Optional<Object> toReturn = kieRuntimeService.getModelInstance(modelDescriptor, memoryCompilerClassLoader);
+                if (toReturn.isPresent()) {
+                    return toReturn;
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to load {} with {}", modelDescriptor.getFri(), kieRuntimeService.getClass().getName(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param clazz
+     * @param generatedClassNames
+     * @return the given class, or the one declaring the given lambda, if it has been generated
+     */
+    static Optional<Class<?>> getGeneratedClass(Class<?> clazz, Set<String> generatedClassNames) {
+        String className = clazz.getName();
+        int lambdaIndex = className.indexOf(LAMBDA_MARKER);
+        if (lambdaIndex > 0) {
+            // lambdas are hidden classes, without bytecode: their declaring class is accounted instead
+            try {
+                return getGeneratedClass(Class.forName(className.substring(0, lambdaIndex), false, clazz.getClassLoader()),
+                                         generatedClassNames);
+            } catch (ClassNotFoundException | LinkageError e) {
+                return Optional.empty();
+            }
+        }
+        if (generatedClassNames.contains(className) || clazz.getClassLoader() instanceof KieMemoryCompiler.MemoryCompilerClassLoader) {
+            return Optional.of(clazz);
+        }
+        return Optional.empty();
+    }
+
+    static long getBytecodeSize(Class<?> clazz, ClassLoader fallback) {
+        ClassLoader classLoader = clazz.getClassLoader() != null ? clazz.getClassLoader() : fallback;
+        try (InputStream inputStream = classLoader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+            return inputStream != null ? inputStream.readAllBytes().length : 0;
+        } catch (IOException e) {
+            logger.debug("Failed to read bytecode of {}", clazz.getName(), e);
+            return 0;
+        }
+    }
+
+    private ModelDescriptor getModelDescriptor(FRI fri) {
+        return runtimeManager.getModels(fri).stream()
+                .filter(modelDescriptor -> modelDescriptor.getFri().equals(fri))
+                .findFirst()
+                .orElseGet(() -> new ModelDescriptor(fri, null, null));
+    }
+
+    /**
+     * Footprints of the analyzed models, largest first
+     */
+    public static final class Report {
+
+        private final List<ModelFootprint> footprints;
+
+        private Report(List<ModelFootprint> footprints) {
+            this.footprints = Collections.unmodifiableList(footprints);
+        }
+
+        public List<ModelFootprint> getFootprints() {
+            return footprints;
+        }
+
+        public long getTotalBytes() {
+            return footprints.stream().mapToLong(ModelFootprint::getTotalBytes).sum();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("%-60s %8s %12s %12s %10s %8s %12s%n",
+                                         "FRI", "classes", "classBytes", "heapBytes", "objects", "entries", "totalBytes"));
+            for (ModelFootprint footprint : footprints) {
+                builder.append(String.format("%-60s %8d %12d %12s %10d %8d %12d%n",
+                                             footprint.getFri().getFri(),
+                                             footprint.getGeneratedClasses(),
+                                             footprint.getGeneratedClassesBytes(),
+                                             footprint.isInstanceMeasured() ? String.valueOf(footprint.getInstanceBytes()) : "n/a",
+                                             footprint.getInstanceObjects(),
+                                             footprint.getIndexEntries(),
+                                             footprint.getTotalBytes()));
+            }
+            builder.append(String.format("%d models, %d bytes", footprints.size(), getTotalBytes()));
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.footprint;
+
+import java.util.Comparator;
+
+import org.kie.efesto.common.api.model.FRI;
+
+/**
+ * Memory footprint of a deployed model, as measured by {@link FootprintAnalyzer}
+ */
+public final class ModelFootprint {
+
+    /**
+     * Largest models first
+     */
+    public static final Comparator<ModelFootprint> BY_TOTAL_BYTES_DESC =
+            Comparator.comparingLong(ModelFootprint::getTotalBytes).reversed()
+                    .thenComparing(modelFootprint -> modelFootprint.getFri().getFri());
+
+    private final FRI fri;
+    private final int generatedClasses;
+    private final long generatedClassesBytes;
+    private final boolean instanceMeasured;
+    private final long instanceBytes;
+    private final int instanceObjects;
+    private final int indexEntries;
+
+    public ModelFootprint(FRI fri, int generatedClasses, long generatedClassesBytes, boolean instanceMeasured,
+                          long instanceBytes, int instanceObjects, int indexEntries) {
+        this.fri = fri;
+        this.generatedClasses = generatedClasses;
+        this.generatedClassesBytes = generatedClassesBytes;
+        this.instanceMeasured = instanceMeasured;
+        this.instanceBytes = instanceBytes;
+        this.instanceObjects = instanceObjects;
+        this.indexEntries = indexEntries;
+    }
+
+    public FRI getFri() {
+        return fri;
+    }
+
+    /**
+     * @return the number of generated classes loaded for the model
+     */
+    public int getGeneratedClasses() {
+        return generatedClasses;
+    }
+
+    /**
+     * @return the bytecode size of the generated classes, i.e. a lower bound of their metaspace usage
+     */
+    public long getGeneratedClassesBytes() {
+        return generatedClassesBytes;
+    }
+
+    /**
+     * @return <code>false</code> if the engine of the model did not provide its in-memory representation
+     */
+    public boolean isInstanceMeasured() {
+        return instanceMeasured;
+    }
+
+    /**
+     * @return the estimated retained heap size of the in-memory representation of the model
+     */
+    public long getInstanceBytes() {
+        return instanceBytes;
+    }
+
+    public int getInstanceObjects() {
+        return instanceObjects;
+    }
+
+    /**
+     * @return the number of <code>IndexFile</code> entries (executable and redirect resources) of the model and of
+     * the ones it contains
+     */
+    public int getIndexEntries() {
+        return indexEntries;
+    }
+
+    public long getTotalBytes() {
+        return generatedClassesBytes + instanceBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelFootprint{" +
+                "fri=" + fri +
+                ", generatedClasses=" + generatedClasses +
+                ", generatedClassesBytes=" + generatedClassesBytes +
+                ", instanceMeasured=" + instanceMeasured +
+                ", instanceBytes=" + instanceBytes +
+                ", instanceObjects=" + instanceObjects +
+                ", indexEntries=" + indexEntries +
+                '}';
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.footprint;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates the retained heap size of an object graph, walking its instance fields by reflection.
+ * <p>
+ * Sizes follow the HotSpot 64-bit layout (object header, compressed references when enabled, 8-bytes alignment) and
+ * ignore field packing, so they are an estimate. <code>Class</code>es, <code>ClassLoader</code>s, <code>Thread</code>s
+ * and enum constants are shared with the rest of the JVM and are not walked. Fields of JDK classes that can not be
+ * made accessible (e.g. with strong encapsulation) are replaced by the content of <code>String</code>s,
+ * <code>Collection</code>s and <code>Map</code>s, read through their public API.
+ */
+public final class ObjectGraphSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectGraphSizer.class.getName());
+
+    static final int ALIGNMENT = 8;
+    static final int REFERENCE_SIZE = isCompressedOops() ? 4 : 8;
+    static final int OBJECT_HEADER_SIZE = REFERENCE_SIZE == 4 ? 12 : 16;
+    static final int ARRAY_HEADER_SIZE = REFERENCE_SIZE == 4 ? 16 : 24;
+    // node of a HashMap-like structure (hash, key, value, next) plus its slot in the table
+    static final long MAP_ENTRY_SIZE = align(OBJECT_HEADER_SIZE + 4 + 3 * REFERENCE_SIZE) + REFERENCE_SIZE;
+
+    private static final Map<Class<?>, ClassLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private ObjectGraphSizer() {
+    }
+
+    /**
+     * @param root
+     * @return the estimated retained size of the graph of the given object, in bytes
+     */
+    public static long sizeOf(Object root) {
+        return measure(root).getBytes();
+    }
+
+    /**
+     * Walk the graph of the given object
+     *
+     * @param root
+     * @return the size of the graph and the classes of its objects
+     */
+    public static GraphSize measure(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        Deque<Object> toVisit = new ArrayDeque<>();
+        long bytes = 0;
+        if (root != null) {
+            toVisit.push(root);
+        }
+        while (!toVisit.isEmpty()) {
+            Object current = toVisit.pop();
+            if (isShared(current) || !visited.add(current)) {
+                continue;
+            }
+            Class<?> clazz = current.getClass();
+            classes.add(clazz);
+            if (clazz.isArray()) {
+                bytes += visitArray(current, toVisit);
+            } else {
+                bytes += visitObject(current, LAYOUTS.computeIfAbsent(clazz, ClassLayout::new), toVisit);
+            }
+        }
+        return new GraphSize(bytes, visited.size(), classes);
+    }
+
+    static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static boolean isShared(Object object) {
+        return object instanceof Class ||
+                object instanceof ClassLoader ||
+                object instanceof Thread ||
+                object instanceof Enum;
+    }
+
+    private static long visitArray(Object array, Deque<Object> toVisit) {
+        Class<?> componentType = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER_SIZE + (long) length * primitiveSize(componentType));
+        }
+        for (Object element : (Object[]) array) {
+            if (element != null) {
+                toVisit.push(element);
+            }
+        }
+        return align(ARRAY_HEADER_SIZE + (long) length * REFERENCE_SIZE);
+    }
+
+    private static long visitObject(Object object, ClassLayout layout, Deque<Object> toVisit) {
+        long toReturn = layout.shallowSize;
+        for (Field field : layout.referenceFields) {
+            try {
+                Object value = field.get(object);
+                if (value != null) {
+                    toVisit.push(value);
+                }
+            } catch (IllegalAccessException e) {
+                logger.trace("Can not read {}", field, e);
+            }
+        }
+        if (!layout.opaque) {
+            return toReturn;
+        }
+        // inaccessible JDK internals: replaced by their public content
+        if (object instanceof String) {
+            toReturn += align(ARRAY_HEADER_SIZE + (long) ((String) object).length());
+        } else if (object instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                toReturn += MAP_ENTRY_SIZE;
+                pushIfNotNull(entry.getKey(), toVisit);
+                pushIfNotNull(entry.getValue(), toVisit);
+            }
+        } else if (object instanceof Collection) {
+            for (Object element : (Collection<?>) object) {
+                toReturn += REFERENCE_SIZE;
+                pushIfNotNull(element, toVisit);
+            }
+        }
+        return toReturn;
+    }
+
+    private static void pushIfNotNull(Object object, Deque<Object> toVisit) {
+        if (object != null) {
+            toVisit.push(object);
+        }
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else {
+            return 1;
+        }
+    }
+
+    private static boolean isCompressedOops() {
+        try {
+            com.sun.management.HotSpotDiagnosticMXBean hotSpotDiagnosticMXBean =
+                    ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+            return hotSpotDiagnosticMXBean == null ||
+                    Boolean.parseBoolean(hotSpotDiagnosticMXBean.getVMOption("UseCompressedOops").getValue());
+        } catch (RuntimeException | LinkageError e) {
+            // default with heaps smaller than 32 GB
+            return true;
+        }
+    }
+
+    /**
+     * Instance fields of a class, with the resulting shallow size
+     */
+    private static final class ClassLayout {
+
+        private final long shallowSize;
+        private final List<Field> referenceFields = new ArrayList<>();
+        private final boolean opaque;
+
+        private ClassLayout(Class<?> clazz) {
+            long fieldsSize = 0;
+            boolean inaccessible = false;
+            for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        fieldsSize += primitiveSize(field.getType());
+                    } else {
+                        fieldsSize += REFERENCE_SIZE;
+                        if (field.trySetAccessible()) {
+                            referenceFields.add(field);
+                        } else {
+                            inaccessible = true;
+                        }
+                    }
+                }
+            }
+            this.shallowSize = align(OBJECT_HEADER_SIZE + fieldsSize);
+            this.opaque = inaccessible;
+        }
+    }
+
+    /**
+     * Outcome of the walk of an object graph
+     */
+    public static final class GraphSize {
+
+        private final long bytes;
+        private final int objects;
+        private final Set<Class<?>> classes;
+
+        private GraphSize(long bytes, int objects, Set<Class<?>> classes) {
+            this.bytes = bytes;
+            this.objects = objects;
+            this.classes = Collections.unmodifiableSet(classes);
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the number of walked objects
+         */
+        public int getObjects() {
+            return objects;
+        }
+
+        /**
+         * @return the classes of the walked objects, in visit order
+         */
+        public Set<Class<?>> getClasses() {
+            return classes;
+        }
+    }
+}
@@ -0,0 +1,601 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.governor;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+import org.kie.efesto.runtimemanager.core.footprint.ObjectGraphSizer;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Heap budget of the models loaded at runtime.
+ * <p>
+ * Every registered model gets its own <code>MemoryCompilerClassLoader</code>, that defines the model classes itself
+ * (even if its parent provides them too), so that it may be released on its own.
+ * When the footprint of the resident models exceeds <code>efesto.runtime.governor.heapBudget</code> (bytes, optionally
+ * with a <b>k</b>, <b>m</b> or <b>g</b> suffix) the least-recently-used ones are <b>spilled</b>: their
+ * <code>ClassLoader</code> is released, and they are restored on their next request from the snapshot of their
+ * bytecode written at registration in a private directory (readable by the owner only) created in
+ * <code>efesto.runtime.governor.spillDirectory</code> (<code>java.io.tmpdir</code> by default). Bytecode is not kept in
+ * memory once the classes are defined: only its digest is, checked before restoring the classes.
+ * <p>
+ * With a budget, models are registered on their first request (see
+ * {@link #getClassLoader(FRI, ClassLoader, Function, Function)}). The footprint of a model is measured when it is
+ * registered: the size of its bytecode plus the heap retained by its in-memory representation (e.g.
+ * <code>KiePMMLModel</code>), walked by <code>ObjectGraphSizer</code>.
+ * Without a budget models are never spilled.
+ * <p>
+ * A registered model is registered again when it is requested with another parent <code>ClassLoader</code>, or
+ * when its bytecode changed after any <code>IndexFile</code> did (see <code>IndexFileVersion</code>).
+ */
+public final class ModelGovernor {
+
+    public static final String GOVERNOR_PROPERTY_PREFIX = "efesto.runtime.governor.";
+    public static final String HEAP_BUDGET_PROPERTY = GOVERNOR_PROPERTY_PREFIX + "heapBudget";
+    public static final String SPILL_DIRECTORY_PROPERTY = GOVERNOR_PROPERTY_PREFIX + "spillDirectory";
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelGovernor.class.getName());
+
+    private final long heapBudget;
+    /**
+     * Where the private spill directory is created
+     */
+    private final Path spillDirectory;
+    /**
+     * Created on the first written snapshot
+     */
+    private Path privateSpillDirectory;
+    /**
+     * Resident models, in access order (the eldest is the least-recently-used)
+     */
+    private final Map<FRI, ResidentModel> residentModels = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<FRI, SpilledModel> spilledModels = new HashMap<>();
+    private final List<Consumer<KieMemoryCompiler.MemoryCompilerClassLoader>> releaseListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Requested models without available bytecode, as of <code>ungovernedVersion</code> of the <code>IndexFile</code>s
+     */
+    private final Set<FRI> ungovernedModels = new HashSet<>();
+    private long ungovernedVersion = -1;
+    private long usedBytes;
+    /**
+     * Lets evaluations of unregistered models skip the lock when no model is registered
+     */
+    private volatile boolean hasModels;
+
+    /**
+     * @param heapBudget maximum footprint of the resident models, in bytes; lesser than 1 means <b>unlimited</b>
+     * @param spillDirectory where the private directory of the snapshots is created
+     */
+    public ModelGovernor(long heapBudget, Path spillDirectory) {
+        this.heapBudget = Math.max(heapBudget, 0);
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * @return a <code>ModelGovernor</code> that never spills models
+     */
+    public static ModelGovernor unlimited() {
+        return new ModelGovernor(0, getDefaultSpillDirectory());
+    }
+
+    /**
+     * @return a <code>ModelGovernor</code> configured with the <code>efesto.runtime.governor.*</code> system properties
+     */
+    public static ModelGovernor fromSystemProperties() {
+        return fromProperties(System.getProperties());
+    }
+
+    public static ModelGovernor fromProperties(Properties properties) {
+        long heapBudget = parseBytes(properties.getProperty(HEAP_BUDGET_PROPERTY, "0"));
+        String spillDirectory = properties.getProperty(SPILL_DIRECTORY_PROPERTY);
+        ModelGovernor toReturn = new ModelGovernor(heapBudget,
+                                                   spillDirectory != null ? Paths.get(spillDirectory.trim()) : getDefaultSpillDirectory());
+        if (toReturn.isEnabled()) {
+            logger.info("Model heap budget {} bytes, spill directory {}", heapBudget, toReturn.spillDirectory);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Parse a size in bytes, with an optional <b>k</b>, <b>m</b> or <b>g</b> suffix (e.g. "512m")
+     *
+     * @param toParse
+     * @return
+     */
+    static long parseBytes(String toParse) {
+        String value = toParse.trim().toLowerCase();
+        long multiplier = 1;
+        if (value.endsWith("k")) {
+            multiplier = 1024L;
+        } else if (value.endsWith("m")) {
+            multiplier = 1024L * 1024;
+        } else if (value.endsWith("g")) {
+            multiplier = 1024L * 1024 * 1024;
+        }
+        if (multiplier != 1) {
+            value = value.substring(0, value.length() - 1).trim();
+        }
+        try {
+            return Long.parseLong(value) * multiplier;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid heap budget '%s', expected bytes[k|m|g]", toParse), e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return heapBudget > 0;
+    }
+
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * @return the footprint of the resident models, in bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @param fri
+     * @return the measured footprint of the given model, if it is resident
+     */
+    public synchronized Optional<Long> getFootprint(FRI fri) {
+        // not a request: the access order is left untouched
+        return residentModels.values().stream()
+                .filter(residentModel -> residentModel.fri.equals(fri))
+                .map(residentModel -> residentModel.footprint)
+                .findFirst();
+    }
+
+    public synchronized boolean isRegistered(FRI fri) {
+        return residentModels.containsKey(fri) || spilledModels.containsKey(fri);
+    }
+
+    public synchronized boolean isSpilled(FRI fri) {
+        return spilledModels.containsKey(fri);
+    }
+
+    /**
+     * Add a listener invoked with the <code>ClassLoader</code> of every spilled or removed model, to drop the references still
+     * held to it (e.g. cached executors)
+     *
+     * @param releaseListener
+     */
+    public void addReleaseListener(Consumer<KieMemoryCompiler.MemoryCompilerClassLoader> releaseListener) {
+        releaseListeners.add(releaseListener);
+    }
+
+    /**
+     * Load the given bytecode in a new <code>MemoryCompilerClassLoader</code> dedicated to the given model, replacing
+     * a previous registration, and spill the least-recently-used models if the budget is exceeded
+     *
+     * @param fri
+     * @param compiledClasses
+     * @param parent the parent of the model <code>ClassLoader</code>
+     * @return the <code>ClassLoader</code> of the model
+     */
+    public KieMemoryCompiler.MemoryCompilerClassLoader register(FRI fri, Map<String, byte[]> compiledClasses, ClassLoader parent) {
+        return register(fri, compiledClasses, parent, classLoader -> Optional.empty());
+    }
+
+    /**
+     * Same as {@link #register(FRI, Map, ClassLoader)}, also accounting the in-memory representation of the model
+     *
+     * @param fri
+     * @param compiledClasses
+     * @param parent the parent of the model <code>ClassLoader</code>
+     * @param modelInstanceProvider provides the in-memory representation of the model, loaded by the given
+     * <code>ClassLoader</code>
+     * @return the <code>ClassLoader</code> of the model
+     */
+    public synchronized KieMemoryCompiler.MemoryCompilerClassLoader register(FRI fri, Map<String, byte[]> compiledClasses, ClassLoader parent,
+                                                                           Function<KieMemoryCompiler.MemoryCompilerClassLoader, Optional<Object>> modelInstanceProvider) {
+        remove(fri::equals);
+        hasModels = true;
+        Path snapshot = isEnabled() ? writeSnapshot(fri, compiledClasses) : null;
+        Registration registration = new Registration(parent, IndexFileVersion.current(), ModelSnapshot.digest(compiledClasses));
+        ModelClassLoader classLoader = load(fri, compiledClasses, parent);
+        long footprint = getBytecodeSize(compiledClasses) + getInstanceSize(fri, classLoader, modelInstanceProvider);
+        addResidentModel(new ResidentModel(fri, registration, classLoader, footprint, snapshot));
+        logger.debug("Registered {}: {} classes, footprint {} bytes", fri, compiledClasses.size(), footprint);
+        enforceBudget(fri);
+        return classLoader;
+    }
+
+    /**
+     * Retrieve the <code>ClassLoader</code> of the given model, restoring it if it has been spilled
+     *
+     * @param fri
+     * @return the <code>ClassLoader</code> of the model, if it has been registered
+     * @throws KieRuntimeServiceException if a spilled model cannot be restored
+     */
+    public Optional<KieMemoryCompiler.MemoryCompilerClassLoader> getClassLoader(FRI fri) {
+        return hasModels ? getRegisteredClassLoader(fri) : Optional.empty();
+    }
+
+    /**
+     * Same as {@link #getClassLoader(FRI)}, but, when the governor is enabled, models not registered yet are
+     * registered with the bytecode returned by the given reader; models without bytecode (empty map) are not governed,
+     * until any <code>IndexFile</code> changes (see <code>IndexFileVersion</code>). Registered models are registered
+     * again if the given parent is not the registered one, or if their bytecode changed since any <code>IndexFile</code>
+     * did
+     *
+     * @param fri
+     * @param parent the parent of the model <code>ClassLoader</code>
+     * @param compiledClassesReader provides the bytecode of the given model
+     * @param modelInstanceProvider provides the in-memory representation of the model, loaded by the given
+     * <code>ClassLoader</code>
+     * @return the <code>ClassLoader</code> of the model, if it is governed
+     */
+    public Optional<KieMemoryCompiler.MemoryCompilerClassLoader> getClassLoader(FRI fri, ClassLoader parent,
+                                                                               Function<FRI, Map<String, byte[]>> compiledClassesReader,
+                                                                               Function<KieMemoryCompiler.MemoryCompilerClassLoader, Optional<Object>> modelInstanceProvider) {
+        if (!isEnabled()) {
+            return getClassLoader(fri);
+        }
+        synchronized (this) {
+            long version = IndexFileVersion.current();
+            Map<String, byte[]> compiledClasses = null;
+            Registration registration = getRegistration(fri);
+            if (registration != null) {
+                if (registration.parent != parent) {
+                    logger.debug("{} requested with another parent ClassLoader: registering it again", fri);
+                    remove(fri::equals);
+                } else if (registration.indexFileVersion != version) {
+                    compiledClasses = compiledClassesReader.apply(fri);
+                    if (Arrays.equals(registration.digest, ModelSnapshot.digest(compiledClasses))) {
+                        registration.indexFileVersion = version;
+                    } else {
+                        logger.debug("Bytecode of {} changed: registering it again", fri);
+                        remove(fri::equals);
+                    }
+                }
+                if (isRegistered(fri)) {
+                    return getRegisteredClassLoader(fri);
+                }
+            }
+            if (version != ungovernedVersion) {
+                ungovernedModels.clear();
+                ungovernedVersion = version;
+            }
+            if (ungovernedModels.contains(fri)) {
+                return Optional.empty();
+            }
+            if (compiledClasses == null) {
+                compiledClasses = compiledClassesReader.apply(fri);
+            }
+            if (compiledClasses.isEmpty()) {
+                logger.debug("No bytecode available for {}: not governed", fri);
+                ungovernedModels.add(fri);
+                return Optional.empty();
+            }
+            return Optional.of(register(fri, compiledClasses, parent, modelInstanceProvider));
+        }
+    }
+
+    private Registration getRegistration(FRI fri) {
+        // not a request: the access order is left untouched
+        for (ResidentModel residentModel : residentModels.values()) {
+            if (residentModel.fri.equals(fri)) {
+                return residentModel.registration;
+            }
+        }
+        SpilledModel spilledModel = spilledModels.get(fri);
+        return spilledModel != null ? spilledModel.registration : null;
+    }
+
+    private synchronized Optional<KieMemoryCompiler.MemoryCompilerClassLoader> getRegisteredClassLoader(FRI fri) {
+        ResidentModel residentModel = residentModels.get(fri);
+        if (residentModel == null) {
+            SpilledModel spilledModel = spilledModels.get(fri);
+            if (spilledModel == null) {
+                return Optional.empty();
+            }
+            residentModel = restore(spilledModel);
+            enforceBudget(fri);
+        }
+        return Optional.of(residentModel.classLoader);
+    }
+
+    /**
+     * Forget the models matching the given filter (e.g. unloaded ones), releasing their <code>ClassLoader</code>s and
+     * deleting their snapshots
+     *
+     * @param toRemove
+     */
+    public synchronized void remove(Predicate<FRI> toRemove) {
+        Iterator<ResidentModel> residentIterator = residentModels.values().iterator();
+        while (residentIterator.hasNext()) {
+            ResidentModel residentModel = residentIterator.next();
+            if (toRemove.test(residentModel.fri)) {
+                residentIterator.remove();
+                usedBytes -= residentModel.footprint;
+                deleteSnapshot(residentModel.snapshot);
+                releaseListeners.forEach(releaseListener -> releaseListener.accept(residentModel.classLoader));
+            }
+        }
+        Iterator<SpilledModel> spilledIterator = spilledModels.values().iterator();
+        while (spilledIterator.hasNext()) {
+            SpilledModel spilledModel = spilledIterator.next();
+            if (toRemove.test(spilledModel.fri)) {
+                spilledIterator.remove();
+                deleteSnapshot(spilledModel.snapshot);
+            }
+        }
+        ungovernedModels.removeIf(toRemove);
+        hasModels = !residentModels.isEmpty() || !spilledModels.isEmpty();
+    }
+
+    private static ModelClassLoader load(FRI fri, Map<String, byte[]> compiledClasses, ClassLoader parent) {
+        ModelClassLoader toReturn = new ModelClassLoader(parent, compiledClasses);
+        for (String className : compiledClasses.keySet()) {
+            try {
+                toReturn.loadClass(className);
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new KieRuntimeServiceException(String.format("Failed to load %s of %s", className, fri), e);
+            }
+        }
+        return toReturn;
+    }
+
+    private void addResidentModel(ResidentModel residentModel) {
+        residentModels.put(residentModel.fri, residentModel);
+        usedBytes += residentModel.footprint;
+    }
+
+    private static long getBytecodeSize(Map<String, byte[]> compiledClasses) {
+        return compiledClasses.values().stream().mapToLong(bytecode -> bytecode.length).sum();
+    }
+
+    private static long getInstanceSize(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader classLoader, Function<KieMemoryCompiler.MemoryCompilerClassLoader, Optional<Object>> modelInstanceProvider) {
+        try {
+            return modelInstanceProvider.apply(classLoader)
+                    .map(modelInstance -> ObjectGraphSizer.measure(modelInstance).getBytes())
+                    .orElse(0L);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to measure the in-memory representation of {}", fri, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Spill the least-recently-used models, but the given one, until the footprint is within the budget
+     *
+     * @param toKeep
+     */
+    private void enforceBudget(FRI toKeep) {
+        if (!isEnabled()) {
+            return;
+        }
+        Iterator<ResidentModel> iterator = new ArrayList<>(residentModels.values()).iterator();
+        while (usedBytes > heapBudget && iterator.hasNext()) {
+            ResidentModel eldest = iterator.next();
+            if (!eldest.fri.equals(toKeep)) {
+                spill(eldest);
+            }
+        }
+        if (usedBytes > heapBudget) {
+            logger.warn("Footprint of resident models ({} bytes) exceeds the heap budget ({} bytes)", usedBytes, heapBudget);
+        }
+    }
+
+    private void spill(ResidentModel residentModel) {
+        if (residentModel.snapshot == null) {
+            // the model stays resident: it is better to exceed the budget than to lose it
+            return;
+        }
+        residentModels.remove(residentModel.fri);
+        usedBytes -= residentModel.footprint;
+        spilledModels.put(residentModel.fri, new SpilledModel(residentModel.fri, residentModel.registration, residentModel.footprint, residentModel.snapshot));
+        releaseListeners.forEach(releaseListener -> releaseListener.accept(residentModel.classLoader));
+        logger.debug("Spilled {} ({} bytes)", residentModel.fri, residentModel.footprint);
+    }
+
+    /**
+     * @throws KieRuntimeServiceException if the snapshot cannot be read or does not match the registered bytecode: the
+     * model is then removed
+     */
+    private ResidentModel restore(SpilledModel spilledModel) {
+        Map<String, byte[]> compiledClasses;
+        try {
+            compiledClasses = ModelSnapshot.read(spilledModel.snapshot);
+        } catch (IOException e) {
+            remove(spilledModel.fri::equals);
+            throw new KieRuntimeServiceException(String.format("Failed to restore %s from %s", spilledModel.fri, spilledModel.snapshot), e);
+        }
+        if (!Arrays.equals(spilledModel.registration.digest, ModelSnapshot.digest(compiledClasses))) {
+            remove(spilledModel.fri::equals);
+            throw new KieRuntimeServiceException(String.format("Snapshot %s of %s does not match its registered bytecode",
+                                                               spilledModel.snapshot, spilledModel.fri));
+        }
+        spilledModels.remove(spilledModel.fri);
+        logger.debug("Restoring {} from {}", spilledModel.fri, spilledModel.snapshot);
+        ResidentModel toReturn = new ResidentModel(spilledModel.fri, spilledModel.registration,
+                                                   load(spilledModel.fri, compiledClasses, spilledModel.registration.parent),
+                                                   spilledModel.footprint, spilledModel.snapshot);
+        addResidentModel(toReturn);
+        return toReturn;
+    }
+
+    /**
+     * @return the written snapshot, or <code>null</code> if it cannot be written (the model will never be spilled)
+     */
+    private Path writeSnapshot(FRI fri, Map<String, byte[]> compiledClasses) {
+        Path toReturn = null;
+        try {
+            toReturn = getPrivateSpillDirectory().resolve(URLEncoder.encode(fri.getFri(), StandardCharsets.UTF_8) + SNAPSHOT_SUFFIX);
+            ModelSnapshot.write(toReturn, compiledClasses);
+            return toReturn;
+        } catch (IOException e) {
+            logger.warn("Failed to write the snapshot of {} in {}", fri, spillDirectory, e);
+            deleteSnapshot(toReturn);
+            return null;
+        }
+    }
+
+    /**
+     * @return the directory of the snapshots, created on first use in the spill directory, readable by the owner only
+     * @throws IOException
+     */
+    private Path getPrivateSpillDirectory() throws IOException {
+        if (privateSpillDirectory == null) {
+            Files.createDirectories(spillDirectory);
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                privateSpillDirectory = Files.createTempDirectory(spillDirectory, "efesto-spill",
+                                                                  PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                privateSpillDirectory = Files.createTempDirectory(spillDirectory, "efesto-spill");
+                privateSpillDirectory.toFile().setReadable(false, false);
+                privateSpillDirectory.toFile().setReadable(true, true);
+            }
+            // deleted on exit only if empty: snapshots are deleted with their models
+            privateSpillDirectory.toFile().deleteOnExit();
+            logger.debug("Created the spill directory {}", privateSpillDirectory);
+        }
+        return privateSpillDirectory;
+    }
+
+    private static void deleteSnapshot(Path snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(snapshot);
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}", snapshot, e);
+        }
+    }
+
+    private static Path getDefaultSpillDirectory() {
+        return Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * What a model has been registered with: checked on every request, to register it again when it changed
+     */
+    private static final class Registration {
+
+        private final ClassLoader parent;
+        /**
+         * <code>IndexFileVersion</code> the bytecode has last been checked at
+         */
+        private long indexFileVersion;
+        private final byte[] digest;
+
+        private Registration(ClassLoader parent, long indexFileVersion, byte[] digest) {
+            this.parent = parent;
+            this.indexFileVersion = indexFileVersion;
+            this.digest = digest;
+        }
+    }
+
+    private static final class ResidentModel {
+
+        private final FRI fri;
+        private final Registration registration;
+        private final KieMemoryCompiler.MemoryCompilerClassLoader classLoader;
+        private final long footprint;
+        private final Path snapshot;
+
+        private ResidentModel(FRI fri, Registration registration, KieMemoryCompiler.MemoryCompilerClassLoader classLoader,
+                              long footprint, Path snapshot) {
+            this.fri = fri;
+            this.registration = registration;
+            this.classLoader = classLoader;
+            this.footprint = footprint;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class SpilledModel {
+
+        private final FRI fri;
+        private final Registration registration;
+        private final long footprint;
+        private final Path snapshot;
+
+        private SpilledModel(FRI fri, Registration registration, long footprint, Path snapshot) {
+            this.fri = fri;
+            this.registration = registration;
+            this.footprint = footprint;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * <code>ClassLoader</code> of a single model: it defines the model classes before delegating to its parent, and
+     * drops their bytecode once they are defined
+     */
+    static final class ModelClassLoader extends KieMemoryCompiler.MemoryCompilerClassLoader {
+
+        private final Map<String, byte[]> toDefine;
+
+        ModelClassLoader(ClassLoader parent, Map<String, byte[]> compiledClasses) {
+            super(parent);
+            this.toDefine = new ConcurrentHashMap<>(compiledClasses);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> toReturn = findLoadedClass(name);
+                if (toReturn == null) {
+                    byte[] bytecode = toDefine.remove(name);
+                    if (bytecode == null) {
+                        return super.loadClass(name, resolve);
+                    }
+                    toReturn = defineClass(name, bytecode, 0, bytecode.length);
+                }
+                if (resolve) {
+                    resolveClass(toReturn);
+                }
+                return toReturn;
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.governor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+
+/**
+ * On-disk snapshot of a governed model, read to restore it once spilled: the bytecode of its classes.
+ * <p>
+ * The format is plain and length-prefixed, so that reading it never instantiates anything:
+ * <pre>
+ *     int magic, int classes count, then for each class: UTF name, int bytecode length, bytecode
+ * </pre>
+ * What is read must still be checked against the {@link #digest(Map)} of the written bytecode before being defined.
+ */
+final class ModelSnapshot {
+
+    static final int MAGIC = 0x45465353;
+
+    private ModelSnapshot() {
+        // Avoid instantiation
+    }
+
+    static void write(Path path, Map<String, byte[]> compiledClasses) throws IOException {
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(compiledClasses.size());
+            for (Map.Entry<String, byte[]> entry : compiledClasses.entrySet()) {
+                outputStream.writeUTF(entry.getKey());
+                outputStream.writeInt(entry.getValue().length);
+                outputStream.write(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @param path
+     * @return the bytecode of the classes written in the given snapshot
+     * @throws IOException if the snapshot cannot be read or is malformed
+     */
+    static Map<String, byte[]> read(Path path) throws IOException {
+        long size = Files.size(path);
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (inputStream.readInt() != MAGIC) {
+                throw new IOException(String.format("%s is not a model snapshot", path));
+            }
+            int count = inputStream.readInt();
+            if (count < 0) {
+                throw new IOException(String.format("Invalid classes count %s in %s", count, path));
+            }
+            Map<String, byte[]> toReturn = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String className = inputStream.readUTF();
+                int length = inputStream.readInt();
+                if (length < 0 || length > size) {
+                    throw new IOException(String.format("Invalid bytecode length %s of %s in %s", length, className, path));
+                }
+                byte[] bytecode = new byte[length];
+                inputStream.readFully(bytecode);
+                toReturn.put(className, bytecode);
+            }
+            return toReturn;
+        }
+    }
+
+    /**
+     * @param compiledClasses
+     * @return the SHA-256 digest of the given classes names and bytecode, whatever their order
+     */
+    static byte[] digest(Map<String, byte[]> compiledClasses) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, byte[]> entry : new TreeMap<>(compiledClasses).entrySet()) {
+                byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                messageDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(name.length).array());
+                messageDigest.update(name);
+                messageDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(entry.getValue().length).array());
+                messageDigest.update(entry.getValue());
+            }
+            return messageDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new KieRuntimeServiceException("SHA-256 not available", e);
+        }
+    }
+}
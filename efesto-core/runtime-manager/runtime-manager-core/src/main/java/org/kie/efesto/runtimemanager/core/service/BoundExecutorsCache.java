@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.kie.efesto.runtimemanager.api.utils.SPIUtils.getBoundExecutor;
+
+/**
+ * Bounded, least-recently-used cache of the <code>EfestoBoundExecutor</code>s already resolved by a
+ * <code>RuntimeManagerImpl</code>; only successful lookups are cached, so that models compiled later are still found.
+ * <p>
+ * Executors usually reference their <code>ClassLoader</code>: the entries of a <code>ClassLoader</code> are removed
+ * when their models are unloaded, when the <code>ClassLoader</code> is released, when they are evicted, and when any
+ * <code>IndexFile</code> is written (see <code>IndexFileVersion</code>), so that the cache never keeps a
+ * <code>ClassLoader</code> reachable longer than its models.
+ */
+final class BoundExecutorsCache {
+
+    static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final int maxSize;
+    private final Map<CacheKey, EfestoBoundExecutor> executors;
+    private long version = IndexFileVersion.current();
+
+    BoundExecutorsCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(String.format("Invalid cache size %s", maxSize));
+        }
+        this.maxSize = maxSize;
+        this.executors = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, EfestoBoundExecutor> eldest) {
+                return size() > BoundExecutorsCache.this.maxSize;
+            }
+        };
+    }
+
+    Optional<EfestoBoundExecutor> get(EfestoInput<?> toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        CacheKey key = new CacheKey(toEvaluate, memoryCompilerClassLoader);
+        EfestoBoundExecutor toReturn;
+        synchronized (this) {
+            checkVersion();
+            toReturn = executors.get(key);
+        }
+        if (toReturn != null) {
+            return Optional.of(toReturn);
+        }
+        // the lookup may compile or load classes: it is not done while holding the lock
+        Optional<EfestoBoundExecutor> retrieved = getBoundExecutor(toEvaluate, true, memoryCompilerClassLoader);
+        if (retrieved.isPresent() && maxSize > 0) {
+            synchronized (this) {
+                checkVersion();
+                return Optional.of(executors.computeIfAbsent(key, k -> retrieved.get()));
+            }
+        }
+        return retrieved;
+    }
+
+    synchronized void remove(Predicate<FRI> toRemove) {
+        executors.keySet().removeIf(key -> toRemove.test(key.fri));
+    }
+
+    synchronized void remove(ClassLoader classLoader) {
+        executors.keySet().removeIf(key -> key.classLoader == classLoader);
+    }
+
+    synchronized void clear() {
+        executors.clear();
+    }
+
+    synchronized int size() {
+        return executors.size();
+    }
+
+    private void checkVersion() {
+        long current = IndexFileVersion.current();
+        if (current != version) {
+            executors.clear();
+            version = current;
+        }
+    }
+
+    /**
+     * <code>EfestoBoundExecutor</code>s are bound to a given <code>FRI</code> and <code>ClassLoader</code>, but
+     * engines also select inputs by type; <code>ClassLoader</code>s are compared by identity
+     */
+    static final class CacheKey {
+
+        private final FRI fri;
+        private final Class<?> inputType;
+        private final ClassLoader classLoader;
+
+        CacheKey(EfestoInput<?> toEvaluate, ClassLoader classLoader) {
+            this.fri = toEvaluate.getFRI();
+            this.inputType = toEvaluate.getClass();
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return classLoader == that.classLoader && Objects.equals(fri, that.fri) && Objects.equals(inputType, that.inputType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fri, inputType, System.identityHashCode(classLoader));
+        }
+    }
+}
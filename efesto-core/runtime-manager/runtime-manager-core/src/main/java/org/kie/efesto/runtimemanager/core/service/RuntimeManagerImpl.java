@@ -15,33 +15,341 @@
  */
 package org.kie.efesto.runtimemanager.core.service;
 
+import org.kie.efesto.common.api.jfr.EvaluationEvent;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeTimeoutException;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
-import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.model.EfestoTimeoutOutput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpan;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracing;
+import org.kie.efesto.runtimemanager.api.utils.GeneratedResourceUtils;
+import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
+import org.kie.efesto.runtimemanager.core.admission.AdmissionController;
+import org.kie.efesto.runtimemanager.core.catalog.ModelCatalog;
+import org.kie.efesto.runtimemanager.core.governor.ModelGovernor;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static org.kie.efesto.runtimemanager.api.utils.SPIUtils.getKieRuntimeService;
+import static org.kie.efesto.runtimemanager.api.utils.DeadlineUtils.executeWithDeadline;
 
 public class RuntimeManagerImpl implements RuntimeManager {
     private static final Logger logger = LoggerFactory.getLogger(RuntimeManagerImpl.class.getName());
 
+    /**
+     * Spans of an evaluation: the <code>EVALUATE_SPAN</code> one contains the lookup of the
+     * <code>EfestoBoundExecutor</code> and its execution
+     */
+    public static final String EVALUATE_SPAN = "efesto.evaluateInput";
+    public static final String LOOKUP_SPAN = "efesto.lookup";
+    public static final String EXECUTE_SPAN = "efesto.execute";
+    public static final String OUTCOME_ATTRIBUTE = "outcome";
+
+    private static final AdmissionController.Permit NO_OP_PERMIT = () -> {
+    };
+
+    /**
+     * Maximum number of <code>EfestoBoundExecutor</code>s cached by each instance
+     */
+    public static final String EXECUTORS_CACHE_SIZE_PROPERTY = "efesto.runtime.executors.cacheSize";
+
+    /**
+     * Maximum number of threads running evaluations with a timeout for each instance; when all of them are busy,
+     * further timed evaluations are rejected
+     */
+    public static final String TIMED_EVALUATIONS_THREADS_PROPERTY = "efesto.runtime.timedEvaluations.threads";
+    static final int DEFAULT_TIMED_EVALUATIONS_THREADS = 64;
+
+    private final AdmissionController admissionController;
+    private final ModelGovernor modelGovernor;
+    private final ModelCatalog modelCatalog = new ModelCatalog();
+    private final BoundExecutorsCache boundExecutorsCache = new BoundExecutorsCache(Integer.getInteger(EXECUTORS_CACHE_SIZE_PROPERTY, BoundExecutorsCache.DEFAULT_MAX_SIZE));
+    /**
+     * Threads running evaluations with a timeout, so that the caller can abandon them; idle threads are released
+     */
+    private final ThreadPoolExecutor timedEvaluationsExecutor;
+
+    /**
+     * Admission control is configured with the <code>efesto.runtime.admission.*</code> system properties, the heap
+     * budget of the models with the <code>efesto.runtime.governor.*</code> ones
+     *
+     * @see AdmissionController
+     * @see ModelGovernor
+     */
+    public RuntimeManagerImpl() {
+        this(AdmissionController.fromSystemProperties(), ModelGovernor.fromSystemProperties());
+    }
+
+    public RuntimeManagerImpl(AdmissionController admissionController) {
+        this(admissionController, ModelGovernor.unlimited());
+    }
+
+    public RuntimeManagerImpl(AdmissionController admissionController, ModelGovernor modelGovernor) {
+        this(admissionController, modelGovernor, Integer.getInteger(TIMED_EVALUATIONS_THREADS_PROPERTY, DEFAULT_TIMED_EVALUATIONS_THREADS));
+    }
+
+    RuntimeManagerImpl(AdmissionController admissionController, ModelGovernor modelGovernor, int timedEvaluationsThreads) {
+        this.admissionController = admissionController;
+        this.modelGovernor = modelGovernor;
+        this.timedEvaluationsExecutor = new ThreadPoolExecutor(0, timedEvaluationsThreads, 60L, TimeUnit.SECONDS,
+                                                               new SynchronousQueue<>(), new EvaluationThreadFactory(),
+                                                               new ThreadPoolExecutor.AbortPolicy());
+        modelGovernor.addReleaseListener(this::releaseClassLoader);
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * Models registered in the <code>ModelGovernor</code> are evaluated with their own <code>ClassLoader</code>,
+     * whatever the one provided by the caller. When the <code>ModelGovernor</code> is enabled, models are registered
+     * on their first evaluation, with the bytecode of their generated classes read from the caller one.
+     *
+     * @return
+     */
+    public ModelGovernor getModelGovernor() {
+        return modelGovernor;
+    }
+
+    /**
+     * @throws org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException if the evaluation is
+     * rejected by the <code>AdmissionController</code>
+     */
     @Override
-    @SuppressWarnings({"unchecked", "raw"})
     public Optional<EfestoOutput> evaluateInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
-        Optional<KieRuntimeService> retrieved = getKieRuntimeService(toEvaluate, true, memoryCompilerClassLoader);
-        if (retrieved.isEmpty()) {
-            logger.warn("Cannot find KieRuntimeService for {}", toEvaluate.getFRI());
-            return Optional.empty();
+        return evaluateInput(toEvaluate, memoryCompilerClassLoader, false);
+    }
+
+    /**
+     * @param admitted <code>true</code> if the caller already holds the <code>AdmissionController.Permit</code> of
+     * the evaluation
+     */
+    @SuppressWarnings({"unchecked", "raw"})
+    private Optional<EfestoOutput> evaluateInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, boolean admitted) {
+        EvaluationEvent event = new EvaluationEvent();
+        event.begin();
+        String outcome = EvaluationEvent.FAILURE;
+        EfestoSpan span = EfestoTracing.startSpan(EVALUATE_SPAN, toEvaluate);
+        try {
+            Optional<EfestoBoundExecutor> retrieved;
+            try (EfestoSpan lookupSpan = EfestoTracing.startSpan(LOOKUP_SPAN, toEvaluate.getFRI())) {
+                KieMemoryCompiler.MemoryCompilerClassLoader classLoader = getModelClassLoader(toEvaluate.getFRI(), memoryCompilerClassLoader);
+                retrieved = getCachedBoundExecutor(toEvaluate, classLoader);
+            }
+            if (retrieved.isEmpty()) {
+                logger.warn("Cannot find KieRuntimeService for {}", toEvaluate.getFRI());
+                outcome = EvaluationEvent.NOT_FOUND;
+                return Optional.empty();
+            }
+            try (AdmissionController.Permit permit = admitted ? NO_OP_PERMIT : admissionController.acquire(toEvaluate.getFRI());
+                 EfestoSpan executeSpan = EfestoTracing.startSpan(EXECUTE_SPAN, toEvaluate.getFRI())) {
+                Optional<EfestoOutput> toReturn = retrieved.get().evaluateInput(toEvaluate);
+                outcome = toReturn.isPresent() ? EvaluationEvent.SUCCESS : EvaluationEvent.EMPTY;
+                return toReturn;
+            }
+        } catch (RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.setAttribute(OUTCOME_ATTRIBUTE, outcome);
+            span.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.fri = String.valueOf(toEvaluate.getFRI());
+                event.inputType = toEvaluate.getClass().getName();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * The evaluation is admitted by the calling thread, and runs on a bounded pool of threads. An abandoned
+     * evaluation keeps its <code>AdmissionController.Permit</code> until it actually stops.
+     *
+     * @throws org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException if the evaluation is
+     * rejected by the <code>AdmissionController</code>, or if all the threads for timed evaluations are busy
+     * @see #TIMED_EVALUATIONS_THREADS_PROPERTY
+     */
+    @Override
+    public Optional<EfestoOutput> evaluateInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, Duration timeout) {
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        EfestoSpanContext spanContext = EfestoTracing.currentContext();
+        AdmissionController.Permit permit = admissionController.acquire(toEvaluate.getFRI());
+        TimedEvaluation evaluation = new TimedEvaluation(() -> {
+            // engines look up their resources through the context ClassLoader of the caller
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+            return EfestoTracing.callWithContext(spanContext,
+                                                 () -> executeWithDeadline(deadlineNanos, () -> evaluateInput(toEvaluate, memoryCompilerClassLoader, true)));
+        }, permit);
+        try {
+            timedEvaluationsExecutor.execute(evaluation);
+        } catch (RejectedExecutionException e) {
+            permit.close();
+            throw new KieRuntimeAdmissionException(String.format("Evaluation of %s rejected: all the %s threads for timed evaluations are busy",
+                                                                 toEvaluate.getFRI(), timedEvaluationsExecutor.getMaximumPoolSize()), e);
         }
-        KieRuntimeService kieRuntimeService = retrieved.get();
-        return kieRuntimeService.evaluateInput(toEvaluate, memoryCompilerClassLoader);
+        try {
+            return evaluation.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // interrupting the evaluation thread is also a request to stop for the engines that check the deadline
+            evaluation.cancel(true);
+            logger.warn("Evaluation of {} abandoned after {}", toEvaluate.getFRI(), timeout);
+            return Optional.of(new EfestoTimeoutOutput(toEvaluate.getFRI(), timeout));
+        } catch (ExecutionException e) {
+            if (isTimeout(e.getCause())) {
+                logger.warn("Evaluation of {} stopped after {}", toEvaluate.getFRI(), timeout);
+                return Optional.of(new EfestoTimeoutOutput(toEvaluate.getFRI(), timeout));
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new KieRuntimeServiceException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            evaluation.cancel(true);
+            throw new KieRuntimeServiceException(String.format("Interrupted while evaluating %s", toEvaluate.getFRI()), e);
+        }
+    }
+
+    /**
+     * Engines may wrap the <code>KieRuntimeTimeoutException</code> in their own ones
+     */
+    static boolean isTimeout(Throwable throwable) {
+        Throwable toCheck = throwable;
+        while (toCheck != null) {
+            if (toCheck instanceof KieRuntimeTimeoutException) {
+                return true;
+            }
+            toCheck = toCheck.getCause() != toCheck ? toCheck.getCause() : null;
+        }
+        return false;
+    }
+
+    @Override
+    public void unloadModel(FRI fri) {
+        unload(fri::equals);
+    }
+
+    @Override
+    public void unloadModels(FRI basePath) {
+        unload(basePath::contains);
+    }
+
+    @Override
+    public Map<String, List<ModelDescriptor>> getModels() {
+        return modelCatalog.getModels();
+    }
+
+    @Override
+    public List<ModelDescriptor> getModels(String modelType) {
+        return modelCatalog.getModels(modelType);
+    }
+
+    @Override
+    public List<ModelDescriptor> getModels(FRI basePath) {
+        return modelCatalog.getModels(basePath);
+    }
+
+    public ModelCatalog getModelCatalog() {
+        return modelCatalog;
+    }
+
+    void unload(Predicate<FRI> toUnload) {
+        removeBoundExecutors(toUnload);
+        admissionController.removeModels(toUnload);
+        modelGovernor.remove(toUnload);
+        SPIUtils.getKieRuntimeServices(false).forEach(kieRuntimeService -> kieRuntimeService.unloadModels(toUnload));
+    }
+
+    KieMemoryCompiler.MemoryCompilerClassLoader getModelClassLoader(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return modelGovernor.getClassLoader(fri, memoryCompilerClassLoader,
+                                            toRead -> GeneratedResourceUtils.getCompiledClasses(toRead, memoryCompilerClassLoader),
+                                            modelClassLoader -> getModelInstance(fri, modelClassLoader))
+                .orElse(memoryCompilerClassLoader);
+    }
+
+    /**
+     * Drop the references still held to the given <code>ClassLoader</code> of a spilled or removed model: executors
+     * bound to it, and what the engines keep for it
+     *
+     * @param memoryCompilerClassLoader
+     */
+    void releaseClassLoader(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        boundExecutorsCache.remove(memoryCompilerClassLoader);
+        SPIUtils.getKieRuntimeServices(false).forEach(kieRuntimeService -> kieRuntimeService.releaseClassLoader(memoryCompilerClassLoader));
+    }
+
+    /**
+     * @return the in-memory representation of the given model, provided by the first <code>KieRuntimeService</code>
+     * of its model type able to
+     */
+    Optional<Object> getModelInstance(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        ModelDescriptor modelDescriptor = modelCatalog.getModels(fri).stream()
+                .filter(retrieved -> retrieved.getFri().equals(fri))
+                .findFirst()
+                .orElseGet(() -> new ModelDescriptor(fri, null, null));
+        return SPIUtils.getKieRuntimeServices(false).stream()
+                .filter(kieRuntimeService -> fri.getModel().equals(kieRuntimeService.getModelType()))
+                .map(kieRuntimeService -> kieRuntimeService.getModelInstance(modelDescriptor, memoryCompilerClassLoader))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    /**
+     * Remove the cached <code>EfestoBoundExecutor</code>s of the <code>FRI</code>s matching the given filter
+     *
+     * @param toRemove
+     */
+    void removeBoundExecutors(Predicate<FRI> toRemove) {
+        boundExecutorsCache.remove(toRemove);
+    }
+
+    /**
+     * Remove all the cached <code>EfestoBoundExecutor</code>s; entries are also discarded whenever an
+     * <code>IndexFile</code> is written, e.g. after a model has been recompiled
+     */
+    public void clearBoundExecutorsCache() {
+        boundExecutorsCache.clear();
+    }
+
+    Optional<EfestoBoundExecutor> getCachedBoundExecutor(EfestoInput<?> toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return boundExecutorsCache.get(toEvaluate, memoryCompilerClassLoader);
+    }
+
+    BoundExecutorsCache getBoundExecutorsCache() {
+        return boundExecutorsCache;
+    }
+
+    int getRunningTimedEvaluations() {
+        return timedEvaluationsExecutor.getActiveCount();
     }
 
     @Override
@@ -52,4 +360,39 @@ public class RuntimeManagerImpl implements RuntimeManager {
                 .map(Optional::get)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Evaluation releasing its <code>AdmissionController.Permit</code> when the thread running it is done, even if
+     * it has been cancelled by the caller
+     */
+    private static final class TimedEvaluation extends FutureTask<Optional<EfestoOutput>> {
+
+        private final AdmissionController.Permit permit;
+
+        private TimedEvaluation(Callable<Optional<EfestoOutput>> callable, AdmissionController.Permit permit) {
+            super(callable);
+            this.permit = permit;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                permit.close();
+            }
+        }
+    }
+
+    private static final class EvaluationThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread toReturn = new Thread(runnable, "efesto-evaluation-" + counter.incrementAndGet());
+            toReturn.setDaemon(true);
+            return toReturn;
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.admission;
+
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControllerTest {
+
+    private static final FRI FRI_A = new FRI("this/is/fri_a", "foo");
+    private static final FRI FRI_B = new FRI("this/is/fri_b", "foo");
+    private static final FRI FRI_C = new FRI("this/is/fri_c", "bar");
+
+    @Test
+    void unlimited() {
+        AdmissionController admissionController = AdmissionController.unlimited();
+        assertThat(admissionController.isEnabled()).isFalse();
+        try (AdmissionController.Permit permit = admissionController.acquire(FRI_A)) {
+            assertThat(permit).isNotNull();
+        }
+        assertThat(admissionController.getCounters(FRI_A)).isEmpty();
+    }
+
+    @Test
+    void acquireModelLimits() {
+        AdmissionController admissionController = new AdmissionController(AdmissionLimits.UNLIMITED,
+                                                                          new AdmissionLimits(1, 0),
+                                                                          Collections.emptyMap(), 0);
+        assertThat(admissionController.isEnabled()).isTrue();
+        AdmissionController.Permit permit = admissionController.acquire(FRI_A);
+        assertThatThrownBy(() -> admissionController.acquire(FRI_A)).isInstanceOf(KieRuntimeAdmissionException.class);
+        // other models are not affected
+        admissionController.acquire(FRI_B).close();
+        AdmissionCounters counters = admissionController.getCounters(FRI_A).orElseThrow();
+        assertThat(counters.getActive()).isEqualTo(1);
+        assertThat(counters.getAdmitted()).isEqualTo(1);
+        assertThat(counters.getRejected()).isEqualTo(1);
+        permit.close();
+        // closing twice does not release twice
+        permit.close();
+        assertThat(counters.getActive()).isZero();
+        admissionController.acquire(FRI_A).close();
+        assertThat(counters.getAdmitted()).isEqualTo(2);
+        assertThat(admissionController.getGlobalCounters().getAdmitted()).isEqualTo(3);
+    }
+
+    @Test
+    void acquirePathLimits() {
+        AdmissionController admissionController = new AdmissionController(AdmissionLimits.UNLIMITED,
+                                                                          AdmissionLimits.UNLIMITED,
+                                                                          Map.of("/foo", new AdmissionLimits(1, 0)), 0);
+        AdmissionController.Permit permit = admissionController.acquire(FRI_A);
+        // models under the same path share the limits
+        assertThatThrownBy(() -> admissionController.acquire(FRI_B)).isInstanceOf(KieRuntimeAdmissionException.class);
+        admissionController.acquire(FRI_C).close();
+        assertThat(admissionController.getCounters(FRI_B)).containsSame(admissionController.getCounters(FRI_A).orElseThrow());
+        assertThat(admissionController.getCounters()).containsKeys("global", "/foo", FRI_C.getFri());
+        permit.close();
+        admissionController.acquire(FRI_B).close();
+    }
+
+    @Test
+    void acquireGlobalLimits() {
+        AdmissionController admissionController = new AdmissionController(new AdmissionLimits(1, 0),
+                                                                          new AdmissionLimits(2, 0),
+                                                                          Collections.emptyMap(), 0);
+        AdmissionController.Permit permit = admissionController.acquire(FRI_A);
+        assertThatThrownBy(() -> admissionController.acquire(FRI_C)).isInstanceOf(KieRuntimeAdmissionException.class);
+        // the model slot is released when the global one is not available
+        assertThat(admissionController.getCounters(FRI_C).orElseThrow().getActive()).isZero();
+        assertThat(admissionController.getGlobalCounters().getRejected()).isEqualTo(1);
+        permit.close();
+        admissionController.acquire(FRI_C).close();
+    }
+
+    @Test
+    void acquireQueued() throws Exception {
+        AdmissionController admissionController = new AdmissionController(AdmissionLimits.UNLIMITED,
+                                                                          new AdmissionLimits(1, 1),
+                                                                          Collections.emptyMap(), 0);
+        AdmissionController.Permit permit = admissionController.acquire(FRI_A);
+        CountDownLatch admitted = new CountDownLatch(1);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            try (AdmissionController.Permit queuedPermit = admissionController.acquire(FRI_A)) {
+                admitted.countDown();
+            }
+        });
+        AdmissionCounters counters = admissionController.getCounters(FRI_A).orElseThrow();
+        while (counters.getQueued() == 0) {
+            Thread.sleep(5);
+        }
+        // the queue is full
+        assertThatThrownBy(() -> admissionController.acquire(FRI_A)).isInstanceOf(KieRuntimeAdmissionException.class);
+        assertThat(admitted.getCount()).isEqualTo(1);
+        permit.close();
+        assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+        queued.get(5, TimeUnit.SECONDS);
+        assertThat(counters.getAdmitted()).isEqualTo(2);
+        assertThat(counters.getRejected()).isEqualTo(1);
+        assertThat(counters.getQueued()).isZero();
+    }
+
+    @Test
+    void acquireTimedOut() {
+        AdmissionController admissionController = new AdmissionController(AdmissionLimits.UNLIMITED,
+                                                                          new AdmissionLimits(1, 1),
+                                                                          Collections.emptyMap(), 10);
+        try (AdmissionController.Permit permit = admissionController.acquire(FRI_A)) {
+            assertThatThrownBy(() -> admissionController.acquire(FRI_A))
+                    .isInstanceOf(KieRuntimeAdmissionException.class)
+                    .hasMessageContaining("timed out");
+        }
+        assertThat(admissionController.getCounters(FRI_A).orElseThrow().getQueued()).isZero();
+    }
+
+    @Test
+    void fromProperties() {
+        Properties properties = new Properties();
+        assertThat(AdmissionController.fromProperties(properties).isEnabled()).isFalse();
+        properties.setProperty(AdmissionController.MODEL_LIMITS_PROPERTY, "2");
+        properties.setProperty(AdmissionController.PATH_LIMITS_PROPERTY_PREFIX + "/foo", "1,5");
+        properties.setProperty(AdmissionController.PATH_LIMITS_PROPERTY_PREFIX + "/foo/this/is/fri_a", "3, 10");
+        AdmissionController retrieved = AdmissionController.fromProperties(properties);
+        assertThat(retrieved.isEnabled()).isTrue();
+        assertThat(retrieved.getModelLimiter(FRI_A).getLimits()).isEqualTo(new AdmissionLimits(3, 10));
+        assertThat(retrieved.getModelLimiter(FRI_B).getLimits()).isEqualTo(new AdmissionLimits(1, 5));
+        assertThat(retrieved.getModelLimiter(FRI_C).getLimits()).isEqualTo(new AdmissionLimits(2, 0));
+        properties.setProperty(AdmissionController.GLOBAL_LIMITS_PROPERTY, "not_a_number");
+        assertThatThrownBy(() -> AdmissionController.fromProperties(properties)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void removeModels() {
+        AdmissionController admissionController = new AdmissionController(AdmissionLimits.UNLIMITED,
+                                                                          new AdmissionLimits(1, 0),
+                                                                          Collections.emptyMap(), 0);
+        admissionController.acquire(FRI_A).close();
+        admissionController.acquire(FRI_B).close();
+        assertThat(admissionController.getCounters(FRI_A)).isPresent();
+        admissionController.removeModels(FRI_A::equals);
+        assertThat(admissionController.getCounters(FRI_A)).isEmpty();
+        assertThat(admissionController.getCounters(FRI_B)).isPresent();
+    }
+
+    @Test
+    void isUnderPath() {
+        assertThat(AdmissionController.isUnderPath("/foo/this/is/fri", "/foo")).isTrue();
+        assertThat(AdmissionController.isUnderPath("/foo/this/is/fri", "/foo/")).isTrue();
+        assertThat(AdmissionController.isUnderPath("/foo/this/is/fri", "/foo/this/is/fri")).isTrue();
+        assertThat(AdmissionController.isUnderPath("/foo/this/is/fri", "/fo")).isFalse();
+        assertThat(AdmissionController.isUnderPath("/foo/this/is/fri", "/bar")).isFalse();
+    }
+}
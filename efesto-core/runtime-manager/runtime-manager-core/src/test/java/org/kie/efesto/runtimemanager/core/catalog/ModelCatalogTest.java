@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.catalog;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedClassResource;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.GeneratedRedirectResource;
+import org.kie.efesto.common.api.model.GeneratedResources;
+import org.kie.efesto.common.api.model.ModelMetadata;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelCatalogTest {
+
+    private static final String MODEL_TYPE = "catalog";
+
+    @AfterEach
+    void cleanUp() {
+        MemoryIndexFiles.clear();
+    }
+
+    @Test
+    void getModels() {
+        AtomicInteger reads = new AtomicInteger();
+        GeneratedResources generatedResources = getGeneratedResources();
+        ModelCatalog modelCatalog = new ModelCatalog(() -> Collections.singleton(MODEL_TYPE),
+                                                     modelType -> {
+                                                         reads.incrementAndGet();
+                                                         return MODEL_TYPE.equals(modelType) ? Optional.of(generatedResources) : Optional.empty();
+                                                     });
+        List<ModelDescriptor> retrieved = modelCatalog.getModels(MODEL_TYPE);
+        assertThat(retrieved.stream().map(modelDescriptor -> modelDescriptor.getFri().getBasePath()).collect(Collectors.toList()))
+                .containsExactly("/models/first", "/models/first/nested", "/models/firstother", "/models/second", "/other/redirected");
+        assertThat(retrieved.get(0).getMetadata()).contains(new ModelMetadata("first", List.of("input"), "target", "regression"));
+        assertThat(retrieved.get(4).getRedirectTarget()).contains("drl");
+        assertThat(retrieved.get(4).getMetadata()).isEmpty();
+        assertThat(modelCatalog.getModels("notexisting")).isEmpty();
+        Map<String, List<ModelDescriptor>> allModels = modelCatalog.getModels();
+        assertThat(allModels).containsOnlyKeys(MODEL_TYPE);
+        assertThat(allModels.get(MODEL_TYPE)).isSameAs(retrieved);
+        // entries are read only once
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void getModelsByPath() {
+        GeneratedResources generatedResources = getGeneratedResources();
+        ModelCatalog modelCatalog = new ModelCatalog(Collections::emptySet, modelType -> Optional.of(generatedResources));
+        assertThat(modelCatalog.getModels(new FRI("models/first", MODEL_TYPE)).stream()
+                           .map(modelDescriptor -> modelDescriptor.getFri().getBasePath())
+                           .collect(Collectors.toList()))
+                .containsExactly("/models/first", "/models/first/nested");
+        assertThat(modelCatalog.getModels(new FRI("models", MODEL_TYPE))).hasSize(4);
+        assertThat(modelCatalog.getModels(new FRI("mod", MODEL_TYPE))).isEmpty();
+        assertThat(modelCatalog.getModels(new FRI("models", "other"))).isEmpty();
+    }
+
+    @Test
+    void getModelsRebuiltOnIndexFileChanges() {
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(getExecutableResource("models/first", null)));
+        ModelCatalog modelCatalog = new ModelCatalog(Collections::emptySet, modelType -> MemoryIndexFiles.getGeneratedResources(modelType));
+        assertThat(modelCatalog.getModels()).containsOnlyKeys(MODEL_TYPE);
+        assertThat(modelCatalog.getModels(MODEL_TYPE)).hasSize(1);
+        long version = IndexFileVersion.current();
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Collections.singletonList(getExecutableResource("models/second", null)));
+        assertThat(IndexFileVersion.current()).isGreaterThan(version);
+        assertThat(modelCatalog.getModels(MODEL_TYPE)).hasSize(2);
+        MemoryIndexFiles.removeGeneratedResources(MODEL_TYPE);
+        assertThat(modelCatalog.getModels(MODEL_TYPE)).isEmpty();
+        assertThat(modelCatalog.getModels()).doesNotContainKey(MODEL_TYPE);
+    }
+
+    @Test
+    void getModelsLargeCatalog() {
+        GeneratedResources generatedResources = new GeneratedResources();
+        for (int i = 0; i < 50_000; i++) {
+            generatedResources.add(getExecutableResource("models/group" + (i % 100) + "/model" + i, null));
+        }
+        ModelCatalog modelCatalog = new ModelCatalog(Collections::emptySet, modelType -> Optional.of(generatedResources));
+        assertThat(modelCatalog.getModels(MODEL_TYPE)).hasSize(50_000);
+        assertThat(modelCatalog.getModels(new FRI("models/group42", MODEL_TYPE))).hasSize(500)
+                .allSatisfy(modelDescriptor -> assertThat(modelDescriptor.getFri().getBasePath()).startsWith("/models/group42/"));
+    }
+
+    private static GeneratedResources getGeneratedResources() {
+        GeneratedResources toReturn = new GeneratedResources();
+        toReturn.add(new GeneratedClassResource("org.kie.Model"));
+        toReturn.add(getExecutableResource("models/second", null));
+        toReturn.add(getExecutableResource("models/first", new ModelMetadata("first", List.of("input"), "target", "regression")));
+        toReturn.add(getExecutableResource("models/firstother", null));
+        toReturn.add(getExecutableResource("models/first/nested", null));
+        toReturn.add(new GeneratedRedirectResource(new FRI("other/redirected", MODEL_TYPE), "drl"));
+        return toReturn;
+    }
+
+    private static GeneratedExecutableResource getExecutableResource(String basePath, ModelMetadata metadata) {
+        return new GeneratedExecutableResource(new FRI(basePath, MODEL_TYPE), Collections.singletonList("org.kie.Model"), metadata);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.cds;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppCDSArchiverTest {
+
+    private static final String CLASS_PATH = String.join(File.pathSeparator, "lib/a.jar", "lib/b.jar", "classes");
+
+    @Test
+    void getCommands() {
+        AppCDSArchiver archiver = new AppCDSArchiver("java", CLASS_PATH);
+        Path classList = Paths.get("out", AppCDSArchiver.CLASS_LIST_FILE_NAME);
+        Path archive = Paths.get("out", AppCDSArchiver.ARCHIVE_FILE_NAME);
+        assertThat(archiver.getTrainingCommand(classList, Arrays.asList("/foo/model", "/bar/model")))
+                .containsExactly("java", "-Xshare:off", "-XX:DumpLoadedClassList=" + classList, "-cp", CLASS_PATH,
+                                 TrainingRun.class.getName(), "/foo/model", "/bar/model");
+        assertThat(archiver.getDumpCommand(classList, archive))
+                .containsExactly("java", "-Xshare:dump", "-XX:SharedClassListFile=" + classList,
+                                 "-XX:SharedArchiveFile=" + archive, "-cp", CLASS_PATH);
+        assertThat(AppCDSArchiver.getRuntimeOptions(archive)).contains("-XX:SharedArchiveFile=" + archive);
+        StartupBenchmark benchmark = new StartupBenchmark(archiver);
+        assertThat(benchmark.getCommand(AppCDSArchiver.getRuntimeOptions(archive), Collections.singletonList("/foo/model")))
+                .containsExactly("java", "-Xshare:auto", "-XX:SharedArchiveFile=" + archive, "-cp", CLASS_PATH,
+                                 TrainingRun.class.getName(), "/foo/model");
+    }
+
+    @Test
+    void getNotJarEntries() {
+        assertThat(new AppCDSArchiver("java", CLASS_PATH).getNotJarEntries()).containsExactly("classes");
+        assertThat(AppCDSArchiver.getJavaExecutable()).startsWith(System.getProperty("java.home"));
+    }
+
+    @Test
+    void median() {
+        assertThat(StartupBenchmark.median(new long[]{1, 2, 10})).isEqualTo(2);
+        assertThat(StartupBenchmark.median(new long[]{5})).isEqualTo(5);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.cds;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.mocks.AbstractMockEfestoInput;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputA;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputC;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputD;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.core.admission.AdmissionController;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrainingRunTest {
+
+    private static KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader;
+
+    @BeforeAll
+    static void setUp() {
+        memoryCompilerClassLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+    }
+
+    @Test
+    void train() {
+        FRI friA = new MockEfestoInputA().getFRI();
+        FRI friC = new MockEfestoInputC().getFRI();
+        FRI friD = new MockEfestoInputD().getFRI();
+        List<KieRuntimeService> kieRuntimeServices = Arrays.asList(new SyntheticInputService(new MockEfestoInputA()),
+                                                                   new SyntheticInputService(new MockEfestoInputD()));
+        TrainingRun trainingRun = new TrainingRun(new RuntimeManagerImpl(AdmissionController.unlimited()), kieRuntimeServices);
+        AtomicInteger firstScores = new AtomicInteger();
+        TrainingRun.Report retrieved = trainingRun.train(Arrays.asList(friA, friC, friD, friA), memoryCompilerClassLoader,
+                                                         firstScores::incrementAndGet);
+        assertThat(retrieved.getEvaluated()).containsExactly(friA, friA);
+        // no executor for D
+        assertThat(retrieved.getFailed()).containsExactly(friD);
+        // no synthetic input for C
+        assertThat(retrieved.getSkipped()).containsExactly(friC);
+        assertThat(firstScores).hasValue(1);
+    }
+
+    /**
+     * Provides the given input for its own model type
+     */
+    private static class SyntheticInputService implements KieRuntimeService<String, String, AbstractMockEfestoInput, MockEfestoOutput> {
+
+        private final AbstractMockEfestoInput syntheticInput;
+
+        private SyntheticInputService(AbstractMockEfestoInput syntheticInput) {
+            this.syntheticInput = syntheticInput;
+        }
+
+        @Override
+        public boolean canManageInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            return false;
+        }
+
+        @Override
+        public Optional<MockEfestoOutput> evaluateInput(AbstractMockEfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String getModelType() {
+            return syntheticInput.getFRI().getModel();
+        }
+
+        @Override
+        public Optional<AbstractMockEfestoInput> getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            return Optional.of(syntheticInput);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.footprint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.runtimemanager.api.mocks.AbstractMockEfestoInput;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputA;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputB;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.core.admission.AdmissionController;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FootprintAnalyzerTest {
+
+    private static final String MODEL_TYPE = "footprint";
+    private static final FRI BIG_FRI = new FRI("models/big", MODEL_TYPE);
+    private static final FRI SMALL_FRI = new FRI("models/small", MODEL_TYPE);
+    private static final FRI OPAQUE_FRI = new FRI("models/opaque", MODEL_TYPE);
+
+    @AfterEach
+    void cleanUp() {
+        MemoryIndexFiles.clear();
+    }
+
+    @Test
+    void analyze() {
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, Arrays.asList(
+                new GeneratedExecutableResource(SMALL_FRI, Collections.singletonList(MockEfestoInputA.class.getName())),
+                new GeneratedExecutableResource(BIG_FRI, Arrays.asList(MockEfestoInputA.class.getName(),
+                                                                       MockEfestoInputB.class.getName())),
+                new GeneratedExecutableResource(OPAQUE_FRI, Collections.singletonList(MockEfestoInputA.class.getName()))));
+        FootprintAnalyzer footprintAnalyzer = new FootprintAnalyzer(new RuntimeManagerImpl(AdmissionController.unlimited()),
+                                                                    Collections.singletonList(new ModelInstanceService()));
+        assertThat(footprintAnalyzer.getDeployedModels()).containsExactlyInAnyOrder(BIG_FRI, SMALL_FRI, OPAQUE_FRI);
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader =
+                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        FootprintAnalyzer.Report retrieved = footprintAnalyzer.analyze(Arrays.asList(SMALL_FRI, OPAQUE_FRI, BIG_FRI),
+                                                                        memoryCompilerClassLoader);
+        List<ModelFootprint> footprints = retrieved.getFootprints();
+        assertThat(footprints).extracting(ModelFootprint::getFri).containsExactly(BIG_FRI, SMALL_FRI, OPAQUE_FRI);
+        ModelFootprint big = footprints.get(0);
+        assertThat(big.isInstanceMeasured()).isTrue();
+        assertThat(big.getInstanceBytes()).isGreaterThan(80_000);
+        assertThat(big.getGeneratedClasses()).isEqualTo(2);
+        assertThat(big.getGeneratedClassesBytes()).isPositive();
+        assertThat(big.getIndexEntries()).isEqualTo(1);
+        assertThat(big.getTotalBytes()).isEqualTo(big.getInstanceBytes() + big.getGeneratedClassesBytes());
+        ModelFootprint opaque = footprints.get(2);
+        assertThat(opaque.isInstanceMeasured()).isFalse();
+        assertThat(opaque.getInstanceBytes()).isZero();
+        assertThat(opaque.getGeneratedClasses()).isEqualTo(1);
+        assertThat(retrieved.getTotalBytes()).isEqualTo(footprints.stream().mapToLong(ModelFootprint::getTotalBytes).sum());
+        assertThat(retrieved.toString()).contains(BIG_FRI.getFri(), "n/a", "3 models");
+    }
+
+    @Test
+    void getGeneratedClass() {
+        Supplier<String> lambda = () -> "generated";
+        assertThat(FootprintAnalyzer.getGeneratedClass(lambda.getClass(), Collections.singleton(getClass().getName())))
+                .contains(getClass());
+        assertThat(FootprintAnalyzer.getGeneratedClass(lambda.getClass(), Collections.emptySet())).isEmpty();
+        assertThat(FootprintAnalyzer.getGeneratedClass(String.class, Collections.singleton(getClass().getName()))).isEmpty();
+    }
+
+    /**
+     * Provides a large model for <code>BIG_FRI</code>, a small one for <code>SMALL_FRI</code>, none otherwise
+     */
+    private static class ModelInstanceService implements KieRuntimeService<String, String, AbstractMockEfestoInput, MockEfestoOutput> {
+
+        @Override
+        public boolean canManageInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            return false;
+        }
+
+        @Override
+        public Optional<MockEfestoOutput> evaluateInput(AbstractMockEfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String getModelType() {
+            return MODEL_TYPE;
+        }
+
+        @Override
+        public Optional<Object> getModelInstance(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            if (BIG_FRI.equals(modelDescriptor.getFri())) {
+                return Optional.of(Arrays.asList(new double[10_000], new MockEfestoInputB()));
+            } else if (SMALL_FRI.equals(modelDescriptor.getFri())) {
+                return Optional.of(new double[10]);
+            }
+            return Optional.empty();
+        }
+    }
+}
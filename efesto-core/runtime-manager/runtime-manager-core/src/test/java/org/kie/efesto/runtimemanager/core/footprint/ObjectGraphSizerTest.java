@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.footprint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.runtimemanager.core.footprint.ObjectGraphSizer.ARRAY_HEADER_SIZE;
+import static org.kie.efesto.runtimemanager.core.footprint.ObjectGraphSizer.MAP_ENTRY_SIZE;
+import static org.kie.efesto.runtimemanager.core.footprint.ObjectGraphSizer.align;
+
+class ObjectGraphSizerTest {
+
+    @Test
+    void sizeOfArrays() {
+        assertThat(ObjectGraphSizer.sizeOf(null)).isZero();
+        assertThat(ObjectGraphSizer.sizeOf(new long[100])).isEqualTo(align(ARRAY_HEADER_SIZE + 800));
+        assertThat(ObjectGraphSizer.sizeOf(new byte[3])).isEqualTo(align(ARRAY_HEADER_SIZE + 3));
+        long[] shared = new long[100];
+        ObjectGraphSizer.GraphSize retrieved = ObjectGraphSizer.measure(new Object[]{shared, shared, null});
+        assertThat(retrieved.getObjects()).isEqualTo(2);
+        assertThat(retrieved.getBytes()).isGreaterThan(ObjectGraphSizer.sizeOf(shared))
+                .isLessThan(2 * ObjectGraphSizer.sizeOf(shared));
+    }
+
+    @Test
+    void sizeOfGraph() {
+        Node first = new Node(new long[1000]);
+        Node second = new Node(new long[10]);
+        first.next = second;
+        second.next = first;
+        ObjectGraphSizer.GraphSize retrieved = ObjectGraphSizer.measure(first);
+        // cycles are walked once
+        assertThat(retrieved.getObjects()).isEqualTo(4);
+        assertThat(retrieved.getBytes()).isGreaterThan(8_000 + 80);
+        assertThat(retrieved.getClasses()).containsExactlyInAnyOrder(Node.class, long[].class);
+        assertThat(ObjectGraphSizer.sizeOf(second)).isEqualTo(retrieved.getBytes());
+    }
+
+    @Test
+    void sizeOfShared() {
+        assertThat(ObjectGraphSizer.sizeOf(String.class)).isZero();
+        assertThat(ObjectGraphSizer.sizeOf(TimeUnit.SECONDS)).isZero();
+        assertThat(ObjectGraphSizer.sizeOf(getClass().getClassLoader())).isZero();
+    }
+
+    @Test
+    void sizeOfCollections() {
+        Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            List<String> values = new ArrayList<>();
+            values.add("value" + i);
+            map.put("key" + i, values);
+        }
+        ObjectGraphSizer.GraphSize retrieved = ObjectGraphSizer.measure(map);
+        // map, 10 keys, 10 lists and their 10 values, at least
+        assertThat(retrieved.getObjects()).isGreaterThanOrEqualTo(31);
+        assertThat(retrieved.getBytes()).isGreaterThan(10L * MAP_ENTRY_SIZE);
+    }
+
+    private static class Node {
+
+        private final long[] data;
+        private Node next;
+
+        private Node(long[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.governor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputA;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputB;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelGovernorTest {
+
+    private static final FRI FRI_A = new FRI("this/is/fri_a", "foo");
+    private static final FRI FRI_B = new FRI("this/is/fri_b", "foo");
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void unlimited() throws IOException {
+        ModelGovernor modelGovernor = new ModelGovernor(0, spillDirectory);
+        assertThat(modelGovernor.isEnabled()).isFalse();
+        assertThat(modelGovernor.getClassLoader(FRI_A)).isEmpty();
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoaderA = modelGovernor.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        modelGovernor.register(FRI_B, getCompiledClasses(MockEfestoInputB.class), getClass().getClassLoader());
+        assertThat(modelGovernor.isSpilled(FRI_A)).isFalse();
+        assertThat(modelGovernor.getClassLoader(FRI_A)).containsSame(classLoaderA);
+        assertThat(modelGovernor.getFootprint(FRI_A).orElseThrow()).isPositive();
+        assertThat(modelGovernor.getUsedBytes()).isEqualTo(modelGovernor.getFootprint(FRI_A).orElseThrow() +
+                                                                   modelGovernor.getFootprint(FRI_B).orElseThrow());
+    }
+
+    @Test
+    void spillAndRestore() throws IOException {
+        // every model exceeds the budget: only the last requested one stays resident
+        ModelGovernor modelGovernor = new ModelGovernor(1, spillDirectory);
+        List<ClassLoader> released = new ArrayList<>();
+        modelGovernor.addReleaseListener(released::add);
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoaderA = modelGovernor.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoaderB = modelGovernor.register(FRI_B, getCompiledClasses(MockEfestoInputB.class), getClass().getClassLoader());
+        assertThat(modelGovernor.isSpilled(FRI_A)).isTrue();
+        assertThat(modelGovernor.isSpilled(FRI_B)).isFalse();
+        assertThat(modelGovernor.getFootprint(FRI_A)).isEmpty();
+        assertThat(modelGovernor.getUsedBytes()).isEqualTo(modelGovernor.getFootprint(FRI_B).orElseThrow());
+        assertThat(released).containsExactly(classLoaderA);
+        // snapshots are written at registration
+        assertThat(getSnapshots()).hasSize(2);
+
+        KieMemoryCompiler.MemoryCompilerClassLoader restored = modelGovernor.getClassLoader(FRI_A).orElseThrow();
+        assertThat(restored).isNotSameAs(classLoaderA);
+        assertThat(restored.getParent()).isSameAs(getClass().getClassLoader());
+        assertThat(modelGovernor.isSpilled(FRI_A)).isFalse();
+        assertThat(modelGovernor.isSpilled(FRI_B)).isTrue();
+        assertThat(released).containsExactly(classLoaderA, classLoaderB);
+        assertThat(getSnapshots()).hasSize(2);
+    }
+
+    @Test
+    void spillDirectoryIsPrivate() throws IOException {
+        ModelGovernor modelGovernor = new ModelGovernor(1, spillDirectory);
+        modelGovernor.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        List<Path> snapshots = getSnapshots();
+        assertThat(snapshots).hasSize(1);
+        Path privateDirectory = snapshots.get(0).getParent();
+        assertThat(privateDirectory).isNotEqualTo(spillDirectory);
+        assertThat(privateDirectory.getParent()).isEqualTo(spillDirectory);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertThat(Files.getPosixFilePermissions(privateDirectory)).isEqualTo(PosixFilePermissions.fromString("rwx------"));
+        }
+        // another governor gets its own directory
+        new ModelGovernor(1, spillDirectory).register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        assertThat(getSnapshots()).hasSize(2).extracting(Path::getParent).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void restoreTamperedSnapshot() throws IOException {
+        ModelGovernor modelGovernor = new ModelGovernor(1, spillDirectory);
+        Map<String, byte[]> compiledClassesB = getCompiledClasses(MockEfestoInputB.class);
+        modelGovernor.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        Path snapshotA = getSnapshots().get(0);
+        modelGovernor.register(FRI_B, compiledClassesB, getClass().getClassLoader());
+        assertThat(modelGovernor.isSpilled(FRI_A)).isTrue();
+        ModelSnapshot.write(snapshotA, compiledClassesB);
+        assertThatThrownBy(() -> modelGovernor.getClassLoader(FRI_A)).isInstanceOf(KieRuntimeServiceException.class);
+        // the model is forgotten, to be registered again from its IndexFile
+        assertThat(modelGovernor.isRegistered(FRI_A)).isFalse();
+        assertThat(snapshotA).doesNotExist();
+    }
+
+    @Test
+    void spillLeastRecentlyUsed() throws IOException {
+        ModelGovernor sizer = new ModelGovernor(0, spillDirectory);
+        sizer.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        long footprint = sizer.getFootprint(FRI_A).orElseThrow();
+        // room for two models of about the same size
+        ModelGovernor modelGovernor = new ModelGovernor(footprint * 5 / 2, spillDirectory);
+        FRI friC = new FRI("this/is/fri_c", "foo");
+        modelGovernor.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        modelGovernor.register(FRI_B, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        assertThat(modelGovernor.getClassLoader(FRI_A)).isPresent();
+        modelGovernor.register(friC, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        assertThat(modelGovernor.isSpilled(FRI_B)).isTrue();
+        assertThat(modelGovernor.isSpilled(FRI_A)).isFalse();
+        assertThat(modelGovernor.isSpilled(friC)).isFalse();
+    }
+
+    @Test
+    void remove() throws IOException {
+        ModelGovernor modelGovernor = new ModelGovernor(1, spillDirectory);
+        List<ClassLoader> released = new ArrayList<>();
+        modelGovernor.addReleaseListener(released::add);
+        modelGovernor.register(FRI_A, getCompiledClasses(MockEfestoInputA.class), getClass().getClassLoader());
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoaderB = modelGovernor.register(FRI_B, getCompiledClasses(MockEfestoInputB.class), getClass().getClassLoader());
+        assertThat(getSnapshots()).hasSize(2);
+        modelGovernor.remove(new FRI("this/is", "foo")::contains);
+        assertThat(modelGovernor.isRegistered(FRI_A)).isFalse();
+        assertThat(modelGovernor.isRegistered(FRI_B)).isFalse();
+        assertThat(modelGovernor.getClassLoader(FRI_A)).isEmpty();
+        assertThat(modelGovernor.getUsedBytes()).isZero();
+        assertThat(released).contains(classLoaderB);
+        assertThat(getSnapshots()).isEmpty();
+    }
+
+    @Test
+    void register() throws Exception {
+        ModelGovernor modelGovernor = new ModelGovernor(0, spillDirectory);
+        Map<String, byte[]> compiledClasses = getCompiledClasses(MockEfestoInputA.class);
+        long bytecodeSize = compiledClasses.get(MockEfestoInputA.class.getName()).length;
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = modelGovernor.register(FRI_A, compiledClasses, getClass().getClassLoader(),
+                                                                                       modelClassLoader -> Optional.of(new long[1024]));
+        // model classes are defined by the model ClassLoader, even if the parent provides them too
+        Class<?> loaded = classLoader.loadClass(MockEfestoInputA.class.getName());
+        assertThat(loaded.getClassLoader()).isSameAs(classLoader);
+        assertThat(loaded).isNotSameAs(MockEfestoInputA.class);
+        assertThat(classLoader.loadClass(MockEfestoInputB.class.getName())).isSameAs(MockEfestoInputB.class);
+        // the in-memory representation of the model is accounted
+        assertThat(modelGovernor.getFootprint(FRI_A).orElseThrow()).isGreaterThan(bytecodeSize + 1024 * Long.BYTES);
+        // without a budget, models are never spilled: no snapshot is needed
+        assertThat(getSnapshots()).isEmpty();
+    }
+
+    @Test
+    void getClassLoaderRegistering() throws IOException {
+        ModelGovernor modelGovernor = new ModelGovernor(1024L * 1024 * 1024, spillDirectory);
+        Map<String, byte[]> compiledClasses = getCompiledClasses(MockEfestoInputA.class);
+        List<FRI> read = new ArrayList<>();
+        Function<FRI, Map<String, byte[]>> compiledClassesReader = fri -> {
+            read.add(fri);
+            return fri.equals(FRI_A) ? compiledClasses : Collections.emptyMap();
+        };
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = modelGovernor.getClassLoader(FRI_A, getClass().getClassLoader(),
+                                                                                              compiledClassesReader,
+                                                                                              modelClassLoader -> Optional.empty())
+                .orElseThrow();
+        assertThat(modelGovernor.isRegistered(FRI_A)).isTrue();
+        assertThat(modelGovernor.getClassLoader(FRI_A, getClass().getClassLoader(), compiledClassesReader, modelClassLoader -> Optional.empty()))
+                .containsSame(classLoader);
+        // models without bytecode are not governed, and their bytecode is not read again
+        assertThat(modelGovernor.getClassLoader(FRI_B, getClass().getClassLoader(), compiledClassesReader, modelClassLoader -> Optional.empty())).isEmpty();
+        assertThat(modelGovernor.getClassLoader(FRI_B, getClass().getClassLoader(), compiledClassesReader, modelClassLoader -> Optional.empty())).isEmpty();
+        assertThat(read).containsExactly(FRI_A, FRI_B);
+        // until any IndexFile changes
+        IndexFileVersion.increment();
+        assertThat(modelGovernor.getClassLoader(FRI_B, getClass().getClassLoader(), compiledClassesReader, modelClassLoader -> Optional.empty())).isEmpty();
+        assertThat(read).containsExactly(FRI_A, FRI_B, FRI_B);
+    }
+
+    @Test
+    void getClassLoaderRegisteringAgain() throws Exception {
+        ModelGovernor modelGovernor = new ModelGovernor(1, spillDirectory);
+        List<ClassLoader> released = new ArrayList<>();
+        modelGovernor.addReleaseListener(released::add);
+        AtomicReference<Map<String, byte[]>> compiledClasses = new AtomicReference<>(getCompiledClasses(MockEfestoInputA.class));
+        Map<String, byte[]> compiledClassesB = getCompiledClasses(MockEfestoInputB.class);
+        List<FRI> read = new ArrayList<>();
+        Function<FRI, Map<String, byte[]>> compiledClassesReader = fri -> {
+            read.add(fri);
+            return fri.equals(FRI_A) ? compiledClasses.get() : compiledClassesB;
+        };
+        ClassLoader parent = getClass().getClassLoader();
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = modelGovernor.getClassLoader(FRI_A, parent, compiledClassesReader,
+                                                                                              modelClassLoader -> Optional.empty())
+                .orElseThrow();
+        // same bytecode after an IndexFile changed: read once, the model is kept
+        IndexFileVersion.increment();
+        assertThat(modelGovernor.getClassLoader(FRI_A, parent, compiledClassesReader, modelClassLoader -> Optional.empty()))
+                .containsSame(classLoader);
+        assertThat(modelGovernor.getClassLoader(FRI_A, parent, compiledClassesReader, modelClassLoader -> Optional.empty()))
+                .containsSame(classLoader);
+        assertThat(read).containsExactly(FRI_A, FRI_A);
+
+        // changed bytecode of a spilled model: registered again instead of restored
+        modelGovernor.getClassLoader(FRI_B, parent, compiledClassesReader, modelClassLoader -> Optional.empty());
+        assertThat(modelGovernor.isSpilled(FRI_A)).isTrue();
+        compiledClasses.set(compiledClassesB);
+        IndexFileVersion.increment();
+        KieMemoryCompiler.MemoryCompilerClassLoader changed = modelGovernor.getClassLoader(FRI_A, parent, compiledClassesReader,
+                                                                                          modelClassLoader -> Optional.empty())
+                .orElseThrow();
+        assertThat(changed).isNotSameAs(classLoader);
+        assertThat(changed.loadClass(MockEfestoInputB.class.getName()).getClassLoader()).isSameAs(changed);
+        assertThat(changed.loadClass(MockEfestoInputA.class.getName())).isSameAs(MockEfestoInputA.class);
+        assertThat(getSnapshots()).hasSize(2);
+
+        // another parent: registered again
+        ClassLoader otherParent = new URLClassLoader(new URL[0], parent);
+        KieMemoryCompiler.MemoryCompilerClassLoader reparented = modelGovernor.getClassLoader(FRI_A, otherParent, compiledClassesReader,
+                                                                                             modelClassLoader -> Optional.empty())
+                .orElseThrow();
+        assertThat(reparented).isNotSameAs(changed);
+        assertThat(reparented.getParent()).isSameAs(otherParent);
+        assertThat(released).contains(classLoader, changed);
+    }
+
+    @Test
+    void getClassLoaderNotEnabled() {
+        ModelGovernor modelGovernor = new ModelGovernor(0, spillDirectory);
+        assertThat(modelGovernor.getClassLoader(FRI_A, getClass().getClassLoader(),
+                                                fri -> {
+                                                    throw new IllegalStateException("Bytecode must not be read");
+                                                },
+                                                modelClassLoader -> Optional.empty())).isEmpty();
+        assertThat(modelGovernor.isRegistered(FRI_A)).isFalse();
+    }
+
+    @Test
+    void fromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(ModelGovernor.HEAP_BUDGET_PROPERTY, "64m");
+        properties.setProperty(ModelGovernor.SPILL_DIRECTORY_PROPERTY, spillDirectory.toString());
+        ModelGovernor retrieved = ModelGovernor.fromProperties(properties);
+        assertThat(retrieved.isEnabled()).isTrue();
+        assertThat(retrieved.getHeapBudget()).isEqualTo(64L * 1024 * 1024);
+        assertThat(ModelGovernor.fromProperties(new Properties()).isEnabled()).isFalse();
+        properties.setProperty(ModelGovernor.HEAP_BUDGET_PROPERTY, "a lot");
+        assertThatThrownBy(() -> ModelGovernor.fromProperties(properties)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parseBytes() {
+        assertThat(ModelGovernor.parseBytes("100")).isEqualTo(100);
+        assertThat(ModelGovernor.parseBytes(" 2k ")).isEqualTo(2048);
+        assertThat(ModelGovernor.parseBytes("3M")).isEqualTo(3L * 1024 * 1024);
+        assertThat(ModelGovernor.parseBytes("1g")).isEqualTo(1024L * 1024 * 1024);
+    }
+
+    private List<Path> getSnapshots() throws IOException {
+        try (Stream<Path> files = Files.walk(spillDirectory)) {
+            List<Path> toReturn = new ArrayList<>();
+            files.filter(file -> file.getFileName().toString().endsWith(ModelGovernor.SNAPSHOT_SUFFIX)).forEach(toReturn::add);
+            return toReturn;
+        }
+    }
+
+    private static Map<String, byte[]> getCompiledClasses(Class<?> clazz) throws IOException {
+        try (InputStream inputStream = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+            return Collections.singletonMap(clazz.getName(), inputStream.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.governor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndRead() throws IOException {
+        Map<String, byte[]> compiledClasses = new LinkedHashMap<>();
+        compiledClasses.put("org.kie.First", new byte[]{1, 2, 3});
+        compiledClasses.put("org.kie.Second", new byte[0]);
+        Path snapshot = directory.resolve("model" + ModelGovernor.SNAPSHOT_SUFFIX);
+        ModelSnapshot.write(snapshot, compiledClasses);
+        Map<String, byte[]> retrieved = ModelSnapshot.read(snapshot);
+        assertThat(retrieved).containsOnlyKeys("org.kie.First", "org.kie.Second");
+        assertThat(retrieved.get("org.kie.First")).containsExactly(1, 2, 3);
+        assertThat(retrieved.get("org.kie.Second")).isEmpty();
+    }
+
+    @Test
+    void readMalformed() throws IOException {
+        Path notASnapshot = Files.write(directory.resolve("other"), "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> ModelSnapshot.read(notASnapshot)).isInstanceOf(IOException.class);
+        Path truncated = directory.resolve("truncated");
+        ModelSnapshot.write(truncated, Map.of("org.kie.First", new byte[]{1, 2, 3}));
+        byte[] content = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(content, content.length - 1));
+        assertThatThrownBy(() -> ModelSnapshot.read(truncated)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void digest() {
+        Map<String, byte[]> compiledClasses = new LinkedHashMap<>();
+        compiledClasses.put("org.kie.First", new byte[]{1, 2, 3});
+        compiledClasses.put("org.kie.Second", new byte[]{4});
+        Map<String, byte[]> reversed = new LinkedHashMap<>();
+        reversed.put("org.kie.Second", new byte[]{4});
+        reversed.put("org.kie.First", new byte[]{1, 2, 3});
+        assertThat(ModelSnapshot.digest(reversed)).isEqualTo(ModelSnapshot.digest(compiledClasses));
+        reversed.put("org.kie.Second", new byte[]{5});
+        assertThat(ModelSnapshot.digest(reversed)).isNotEqualTo(ModelSnapshot.digest(compiledClasses));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.core.service;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.io.IndexFileVersion;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputA;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputB;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputD;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundExecutorsCacheTest {
+
+    @Test
+    void get() {
+        BoundExecutorsCache cache = new BoundExecutorsCache(10);
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = getClassLoader();
+        Optional<EfestoBoundExecutor> retrieved = cache.get(new MockEfestoInputA(), classLoader);
+        assertThat(retrieved).isPresent();
+        assertThat(cache.get(new MockEfestoInputA(), classLoader).get()).isSameAs(retrieved.get());
+        // executors are bound to their ClassLoader
+        assertThat(cache.get(new MockEfestoInputA(), getClassLoader()).get()).isNotSameAs(retrieved.get());
+        // failed lookups are not cached
+        assertThat(cache.get(new MockEfestoInputD(), classLoader)).isEmpty();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void getBounded() {
+        BoundExecutorsCache cache = new BoundExecutorsCache(2);
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = getClassLoader();
+        EfestoBoundExecutor executorA = cache.get(new MockEfestoInputA(), classLoader).get();
+        EfestoBoundExecutor executorB = cache.get(new MockEfestoInputB(), classLoader).get();
+        // the least recently used one is evicted
+        assertThat(cache.get(new MockEfestoInputA(), classLoader).get()).isSameAs(executorA);
+        cache.get(new MockEfestoInputA(), getClassLoader());
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(new MockEfestoInputA(), classLoader).get()).isSameAs(executorA);
+        assertThat(cache.get(new MockEfestoInputB(), classLoader).get()).isNotSameAs(executorB);
+    }
+
+    @Test
+    void getNotCaching() {
+        BoundExecutorsCache cache = new BoundExecutorsCache(0);
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = getClassLoader();
+        assertThat(cache.get(new MockEfestoInputA(), classLoader)).isPresent();
+        assertThat(cache.size()).isZero();
+        assertThatThrownBy(() -> new BoundExecutorsCache(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getAfterIndexFileChange() {
+        BoundExecutorsCache cache = new BoundExecutorsCache(10);
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = getClassLoader();
+        EfestoBoundExecutor retrieved = cache.get(new MockEfestoInputA(), classLoader).get();
+        IndexFileVersion.increment();
+        assertThat(cache.get(new MockEfestoInputA(), classLoader).get()).isNotSameAs(retrieved);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeByFri() {
+        BoundExecutorsCache cache = new BoundExecutorsCache(10);
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = getClassLoader();
+        MockEfestoInputA toRemove = new MockEfestoInputA();
+        cache.get(toRemove, classLoader);
+        cache.get(new MockEfestoInputB(), classLoader);
+        cache.remove(toRemove.getFRI()::equals);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeByClassLoader() {
+        BoundExecutorsCache cache = new BoundExecutorsCache(10);
+        KieMemoryCompiler.MemoryCompilerClassLoader toRemove = getClassLoader();
+        cache.get(new MockEfestoInputA(), toRemove);
+        cache.get(new MockEfestoInputB(), toRemove);
+        cache.get(new MockEfestoInputA(), getClassLoader());
+        cache.remove(toRemove);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static KieMemoryCompiler.MemoryCompilerClassLoader getClassLoader() {
+        return new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+    }
+}
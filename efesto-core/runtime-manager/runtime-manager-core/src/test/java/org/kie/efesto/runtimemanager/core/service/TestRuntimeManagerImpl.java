@@ -16,21 +16,51 @@ package org.kie.efesto.runtimemanager.core.service;/*
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.jfr.EvaluationEvent;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeTimeoutException;
+import org.kie.efesto.runtimemanager.api.mocks.AbstractMockKieRuntimeService;
 import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputA;
 import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputB;
 import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputC;
 import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputD;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoInputE;
+import org.kie.efesto.runtimemanager.api.mocks.MockEfestoOutput;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.EfestoTimeoutOutput;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracing;
+import org.kie.efesto.runtimemanager.api.tracing.RecordingEfestoTracer;
+import org.kie.efesto.runtimemanager.core.admission.AdmissionController;
+import org.kie.efesto.runtimemanager.core.admission.AdmissionLimits;
+import org.kie.efesto.runtimemanager.core.governor.ModelGovernor;
+import org.kie.memorycompiler.JavaConfiguration;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -81,4 +111,207 @@ class TestRuntimeManagerImpl {
         assertThat(retrieved).isNotNull();
         assertThat(retrieved.size()).isEqualTo(MANAGED_Efesto_INPUTS.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCachedBoundExecutor() {
+        RuntimeManagerImpl cachingRuntimeManager = new RuntimeManagerImpl(AdmissionController.unlimited());
+        Optional<EfestoBoundExecutor> retrieved = cachingRuntimeManager.getCachedBoundExecutor(new MockEfestoInputA(), memoryCompilerClassLoader);
+        assertThat(retrieved).isPresent();
+        Optional<EfestoBoundExecutor> cached = cachingRuntimeManager.getCachedBoundExecutor(new MockEfestoInputA(), memoryCompilerClassLoader);
+        assertThat(cached).isPresent();
+        assertThat(cached.get()).isSameAs(retrieved.get());
+        assertThat(cachingRuntimeManager.getCachedBoundExecutor(new MockEfestoInputB(), memoryCompilerClassLoader).get()).isNotSameAs(retrieved.get());
+        assertThat(cachingRuntimeManager.getCachedBoundExecutor(new MockEfestoInputD(), memoryCompilerClassLoader)).isEmpty();
+        cachingRuntimeManager.clearBoundExecutorsCache();
+        assertThat(cachingRuntimeManager.getCachedBoundExecutor(new MockEfestoInputA(), memoryCompilerClassLoader).get()).isNotSameAs(retrieved.get());
+    }
+
+    @Test
+    void evaluateInputWithAdmissionControl() {
+        AdmissionController admissionController = new AdmissionController(new AdmissionLimits(1, 0),
+                                                                          AdmissionLimits.UNLIMITED,
+                                                                          Collections.emptyMap(), 0);
+        RuntimeManagerImpl limitedRuntimeManager = new RuntimeManagerImpl(admissionController);
+        MockEfestoInputA toEvaluate = new MockEfestoInputA();
+        assertThat(limitedRuntimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader)).isPresent();
+        assertThat(admissionController.getCounters(toEvaluate.getFRI()).orElseThrow().getAdmitted()).isEqualTo(1);
+        try (AdmissionController.Permit permit = admissionController.acquire(toEvaluate.getFRI())) {
+            assertThatThrownBy(() -> limitedRuntimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader))
+                    .isInstanceOf(KieRuntimeAdmissionException.class);
+        }
+        assertThat(admissionController.getGlobalCounters().getActive()).isZero();
+    }
+
+    @Test
+    void evaluateInputWithTimeout() {
+        Optional<EfestoOutput> retrieved = runtimeManager.evaluateInput(new MockEfestoInputA(), memoryCompilerClassLoader, Duration.ofSeconds(30));
+        assertThat(retrieved).isPresent().get().isInstanceOf(MockEfestoOutput.class);
+        MockEfestoInputE toEvaluate = new MockEfestoInputE();
+        long start = System.nanoTime();
+        retrieved = runtimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader, Duration.ofMillis(50));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        assertThat(retrieved).isPresent().get().isInstanceOf(EfestoTimeoutOutput.class);
+        assertThat(retrieved.get().getFRI()).isEqualTo(toEvaluate.getFRI());
+        assertThat(retrieved.get().getOutputData()).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void evaluateInputWithTimeoutBounded() throws Exception {
+        AdmissionController admissionController = new AdmissionController(new AdmissionLimits(10, 0),
+                                                                          AdmissionLimits.UNLIMITED,
+                                                                          Collections.emptyMap(), 0);
+        RuntimeManagerImpl boundedRuntimeManager = new RuntimeManagerImpl(admissionController, ModelGovernor.unlimited(), 1);
+        MockEfestoInputE toEvaluate = new MockEfestoInputE();
+        CompletableFuture<Optional<EfestoOutput>> running = CompletableFuture.supplyAsync(() -> boundedRuntimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader, Duration.ofSeconds(2)));
+        while (boundedRuntimeManager.getRunningTimedEvaluations() == 0) {
+            Thread.onSpinWait();
+        }
+        assertThatThrownBy(() -> boundedRuntimeManager.evaluateInput(new MockEfestoInputA(), memoryCompilerClassLoader, Duration.ofSeconds(2)))
+                .isInstanceOf(KieRuntimeAdmissionException.class);
+        // the rejected evaluation has released its permit, the running one still holds it
+        assertThat(admissionController.getGlobalCounters().getActive()).isEqualTo(1);
+        assertThat(running.get()).isPresent().get().isInstanceOf(EfestoTimeoutOutput.class);
+    }
+
+    @Test
+    void evaluateInputWithModelGovernor(@TempDir Path spillDirectory) throws IOException {
+        // every model exceeds the budget: only the last requested one stays resident
+        ModelGovernor modelGovernor = new ModelGovernor(1, spillDirectory);
+        RuntimeManagerImpl governedRuntimeManager = new RuntimeManagerImpl(AdmissionController.unlimited(), modelGovernor);
+        MockEfestoInputA toEvaluateA = new MockEfestoInputA();
+        MockEfestoInputB toEvaluateB = new MockEfestoInputB();
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoaderA = modelGovernor.register(toEvaluateA.getFRI(), getCompiledClasses(MockEfestoInputA.class), memoryCompilerClassLoader);
+        modelGovernor.register(toEvaluateB.getFRI(), getCompiledClasses(MockEfestoInputB.class), memoryCompilerClassLoader);
+        assertThat(modelGovernor.isSpilled(toEvaluateA.getFRI())).isTrue();
+        // engines are notified of the released ClassLoader
+        assertThat(AbstractMockKieRuntimeService.isReleased(classLoaderA)).isTrue();
+        assertThat(governedRuntimeManager.evaluateInput(toEvaluateA, memoryCompilerClassLoader)).isPresent();
+        assertThat(modelGovernor.isSpilled(toEvaluateA.getFRI())).isFalse();
+        assertThat(modelGovernor.isSpilled(toEvaluateB.getFRI())).isTrue();
+        assertThat(governedRuntimeManager.evaluateInput(toEvaluateB, memoryCompilerClassLoader)).isPresent();
+        governedRuntimeManager.unloadModel(toEvaluateA.getFRI());
+        assertThat(modelGovernor.isRegistered(toEvaluateA.getFRI())).isFalse();
+        // engines are notified of the unloaded models
+        assertThat(AbstractMockKieRuntimeService.isUnloaded(toEvaluateA.getFRI())).isTrue();
+        assertThat(AbstractMockKieRuntimeService.isUnloaded(toEvaluateB.getFRI())).isFalse();
+    }
+
+    @Test
+    void evaluateInputRegisteringInModelGovernor(@TempDir Path spillDirectory) {
+        ModelGovernor modelGovernor = new ModelGovernor(1024L * 1024 * 1024, spillDirectory);
+        RuntimeManagerImpl governedRuntimeManager = new RuntimeManagerImpl(AdmissionController.unlimited(), modelGovernor);
+        MockEfestoInputA toEvaluate = new MockEfestoInputA();
+        FRI fri = toEvaluate.getFRI();
+        try {
+            MemoryIndexFiles.addGeneratedResources(fri.getModel(),
+                                                   Collections.singletonList(new GeneratedExecutableResource(fri, Collections.singletonList(MockEfestoOutput.class.getName()))));
+            assertThat(governedRuntimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader)).isPresent();
+            assertThat(modelGovernor.isRegistered(fri)).isTrue();
+            assertThat(modelGovernor.getFootprint(fri).orElseThrow()).isPositive();
+            KieMemoryCompiler.MemoryCompilerClassLoader modelClassLoader = modelGovernor.getClassLoader(fri).orElseThrow();
+            assertThat(modelClassLoader.getParent()).isSameAs(memoryCompilerClassLoader);
+            assertThat(governedRuntimeManager.getModelClassLoader(fri, memoryCompilerClassLoader)).isSameAs(modelClassLoader);
+            // models without generated classes are evaluated with the given ClassLoader
+            MockEfestoInputB notGoverned = new MockEfestoInputB();
+            assertThat(governedRuntimeManager.evaluateInput(notGoverned, memoryCompilerClassLoader)).isPresent();
+            assertThat(modelGovernor.isRegistered(notGoverned.getFRI())).isFalse();
+            governedRuntimeManager.unloadModel(fri);
+            assertThat(modelGovernor.isRegistered(fri)).isFalse();
+        } finally {
+            MemoryIndexFiles.clear();
+        }
+    }
+
+    @Test
+    void evaluateInputWithTracing() {
+        RecordingEfestoTracer tracer = new RecordingEfestoTracer();
+        EfestoTracing.setTracer(tracer);
+        try {
+            MockEfestoInputA toEvaluate = new MockEfestoInputA();
+            EfestoSpanContext redirectContext = new EfestoSpanContext(42, 1);
+            toEvaluate.setSpanContext(redirectContext);
+            assertThat(runtimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader)).isPresent();
+            assertThat(runtimeManager.evaluateInput(new MockEfestoInputD(), memoryCompilerClassLoader, Duration.ofSeconds(30))).isEmpty();
+        } finally {
+            EfestoTracing.setTracer(null);
+        }
+        List<RecordingEfestoTracer.RecordedSpan> evaluations = tracer.getSpans(RuntimeManagerImpl.EVALUATE_SPAN);
+        assertThat(evaluations).hasSize(2);
+        RecordingEfestoTracer.RecordedSpan evaluation = evaluations.get(0);
+        assertThat(evaluation.getParentContext()).isEqualTo(new EfestoSpanContext(42, 1));
+        assertThat(evaluation.getAttributes()).containsEntry(RuntimeManagerImpl.OUTCOME_ATTRIBUTE, EvaluationEvent.SUCCESS);
+        assertThat(tracer.getChildren(evaluation)).extracting(RecordingEfestoTracer.RecordedSpan::getName)
+                .containsExactly(RuntimeManagerImpl.LOOKUP_SPAN, RuntimeManagerImpl.EXECUTE_SPAN);
+        assertThat(evaluations.get(1).getAttributes()).containsEntry(RuntimeManagerImpl.OUTCOME_ATTRIBUTE, EvaluationEvent.NOT_FOUND);
+        assertThat(tracer.getChildren(evaluations.get(1))).extracting(RecordingEfestoTracer.RecordedSpan::getName)
+                .containsExactly(RuntimeManagerImpl.LOOKUP_SPAN);
+    }
+
+    @Test
+    void unloadModel() throws InterruptedException {
+        ModelGovernor modelGovernor = ModelGovernor.unlimited();
+        RuntimeManagerImpl governedRuntimeManager = new RuntimeManagerImpl(AdmissionController.unlimited(), modelGovernor);
+        MockEfestoInputA toEvaluate = new MockEfestoInputA();
+        ReferenceQueue<ClassLoader> collected = new ReferenceQueue<>();
+        WeakReference<ClassLoader> reference = registerAndEvaluate(governedRuntimeManager, toEvaluate, collected);
+        governedRuntimeManager.unloadModel(toEvaluate.getFRI());
+        assertThat(modelGovernor.isRegistered(toEvaluate.getFRI())).isFalse();
+        assertThat(awaitCollection(collected)).isSameAs(reference);
+        // the model is still evaluable with a new classloader
+        assertThat(governedRuntimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader)).isPresent();
+    }
+
+    @Test
+    void isTimeout() {
+        assertThat(RuntimeManagerImpl.isTimeout(new KieRuntimeTimeoutException("timeout"))).isTrue();
+        assertThat(RuntimeManagerImpl.isTimeout(new RuntimeException(new KieRuntimeTimeoutException("timeout")))).isTrue();
+        assertThat(RuntimeManagerImpl.isTimeout(new RuntimeException())).isFalse();
+        assertThat(RuntimeManagerImpl.isTimeout(null)).isFalse();
+    }
+
+    /**
+     * Compile a model class in its own <code>ClassLoader</code> and evaluate the given input with it; nothing but
+     * the returned reference is kept by the caller
+     */
+    private static WeakReference<ClassLoader> registerAndEvaluate(RuntimeManagerImpl governedRuntimeManager, MockEfestoInputA toEvaluate,
+                                                                  ReferenceQueue<ClassLoader> collected) {
+        String fullClassName = "org.kie.efesto.runtimemanager.core.unloaded.UnloadedModel";
+        String source = "package org.kie.efesto.runtimemanager.core.unloaded;\n" +
+                "public class UnloadedModel {\n" +
+                "    public static String evaluate() { return \"unloaded\"; }\n" +
+                "}";
+        Map<String, byte[]> compiledClasses = KieMemoryCompiler.compileNoLoad(Collections.singletonMap(fullClassName, source),
+                                                                              memoryCompilerClassLoader,
+                                                                              JavaConfiguration.CompilerType.NATIVE);
+        KieMemoryCompiler.MemoryCompilerClassLoader modelClassLoader =
+                governedRuntimeManager.getModelGovernor().register(toEvaluate.getFRI(), compiledClasses, memoryCompilerClassLoader);
+        try {
+            assertThat(Class.forName(fullClassName, true, modelClassLoader).getClassLoader()).isSameAs(modelClassLoader);
+        } catch (ClassNotFoundException e) {
+            fail(e);
+        }
+        assertThat(governedRuntimeManager.evaluateInput(toEvaluate, memoryCompilerClassLoader)).isPresent();
+        assertThat(governedRuntimeManager.getBoundExecutorsCache().size()).isEqualTo(1);
+        return new WeakReference<>(modelClassLoader, collected);
+    }
+
+    /**
+     * @return the first reference enqueued after a full collection, or <code>null</code> if none has been
+     */
+    private static Reference<?> awaitCollection(ReferenceQueue<?> collected) throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Reference<?> toReturn = collected.remove(500);
+            if (toReturn != null) {
+                return toReturn;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, byte[]> getCompiledClasses(Class<?> clazz) throws IOException {
+        try (InputStream inputStream = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+            return Collections.singletonMap(clazz.getName(), inputStream.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+
+import com.sun.net.httpserver.HttpServer;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal HTTP/JSON scoring endpoint exposing a <code>RuntimeManager</code> (see {@link EvaluationHandler} for the
+ * routes), built on the JDK <code>HttpServer</code>.
+ * <p>
+ * The server is bound to the loopback address only: it is meant to be reached through a sidecar, a reverse proxy or
+ * by co-located clients. Requests are handled on virtual threads when available (see {@link VirtualThreads}),
+ * otherwise on a fixed pool of {@link #THREADS_PROPERTY} threads.
+ * <p>
+ * Executed as <code>main</code> it starts a standalone scoring service for all the models on the classpath,
+ * configured with the <code>efesto.runtime.http.*</code> system properties (and the <code>efesto.runtime.*</code>
+ * ones of <code>RuntimeManagerImpl</code>), with <code>TCP_NODELAY</code> enabled unless {@link #NODELAY_PROPERTY}
+ * is set. Applications embedding the server should launch the JVM with <code>-Dsun.net.httpserver.nodelay=true</code>:
+ * the property is global, and only read when the first JDK <code>HttpServer</code> is created.
+ */
+public final class EfestoHttpServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EfestoHttpServer.class.getName());
+
+    public static final String HTTP_PROPERTY_PREFIX = "efesto.runtime.http.";
+    /**
+     * Port to listen on; <code>0</code> for an ephemeral one
+     */
+    public static final String PORT_PROPERTY = HTTP_PROPERTY_PREFIX + "port";
+    /**
+     * Timeout of each evaluation, in milliseconds; no timeout by default
+     */
+    public static final String TIMEOUT_PROPERTY = HTTP_PROPERTY_PREFIX + "timeoutMillis";
+    /**
+     * Number of threads handling the requests, when virtual threads are not available
+     */
+    public static final String THREADS_PROPERTY = HTTP_PROPERTY_PREFIX + "threads";
+    /**
+     * Maximum number of evaluations of a single <code>/batch</code> request
+     */
+    public static final String MAX_BATCH_SIZE_PROPERTY = HTTP_PROPERTY_PREFIX + "maxBatchSize";
+
+    /**
+     * JDK <code>HttpServer</code> property enabling <code>TCP_NODELAY</code>: without it small responses wait for the
+     * delayed ACK of the client (about 40 ms)
+     */
+    static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    public static final int DEFAULT_PORT = 8090;
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors() * 8;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private final EvaluationHandler evaluationHandler;
+    private final int port;
+    private final int threads;
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    public EfestoHttpServer(RuntimeManager runtimeManager, List<KieRuntimeService> kieRuntimeServices,
+                            KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, int port) {
+        this(runtimeManager, kieRuntimeServices, memoryCompilerClassLoader, port, null, DEFAULT_THREADS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param runtimeManager
+     * @param kieRuntimeServices used to convert JSON input data to <code>EfestoInput</code>s
+     * @param memoryCompilerClassLoader
+     * @param port
+     * @param timeout the timeout of each evaluation; <code>null</code> for none
+     * @param threads
+     * @param maxBatchSize
+     */
+    public EfestoHttpServer(RuntimeManager runtimeManager, List<KieRuntimeService> kieRuntimeServices,
+                            KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, int port,
+                            Duration timeout, int threads, int maxBatchSize) {
+        if (port < 0 || threads <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid port %s, threads %s or maxBatchSize %s", port, threads, maxBatchSize));
+        }
+        this.evaluationHandler = new EvaluationHandler(runtimeManager, kieRuntimeServices, memoryCompilerClassLoader, timeout, maxBatchSize);
+        this.port = port;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // before the first HttpServer is created
+        setDefaultNoDelay(System.getProperties());
+        EfestoHttpServer efestoHttpServer = fromSystemProperties();
+        InetSocketAddress address = efestoHttpServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(efestoHttpServer::close));
+        logger.info("Efesto scoring endpoint listening on http://{}:{}", address.getHostString(), address.getPort());
+    }
+
+    public static EfestoHttpServer fromSystemProperties() {
+        return fromProperties(System.getProperties());
+    }
+
+    /**
+     * @param properties
+     * @return a server evaluating all the models on the classpath with a new <code>RuntimeManagerImpl</code>
+     */
+    public static EfestoHttpServer fromProperties(Properties properties) {
+        long timeoutMillis = getLong(properties, TIMEOUT_PROPERTY, 0);
+        return new EfestoHttpServer(new RuntimeManagerImpl(),
+                                    SPIUtils.getKieRuntimeServices(false),
+                                    new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader()),
+                                    (int) getLong(properties, PORT_PROPERTY, DEFAULT_PORT),
+                                    timeoutMillis > 0 ? Duration.ofMillis(timeoutMillis) : null,
+                                    (int) getLong(properties, THREADS_PROPERTY, DEFAULT_THREADS),
+                                    (int) getLong(properties, MAX_BATCH_SIZE_PROPERTY, DEFAULT_MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Start listening on the loopback address
+     *
+     * @return the bound address (e.g. to retrieve the ephemeral port)
+     * @throws IOException
+     */
+    public synchronized InetSocketAddress start() throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("Server already started on " + httpServer.getAddress());
+        }
+        HttpServer toStart = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = VirtualThreads.newExecutor(threads, "efesto-http-");
+        toStart.createContext("/", evaluationHandler);
+        toStart.setExecutor(executor);
+        toStart.start();
+        httpServer = toStart;
+        logger.info("Listening on {} ({})", toStart.getAddress(), VirtualThreads.isAvailable() ? "virtual threads" : threads + " threads");
+        return toStart.getAddress();
+    }
+
+    /**
+     * @return the bound address, if started
+     */
+    public synchronized InetSocketAddress getAddress() {
+        return httpServer != null ? httpServer.getAddress() : null;
+    }
+
+    /**
+     * Stop listening, abandoning the requests in progress
+     */
+    @Override
+    public synchronized void close() {
+        if (httpServer == null) {
+            return;
+        }
+        httpServer.stop(0);
+        executor.shutdownNow();
+        httpServer = null;
+        executor = null;
+    }
+
+    /**
+     * Enable <code>TCP_NODELAY</code>, unless {@link #NODELAY_PROPERTY} is already set
+     *
+     * @param properties
+     */
+    static void setDefaultNoDelay(Properties properties) {
+        if (properties.getProperty(NODELAY_PROPERTY) == null) {
+            properties.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    static long getLong(Properties properties, String name, long defaultValue) {
+        String value = properties.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s %s", name, value), e);
+        }
+    }
+}
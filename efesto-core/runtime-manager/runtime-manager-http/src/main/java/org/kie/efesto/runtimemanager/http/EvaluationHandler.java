@@ -0,0 +1,309 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeAdmissionException;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.EfestoTimeoutOutput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.efesto.common.api.model.FRI.SLASH;
+import static org.kie.efesto.common.api.model.FRI.parseFri;
+
+/**
+ * Routes of the HTTP endpoint; the model to evaluate is identified by its <code>FRI</code>:
+ * <ul>
+ *     <li><code>GET /models[/modelType[/basePath]]</code>: the deployed models (see <code>RuntimeManager.getModels</code>)</li>
+ *     <li><code>POST /models/modelType/basePath</code>: evaluate the model with the JSON body as input data</li>
+ *     <li><code>POST /batch</code>: evaluate a JSON array of <code>{"fri": "/modelType/basePath", "input": ...}</code>,
+ *     returning the results in the same order</li>
+ * </ul>
+ * JSON input data are converted to <code>EfestoInput</code>s by the <code>KieRuntimeService</code> of the model type
+ * (see <code>KieRuntimeService.getInput</code>).
+ * Unexpected failures are logged, and answered with a generic <b>500</b> body that does not expose their details.
+ */
+final class EvaluationHandler implements HttpHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationHandler.class.getName());
+
+    static final String MODELS_PATH = "/models";
+    static final String BATCH_PATH = "/batch";
+    static final String FRI_FIELD = "fri";
+    static final String INPUT_FIELD = "input";
+    static final String OUTPUT_FIELD = "output";
+    static final String STATUS_FIELD = "status";
+    static final String ERROR_FIELD = "error";
+    static final String INTERNAL_ERROR_MESSAGE = "Internal error";
+
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private final RuntimeManager runtimeManager;
+    private final List<KieRuntimeService> kieRuntimeServices;
+    private final KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader;
+    private final Duration timeout;
+    private final int maxBatchSize;
+
+    /**
+     * @param runtimeManager
+     * @param kieRuntimeServices
+     * @param memoryCompilerClassLoader
+     * @param timeout the timeout of each evaluation; <code>null</code> for none
+     * @param maxBatchSize
+     */
+    EvaluationHandler(RuntimeManager runtimeManager, List<KieRuntimeService> kieRuntimeServices,
+                      KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader, Duration timeout,
+                      int maxBatchSize) {
+        this.runtimeManager = runtimeManager;
+        this.kieRuntimeServices = kieRuntimeServices;
+        this.memoryCompilerClassLoader = memoryCompilerClassLoader;
+        this.timeout = timeout;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            Response response;
+            byte[] body;
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                response = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), requestBody);
+                body = objectMapper.writeValueAsBytes(response.body);
+            } catch (Exception e) {
+                logger.error("Failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                response = Response.error(500, INTERNAL_ERROR_MESSAGE);
+                body = objectMapper.writeValueAsBytes(response.body);
+            }
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    Response route(String method, String path, InputStream requestBody) throws IOException {
+        if (BATCH_PATH.equals(path)) {
+            if (!POST.equals(method)) {
+                return Response.error(405, String.format("%s not allowed on %s", method, path));
+            }
+            return readBody(requestBody).map(this::evaluateBatch).orElseGet(Response::invalidJson);
+        }
+        if (MODELS_PATH.equals(path) || path.startsWith(MODELS_PATH + SLASH)) {
+            String fri = path.substring(MODELS_PATH.length());
+            if (GET.equals(method)) {
+                return getModels(fri);
+            }
+            if (POST.equals(method)) {
+                return readBody(requestBody).map(inputData -> evaluate(fri, inputData)).orElseGet(Response::invalidJson);
+            }
+            return Response.error(405, String.format("%s not allowed on %s", method, path));
+        }
+        return Response.error(404, String.format("Unknown path %s", path));
+    }
+
+    Response getModels(String fri) {
+        String toParse = fri.startsWith(SLASH) ? fri.substring(1) : fri;
+        if (toParse.isEmpty()) {
+            Map<String, List<Map<String, Object>>> toReturn = new LinkedHashMap<>();
+            runtimeManager.getModels().forEach((modelType, models) -> toReturn.put(modelType, toJson(models)));
+            return new Response(200, toReturn);
+        }
+        if (!toParse.contains(SLASH)) {
+            return new Response(200, toJson(runtimeManager.getModels(toParse)));
+        }
+        try {
+            return new Response(200, toJson(runtimeManager.getModels(parseFri(toParse))));
+        } catch (IllegalArgumentException e) {
+            return Response.error(404, e.getMessage());
+        }
+    }
+
+    Response evaluate(String fri, Object inputData) {
+        FRI toEvaluate;
+        try {
+            toEvaluate = parseFri(fri);
+        } catch (IllegalArgumentException e) {
+            return Response.error(404, e.getMessage());
+        }
+        Map<String, Object> toReturn = evaluate(toEvaluate, inputData);
+        return new Response((int) toReturn.remove(STATUS_FIELD), toReturn);
+    }
+
+    Response evaluateBatch(Object requests) {
+        if (!(requests instanceof List)) {
+            return Response.error(400, "Expected a JSON array of {\"fri\": ..., \"input\": ...}");
+        }
+        List<?> toEvaluate = (List<?>) requests;
+        if (toEvaluate.size() > maxBatchSize) {
+            return Response.error(413, String.format("Batch of %s requests exceeds the maximum of %s", toEvaluate.size(), maxBatchSize));
+        }
+        List<Map<String, Object>> toReturn = new ArrayList<>(toEvaluate.size());
+        for (Object request : toEvaluate) {
+            toReturn.add(evaluateBatchRequest(request));
+        }
+        return new Response(200, toReturn);
+    }
+
+    private Map<String, Object> evaluateBatchRequest(Object request) {
+        if (!(request instanceof Map) || !(((Map<?, ?>) request).get(FRI_FIELD) instanceof String)) {
+            return getError(null, 400, "Expected {\"fri\": ..., \"input\": ...}");
+        }
+        String fri = (String) ((Map<?, ?>) request).get(FRI_FIELD);
+        try {
+            return evaluate(parseFri(fri), ((Map<?, ?>) request).get(INPUT_FIELD));
+        } catch (IllegalArgumentException e) {
+            return getError(fri, 404, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the result of the evaluation, including its HTTP status
+     */
+    private Map<String, Object> evaluate(FRI fri, Object inputData) {
+        Optional<ModelDescriptor> modelDescriptor = getModelDescriptor(fri);
+        if (modelDescriptor.isEmpty()) {
+            return getError(fri.getFri(), 404, String.format("Model %s not found", fri.getFri()));
+        }
+        Optional<EfestoInput<?>> input = getInput(modelDescriptor.get(), inputData);
+        if (input.isEmpty()) {
+            return getError(fri.getFri(), 400, String.format("Unsupported input data for %s", fri.getFri()));
+        }
+        Optional<EfestoOutput> output;
+        try {
+            output = timeout != null ?
+                    runtimeManager.evaluateInput(input.get(), memoryCompilerClassLoader, timeout) :
+                    runtimeManager.evaluateInput(input.get(), memoryCompilerClassLoader);
+        } catch (KieRuntimeAdmissionException e) {
+            return getError(fri.getFri(), 503, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Failed to evaluate {}", fri, e);
+            return getError(fri.getFri(), 500, String.format("Failed to evaluate %s", fri.getFri()));
+        }
+        if (output.isEmpty()) {
+            return getError(fri.getFri(), 500, String.format("No output for %s", fri.getFri()));
+        }
+        if (output.get() instanceof EfestoTimeoutOutput) {
+            return getError(fri.getFri(), 504, String.format("Evaluation of %s timed out after %s ms", fri.getFri(), timeout.toMillis()));
+        }
+        Map<String, Object> toReturn = new LinkedHashMap<>();
+        toReturn.put(FRI_FIELD, fri.getFri());
+        toReturn.put(STATUS_FIELD, 200);
+        toReturn.put(OUTPUT_FIELD, output.get().getOutputData());
+        return toReturn;
+    }
+
+    private Optional<ModelDescriptor> getModelDescriptor(FRI fri) {
+        return runtimeManager.getModels(fri).stream()
+                .filter(modelDescriptor -> fri.equals(modelDescriptor.getFri()))
+                .findFirst();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<EfestoInput<?>> getInput(ModelDescriptor modelDescriptor, Object inputData) {
+        for (KieRuntimeService kieRuntimeService : kieRuntimeServices) {
+            if (!modelDescriptor.getModelType().equals(kieRuntimeService.getModelType())) {
+                continue;
+            }
+            Optional<EfestoInput<?>> toReturn = kieRuntimeService.getInput(modelDescriptor, inputData, memoryCompilerClassLoader);
+            if (toReturn.isPresent()) {
+                return toReturn;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Object> readBody(InputStream requestBody) throws IOException {
+        try {
+            return Optional.ofNullable(objectMapper.readValue(requestBody, Object.class));
+        } catch (JsonProcessingException e) {
+            logger.debug("Invalid JSON body", e);
+            return Optional.empty();
+        }
+    }
+
+    private static List<Map<String, Object>> toJson(List<ModelDescriptor> models) {
+        List<Map<String, Object>> toReturn = new ArrayList<>(models.size());
+        for (ModelDescriptor model : models) {
+            Map<String, Object> toAdd = new LinkedHashMap<>();
+            toAdd.put(FRI_FIELD, model.getFri().getFri());
+            model.getMetadata().ifPresent(metadata -> toAdd.put("metadata", metadata));
+            model.getRedirectTarget().ifPresent(redirectTarget -> toAdd.put("redirectTarget", redirectTarget));
+            toReturn.add(toAdd);
+        }
+        return toReturn;
+    }
+
+    private static Map<String, Object> getError(String fri, int status, String message) {
+        Map<String, Object> toReturn = new LinkedHashMap<>();
+        if (fri != null) {
+            toReturn.put(FRI_FIELD, fri);
+        }
+        toReturn.put(STATUS_FIELD, status);
+        toReturn.put(ERROR_FIELD, message);
+        return toReturn;
+    }
+
+    /**
+     * HTTP status and JSON body of a response
+     */
+    static final class Response {
+
+        final int status;
+        final Object body;
+
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Map.of(ERROR_FIELD, String.valueOf(message)));
+        }
+
+        static Response invalidJson() {
+            return error(400, "Invalid JSON body");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.efesto.runtimemanager.http.mocks.EchoKieRuntimeService;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.runtimemanager.http.mocks.EchoKieRuntimeService.MODEL_TYPE;
+
+/**
+ * Local load test: concurrent clients against the loopback endpoint, measuring throughput and tail latency.
+ * Size may be raised with the <code>efesto.http.loadtest.clients</code> and
+ * <code>efesto.http.loadtest.requests</code> (per client) system properties.
+ */
+class EfestoHttpServerLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EfestoHttpServerLoadTest.class.getName());
+
+    private static final int CLIENTS = Integer.getInteger("efesto.http.loadtest.clients", 32);
+    private static final int REQUESTS = Integer.getInteger("efesto.http.loadtest.requests", 100);
+    private static final int MODELS = 16;
+    private static final int BATCH_SIZE = 10;
+
+    private static EfestoHttpServer efestoHttpServer;
+    private static HttpClient httpClient;
+    private static URI baseUri;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        List<GeneratedExecutableResource> models = IntStream.range(0, MODELS)
+                .mapToObj(i -> new GeneratedExecutableResource(new FRI("load/model" + i, MODEL_TYPE), Collections.singletonList("org.kie.Model")))
+                .collect(Collectors.toList());
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, models);
+        efestoHttpServer = new EfestoHttpServer(new RuntimeManagerImpl(),
+                                                Collections.singletonList(new EchoKieRuntimeService()),
+                                                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader()),
+                                                0);
+        InetSocketAddress address = efestoHttpServer.start();
+        baseUri = URI.create(String.format("http://%s:%s", address.getHostString(), address.getPort()));
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        efestoHttpServer.close();
+        MemoryIndexFiles.clear();
+    }
+
+    @Test
+    void evaluate() throws Exception {
+        IntFunction<HttpRequest> requests = i -> post("/models/echo/load/model" + (i % MODELS), "{\"value\": " + i + "}");
+        // warm-up
+        run(CLIENTS, REQUESTS / 4, requests);
+        LoadReport report = run(CLIENTS, REQUESTS, requests);
+        logger.info("Single evaluations: {}", report);
+        assertThat(report.failures).isZero();
+        assertThat(report.latenciesNanos).hasSize(CLIENTS * REQUESTS);
+        assertThat(report.getThroughput()).isPositive();
+    }
+
+    @Test
+    void evaluateBatch() throws Exception {
+        IntFunction<HttpRequest> requests = i -> post("/batch", IntStream.range(0, BATCH_SIZE)
+                .mapToObj(j -> "{\"fri\": \"/echo/load/model" + ((i + j) % MODELS) + "\", \"input\": {\"value\": " + j + "}}")
+                .collect(Collectors.joining(",", "[", "]")));
+        run(CLIENTS, REQUESTS / 4, requests);
+        LoadReport report = run(CLIENTS, REQUESTS / BATCH_SIZE, requests);
+        logger.info("Batches of {} evaluations: {}", BATCH_SIZE, report);
+        assertThat(report.failures).isZero();
+        assertThat(report.getThroughput()).isPositive();
+    }
+
+    private static LoadReport run(int clients, int requestsPerClient, IntFunction<HttpRequest> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        AtomicInteger failures = new AtomicInteger();
+        try {
+            long start = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                int offset = client * requestsPerClient;
+                futures.add(executor.submit(() -> {
+                    long[] toReturn = new long[requestsPerClient];
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<String> response = httpClient.send(requests.apply(offset + i), HttpResponse.BodyHandlers.ofString());
+                        toReturn[i] = System.nanoTime() - requestStart;
+                        if (response.statusCode() != 200 || response.body().contains("\"error\"")) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return toReturn;
+                }));
+            }
+            long[] latenciesNanos = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] retrieved = future.get();
+                long[] merged = Arrays.copyOf(latenciesNanos, latenciesNanos.length + retrieved.length);
+                System.arraycopy(retrieved, 0, merged, latenciesNanos.length, retrieved.length);
+                latenciesNanos = merged;
+            }
+            return new LoadReport(latenciesNanos, System.nanoTime() - start, failures.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static final class LoadReport {
+
+        private final long[] latenciesNanos;
+        private final long elapsedNanos;
+        private final int failures;
+
+        private LoadReport(long[] latenciesNanos, long elapsedNanos, int failures) {
+            this.latenciesNanos = latenciesNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.failures = failures;
+            Arrays.sort(this.latenciesNanos);
+        }
+
+        private double getThroughput() {
+            return latenciesNanos.length * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        private double getPercentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s requests in %.0f ms, %.0f requests/s, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms, %s failures",
+                                 latenciesNanos.length, elapsedNanos / 1_000_000.0, getThroughput(),
+                                 getPercentileMillis(50), getPercentileMillis(99), getPercentileMillis(99.9),
+                                 getPercentileMillis(100), failures);
+        }
+    }
+}
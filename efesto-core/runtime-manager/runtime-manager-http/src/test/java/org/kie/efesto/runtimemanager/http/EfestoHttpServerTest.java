@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.ModelMetadata;
+import org.kie.efesto.runtimemanager.core.service.RuntimeManagerImpl;
+import org.kie.efesto.runtimemanager.http.mocks.EchoKieRuntimeService;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kie.efesto.runtimemanager.http.mocks.EchoKieRuntimeService.MODEL_TYPE;
+
+class EfestoHttpServerTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static EfestoHttpServer efestoHttpServer;
+    private static HttpClient httpClient;
+    private static URI baseUri;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        MemoryIndexFiles.addGeneratedResources(MODEL_TYPE, List.of(
+                getExecutableResource("models/first", new ModelMetadata("first", List.of("input"), "target", "regression")),
+                getExecutableResource("models/second", null)));
+        efestoHttpServer = new EfestoHttpServer(new RuntimeManagerImpl(),
+                                                Collections.singletonList(new EchoKieRuntimeService()),
+                                                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader()),
+                                                0, null, 4, 3);
+        InetSocketAddress address = efestoHttpServer.start();
+        assertThat(address.getAddress().isLoopbackAddress()).isTrue();
+        baseUri = URI.create(String.format("http://%s:%s", address.getHostString(), address.getPort()));
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        efestoHttpServer.close();
+        assertThat(efestoHttpServer.getAddress()).isNull();
+        MemoryIndexFiles.clear();
+    }
+
+    @Test
+    void getModels() throws Exception {
+        HttpResponse<String> response = send("GET", "/models", null);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).contains("application/json");
+        Map<String, List<Map<String, Object>>> retrieved = objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+        assertThat(retrieved).containsOnlyKeys(MODEL_TYPE);
+        List<Map<String, Object>> models = retrieved.get(MODEL_TYPE);
+        assertThat(models).hasSize(2);
+        assertThat(models.get(0)).containsEntry("fri", "/echo/models/first");
+        assertThat(models.get(0).get("metadata")).isEqualTo(Map.of("name", "first",
+                                                                   "inputFields", List.of("input"),
+                                                                   "target", "target",
+                                                                   "modelFunction", "regression"));
+
+        assertThat(readList(send("GET", "/models/echo", null))).hasSize(2);
+        assertThat(readList(send("GET", "/models/echo/models/second", null))).hasSize(1);
+        assertThat(readList(send("GET", "/models/other", null))).isEmpty();
+        assertThat(send("GET", "/models/echo/", null).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void evaluate() throws Exception {
+        HttpResponse<String> response = send("POST", "/models/echo/models/first", "{\"input\": 3.5}");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(readMap(response)).containsEntry("fri", "/echo/models/first")
+                .containsEntry("output", Map.of("input", 3.5))
+                .doesNotContainKey("status");
+    }
+
+    @Test
+    void evaluateFailures() throws Exception {
+        assertError(send("POST", "/models/echo/models/notexisting", "{}"), 404, "Model /echo/models/notexisting not found");
+        assertError(send("POST", "/models/echo", "{}"), 404, "Invalid FRI /echo, expected /model/basePath");
+        assertError(send("POST", "/models/echo/models/first", "\"unsupported\""), 400, "Unsupported input data for /echo/models/first");
+        assertError(send("POST", "/models/echo/models/first", "{invalid"), 400, "Invalid JSON body");
+        // the details of the failure are logged, not returned
+        HttpResponse<String> response = send("POST", "/models/echo/models/first", "{\"fail\": \"broken\"}");
+        assertError(response, 500, "Failed to evaluate /echo/models/first");
+        assertThat(response.body()).doesNotContain("broken");
+        assertError(send("DELETE", "/models/echo/models/first", null), 405, "DELETE not allowed on /models/echo/models/first");
+        assertError(send("GET", "/batch", null), 405, "GET not allowed on /batch");
+        assertError(send("GET", "/unknown", null), 404, "Unknown path /unknown");
+    }
+
+    @Test
+    void evaluateBatch() throws Exception {
+        HttpResponse<String> response = send("POST", "/batch", "[" +
+                "{\"fri\": \"/echo/models/first\", \"input\": {\"input\": 1}}," +
+                "{\"fri\": \"/echo/models/notexisting\", \"input\": {}}," +
+                "{\"input\": {}}]");
+        List<Map<String, Object>> retrieved = readList(response);
+        assertThat(retrieved).hasSize(3);
+        assertThat(retrieved.get(0)).containsEntry("status", 200)
+                .containsEntry("output", Map.of("input", 1));
+        assertThat(retrieved.get(1)).containsEntry("fri", "/echo/models/notexisting")
+                .containsEntry("status", 404);
+        assertThat(retrieved.get(2)).containsEntry("status", 400);
+
+        assertError(send("POST", "/batch", "{}"), 400, "Expected a JSON array of {\"fri\": ..., \"input\": ...}");
+        assertError(send("POST", "/batch", "[{}, {}, {}, {}]"), 413, "Batch of 4 requests exceeds the maximum of 3");
+    }
+
+    @Test
+    void setDefaultNoDelay() {
+        Properties properties = new Properties();
+        EfestoHttpServer.setDefaultNoDelay(properties);
+        assertThat(properties.getProperty(EfestoHttpServer.NODELAY_PROPERTY)).isEqualTo("true");
+        // explicitly configured
+        properties.setProperty(EfestoHttpServer.NODELAY_PROPERTY, "false");
+        EfestoHttpServer.setDefaultNoDelay(properties);
+        assertThat(properties.getProperty(EfestoHttpServer.NODELAY_PROPERTY)).isEqualTo("false");
+    }
+
+    @Test
+    void start() {
+        assertThatThrownBy(() -> efestoHttpServer.start()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getLong() {
+        Properties properties = new Properties();
+        properties.setProperty(EfestoHttpServer.PORT_PROPERTY, " 9000 ");
+        assertThat(EfestoHttpServer.getLong(properties, EfestoHttpServer.PORT_PROPERTY, 1)).isEqualTo(9000);
+        assertThat(EfestoHttpServer.getLong(properties, EfestoHttpServer.TIMEOUT_PROPERTY, 1)).isEqualTo(1);
+        properties.setProperty(EfestoHttpServer.PORT_PROPERTY, "any");
+        assertThatThrownBy(() -> EfestoHttpServer.getLong(properties, EfestoHttpServer.PORT_PROPERTY, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertError(HttpResponse<String> response, int expectedStatus, String expectedMessage) throws IOException {
+        assertThat(response.statusCode()).isEqualTo(expectedStatus);
+        assertThat(readMap(response)).containsEntry("error", expectedMessage);
+    }
+
+    private static Map<String, Object> readMap(HttpResponse<String> response) throws IOException {
+        return objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+    }
+
+    private static List<Map<String, Object>> readList(HttpResponse<String> response) throws IOException {
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+    }
+
+    private static HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static GeneratedExecutableResource getExecutableResource(String basePath, ModelMetadata metadata) {
+        return new GeneratedExecutableResource(new FRI(basePath, MODEL_TYPE), Collections.singletonList("org.kie.Model"), metadata);
+    }
+}
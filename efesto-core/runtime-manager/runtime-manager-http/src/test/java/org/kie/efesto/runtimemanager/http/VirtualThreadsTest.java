@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.http;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsTest {
+
+    @Test
+    void isAvailable() {
+        assertThat(VirtualThreads.isAvailable()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    void newExecutor() throws Exception {
+        ExecutorService executor = VirtualThreads.newExecutor(2, "test-");
+        try {
+            Thread retrieved = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            if (!VirtualThreads.isAvailable()) {
+                assertThat(retrieved.getName()).startsWith("test-");
+                assertThat(retrieved.isDaemon()).isTrue();
+            } else {
+                assertThat(retrieved.getName()).isEmpty();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.runtimemanager.http.mocks;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+/**
+ * Returns its input data, failing when they contain {@link #FAIL_FIELD}
+ */
+public class EchoKieRuntimeService implements KieRuntimeService<Map<String, Object>, Map<String, Object>, EchoEfestoInput, EchoEfestoOutput> {
+
+    public static final String MODEL_TYPE = "echo";
+    public static final String FAIL_FIELD = "fail";
+
+    @Override
+    public boolean canManageInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return toEvaluate instanceof EchoEfestoInput && MODEL_TYPE.equals(toEvaluate.getFRI().getModel());
+    }
+
+    @Override
+    public Optional<EchoEfestoOutput> evaluateInput(EchoEfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        if (toEvaluate.getInputData().containsKey(FAIL_FIELD)) {
+            throw new KieRuntimeServiceException(String.valueOf(toEvaluate.getInputData().get(FAIL_FIELD)));
+        }
+        return Optional.of(new EchoEfestoOutput(toEvaluate.getFRI(), toEvaluate.getInputData()));
+    }
+
+    @Override
+    public String getModelType() {
+        return MODEL_TYPE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<EchoEfestoInput> getInput(ModelDescriptor modelDescriptor, Object inputData, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return inputData instanceof Map ? Optional.of(new EchoEfestoInput(modelDescriptor.getFri(), (Map<String, Object>) inputData)) : Optional.empty();
+    }
+}
@@ -16,15 +16,15 @@
 package org.kie.bar.engine.compilation.model;
 
 import org.kie.efesto.common.api.model.FRI;
-import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputClassesContainer;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
 
 import java.util.Map;
 
-public class EfestoCallableOutputBar extends EfestoCallableOutputClassesContainer {
+public class EfestoCallableOutputBar extends EfestoCallableOutputSourcesContainer {
 
 
-    public EfestoCallableOutputBar(FRI fri, String fullClassName, Map<String, byte[]> compiledClassMap) {
-        super(fri, fullClassName, compiledClassMap);
+    public EfestoCallableOutputBar(FRI fri, String fullClassName, Map<String, String> sourcesMap) {
+        super(fri, fullClassName, sourcesMap);
     }
 
 }
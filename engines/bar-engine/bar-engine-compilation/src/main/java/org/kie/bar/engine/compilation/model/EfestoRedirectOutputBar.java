@@ -16,15 +16,14 @@
 package org.kie.bar.engine.compilation.model;
 
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoRedirectOutput;
 
-import java.io.File;
+public class EfestoRedirectOutputBar extends EfestoRedirectOutput<EfestoModelResource<?>> {
 
-public class EfestoRedirectOutputBar extends EfestoRedirectOutput<File> {
 
-
-    public EfestoRedirectOutputBar(FRI fri, File modelFile) {
-        super(fri, "foo", modelFile);
+    public EfestoRedirectOutputBar(FRI fri, EfestoModelResource<?> modelResource) {
+        super(fri, "foo", modelResource);
     }
 
 }
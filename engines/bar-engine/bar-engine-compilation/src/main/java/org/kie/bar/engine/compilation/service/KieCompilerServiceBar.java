@@ -17,7 +17,7 @@ package org.kie.bar.engine.compilation.service;
 
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
-import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
 import org.kie.memorycompiler.KieMemoryCompiler;
@@ -31,7 +31,7 @@ public class KieCompilerServiceBar implements KieCompilerService {
 
     @Override
     public <T extends EfestoResource> boolean canManageResource(T toProcess) {
-        return toProcess instanceof EfestoFileResource && ((EfestoFileResource) toProcess).getModelType().equalsIgnoreCase("bar");
+        return toProcess instanceof EfestoModelResource && ((EfestoModelResource<?>) toProcess).getModelType().equalsIgnoreCase("bar");
     }
 
     @Override
@@ -42,6 +42,6 @@ public class KieCompilerServiceBar implements KieCompilerService {
                     this.getClass().getName(),
                     toProcess.getClass().getName()));
         }
-        return (List<E>) Collections.singletonList(getEfestoCompilationOutputBar((EfestoFileResource) toProcess, memoryCompilerClassLoader));
+        return (List<E>) Collections.singletonList(getEfestoCompilationOutputBar((EfestoModelResource<?>) toProcess, memoryCompilerClassLoader));
     }
 }
@@ -23,17 +23,17 @@ import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.stmt.ExplicitConstructorInvocationStmt;
+import org.kie.bar.engine.api.model.BarResources;
 import org.kie.bar.engine.compilation.model.EfestoCallableOutputBar;
 import org.kie.bar.engine.compilation.model.EfestoRedirectOutputBar;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.common.utils.JavaParserUtils;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
-import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
-import org.kie.memorycompiler.JavaConfiguration;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
-import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -42,6 +42,10 @@ import static org.kie.bar.engine.api.constants.Constants.BAR_MODEL_PACKAGE_NAME;
 import static org.kie.efesto.common.utils.CommonCodegenUtils.getSuperConstructorInvocation;
 import static org.kie.efesto.common.utils.JavaParserUtils.getFullClassName;
 import static org.kie.efesto.common.utils.StringUtils.getSanitizedClassName;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getEmptyClass;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getStringListConstructorClass;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.isBytecodeEnabled;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.compileOrDefer;
 
 public class BarCompilerHelper {
 
@@ -55,19 +59,22 @@ public class BarCompilerHelper {
     private BarCompilerHelper() {
     }
 
-    public static EfestoCompilationOutput getEfestoCompilationOutputBar(EfestoFileResource resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        if ((resource.getContent()).getName().startsWith("Redirect")) {
+    public static EfestoCompilationOutput getEfestoCompilationOutputBar(EfestoModelResource<?> resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        if (resource.getFileName().startsWith("Redirect")) {
             return getEfestoRedirectOutputBar(resource);
         } else {
             return getEfestoFinalOutputBar(resource, memoryClassLoader);
         }
     }
 
-    static EfestoCallableOutputBar getEfestoFinalOutputBar(EfestoFileResource resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        String fileName = ( resource.getContent()).getName().toLowerCase();
+    static EfestoCallableOutputBar getEfestoFinalOutputBar(EfestoModelResource<?> resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        String fileName = resource.getFileName().toLowerCase();
         String basePath = fileName.substring(0, fileName.lastIndexOf('.'));
         FRI fri = new FRI(basePath, "bar");
         String simpleClassName = getSanitizedClassName(fri.getFri());
+        if (isBytecodeEnabled(fri.getModel())) {
+            return getEfestoFinalOutputBarFromBytecode(fri, simpleClassName);
+        }
         CompilationUnit compilationUnit = JavaParserUtils.getCompilationUnit(simpleClassName,
                 BAR_MODEL_PACKAGE_NAME,
                 BAR_MODEL_TEMPLATE_JAVA,
@@ -78,15 +85,35 @@ public class BarCompilerHelper {
         CompilationUnit barResourcesSourceCompilationUnit = getBarResourcesCompilationUnit(sourcesMap.keySet(), barResourcesSourceClassName);
         String fullResourceClassName = getFullClassName(barResourcesSourceCompilationUnit);
         sourcesMap.put(fullResourceClassName, barResourcesSourceCompilationUnit.toString());
-        final Map<String, byte[]> compiledClasses = compileClasses(sourcesMap, memoryClassLoader);
-        return new EfestoCallableOutputBar(fri, fullResourceClassName, compiledClasses);
+        return compileOrDefer(new EfestoCallableOutputBar(fri, fullResourceClassName, sourcesMap), memoryClassLoader);
+    }
+
+    /**
+     * Returns the same classes generated from the <b>BarModelTemplate</b> and <b>BarResourcesTemplate</b> templates,
+     * emitting their <code>bytecode</code> directly (see <code>BytecodeUtils</code>)
+     *
+     * @param fri
+     * @param simpleClassName
+     * @return
+     */
+    static EfestoCallableOutputBar getEfestoFinalOutputBarFromBytecode(FRI fri, String simpleClassName) {
+        String fullClassName = BAR_MODEL_PACKAGE_NAME + "." + simpleClassName;
+        String fullResourceClassName = BAR_MODEL_PACKAGE_NAME + "." + getSanitizedClassName(simpleClassName + "Resources");
+        Map<String, byte[]> compiledClasses = new HashMap<>();
+        compiledClasses.put(fullClassName, getEmptyClass(fullClassName));
+        compiledClasses.put(fullResourceClassName, getStringListConstructorClass(fullResourceClassName,
+                BarResources.class.getName(),
+                Collections.singletonList(fullClassName)));
+        EfestoCallableOutputBar toReturn = new EfestoCallableOutputBar(fri, fullResourceClassName, new HashMap<>());
+        toReturn.setCompiledClasses(compiledClasses);
+        return toReturn;
     }
 
-    static EfestoRedirectOutputBar getEfestoRedirectOutputBar(EfestoFileResource resource) {
-        String fileName = (resource.getContent()).getName().toLowerCase();
+    static EfestoRedirectOutputBar getEfestoRedirectOutputBar(EfestoModelResource<?> resource) {
+        String fileName = resource.getFileName().toLowerCase();
         String basePath = fileName.substring(0, fileName.lastIndexOf('.'));
         FRI fri = new FRI(basePath, "bar");
-        return new EfestoRedirectOutputBar(fri, resource.getContent());
+        return new EfestoRedirectOutputBar(fri, resource);
     }
 
     static CompilationUnit getBarResourcesCompilationUnit(Set<String> generatedSources, String barResourcesSourceClassName) {
@@ -106,15 +133,4 @@ public class BarCompilerHelper {
         explicitConstructorInvocationStmt.getArguments().get(0).asMethodCallExpr().setArguments(generatedSourcesArgument);
         return toReturn;
     }
-
-    /**
-     * Compile the given sources and add them to given <code>Classloader</code> of the current instance.
-     * Returns the <code>compiled bytecode</code>
-     *
-     * @param sourcesMap
-     * @return
-     */
-    static Map<String, byte[]> compileClasses(Map<String, String> sourcesMap, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        return KieMemoryCompiler.compileNoLoad(sourcesMap, memoryClassLoader, JavaConfiguration.CompilerType.NATIVE);
-    }
 }
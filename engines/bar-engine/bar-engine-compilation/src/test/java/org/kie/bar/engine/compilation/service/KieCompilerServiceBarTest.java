@@ -21,11 +21,13 @@ import org.kie.bar.engine.compilation.model.EfestoRedirectOutputBar;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
 import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoInputStreamResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -80,4 +82,20 @@ class KieCompilerServiceBarTest {
             assertThat(e).isInstanceOf(KieCompilerServiceException.class);
         }
     }
+
+    @Test
+    void processInputStreamResource() {
+        EfestoResource toProcess = new EfestoInputStreamResource("bar".getBytes(StandardCharsets.UTF_8), "DarBar.bar");
+        assertThat(kieCompilerService.canManageResource(toProcess)).isTrue();
+        List<EfestoCompilationOutput> listRetrieved = kieCompilerService.processResource(toProcess, memoryCompilerClassLoader);
+        assertThat(listRetrieved).isNotNull().hasSize(1);
+        assertThat(listRetrieved.get(0)).isInstanceOf(EfestoCallableOutputBar.class);
+
+        toProcess = new EfestoInputStreamResource("bar".getBytes(StandardCharsets.UTF_8), "RedirectBar.bar");
+        listRetrieved = kieCompilerService.processResource(toProcess, memoryCompilerClassLoader);
+        assertThat(listRetrieved).isNotNull().hasSize(1);
+        EfestoCompilationOutput retrieved = listRetrieved.get(0);
+        assertThat(retrieved).isNotNull().isInstanceOf(EfestoRedirectOutputBar.class);
+        assertThat(((EfestoRedirectOutputBar) retrieved).getContent()).isSameAs(toProcess);
+    }
 }
\ No newline at end of file
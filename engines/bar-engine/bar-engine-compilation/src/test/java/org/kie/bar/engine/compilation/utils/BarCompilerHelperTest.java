@@ -16,12 +16,15 @@ package org.kie.bar.engine.compilation.utils;/*
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.kie.bar.engine.api.model.BarResources;
 import org.kie.bar.engine.compilation.model.EfestoCallableOutputBar;
 import org.kie.bar.engine.compilation.model.EfestoRedirectOutputBar;
 import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.utils.BytecodeUtils;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
 import java.io.File;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.kie.bar.engine.compilation.TestingUtils.getFileFromFileName;
@@ -44,6 +47,26 @@ class BarCompilerHelperTest {
 
     }
 
+    @Test
+    void getEfestoFinalOutputBarFromBytecode() throws Exception {
+        EfestoFileResource darResourceBar = new EfestoFileResource(getFileFromFileName("RedirectBar.bar"));
+        EfestoCallableOutputBar expected = BarCompilerHelper.getEfestoFinalOutputBar(darResourceBar, memoryCompilerClassLoader);
+        System.setProperty(BytecodeUtils.BYTECODE_PROPERTY, "bar");
+        EfestoCallableOutputBar retrieved;
+        try {
+            retrieved = BarCompilerHelper.getEfestoFinalOutputBar(darResourceBar, memoryCompilerClassLoader);
+        } finally {
+            System.clearProperty(BytecodeUtils.BYTECODE_PROPERTY);
+        }
+        assertThat(retrieved.isCompiled()).isTrue();
+        assertThat(retrieved.getFri()).isEqualTo(expected.getFri());
+        assertThat(retrieved.getFullClassNames()).isEqualTo(expected.getFullClassNames());
+        assertThat(retrieved.getCompiledClassesMap()).containsOnlyKeys(expected.getCompiledClassesMap().keySet());
+        String fullResourceClassName = retrieved.getFullClassNames().get(0);
+        assertThat(getBarResources(retrieved.getCompiledClassesMap(), fullResourceClassName).getManagedResources())
+                .isEqualTo(getBarResources(expected.getCompiledClassesMap(), fullResourceClassName).getManagedResources());
+    }
+
     @Test
     void getEfestoRedirectOutputBar() {
         File fooFile = getFileFromFileName("DarBar.bar");
@@ -53,5 +76,9 @@ class BarCompilerHelperTest {
         assertThat(retrieved.getTargetEngine()).isEqualTo("foo");
     }
 
-
-}
\ No newline at end of file
+    private static BarResources getBarResources(Map<String, byte[]> compiledClasses, String fullResourceClassName) throws Exception {
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        compiledClasses.forEach(classLoader::addCode);
+        return (BarResources) classLoader.loadClass(fullResourceClassName).getDeclaredConstructor().newInstance();
+    }
+}
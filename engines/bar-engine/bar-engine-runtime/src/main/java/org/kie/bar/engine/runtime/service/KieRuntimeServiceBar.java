@@ -17,8 +17,11 @@ package org.kie.bar.engine.runtime.service;
 
 import org.kie.bar.engine.runtime.model.EfestoInputBar;
 import org.kie.bar.engine.runtime.model.EfestoOutputBar;
+import org.kie.bar.engine.runtime.utils.BarRuntimeHelper;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
@@ -33,6 +36,7 @@ public class KieRuntimeServiceBar implements KieRuntimeService<String, String, E
 
     private static final Logger logger = LoggerFactory.getLogger(KieRuntimeServiceBar.class.getName());
 
+    static final String SYNTHETIC_INPUT_DATA = "synthetic";
 
     @Override
     public boolean canManageInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
@@ -47,4 +51,34 @@ public class KieRuntimeServiceBar implements KieRuntimeService<String, String, E
                 .map(Optional::get)
                 .findFirst();
     }
+
+    @Override
+    public Optional<EfestoBoundExecutor<EfestoInputBar, EfestoOutputBar>> getBoundExecutor(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        try {
+            return BarRuntimeHelper.getBoundExecutor(toEvaluate, memoryCompilerClassLoader);
+        } catch (Exception e) {
+            logger.warn("{} can not bind {}",
+                    this.getClass().getName(),
+                    toEvaluate.getFRI());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getModelType() {
+        return "bar";
+    }
+
+    @Override
+    public Optional<EfestoInputBar> getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.of(new EfestoInputBar(modelDescriptor.getFri(), SYNTHETIC_INPUT_DATA));
+    }
+
+    /**
+     * Only <code>String</code> data are accepted
+     */
+    @Override
+    public Optional<EfestoInputBar> getInput(ModelDescriptor modelDescriptor, Object inputData, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return inputData instanceof String ? Optional.of(new EfestoInputBar(modelDescriptor.getFri(), (String) inputData)) : Optional.empty();
+    }
 }
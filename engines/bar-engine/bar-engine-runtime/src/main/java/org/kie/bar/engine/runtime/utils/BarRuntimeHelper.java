@@ -25,7 +25,12 @@ import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.model.AbstractEfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpan;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpanContext;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracing;
+import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +44,9 @@ public class BarRuntimeHelper {
 
     private static final Logger logger = LoggerFactory.getLogger(BarRuntimeHelper.class.getName());
 
+    static final String REDIRECT_SPAN = "bar.redirect";
+    static final String REDIRECT_TARGET_ATTRIBUTE = "target";
+
 
     private BarRuntimeHelper() {
     }
@@ -80,26 +88,81 @@ public class BarRuntimeHelper {
             return Optional.empty();
         }
         FRI targetFri = new FRI(redirectResource.getFri().getBasePath(), redirectResource.getTarget());
-        EfestoInput<String> redirectInput = new AbstractEfestoInput<String>(targetFri, toEvaluate.getInputData()) {
+        try (EfestoSpan span = startRedirectSpan(toEvaluate, targetFri)) {
+            EfestoInput<String> redirectInput = getRedirectInput(targetFri, toEvaluate.getInputData(), span.getContext());
+
+            Optional<KieRuntimeService> targetService = getKieRuntimeService(redirectInput, true, memoryCompilerClassLoader);
+            if (targetService.isEmpty()) {
+                logger.warn("Cannot find KieRuntimeService for {}", toEvaluate.getFRI());
+                return Optional.empty();
+            }
+
+            return targetService.map(service -> service.evaluateInput(redirectInput, memoryCompilerClassLoader))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .map(o -> new EfestoOutputBar(toEvaluate.getFRI(), ((EfestoOutput<?>) o).getOutputData().toString()));
+        }
+    }
 
-        };
+    /**
+     * Returns an <code>EfestoBoundExecutor</code> bound to the already loaded <code>BarResources</code> or, for
+     * redirects, to the <code>EfestoBoundExecutor</code> of the target engine
+     *
+     * @param toEvaluate
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    public static Optional<EfestoBoundExecutor<EfestoInputBar, EfestoOutputBar>> getBoundExecutor(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        if (!(toEvaluate instanceof EfestoInputBar)) {
+            return Optional.empty();
+        }
+        Optional<GeneratedExecutableResource> finalResource = getGeneratedExecutableResource(toEvaluate.getFRI(), "bar");
+        if (finalResource.isPresent()) {
+            BarResources barResources = loadBarResources(finalResource.get(), memoryCompilerClassLoader);
+            return Optional.of(input -> Optional.of(getEfestoOutput(barResources, input)));
+        }
+        return getGeneratedRedirectResource(toEvaluate.getFRI(), "bar")
+                .flatMap(redirectResource -> getRedirectBoundExecutor(redirectResource, (EfestoInputBar) toEvaluate, memoryCompilerClassLoader));
+    }
 
-        Optional<KieRuntimeService> targetService = getKieRuntimeService(redirectInput, true, memoryCompilerClassLoader);
-        if (targetService.isEmpty()) {
+    @SuppressWarnings({"unchecked", "raw"})
+    static Optional<EfestoBoundExecutor<EfestoInputBar, EfestoOutputBar>> getRedirectBoundExecutor(GeneratedRedirectResource redirectResource, EfestoInputBar toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        FRI targetFri = new FRI(redirectResource.getFri().getBasePath(), redirectResource.getTarget());
+        Optional<EfestoBoundExecutor> targetExecutor = SPIUtils.getBoundExecutor(getRedirectInput(targetFri, toEvaluate.getInputData()), true, memoryCompilerClassLoader);
+        if (targetExecutor.isEmpty()) {
             logger.warn("Cannot find KieRuntimeService for {}", toEvaluate.getFRI());
             return Optional.empty();
         }
+        return Optional.of(input -> {
+            try (EfestoSpan span = startRedirectSpan(input, targetFri)) {
+                return ((Optional<EfestoOutput<?>>) targetExecutor.get().evaluateInput(getRedirectInput(targetFri, input.getInputData(), span.getContext())))
+                        .map(o -> new EfestoOutputBar(input.getFRI(), o.getOutputData().toString()));
+            }
+        });
+    }
 
-        return targetService.map(service -> service.evaluateInput(redirectInput, memoryCompilerClassLoader))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(o -> new EfestoOutputBar(toEvaluate.getFRI(), ((EfestoOutput<?>) o).getOutputData().toString()));
+    static EfestoInput<String> getRedirectInput(FRI targetFri, String inputData) {
+        return getRedirectInput(targetFri, inputData, null);
+    }
+
+    static EfestoInput<String> getRedirectInput(FRI targetFri, String inputData, EfestoSpanContext spanContext) {
+        return new AbstractEfestoInput<String>(targetFri, inputData, spanContext) {
+
+        };
+    }
+
+    static EfestoSpan startRedirectSpan(EfestoInputBar toEvaluate, FRI targetFri) {
+        return EfestoTracing.startSpan(REDIRECT_SPAN, toEvaluate).setAttribute(REDIRECT_TARGET_ATTRIBUTE, targetFri);
     }
 
-    @SuppressWarnings("unchecked")
     static BarResources loadBarResources(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         GeneratedExecutableResource finalResource = getGeneratedExecutableResource(fri, "bar")
                 .orElseThrow(() -> new KieRuntimeServiceException("Can not find expected GeneratedExecutableResource for " + fri));
+        return loadBarResources(finalResource, memoryCompilerClassLoader);
+    }
+
+    @SuppressWarnings("unchecked")
+    static BarResources loadBarResources(GeneratedExecutableResource finalResource, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         try {
             String fullBarResourcesSourceClassName = finalResource.getFullClassNames().get(0);
             final Class<? extends BarResources> aClass =
@@ -22,8 +22,11 @@ import org.kie.bar.engine.runtime.model.EfestoOutputBar;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.model.AbstractEfestoInput;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
@@ -77,4 +80,20 @@ class BarRuntimeHelperTest {
         assertThat(retrieved.getFRI()).isEqualTo(darInputBar.getFRI());
         assertThat(retrieved.getOutputData()).isEqualTo(darInputBar.getInputData());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBoundExecutor() {
+        FRI fri = new FRI("efesto", "bar");
+        EfestoInputBar darInputBar = new EfestoInputBar(fri, "InputData");
+        Optional<EfestoBoundExecutor<EfestoInputBar, EfestoOutputBar>> retrieved = BarRuntimeHelper.getBoundExecutor(darInputBar, memoryCompilerClassLoader);
+        assertThat(retrieved).isPresent();
+        Optional<EfestoOutputBar> output = retrieved.get().evaluateInput(new EfestoInputBar(fri, "OtherInputData"));
+        assertThat(output).isPresent();
+        assertThat(output.get().getFRI()).isEqualTo(fri);
+        assertThat(output.get().getOutputData()).isEqualTo("OtherInputData");
+        retrieved = BarRuntimeHelper.getBoundExecutor(new AbstractEfestoInput(fri, "InputData") {}, memoryCompilerClassLoader);
+        assertThat(retrieved).isNotPresent();
+        retrieved = BarRuntimeHelper.getBoundExecutor(new EfestoInputBar(new FRI("efesto", "notbar"), "InputData"), memoryCompilerClassLoader);
+        assertThat(retrieved).isNotPresent();
+    }
+}
@@ -1,13 +1,13 @@
 package org.kie.drl.engine.compilation.model;
 
 import org.kie.efesto.common.api.model.FRI;
-import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputClassesContainer;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
 
 import java.util.List;
 import java.util.Map;
 
-public class DrlCallableClassesContainer extends EfestoCallableOutputClassesContainer {
-    public DrlCallableClassesContainer(FRI fri, List<String> fullClassNames, Map<String, byte[]> compiledClassMap) {
-        super(fri, fullClassNames, compiledClassMap);
+public class DrlCallableClassesContainer extends EfestoCallableOutputSourcesContainer {
+    public DrlCallableClassesContainer(FRI fri, List<String> fullClassNames, Map<String, String> sourcesMap) {
+        super(fri, fullClassNames, sourcesMap);
     }
 }
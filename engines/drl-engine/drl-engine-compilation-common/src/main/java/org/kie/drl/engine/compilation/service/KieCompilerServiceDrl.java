@@ -2,6 +2,8 @@ package org.kie.drl.engine.compilation.service;
 
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileSetResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoInputStreamSetResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
 import org.kie.drl.engine.compilation.model.DrlFileSetResource;
@@ -16,7 +18,9 @@ public class KieCompilerServiceDrl implements KieCompilerService {
 
     @Override
     public <T extends EfestoResource> boolean canManageResource(T toProcess) {
-        return toProcess instanceof DrlFileSetResource;
+        return toProcess instanceof DrlFileSetResource ||
+                (toProcess instanceof EfestoFileSetResource && "drl".equals(((EfestoFileSetResource) toProcess).getModelType())) ||
+                (toProcess instanceof EfestoInputStreamSetResource && "drl".equals(((EfestoInputStreamSetResource) toProcess).getModelType()));
     }
 
     @Override
@@ -26,7 +30,13 @@ public class KieCompilerServiceDrl implements KieCompilerService {
                     this.getClass().getName(),
                     toProcess.getClass().getName()));
         }
-        return (List<E>) Collections.singletonList(getDrlCallableClassesContainer((DrlFileSetResource) toProcess, memoryCompilerClassLoader));
+        if (toProcess instanceof EfestoInputStreamSetResource) {
+            return (List<E>) Collections.singletonList(getDrlCallableClassesContainer((EfestoInputStreamSetResource) toProcess, memoryCompilerClassLoader));
+        }
+        DrlFileSetResource drlFileSetResource = toProcess instanceof DrlFileSetResource ?
+                (DrlFileSetResource) toProcess :
+                new DrlFileSetResource(((EfestoFileSetResource) toProcess).getContent(), ((EfestoFileSetResource) toProcess).getBasePath());
+        return (List<E>) Collections.singletonList(getDrlCallableClassesContainer(drlFileSetResource, memoryCompilerClassLoader));
     }
 
 }
@@ -23,18 +23,20 @@ import org.drools.drl.ast.descr.PackageDescr;
 import org.drools.drl.parser.DroolsParserException;
 import org.drools.model.project.codegen.KogitoPackageSources;
 import org.drools.model.project.codegen.RuleCodegenError;
+import org.drools.util.io.ByteArrayResource;
 import org.drools.modelcompiler.builder.GeneratedFile;
 import org.drools.modelcompiler.tool.ExplicitCanonicalModelCompiler;
 import org.kie.api.io.Resource;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.efesto.compilationmanager.api.model.EfestoInputStreamResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoInputStreamSetResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoSetResource;
 import org.kie.drl.engine.compilation.model.DecisionTableFileSetResource;
 import org.kie.drl.engine.compilation.model.DrlCallableClassesContainer;
 import org.kie.drl.engine.compilation.model.DrlFileSetResource;
 import org.kie.drl.engine.compilation.model.DrlPackageDescrSetResource;
 import org.kie.internal.builder.KnowledgeBuilderResult;
-import org.kie.memorycompiler.JavaConfiguration;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +47,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.compileOrDefer;
+
 public class DrlCompilerHelper {
 
     private static final Logger logger = LoggerFactory.getLogger(DrlCompilerHelper.class);
@@ -84,6 +88,23 @@ public class DrlCompilerHelper {
         return getDrlCallableClassesContainer(packages, resources.getBasePath(), knowledgeBuilderConfiguration, memoryCompilerClassLoader);
     }
 
+    public static DrlCallableClassesContainer getDrlCallableClassesContainer(EfestoInputStreamSetResource resources, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        KnowledgeBuilderConfigurationImpl knowledgeBuilderConfiguration =
+                new KnowledgeBuilderConfigurationImpl();
+
+        DrlResourceHandler drlResourceHandler =
+                new DrlResourceHandler(knowledgeBuilderConfiguration);
+
+        Map<String, CompositePackageDescr> packages = new HashMap<>();
+
+        for (EfestoInputStreamResource modelResource : resources.getContent()) {
+            ByteArrayResource resource = new ByteArrayResource(modelResource.getBytes());
+            resource.setSourcePath(modelResource.getSourcePath());
+            parseAndAdd(drlResourceHandler, resource, packages);
+        }
+        return getDrlCallableClassesContainer(packages, resources.getBasePath(), knowledgeBuilderConfiguration, memoryCompilerClassLoader);
+    }
+
     static DrlCallableClassesContainer getDrlCallableClassesContainer(Map<String, CompositePackageDescr> packages, String basePath, KnowledgeBuilderConfigurationImpl knowledgeBuilderConfiguration, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         ExplicitCanonicalModelCompiler<KogitoPackageSources> compiler =
                 ExplicitCanonicalModelCompiler.of(
@@ -118,8 +139,7 @@ public class DrlCompilerHelper {
                                 .replace(File.separatorChar, '.'),
                         generatedFile -> new String(generatedFile.getData(), StandardCharsets.UTF_8)));
 
-        Map<String, byte[]> compiledClasses = compileClasses(sourceCode, memoryCompilerClassLoader);
-        return new DrlCallableClassesContainer(new FRI(basePath, "drl"), generatedRulesModels, compiledClasses);
+        return compileOrDefer(new DrlCallableClassesContainer(new FRI(basePath, "drl"), generatedRulesModels, sourceCode), memoryCompilerClassLoader);
     }
 
     static void addPackageDescr(PackageDescr packageDescr, Resource resource, Map<String, CompositePackageDescr> packages) {
@@ -135,8 +155,4 @@ public class DrlCompilerHelper {
             throw new KieCompilerServiceException(e);
         }
     }
-
-    static Map<String, byte[]> compileClasses(Map<String, String> sourcesMap, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        return KieMemoryCompiler.compileNoLoad(sourcesMap, memoryClassLoader, JavaConfiguration.CompilerType.NATIVE);
-    }
 }
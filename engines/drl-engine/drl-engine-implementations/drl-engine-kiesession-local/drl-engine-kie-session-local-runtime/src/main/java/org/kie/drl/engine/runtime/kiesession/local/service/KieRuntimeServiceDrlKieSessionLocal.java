@@ -17,10 +17,12 @@ package org.kie.drl.engine.runtime.kiesession.local.service;
 
 import org.kie.api.runtime.KieSession;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.drl.engine.runtime.kiesession.local.model.EfestoInputDrlKieSessionLocal;
 import org.kie.drl.engine.runtime.kiesession.local.model.EfestoOutputDrlKieSessionLocal;
 import org.kie.drl.engine.runtime.kiesession.local.utils.DrlRuntimeHelper;
+import org.kie.drl.engine.runtime.utils.EfestoKieSessionUtil;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,4 +44,14 @@ public class KieRuntimeServiceDrlKieSessionLocal implements KieRuntimeService<St
     public Optional<EfestoOutputDrlKieSessionLocal> evaluateInput(EfestoInputDrlKieSessionLocal toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         return canManageInput(toEvaluate, memoryCompilerClassLoader) ? DrlRuntimeHelper.execute(toEvaluate, memoryCompilerClassLoader) : Optional.empty();
     }
+
+    @Override
+    public String getModelType() {
+        return "drl";
+    }
+
+    @Override
+    public Optional<Object> getModelInstance(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.of(EfestoKieSessionUtil.loadKieBase(modelDescriptor.getFri(), memoryCompilerClassLoader));
+    }
 }
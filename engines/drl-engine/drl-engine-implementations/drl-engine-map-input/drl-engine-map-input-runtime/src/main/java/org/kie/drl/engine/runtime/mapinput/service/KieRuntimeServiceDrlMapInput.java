@@ -18,10 +18,12 @@ package org.kie.drl.engine.runtime.mapinput.service;
 import org.kie.efesto.runtimemanager.api.model.AbstractEfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoMapInputDTO;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.drl.engine.runtime.mapinput.model.EfestoInputDrlMap;
 import org.kie.drl.engine.runtime.mapinput.model.EfestoOutputDrlMap;
 import org.kie.drl.engine.runtime.mapinput.utils.DrlRuntimeHelper;
+import org.kie.drl.engine.runtime.utils.EfestoKieSessionUtil;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,4 +46,14 @@ public class KieRuntimeServiceDrlMapInput implements KieRuntimeService<EfestoMap
     public Optional<EfestoOutputDrlMap> evaluateInput(AbstractEfestoInput<EfestoMapInputDTO> toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         return DrlRuntimeHelper.execute(toEvaluate, memoryCompilerClassLoader);
     }
+
+    @Override
+    public String getModelType() {
+        return "drl";
+    }
+
+    @Override
+    public Optional<Object> getModelInstance(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.of(EfestoKieSessionUtil.loadKieBase(modelDescriptor.getFri(), memoryCompilerClassLoader));
+    }
 }
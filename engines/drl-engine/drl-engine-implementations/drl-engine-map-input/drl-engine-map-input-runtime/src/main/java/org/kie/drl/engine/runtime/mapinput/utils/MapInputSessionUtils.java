@@ -18,16 +18,22 @@ package org.kie.drl.engine.runtime.mapinput.utils;
 import org.kie.api.definition.type.FactType;
 import org.kie.api.event.rule.AgendaEventListener;
 import org.kie.api.runtime.KieSession;
+import org.kie.drl.engine.runtime.jfr.DroolsSessionFireEvent;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
+import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeTimeoutException;
 import org.kie.efesto.runtimemanager.api.model.EfestoMapInputDTO;
 import org.kie.efesto.runtimemanager.api.model.EfestoOriginalTypeGeneratedType;
+import org.kie.efesto.runtimemanager.api.utils.DeadlineUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
 
 import static org.kie.efesto.common.api.constants.Constants.OUTPUTFIELDS_MAP_IDENTIFIER;
 import static org.kie.efesto.common.api.constants.Constants.PACKAGE_CLASS_TEMPLATE;
+import static org.kie.efesto.runtimemanager.api.utils.DeadlineUtils.checkDeadline;
 
 /**
  * Class used to isolate all the <code>KieSession</code> instantiation/usage details
@@ -66,15 +72,49 @@ public class MapInputSessionUtils {
     }
 
     /**
-     * Invoke <code>KieSession.fireAllRules()</code>
+     * Invoke <code>KieSession.fireAllRules()</code>.
+     * If the current evaluation has a deadline, the <code>KieSession</code> is halted when it expires, and a
+     * <code>KieRuntimeTimeoutException</code> is thrown
      */
     public void fireAllRules() {
-        kieSession.fireAllRules();
+        DroolsSessionFireEvent event = new DroolsSessionFireEvent();
+        event.begin();
+        int firedRules = 0;
+        try {
+            firedRules = DeadlineUtils.hasDeadline() ? fireAllRulesWithDeadline() : kieSession.fireAllRules();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.model = modelName;
+                event.firedRules = firedRules;
+                event.halted = DeadlineUtils.hasDeadline() && DeadlineUtils.isExpired();
+                event.commit();
+            }
+        }
         kieSession.dispose();
 //        BatchExecutionCommand batchExecutionCommand = COMMAND_FACTORY_SERVICE.newBatchExecution(commands);
 //        kieSession.execute(batchExecutionCommand);
     }
 
+    int fireAllRulesWithDeadline() {
+        try {
+            checkDeadline();
+            Optional<ScheduledFuture<?>> scheduledHalt = DeadlineUtils.scheduleAtDeadline(kieSession::halt);
+            int toReturn;
+            try {
+                toReturn = kieSession.fireAllRules();
+            } finally {
+                scheduledHalt.ifPresent(toCancel -> toCancel.cancel(false));
+            }
+            checkDeadline();
+            return toReturn;
+        } catch (KieRuntimeTimeoutException e) {
+            logger.warn("{} halted: evaluation deadline expired", modelName);
+            kieSession.dispose();
+            throw e;
+        }
+    }
+
     /**
      * Insert an <code>Object</code> to the underlying <code>KieSession</code>.
      *
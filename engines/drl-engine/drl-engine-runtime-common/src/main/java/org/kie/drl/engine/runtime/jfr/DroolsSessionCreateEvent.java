@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.drl.engine.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.kie.drl.SessionCreate")
+@Label("Drools Session Create")
+@Description("Creation of the KieSession (and of its KieBase) of a rule model")
+@Category({"Efesto", "Drools"})
+@StackTrace(false)
+public class DroolsSessionCreateEvent extends Event {
+
+    @Label("FRI")
+    public String fri;
+
+    @Label("Rule Models")
+    @Description("The rule models the KieBase is built from")
+    public int models;
+}
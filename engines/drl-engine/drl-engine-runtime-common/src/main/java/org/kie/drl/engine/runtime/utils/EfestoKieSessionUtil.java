@@ -19,6 +19,7 @@ import org.drools.model.Model;
 import org.drools.modelcompiler.builder.KieBaseBuilder;
 import org.kie.api.KieBase;
 import org.kie.api.runtime.KieSession;
+import org.kie.drl.engine.runtime.jfr.DroolsSessionCreateEvent;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.common.api.model.GeneratedExecutableResource;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
@@ -34,16 +35,39 @@ public class EfestoKieSessionUtil {
     }
 
     public static KieSession loadKieSession(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
-        GeneratedExecutableResource finalResource = GeneratedResourceUtils.getGeneratedExecutableResource(fri, "drl")
-                .orElseThrow(() -> new KieRuntimeServiceException("Can not find expected GeneratedExecutableResource for " + fri));
-        List<Model> models = finalResource.getFullClassNames().stream().map(className -> loadModel(className, memoryCompilerClassLoader)).collect(Collectors.toList());
+        DroolsSessionCreateEvent event = new DroolsSessionCreateEvent();
+        event.begin();
+        List<Model> models = loadModels(fri, memoryCompilerClassLoader);
         KieBase kieBase = KieBaseBuilder.createKieBaseFromModel(models);
 
         KieSession toReturn = kieBase.newKieSession();
         // TODO find a way to set a unique identifier for the created session -
+        event.end();
+        if (event.shouldCommit()) {
+            event.fri = fri.getFri();
+            event.models = models.size();
+            event.commit();
+        }
         return toReturn;
     }
 
+    /**
+     * Build the <code>KieBase</code> of the given rule model, without creating any session (e.g. to measure its
+     * footprint)
+     *
+     * @param fri
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    public static KieBase loadKieBase(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return KieBaseBuilder.createKieBaseFromModel(loadModels(fri, memoryCompilerClassLoader));
+    }
+
+    static List<Model> loadModels(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        GeneratedExecutableResource finalResource = GeneratedResourceUtils.getGeneratedExecutableResource(fri, "drl")
+                .orElseThrow(() -> new KieRuntimeServiceException("Can not find expected GeneratedExecutableResource for " + fri));
+        return finalResource.getFullClassNames().stream().map(className -> loadModel(className, memoryCompilerClassLoader)).collect(Collectors.toList());
+    }
 
     static Model loadModel(String fullModelResourcesSourceClassName, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         try {
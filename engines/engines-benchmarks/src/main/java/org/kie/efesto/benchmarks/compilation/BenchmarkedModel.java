@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.benchmarks.compilation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.kie.drl.engine.compilation.model.DrlFileSetResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+
+import static org.kie.efesto.common.api.utils.FileUtils.getInputStreamFromFileName;
+
+/**
+ * The models compiled by the benchmarks, one for each engine and PMML family, taken from the test resources of the
+ * engines themselves
+ */
+public enum BenchmarkedModel {
+
+    FOO("foo", "DarFoo.foo"),
+    BAR("bar", "DarBar.bar"),
+    REGRESSION("pmml", "LinearRegressionSample.pmml"),
+    CLUSTERING("pmml", "SingleIrisKMeansClustering.pmml"),
+    TREE("pmml", "TreeSample.pmml"),
+    SCORECARD("pmml", "ScorecardSample.pmml"),
+    MINING("pmml", "MiningModel_Mixed.pmml"),
+    DRL("drl",
+        "org/drools/model/project/codegen/pkg1/file1.drl",
+        "org/drools/model/project/codegen/pkg1/file2.drl",
+        "org/drools/model/project/codegen/pkg2/file3.drl");
+
+    private final String engine;
+    private final String[] fileNames;
+
+    BenchmarkedModel(String engine, String... fileNames) {
+        this.engine = engine;
+        this.fileNames = fileNames;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Copy the files of this model to the given directory: the benchmarks run from an uber-jar, while engines expect
+     * real files
+     *
+     * @param directory
+     * @return
+     * @throws IOException
+     */
+    public Set<File> copyFiles(Path directory) throws IOException {
+        Set<File> toReturn = new LinkedHashSet<>();
+        for (String fileName : fileNames) {
+            File toCopy = directory.resolve(new File(fileName).getName()).toFile();
+            toCopy.deleteOnExit();
+            try (InputStream inputStream = getInputStreamFromFileName(fileName)) {
+                Files.copy(inputStream, toCopy.toPath());
+            }
+            toReturn.add(toCopy);
+        }
+        return toReturn;
+    }
+
+    /**
+     * @param files the ones returned by {@link #copyFiles(Path)}
+     * @return the <code>EfestoResource</code> to compile
+     */
+    public EfestoResource<?> getResource(Set<File> files) {
+        return this == DRL ? new DrlFileSetResource(files, "benchmarks/drl") : new EfestoFileResource(files.iterator().next());
+    }
+}
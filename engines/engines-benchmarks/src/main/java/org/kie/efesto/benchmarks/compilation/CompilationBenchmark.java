@@ -0,0 +1,235 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.benchmarks.compilation;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoRedirectOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+import org.kie.efesto.compilationmanager.api.service.CompilationManager;
+import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
+import org.kie.efesto.compilationmanager.core.service.CompilationManagerImpl;
+import org.kie.efesto.compilationmanager.core.utils.CompilationManagerUtils;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.closeBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.discardBatch;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.openBatch;
+import static org.kie.efesto.compilationmanager.api.utils.SPIUtils.getKieCompilerService;
+
+/**
+ * Compilation throughput of each <code>BenchmarkedModel</code>, as a whole and split by phase:
+ * <ul>
+ *     <li><code>compile</code>: the whole <code>CompilationManager</code> invocation, as done by the build</li>
+ *     <li><code>codegen</code>: parsing and code generation of all the involved engines (redirects included), inside
+ *     an open compilation batch so that javac is deferred</li>
+ *     <li><code>javac</code>: the compilation of the sources generated by <code>codegen</code>, i.e. the closing
+ *     of the batch</li>
+ *     <li><code>indexing</code>: the update of the <code>IndexFile</code>s with already compiled outputs</li>
+ * </ul>
+ * Besides the compilations per second, the <code>models</code> counter reports the models compiled per second.
+ * Run with <code>-prof gc</code> for the allocation: <code>gc.alloc.rate.norm</code> is per compilation, so divides
+ * it by the ratio of <code>models</code> to compilations for the allocation per model.
+ * Note that PMML mining models invoke the <code>CompilationManager</code> for their nested segments, so their
+ * <code>codegen</code> includes the indexing of the segments.
+ */
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 2)
+public class CompilationBenchmark {
+
+    @Param
+    public BenchmarkedModel model;
+
+    private EfestoResource<?> resource;
+    private CompilationManager compilationManager;
+    private int modelsPerCompilation;
+    private List<EfestoCompilationOutput> compiledOutputs;
+    private Map<String, IndexFile> indexFiles;
+    private ClassLoader originalClassLoader;
+
+    @Setup
+    public void setup() throws IOException {
+        Path directory = Files.createTempDirectory("compilation-benchmark");
+        directory.toFile().deleteOnExit();
+        System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, directory.toString());
+        // IndexFiles are looked up in the classpath, as the target/classes directory during a build
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{directory.toUri().toURL()}, originalClassLoader));
+        Set<File> files = model.copyFiles(directory);
+        resource = model.getResource(files);
+        compilationManager = new CompilationManagerImpl();
+        // outside of a batch every output is compiled immediately
+        compiledOutputs = generate(resource, getClassLoader());
+        modelsPerCompilation = (int) compiledOutputs.stream()
+                .filter(EfestoCallableOutput.class::isInstance)
+                .map(output -> ((EfestoCallableOutput) output).getFri().getBasePath())
+                .distinct()
+                .count();
+        indexFiles = new HashMap<>();
+        for (EfestoCompilationOutput output : compiledOutputs) {
+            if (output instanceof EfestoCallableOutput) {
+                String modelType = ((EfestoCallableOutput) output).getFri().getModel();
+                if (!indexFiles.containsKey(modelType)) {
+                    IndexFile indexFile = new IndexFile(directory.toString(), modelType);
+                    indexFile.createNewFile();
+                    indexFile.deleteOnExit();
+                    indexFiles.put(modelType, indexFile);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+        System.clearProperty(INDEXFILE_DIRECTORY_PROPERTY);
+    }
+
+    @Benchmark
+    public List<IndexFile> compile(ModelCounters counters) {
+        List<IndexFile> toReturn = compilationManager.processResource(resource, getClassLoader());
+        counters.models += modelsPerCompilation;
+        return toReturn;
+    }
+
+    @Benchmark
+    public List<EfestoCompilationOutput> codegen(ModelCounters counters) {
+        openBatch();
+        try {
+            List<EfestoCompilationOutput> toReturn = generate(resource, getClassLoader());
+            counters.models += modelsPerCompilation;
+            return toReturn;
+        } finally {
+            discardBatch();
+        }
+    }
+
+    @Benchmark
+    public List<EfestoCompilationOutput> javac(PendingCompilation pendingCompilation, ModelCounters counters) {
+        closeBatch(pendingCompilation.classLoader);
+        counters.models += modelsPerCompilation;
+        return pendingCompilation.outputs;
+    }
+
+    @Benchmark
+    public Map<String, IndexFile> indexing(ModelCounters counters) {
+        for (EfestoCompilationOutput output : compiledOutputs) {
+            if (output instanceof EfestoCallableOutput) {
+                CompilationManagerUtils.populateIndexFile(indexFiles.get(((EfestoCallableOutput) output).getFri().getModel()), output);
+            }
+        }
+        counters.models += modelsPerCompilation;
+        return indexFiles;
+    }
+
+    /**
+     * Process the given resource, and the redirects it produces, with the matching <code>KieCompilerService</code>s,
+     * as done by the <code>CompilationManager</code>
+     *
+     * @param toProcess
+     * @param classLoader
+     * @return all the produced outputs
+     */
+    static List<EfestoCompilationOutput> generate(EfestoResource<?> toProcess, KieMemoryCompiler.MemoryCompilerClassLoader classLoader) {
+        KieCompilerService service = getKieCompilerService(toProcess, false)
+                .orElseThrow(() -> new KieCompilerServiceException("Cannot find KieCompilerService for " + toProcess.getClass()));
+        List<EfestoCompilationOutput> processed = service.processResource(toProcess, classLoader);
+        List<EfestoCompilationOutput> toReturn = new ArrayList<>(processed);
+        for (EfestoCompilationOutput output : processed) {
+            if (output instanceof EfestoRedirectOutput) {
+                toReturn.addAll(generate((EfestoRedirectOutput<?>) output, classLoader));
+            }
+        }
+        return toReturn;
+    }
+
+    static KieMemoryCompiler.MemoryCompilerClassLoader getClassLoader() {
+        return new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Sources generated, but not compiled yet, for each <code>javac</code> invocation
+     */
+    @State(Scope.Thread)
+    public static class PendingCompilation {
+
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader;
+        List<EfestoCompilationOutput> outputs;
+
+        @Setup(Level.Invocation)
+        public void setup(CompilationBenchmark benchmark) {
+            classLoader = getClassLoader();
+            openBatch();
+            outputs = generate(benchmark.resource, classLoader);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            // the batch is already closed by the benchmark, unless it failed
+            discardBatch();
+        }
+    }
+
+    /**
+     * Models compiled per second, beside the compilations per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ModelCounters {
+
+        public long models;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            models = 0;
+        }
+    }
+}
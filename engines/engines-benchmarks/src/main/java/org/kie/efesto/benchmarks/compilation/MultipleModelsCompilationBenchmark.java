@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.benchmarks.compilation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.efesto.common.api.io.IndexFile;
+import org.kie.efesto.common.utils.JavaParserUtils;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.service.CompilationManager;
+import org.kie.efesto.compilationmanager.core.service.CompilationManagerImpl;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+import static org.kie.efesto.common.api.utils.FileUtils.getInputStreamFromFileName;
+
+/**
+ * Compile a <b>multi-model</b> PMML file, with and without the parsed-templates cache of <code>JavaParserUtils</code>.
+ * When <code>templateCache</code> is <code>false</code> the cache is emptied before each invocation, so that every
+ * template is read and parsed again, as it happened before the cache was introduced.
+ * <code>IndexFile</code>s are written inside a temporary directory, as <code>CompilationBenchmark</code> does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2)
+public class MultipleModelsCompilationBenchmark {
+
+    // taken from the pmml-engine-models-mining-tests resources
+    private static final String FILE_NAME = "multiplemining/MultipleMining.pmml";
+
+    @Param({"true", "false"})
+    public boolean templateCache;
+
+    private CompilationManager compilationManager;
+    private File pmmlFile;
+    private ClassLoader originalClassLoader;
+
+    @Setup
+    public void setupCompilation() throws IOException {
+        compilationManager = new CompilationManagerImpl();
+        Path directory = Files.createTempDirectory("pmml-benchmark");
+        directory.toFile().deleteOnExit();
+        System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, directory.toString());
+        // IndexFiles are looked up in the classpath, as the target/classes directory during a build
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{directory.toUri().toURL()}, originalClassLoader));
+        // the benchmark runs from an uber-jar, so the model is copied to a real file
+        pmmlFile = directory.resolve(new File(FILE_NAME).getName()).toFile();
+        pmmlFile.deleteOnExit();
+        try (InputStream inputStream = getInputStreamFromFileName(FILE_NAME)) {
+            Files.copy(inputStream, pmmlFile.toPath());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+        System.clearProperty(INDEXFILE_DIRECTORY_PROPERTY);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupCache() {
+        if (!templateCache) {
+            JavaParserUtils.clearTemplateCache();
+        }
+    }
+
+    @Benchmark
+    public List<IndexFile> compile() {
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader =
+                new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        return compilationManager.processResource(new EfestoFileResource(pmmlFile), memoryCompilerClassLoader);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.efesto.benchmarks.compilation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
+import org.drools.compiler.builder.impl.resources.DrlResourceHandler;
+import org.drools.util.io.FileSystemResource;
+import org.kie.pmml.compilation.commons.utils.KiePMMLUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of the source of each <code>BenchmarkedModel</code> that has one, i.e. the unmarshalling of PMML files
+ * and the building of the <code>PackageDescr</code>s of DRL files (foo and bar models are not parsed at all).
+ * The parsing is also part of the <code>codegen</code> phase measured by <code>CompilationBenchmark</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 2)
+public class ParseBenchmark {
+
+    @Param({"REGRESSION", "CLUSTERING", "TREE", "SCORECARD", "MINING", "DRL"})
+    public BenchmarkedModel model;
+
+    private Set<File> files;
+    private KnowledgeBuilderConfigurationImpl knowledgeBuilderConfiguration;
+
+    @Setup
+    public void setup() throws Exception {
+        Path directory = Files.createTempDirectory("parse-benchmark");
+        directory.toFile().deleteOnExit();
+        files = model.copyFiles(directory);
+        knowledgeBuilderConfiguration = new KnowledgeBuilderConfigurationImpl();
+    }
+
+    @Benchmark
+    public List<Object> parse() throws Exception {
+        List<Object> toReturn = new ArrayList<>();
+        for (File file : files) {
+            if ("drl".equals(model.getEngine())) {
+                toReturn.add(new DrlResourceHandler(knowledgeBuilderConfiguration).process(new FileSystemResource(file)));
+            } else {
+                try (InputStream inputStream = new FileInputStream(file)) {
+                    toReturn.add(KiePMMLUtil.load(inputStream, file.getName()));
+                }
+            }
+        }
+        return toReturn;
+    }
+}
@@ -16,14 +16,14 @@
 package org.kie.foo.engine.compilation.model;
 
 import org.kie.efesto.common.api.model.FRI;
-import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputClassesContainer;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
 
 import java.util.Map;
 
-public class EfestoCallableOutputFoo extends EfestoCallableOutputClassesContainer {
+public class EfestoCallableOutputFoo extends EfestoCallableOutputSourcesContainer {
 
-    public EfestoCallableOutputFoo(FRI fri, String fullClassName, Map<String, byte[]> compiledClassMap) {
-        super(fri, fullClassName, compiledClassMap);
+    public EfestoCallableOutputFoo(FRI fri, String fullClassName, Map<String, String> sourcesMap) {
+        super(fri, fullClassName, sourcesMap);
     }
 
 }
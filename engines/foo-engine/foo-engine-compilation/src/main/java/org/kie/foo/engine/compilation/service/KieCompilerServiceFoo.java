@@ -17,7 +17,7 @@ package org.kie.foo.engine.compilation.service;
 
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
-import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoRedirectOutput;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
@@ -32,7 +32,7 @@ public class KieCompilerServiceFoo implements KieCompilerService {
 
     @Override
     public <T extends EfestoResource> boolean canManageResource(T toProcess) {
-        if (toProcess instanceof EfestoFileResource && ((EfestoFileResource) toProcess).getModelType().equalsIgnoreCase("foo")) {
+        if (toProcess instanceof EfestoModelResource && ((EfestoModelResource<?>) toProcess).getModelType().equalsIgnoreCase("foo")) {
             return true;
         } else if (toProcess instanceof EfestoRedirectOutput && ((EfestoRedirectOutput) toProcess).getTargetEngine().equalsIgnoreCase("foo")) {
             return true;
@@ -27,13 +27,15 @@ import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.common.utils.JavaParserUtils;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoRedirectOutput;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+import org.kie.foo.engine.api.model.FooResources;
 import org.kie.foo.engine.compilation.model.EfestoCallableOutputFoo;
 import org.kie.memorycompiler.JavaConfiguration;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
-import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +43,10 @@ import java.util.Set;
 import static org.kie.efesto.common.utils.CommonCodegenUtils.getSuperConstructorInvocation;
 import static org.kie.efesto.common.utils.JavaParserUtils.getFullClassName;
 import static org.kie.efesto.common.utils.StringUtils.getSanitizedClassName;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getEmptyClass;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getStringListConstructorClass;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.isBytecodeEnabled;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.compileOrDefer;
 import static org.kie.foo.engine.api.constants.Constants.FOO_MODEL_PACKAGE_NAME;
 
 public class FooCompilerHelper {
@@ -55,8 +61,8 @@ public class FooCompilerHelper {
     }
 
     public static EfestoCallableOutputFoo getEfestoProcessedFoo(EfestoResource resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        if (resource instanceof EfestoFileResource) {
-            return getEfestoProcessedFooFromFile((EfestoFileResource) resource, memoryClassLoader);
+        if (resource instanceof EfestoModelResource) {
+            return getEfestoProcessedFooFromModel((EfestoModelResource<?>) resource, memoryClassLoader);
         } else if (resource instanceof EfestoRedirectOutput) {
             return getEfestoProcessedFooFromIntermediate((EfestoRedirectOutput) resource, memoryClassLoader);
         } else {
@@ -64,9 +70,15 @@ public class FooCompilerHelper {
         }
     }
 
-    static EfestoCallableOutputFoo getEfestoProcessedFooFromFile(EfestoFileResource resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        FRI fri = new FRI(((File) resource.getContent()).getAbsolutePath(), "foo");
+    static EfestoCallableOutputFoo getEfestoProcessedFooFromModel(EfestoModelResource<?> resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        String basePath = resource instanceof EfestoFileResource ?
+                ((EfestoFileResource) resource).getContent().getAbsolutePath() :
+                resource.getSourcePath();
+        FRI fri = new FRI(basePath, "foo");
         String simpleClassName = getSanitizedClassName(fri.getFri());
+        if (isBytecodeEnabled(fri.getModel())) {
+            return getEfestoProcessedFooFromBytecode(fri, simpleClassName);
+        }
         CompilationUnit compilationUnit = JavaParserUtils.getCompilationUnit(simpleClassName,
                 FOO_MODEL_PACKAGE_NAME,
                 FOO_MODEL_TEMPLATE_JAVA,
@@ -77,13 +89,15 @@ public class FooCompilerHelper {
         CompilationUnit fooResourcesSourceCompilationUnit = getFooResourcesCompilationUnit(sourcesMap.keySet(), fooResourcesSourceClassName);
         String fullResourcesClassName = getFullClassName(fooResourcesSourceCompilationUnit);
         sourcesMap.put(fullResourcesClassName, fooResourcesSourceCompilationUnit.toString());
-        final Map<String, byte[]> compiledClasses = compileClasses(sourcesMap, memoryClassLoader);
-        return new EfestoCallableOutputFoo(fri, fullResourcesClassName, compiledClasses);
+        return compileOrDefer(new EfestoCallableOutputFoo(fri, fullResourcesClassName, sourcesMap), memoryClassLoader);
     }
 
     static EfestoCallableOutputFoo getEfestoProcessedFooFromIntermediate(EfestoRedirectOutput resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
         FRI fooFri = new FRI(resource.getFri().getBasePath(), "foo");
         String simpleClassName = getSanitizedClassName(fooFri.getFri());
+        if (isBytecodeEnabled(fooFri.getModel())) {
+            return getEfestoProcessedFooFromBytecode(fooFri, simpleClassName);
+        }
         CompilationUnit compilationUnit = JavaParserUtils.getCompilationUnit(simpleClassName,
                 FOO_MODEL_PACKAGE_NAME,
                 FOO_MODEL_TEMPLATE_JAVA,
@@ -94,8 +108,28 @@ public class FooCompilerHelper {
         CompilationUnit fooResourcesSourceCompilationUnit = getFooResourcesCompilationUnit(sourcesMap.keySet(), fooResourcesSourceClassName);
         String fullResourcesClassName = getFullClassName(fooResourcesSourceCompilationUnit);
         sourcesMap.put(fullResourcesClassName, fooResourcesSourceCompilationUnit.toString());
-        final Map<String, byte[]> compiledClasses = compileClasses(sourcesMap, memoryClassLoader);
-        return new EfestoCallableOutputFoo(fooFri, fullResourcesClassName, compiledClasses);
+        return compileOrDefer(new EfestoCallableOutputFoo(fooFri, fullResourcesClassName, sourcesMap), memoryClassLoader);
+    }
+
+    /**
+     * Returns the same classes generated from the <b>FooModelTemplate</b> and <b>FooResourcesTemplate</b> templates,
+     * emitting their <code>bytecode</code> directly (see <code>BytecodeUtils</code>)
+     *
+     * @param fri
+     * @param simpleClassName
+     * @return
+     */
+    static EfestoCallableOutputFoo getEfestoProcessedFooFromBytecode(FRI fri, String simpleClassName) {
+        String fullClassName = FOO_MODEL_PACKAGE_NAME + "." + simpleClassName;
+        String fullResourcesClassName = FOO_MODEL_PACKAGE_NAME + "." + getSanitizedClassName(simpleClassName + "Resources");
+        Map<String, byte[]> compiledClasses = new HashMap<>();
+        compiledClasses.put(fullClassName, getEmptyClass(fullClassName));
+        compiledClasses.put(fullResourcesClassName, getStringListConstructorClass(fullResourcesClassName,
+                FooResources.class.getName(),
+                Collections.singletonList(fullClassName)));
+        EfestoCallableOutputFoo toReturn = new EfestoCallableOutputFoo(fri, fullResourcesClassName, new HashMap<>());
+        toReturn.setCompiledClasses(compiledClasses);
+        return toReturn;
     }
 
     static CompilationUnit getFooResourcesCompilationUnit(Set<String> generatedSources, String fooResourcesSourceClassName) {
@@ -17,11 +17,13 @@ package org.kie.foo.engine.compilation.service;/*
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
+import org.kie.efesto.compilationmanager.api.model.EfestoInputStreamResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
 import org.kie.foo.engine.compilation.model.EfestoCallableOutputFoo;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -75,4 +77,16 @@ class KieCompilerServiceFooTest {
         }
     }
 
+    @Test
+    void processInputStreamResource() {
+        EfestoResource toProcess = new EfestoInputStreamResource("foo".getBytes(StandardCharsets.UTF_8), "inmemory/DarFoo.foo");
+        assertThat(kieCompilerService.canManageResource(toProcess)).isTrue();
+        List<EfestoCallableOutputFoo> listRetrieved = kieCompilerService.processResource(toProcess, memoryCompilerClassLoader);
+        assertThat(listRetrieved).isNotNull().hasSize(1);
+        EfestoCallableOutputFoo retrieved = listRetrieved.get(0);
+        assertThat(retrieved.getFri().getBasePath()).isEqualTo("/inmemory/DarFoo.foo");
+        Map<String, byte[]> retrievedByteCode = retrieved.getCompiledClassesMap();
+        retrievedByteCode.forEach((fullClassName, bytes) -> commonEvaluateByteCode(retrievedByteCode, fullClassName, memoryCompilerClassLoader));
+    }
+
 }
\ No newline at end of file
@@ -17,7 +17,10 @@ package org.kie.foo.engine.compilation.utils;/*
 import com.github.javaparser.ast.CompilationUnit;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.kie.efesto.compilationmanager.api.model.EfestoRedirectOutput;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
+import org.kie.efesto.compilationmanager.api.utils.BytecodeUtils;
+import org.kie.foo.engine.api.model.FooResources;
 import org.kie.foo.engine.compilation.model.EfestoCallableOutputFoo;
 import org.kie.memorycompiler.KieMemoryCompiler;
 
@@ -49,6 +52,28 @@ class FooCompilerHelperTest {
         retrievedByteCode.forEach((fullClassName, bytes) -> commonEvaluateByteCode(retrievedByteCode, fullClassName, memoryCompilerClassLoader));
     }
 
+    @Test
+    void getEfestoProcessedFooFromBytecode() throws Exception {
+        EfestoRedirectOutput<String> resource = getEfestoResourceIntermediate();
+        EfestoCallableOutputFoo expected = FooCompilerHelper.getEfestoProcessedFoo(resource, memoryCompilerClassLoader);
+        System.setProperty(BytecodeUtils.BYTECODE_PROPERTY, "foo");
+        EfestoCallableOutputFoo retrieved;
+        try {
+            retrieved = FooCompilerHelper.getEfestoProcessedFoo(resource, memoryCompilerClassLoader);
+        } finally {
+            System.clearProperty(BytecodeUtils.BYTECODE_PROPERTY);
+        }
+        assertThat(retrieved.isCompiled()).isTrue();
+        assertThat(retrieved.getSourcesMap()).isEmpty();
+        assertThat(retrieved.getFri()).isEqualTo(expected.getFri());
+        assertThat(retrieved.getFullClassNames()).isEqualTo(expected.getFullClassNames());
+        assertThat(retrieved.getCompiledClassesMap()).containsOnlyKeys(expected.getCompiledClassesMap().keySet());
+        String fullResourcesClassName = retrieved.getFullClassNames().get(0);
+        FooResources expectedResources = getFooResources(expected.getCompiledClassesMap(), fullResourcesClassName);
+        FooResources retrievedResources = getFooResources(retrieved.getCompiledClassesMap(), fullResourcesClassName);
+        assertThat(retrievedResources.getManagedResources()).isEqualTo(expectedResources.getManagedResources());
+    }
+
     @Test
     void getFooResourcesCompilationUnit() {
         Set<String> generatedSources = IntStream.range(0, 3).mapToObj(i -> "GeneratedSource" + i).collect(Collectors.toSet());
@@ -76,4 +101,9 @@ class FooCompilerHelperTest {
         commonEvaluateByteCode(retrieved, fullClassName, memoryCompilerClassLoader);
     }
 
-}
\ No newline at end of file
+    private static FooResources getFooResources(Map<String, byte[]> compiledClasses, String fullResourcesClassName) throws Exception {
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        compiledClasses.forEach(classLoader::addCode);
+        return (FooResources) classLoader.loadClass(fullResourcesClassName).getDeclaredConstructor().newInstance();
+    }
+}
@@ -17,6 +17,8 @@ package org.kie.foo.engine.runtime.service;
 
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.foo.engine.api.model.FooResources;
 import org.kie.foo.engine.runtime.model.EfestoInputFoo;
@@ -33,6 +35,7 @@ public class KieRuntimeServiceFoo implements KieRuntimeService<String, String, E
 
     private static final Logger logger = LoggerFactory.getLogger(KieRuntimeServiceFoo.class.getName());
 
+    static final String SYNTHETIC_INPUT_DATA = "synthetic";
 
     @Override
     public boolean canManageInput(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
@@ -53,4 +56,34 @@ public class KieRuntimeServiceFoo implements KieRuntimeService<String, String, E
         }
     }
 
+    @Override
+    public Optional<EfestoBoundExecutor<EfestoInput<String>, EfestoOutputFoo>> getBoundExecutor(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        try {
+            return getFooResources(toEvaluate.getFRI(), memoryCompilerClassLoader)
+                    .map(fooResources -> input -> Optional.of(getEfestoOutput(fooResources, new EfestoInputFoo(input.getFRI(), input.getInputData()))));
+        } catch (Exception e) {
+            logger.warn("{} can not bind {}",
+                    this.getClass().getName(),
+                    toEvaluate.getFRI());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getModelType() {
+        return "foo";
+    }
+
+    @Override
+    public Optional<EfestoInput<String>> getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.of(new EfestoInputFoo(modelDescriptor.getFri(), SYNTHETIC_INPUT_DATA));
+    }
+
+    /**
+     * Only <code>String</code> data are accepted
+     */
+    @Override
+    public Optional<EfestoInput<String>> getInput(ModelDescriptor modelDescriptor, Object inputData, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return inputData instanceof String ? Optional.of(new EfestoInputFoo(modelDescriptor.getFri(), (String) inputData)) : Optional.empty();
+    }
 }
@@ -25,6 +25,8 @@ import org.kie.memorycompiler.KieMemoryCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+
 import static org.kie.efesto.runtimemanager.api.utils.GeneratedResourceUtils.getGeneratedExecutableResource;
 
 public class FooRuntimeHelper {
@@ -38,10 +40,19 @@ public class FooRuntimeHelper {
         return getGeneratedExecutableResource(fri, "foo").isPresent();
     }
 
-    @SuppressWarnings("unchecked")
+    public static Optional<FooResources> getFooResources(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return getGeneratedExecutableResource(fri, "foo")
+                .map(finalResource -> loadFooResources(finalResource, memoryCompilerClassLoader));
+    }
+
     public static FooResources loadFooResources(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         GeneratedExecutableResource finalResource = getGeneratedExecutableResource(fri, "foo")
                 .orElseThrow(() -> new KieRuntimeServiceException("Can not find expected GeneratedExecutableResource for " + fri));
+        return loadFooResources(finalResource, memoryCompilerClassLoader);
+    }
+
+    @SuppressWarnings("unchecked")
+    static FooResources loadFooResources(GeneratedExecutableResource finalResource, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         try {
             String fullBarResourcesSourceClassName = finalResource.getFullClassNames().get(0);
             final Class<? extends FooResources> aClass =
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.model;
+
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the models indexed by a <b>lazy</b> compilation, whose code generation and compilation are deferred
+ * until the first request targeting them, or an explicit {@link #warmUp(FRI, KieMemoryCompiler.MemoryCompilerClassLoader)}.
+ * Each model is compiled at most once: afterward its bytecode is kept, so that it could be loaded by other
+ * <code>ClassLoader</code>s, while the <code>DeferredCompilation</code> (and the document it references) is released
+ */
+public class DeferredKiePMMLModels {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredKiePMMLModels.class.getName());
+
+    private static final Map<FRI, DeferredModel> DEFERRED_MODELS = new ConcurrentHashMap<>();
+
+    private DeferredKiePMMLModels() {
+    }
+
+    /**
+     * Generates and compiles the code of a single model
+     */
+    @FunctionalInterface
+    public interface DeferredCompilation {
+
+        /**
+         * @param memoryCompilerClassLoader used to resolve the classes referenced by the generated code
+         * @return the compiled bytecode
+         */
+        Map<String, byte[]> compile(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader);
+    }
+
+    public static void register(FRI fri, DeferredCompilation deferredCompilation) {
+        DEFERRED_MODELS.put(fri, new DeferredModel(deferredCompilation));
+    }
+
+    public static boolean isRegistered(FRI fri) {
+        return DEFERRED_MODELS.containsKey(fri);
+    }
+
+    public static boolean isCompiled(FRI fri) {
+        DeferredModel deferredModel = DEFERRED_MODELS.get(fri);
+        return deferredModel != null && deferredModel.compiledClasses != null;
+    }
+
+    /**
+     * Returns the bytecode of the given model, compiling it on first invocation; empty if the model has not been
+     * registered
+     *
+     * @param fri
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    public static Map<String, byte[]> getCompiledClasses(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        DeferredModel deferredModel = DEFERRED_MODELS.get(fri);
+        return deferredModel != null ? deferredModel.getCompiledClasses(fri, memoryCompilerClassLoader) : Collections.emptyMap();
+    }
+
+    /**
+     * Add the bytecode of the given model, compiling it if needed, to the given <code>ClassLoader</code>
+     *
+     * @param fri
+     * @param memoryCompilerClassLoader
+     * @return <code>false</code> if the model has not been registered
+     */
+    public static boolean loadCompiledClasses(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        Map<String, byte[]> compiledClasses = getCompiledClasses(fri, memoryCompilerClassLoader);
+        compiledClasses.forEach(memoryCompilerClassLoader::addCode);
+        return !compiledClasses.isEmpty();
+    }
+
+    /**
+     * Compile all the registered models contained in the given <code>FRI</code>, adding their bytecode to the given
+     * <code>ClassLoader</code>
+     *
+     * @param basePath
+     * @param memoryCompilerClassLoader
+     * @return the <code>FRI</code>s of the warmed up models
+     */
+    public static List<FRI> warmUp(FRI basePath, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        List<FRI> toReturn = DEFERRED_MODELS.keySet().stream()
+                .filter(basePath::contains)
+                .collect(Collectors.toList());
+        toReturn.forEach(fri -> loadCompiledClasses(fri, memoryCompilerClassLoader));
+        return toReturn;
+    }
+
+    public static void remove(FRI fri) {
+        DEFERRED_MODELS.remove(fri);
+    }
+
+    /**
+     * Remove all the registered models matching the given filter, e.g. once they are unloaded
+     *
+     * @param toRemove
+     */
+    public static void remove(Predicate<FRI> toRemove) {
+        DEFERRED_MODELS.keySet().removeIf(toRemove);
+    }
+
+    public static void clear() {
+        DEFERRED_MODELS.clear();
+    }
+
+    private static final class DeferredModel {
+
+        private DeferredCompilation deferredCompilation;
+        private volatile Map<String, byte[]> compiledClasses;
+
+        private DeferredModel(DeferredCompilation deferredCompilation) {
+            this.deferredCompilation = deferredCompilation;
+        }
+
+        private Map<String, byte[]> getCompiledClasses(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+            Map<String, byte[]> toReturn = compiledClasses;
+            if (toReturn == null) {
+                synchronized (this) {
+                    toReturn = compiledClasses;
+                    if (toReturn == null) {
+                        long start = System.nanoTime();
+                        toReturn = Collections.unmodifiableMap(deferredCompilation.compile(memoryCompilerClassLoader));
+                        compiledClasses = toReturn;
+                        deferredCompilation = null;
+                        logger.debug("Deferred model {} compiled in {} ms", fri, (System.nanoTime() - start) / 1_000_000);
+                    }
+                }
+            }
+            return toReturn;
+        }
+    }
+}
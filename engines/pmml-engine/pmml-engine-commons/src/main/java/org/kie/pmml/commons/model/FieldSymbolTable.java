@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.kie.pmml.api.models.MiningField;
+import org.kie.pmml.commons.transformations.KiePMMLDerivedField;
+
+/**
+ * Per-model table of the field names, each mapped to a small integer <b>id</b>.
+ * <p>
+ * Names are interned, and ids are assigned once per model (mining fields first, then derived fields, then output
+ * fields), so that the evaluation refers to fields by id (i.e. array access) instead of scanning lists comparing
+ * names; names are translated to ids only at the boundary (e.g. <code>ProcessingDTO</code> lookups).
+ * <p>
+ * When the same name is declared more than once, the first declaration wins, as it did with list scans.
+ */
+public final class FieldSymbolTable {
+
+    /**
+     * Id of the names not declared by the model
+     */
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> idsByName;
+    private final String[] names;
+    private final KiePMMLDerivedField[] derivedFields;
+    private final KiePMMLOutputField[] outputFields;
+
+    private FieldSymbolTable(Map<String, Integer> idsByName, String[] names,
+                             KiePMMLDerivedField[] derivedFields, KiePMMLOutputField[] outputFields) {
+        this.idsByName = idsByName;
+        this.names = names;
+        this.derivedFields = derivedFields;
+        this.outputFields = outputFields;
+    }
+
+    /**
+     * @param model
+     * @return the table of the fields declared by the given model, its transformations and outputs
+     */
+    public static FieldSymbolTable of(final KiePMMLModel model) {
+        List<KiePMMLDerivedField> derivedFields = new ArrayList<>();
+        if (model.getTransformationDictionary() != null && model.getTransformationDictionary().getDerivedFields() != null) {
+            derivedFields.addAll(model.getTransformationDictionary().getDerivedFields());
+        }
+        if (model.getLocalTransformations() != null && model.getLocalTransformations().getDerivedFields() != null) {
+            derivedFields.addAll(model.getLocalTransformations().getDerivedFields());
+        }
+        return of(model.getMiningFields(), derivedFields, model.getKiePMMLOutputFields());
+    }
+
+    /**
+     * @param miningFields
+     * @param derivedFields
+     * @param outputFields
+     * @return the table of the given fields
+     */
+    public static FieldSymbolTable of(final List<MiningField> miningFields,
+                                      final List<KiePMMLDerivedField> derivedFields,
+                                      final List<KiePMMLOutputField> outputFields) {
+        Map<String, Integer> idsByName = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        addNames(miningFields, MiningField::getName, idsByName, names);
+        addNames(derivedFields, KiePMMLDerivedField::getName, idsByName, names);
+        addNames(outputFields, KiePMMLOutputField::getName, idsByName, names);
+        KiePMMLDerivedField[] derivedFieldsById = new KiePMMLDerivedField[names.size()];
+        if (derivedFields != null) {
+            derivedFields.forEach(derivedField -> setIfAbsent(derivedFieldsById, idsByName, derivedField.getName(), derivedField));
+        }
+        KiePMMLOutputField[] outputFieldsById = new KiePMMLOutputField[names.size()];
+        if (outputFields != null) {
+            outputFields.forEach(outputField -> setIfAbsent(outputFieldsById, idsByName, outputField.getName(), outputField));
+        }
+        return new FieldSymbolTable(Collections.unmodifiableMap(idsByName), names.toArray(new String[0]),
+                                    derivedFieldsById, outputFieldsById);
+    }
+
+    /**
+     * @param name
+     * @return the id of the given name, or {@link #UNKNOWN}
+     */
+    public int getId(final String name) {
+        if (name == null) {
+            return UNKNOWN;
+        }
+        Integer toReturn = idsByName.get(name);
+        return toReturn != null ? toReturn : UNKNOWN;
+    }
+
+    /**
+     * @param id
+     * @return the (interned) name with the given id
+     */
+    public String getName(final int id) {
+        return names[id];
+    }
+
+    /**
+     * @return the number of ids
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param id
+     * @return the first <code>KiePMMLDerivedField</code> with the given id, or <code>null</code>
+     */
+    public KiePMMLDerivedField getDerivedField(final int id) {
+        return id >= 0 && id < derivedFields.length ? derivedFields[id] : null;
+    }
+
+    /**
+     * @param id
+     * @return the first <code>KiePMMLOutputField</code> with the given id, or <code>null</code>
+     */
+    public KiePMMLOutputField getOutputField(final int id) {
+        return id >= 0 && id < outputFields.length ? outputFields[id] : null;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSymbolTable{" +
+                "names=" + Arrays.toString(names) +
+                '}';
+    }
+
+    private static <T> void addNames(final List<T> fields, final Function<T, String> nameGetter,
+                                     final Map<String, Integer> idsByName, final List<String> names) {
+        if (fields == null) {
+            return;
+        }
+        for (T field : fields) {
+            String name = nameGetter.apply(field);
+            if (name != null && !idsByName.containsKey(name)) {
+                String interned = name.intern();
+                idsByName.put(interned, names.size());
+                names.add(interned);
+            }
+        }
+    }
+
+    private static <T> void setIfAbsent(final T[] fieldsById, final Map<String, Integer> idsByName,
+                                        final String name, final T field) {
+        Integer id = name != null ? idsByName.get(name) : null;
+        if (id != null && fieldsById[id] == null) {
+            fieldsById[id] = field;
+        }
+    }
+}
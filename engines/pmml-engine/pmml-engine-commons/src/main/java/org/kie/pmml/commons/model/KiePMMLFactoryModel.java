@@ -31,11 +31,23 @@ public class KiePMMLFactoryModel extends KiePMMLModel implements HasSourcesMap {
     private static final long serialVersionUID = 1654176510018808424L;
     private final String kmodulePackageName;
     protected Map<String, String> sourcesMap;
+    private final Map<String, byte[]> compiledClasses;
 
     public KiePMMLFactoryModel(String name, String kmodulePackageName, Map<String, String> sourcesMap) {
+        this(name, kmodulePackageName, sourcesMap, Collections.emptyMap());
+    }
+
+    /**
+     * @param name
+     * @param kmodulePackageName
+     * @param sourcesMap
+     * @param compiledClasses the <code>bytecode</code> of the factory, when emitted directly instead of being generated as source
+     */
+    public KiePMMLFactoryModel(String name, String kmodulePackageName, Map<String, String> sourcesMap, Map<String, byte[]> compiledClasses) {
         super(name, Collections.emptyList());
         this.sourcesMap = sourcesMap;
         this.kmodulePackageName = kmodulePackageName;
+        this.compiledClasses = compiledClasses;
     }
 
     @Override
@@ -54,6 +66,14 @@ public class KiePMMLFactoryModel extends KiePMMLModel implements HasSourcesMap {
         sourcesMap.put(key, value);
     }
 
+    public Map<String, byte[]> getCompiledClasses() {
+        return Collections.unmodifiableMap(compiledClasses);
+    }
+
+    public String getFullClassName() {
+        return kmodulePackageName + "." + getName();
+    }
+
     @Override
     public String getKModulePackageName() {
         return kmodulePackageName;
@@ -48,6 +48,7 @@ public abstract class KiePMMLModel extends AbstractKiePMMLComponent implements P
     protected List<KiePMMLTarget> kiePMMLTargets = new ArrayList<>();
     protected KiePMMLTransformationDictionary transformationDictionary;
     protected KiePMMLLocalTransformations localTransformations;
+    private transient volatile FieldSymbolTable fieldSymbolTable;
 
     protected KiePMMLModel(String name, List<KiePMMLExtension> extensions) {
         super(name, extensions);
@@ -110,6 +111,21 @@ public abstract class KiePMMLModel extends AbstractKiePMMLComponent implements P
         return localTransformations;
     }
 
+    /**
+     * Returns the <code>FieldSymbolTable</code> of the current model, created on first invocation (i.e. once per
+     * loaded model, since fields are not modified after that)
+     *
+     * @return
+     */
+    public FieldSymbolTable getFieldSymbolTable() {
+        FieldSymbolTable toReturn = fieldSymbolTable;
+        if (toReturn == null) {
+            toReturn = FieldSymbolTable.of(this);
+            fieldSymbolTable = toReturn;
+        }
+        return toReturn;
+    }
+
     /**
      * models, so it may be <b>ignored</b> by others
      *
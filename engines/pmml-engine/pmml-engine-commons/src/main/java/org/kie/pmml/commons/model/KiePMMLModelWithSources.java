@@ -15,6 +15,7 @@
  */
 package org.kie.pmml.commons.model;
 
+import org.kie.pmml.api.enums.MINING_FUNCTION;
 import org.kie.pmml.api.exceptions.KiePMMLException;
 import org.kie.pmml.api.models.MiningField;
 import org.kie.pmml.api.models.OutputField;
@@ -45,7 +46,21 @@ public class KiePMMLModelWithSources extends KiePMMLModel implements HasSourcesM
                                    final List<TargetField> targetFields,
                                    final Map<String, String> sourcesMap,
                                    final boolean isInterpreted) {
+        this(modelName, kmodulePackageName, miningFields, outputFields, targetFields, sourcesMap, isInterpreted, null, null);
+    }
+
+    public KiePMMLModelWithSources(final String modelName,
+                                   final String kmodulePackageName,
+                                   final List<MiningField> miningFields,
+                                   final List<OutputField> outputFields,
+                                   final List<TargetField> targetFields,
+                                   final Map<String, String> sourcesMap,
+                                   final boolean isInterpreted,
+                                   final MINING_FUNCTION miningFunction,
+                                   final String targetField) {
         super(modelName, Collections.emptyList());
+        this.miningFunction = miningFunction;
+        this.targetField = targetField;
         this.kmodulePackageName = kmodulePackageName;
         this.miningFields = miningFields;
         this.outputFields = outputFields;
@@ -119,8 +119,9 @@ public class KiePMMLOutputField extends AbstractKiePMMLComponent {
     }
 
     public Object evaluatePredictedValue(final ProcessingDTO processingDTO) {
-        return commonEvaluate(getValueFromKiePMMLNameValuesByVariableName(targetField, processingDTO.getKiePMMLNameValues())
-                .orElse(null), dataType);
+        return commonEvaluate(processingDTO.getKiePMMLNameValue(targetField)
+                                      .map(KiePMMLNameValue::getValue)
+                                      .orElse(null), dataType);
     }
 
     public Object evaluateProbabilityValue(final ProcessingDTO processingDTO) {
@@ -24,7 +24,10 @@ import java.util.*;
 
 /**
  * DTO class used to bring around data related to Pre/Post processing
- * phases
+ * phases.
+ * <p>
+ * Fields declared by the model are looked up by their <code>FieldSymbolTable</code> id; <b>kiePMMLNameValues</b> is a
+ * private copy, modified only through {@link #addKiePMMLNameValue(KiePMMLNameValue)}, that keeps the index in sync.
  */
 public class ProcessingDTO {
 
@@ -39,10 +42,12 @@ public class ProcessingDTO {
     private Object entityId;
     private Object affinity;
     private Map<String, Double> probabilityMap;
+    private FieldSymbolTable fieldSymbolTable;
+    private KiePMMLNameValue[] kiePMMLNameValuesById;
 
     /**
      * @param model
-     * @param kiePMMLNameValues a <b>mutable</b> list of <code>KiePMMLNameValue</code>
+     * @param kiePMMLNameValues the initial <code>KiePMMLNameValue</code>s; the list is copied
      */
     public ProcessingDTO(final KiePMMLModel model, final List<KiePMMLNameValue> kiePMMLNameValues) {
         this.derivedFields = new ArrayList<>();
@@ -60,9 +65,10 @@ public class ProcessingDTO {
         }
         this.outputFields = model.getKiePMMLOutputFields();
         this.kiePMMLTargets = model.getKiePMMLTargets();
-        this.kiePMMLNameValues = kiePMMLNameValues;
+        this.kiePMMLNameValues = new ArrayList<>(kiePMMLNameValues);
         this.orderedReasonCodes = new ArrayList<>();
         this.miningFields = model.getMiningFields();
+        this.fieldSymbolTable = model.getFieldSymbolTable();
     }
 
     /**
@@ -70,7 +76,7 @@ public class ProcessingDTO {
      * @param derivedFields
      * @param outputFields
      * @param kiePMMLTargets
-     * @param kiePMMLNameValues  a <b>mutable</b> list of <code>KiePMMLNameValue</code>
+     * @param kiePMMLNameValues  the initial <code>KiePMMLNameValue</code>s; the list is copied
      * @param miningFields
      * @param orderedReasonCodes a <b>mutable</b> list
      */
@@ -86,7 +92,7 @@ public class ProcessingDTO {
         this.outputFields = outputFields;
         this.kiePMMLTargets = kiePMMLTargets;
         this.miningFields = miningFields;
-        this.kiePMMLNameValues = kiePMMLNameValues;
+        this.kiePMMLNameValues = new ArrayList<>(kiePMMLNameValues);
         this.orderedReasonCodes = orderedReasonCodes;
         this.predictedDisplayValue = null;
         this.entityId = null;
@@ -122,10 +128,73 @@ public class ProcessingDTO {
      * @return
      */
     public boolean addKiePMMLNameValue(KiePMMLNameValue toAdd) {
-        kiePMMLNameValues.removeIf(kpm -> kpm.getName().equals(toAdd.getName()));
+        int id = getFieldSymbolTable().getId(toAdd.getName());
+        if (id == FieldSymbolTable.UNKNOWN) {
+            kiePMMLNameValues.removeIf(kpm -> kpm.getName().equals(toAdd.getName()));
+            return kiePMMLNameValues.add(toAdd);
+        }
+        KiePMMLNameValue[] byId = getKiePMMLNameValuesById();
+        if (byId[id] != null) {
+            // only fields already valued have to be looked for
+            kiePMMLNameValues.removeIf(kpm -> kpm.getName().equals(toAdd.getName()));
+        }
+        byId[id] = toAdd;
         return kiePMMLNameValues.add(toAdd);
     }
 
+    /**
+     * Returns the first <code>KiePMMLNameValue</code> with the given name; fields declared by the model are retrieved
+     * by id, the others by scanning <b>kiePMMLNameValues</b>
+     *
+     * @param name
+     * @return
+     */
+    public Optional<KiePMMLNameValue> getKiePMMLNameValue(String name) {
+        int id = getFieldSymbolTable().getId(name);
+        if (id != FieldSymbolTable.UNKNOWN) {
+            return Optional.ofNullable(getKiePMMLNameValuesById()[id]);
+        }
+        return kiePMMLNameValues.stream()
+                .filter(kiePMMLNameValue -> kiePMMLNameValue.getName().equals(name))
+                .findFirst();
+    }
+
+    /**
+     * @param name
+     * @return the first <code>KiePMMLDerivedField</code> with the given name
+     */
+    public Optional<KiePMMLDerivedField> getDerivedField(String name) {
+        return Optional.ofNullable(getFieldSymbolTable().getDerivedField(getFieldSymbolTable().getId(name)));
+    }
+
+    /**
+     * @param name
+     * @return the first <code>KiePMMLOutputField</code> with the given name
+     */
+    public Optional<KiePMMLOutputField> getOutputField(String name) {
+        return Optional.ofNullable(getFieldSymbolTable().getOutputField(getFieldSymbolTable().getId(name)));
+    }
+
+    public FieldSymbolTable getFieldSymbolTable() {
+        if (fieldSymbolTable == null) {
+            fieldSymbolTable = FieldSymbolTable.of(miningFields, derivedFields, outputFields);
+        }
+        return fieldSymbolTable;
+    }
+
+    private KiePMMLNameValue[] getKiePMMLNameValuesById() {
+        if (kiePMMLNameValuesById == null) {
+            kiePMMLNameValuesById = new KiePMMLNameValue[getFieldSymbolTable().size()];
+            for (KiePMMLNameValue kiePMMLNameValue : kiePMMLNameValues) {
+                int id = fieldSymbolTable.getId(kiePMMLNameValue.getName());
+                if (id != FieldSymbolTable.UNKNOWN && kiePMMLNameValuesById[id] == null) {
+                    kiePMMLNameValuesById[id] = kiePMMLNameValue;
+                }
+            }
+        }
+        return kiePMMLNameValuesById;
+    }
+
     public List<String> getOrderedReasonCodes() {
         return Collections.unmodifiableList(orderedReasonCodes);
     }
@@ -40,27 +40,18 @@ public class ExpressionsUtils {
     }
 
     public static Optional<Object> getFromKiePMMLNameValues(final String name, final ProcessingDTO processingDTO) {
-        return processingDTO.getKiePMMLNameValues()
-                .stream()
-                .filter(kiePMMLNameValue -> kiePMMLNameValue.getName().equals(name))
-                .findFirst()
+        return processingDTO.getKiePMMLNameValue(name)
                 .map(KiePMMLNameValue::getValue);
     }
 
     public static Optional<Object> getFromDerivedFields(final String name, final ProcessingDTO processingDTO) {
-        return processingDTO.getDerivedFields()
-                .stream()
-                .filter(derivedField -> derivedField.getName().equals(name))
-                .findFirst()
+        return processingDTO.getDerivedField(name)
                 .map(derivedField -> derivedField.evaluate(processingDTO));
     }
 
     public static Optional<Object> getFromOutputFields(final String name,
                                                        final ProcessingDTO processingDTO) {
-        return processingDTO.getOutputFields()
-                .stream()
-                .filter(outputField -> outputField.getName().equals(name))
-                .findFirst()
+        return processingDTO.getOutputField(name)
                 .map(outputField -> outputField.evaluate(processingDTO));
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.tables;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only table of <code>double</code>s, accessed by index.
+ * <p>
+ * The table is either backed by a heap array or by a slice of a <code>KiePMMLTableFile</code>, i.e. a memory-mapped
+ * (or direct) buffer, so that large coefficient tables stay outside the heap and are never boxed.
+ * Serialized tables are restored on the heap.
+ */
+public final class KiePMMLDoubleTable implements Serializable {
+
+    private static final long serialVersionUID = 3620188612391648210L;
+    private static final KiePMMLDoubleTable EMPTY = new KiePMMLDoubleTable(DoubleBuffer.allocate(0));
+
+    private final transient DoubleBuffer values;
+
+    KiePMMLDoubleTable(DoubleBuffer values) {
+        this.values = values.asReadOnlyBuffer();
+    }
+
+    /**
+     * @param values
+     * @return a heap table with a copy of the given values
+     */
+    public static KiePMMLDoubleTable of(double... values) {
+        return values.length == 0 ? EMPTY : new KiePMMLDoubleTable(DoubleBuffer.wrap(values.clone()));
+    }
+
+    /**
+     * @param values
+     * @return a heap table with a copy of the given values
+     */
+    public static KiePMMLDoubleTable of(List<Double> values) {
+        return of(values.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    public int size() {
+        return values.limit();
+    }
+
+    public double get(int index) {
+        // absolute get: thread-safe, since the position is never modified
+        return values.get(index);
+    }
+
+    public double[] toArray() {
+        double[] toReturn = new double[size()];
+        values.duplicate().get(toReturn);
+        return toReturn;
+    }
+
+    /**
+     * @return an unmodifiable <code>List</code> view of the current table (values are boxed on access)
+     */
+    public List<Double> asList() {
+        return new DoubleTableList(this);
+    }
+
+    /**
+     * @return <code>true</code> if the values are stored outside the heap
+     */
+    public boolean isDirect() {
+        return values.isDirect();
+    }
+
+    @Override
+    public String toString() {
+        return "KiePMMLDoubleTable{" +
+                "size=" + size() +
+                ", direct=" + isDirect() +
+                '}';
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(toArray());
+    }
+
+    private void readObject(ObjectInputStream inputStream) throws InvalidObjectException {
+        throw new InvalidObjectException("SerializedForm required");
+    }
+
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = -1432215489127468011L;
+        private final double[] values;
+
+        private SerializedForm(double[] values) {
+            this.values = values;
+        }
+
+        private Object readResolve() {
+            return of(values);
+        }
+    }
+
+    private static final class DoubleTableList extends AbstractList<Double> implements RandomAccess {
+
+        private final KiePMMLDoubleTable table;
+
+        private DoubleTableList(KiePMMLDoubleTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public Double get(int index) {
+            return table.get(index);
+        }
+
+        @Override
+        public int size() {
+            return table.size();
+        }
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.tables;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.efesto.common.api.io.MemoryIndexFiles;
+import org.kie.pmml.api.exceptions.KiePMMLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
+
+/**
+ * Binary <i>sidecar</i> resource storing the large numeric tables of a generated model (e.g. regression coefficients,
+ * cluster centers) instead of embedding them as source literals.
+ * <p>
+ * The file is written at compile time (see {@link Builder}) next to the <code>IndexFile</code>s, and it is
+ * memory-mapped when loaded from the file system (read into a direct buffer when loaded from a jar); the doubles are
+ * then read through <code>KiePMMLDoubleTable</code>s, without being copied on the heap. Names (e.g. predictors, categories)
+ * are stored as string tables, decoded at load time.
+ * <p>
+ * The name of a table file contains the hash of its content, and files are written to a temporary file moved in
+ * place: a recompiled model gets a new table file, and a table file is never rewritten while it is mapped.
+ * Loaded table files are cached by <code>ClassLoader</code>, until it is released (see {@link #release(ClassLoader)})
+ * or collected; a mapping is unmapped once the last <code>KiePMMLDoubleTable</code> reading it is collected.
+ * <p>
+ * Layout (big-endian): magic, version, header length, header (entries with key, type, length and either the offset of
+ * the doubles or the strings), padding to 8 bytes, doubles.
+ */
+public final class KiePMMLTableFile {
+
+    /**
+     * System property with the minimum number of values of a generated model for its tables to be stored in a
+     * <code>KiePMMLTableFile</code>; <b>0</b> (default) disables the feature. It is also disabled when
+     * <code>IndexFile</code>s are kept in memory (see <code>MemoryIndexFiles</code>), since nothing may be written
+     * to the file system then: tables stay on the heap
+     */
+    public static final String OFFHEAP_TABLES_THRESHOLD_PROPERTY = "kie.pmml.offheap.tables.threshold";
+    /**
+     * System property to override the directory where <code>KiePMMLTableFile</code>s are written (by default, the
+     * <code>IndexFile</code> one, i.e. the one of the compiled classes)
+     */
+    public static final String OFFHEAP_TABLES_DIRECTORY_PROPERTY = "kie.pmml.offheap.tables.directory";
+    public static final String TABLE_FILE_SUFFIX = ".kpmt";
+
+    static final int MAGIC = 0x4B504D54;
+    static final int VERSION = 1;
+    static final String DEFAULT_TABLES_DIRECTORY = "./target/classes";
+    static final int HASH_LENGTH = 16;
+    private static final byte DOUBLES = 0;
+    private static final byte STRINGS = 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(KiePMMLTableFile.class.getName());
+
+    /**
+     * Loaded table files by resource name, for each <code>ClassLoader</code> they have been loaded with
+     */
+    private static final Map<ClassLoader, Map<String, KiePMMLTableFile>> LOADED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ByteBuffer buffer;
+    private final Map<String, KiePMMLDoubleTable> doublesByKey = new HashMap<>();
+    private final Map<String, String[]> stringsByKey = new HashMap<>();
+
+    KiePMMLTableFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a KiePMMLTableFile");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported KiePMMLTableFile version " + buffer.getInt(4));
+        }
+        int headerLength = buffer.getInt(8);
+        byte[] header = new byte[headerLength];
+        ByteBuffer headerBuffer = buffer.duplicate();
+        headerBuffer.position(12);
+        headerBuffer.get(header);
+        int dataStart = align(12 + headerLength);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(header))) {
+            int entries = input.readInt();
+            for (int i = 0; i < entries; i++) {
+                String key = input.readUTF();
+                byte type = input.readByte();
+                int length = input.readInt();
+                if (type == DOUBLES) {
+                    int offset = input.readInt();
+                    ByteBuffer slice = buffer.duplicate();
+                    slice.position(dataStart + offset * Double.BYTES);
+                    slice.limit(dataStart + (offset + length) * Double.BYTES);
+                    doublesByKey.put(key, new KiePMMLDoubleTable(slice.slice().asDoubleBuffer()));
+                } else {
+                    String[] strings = new String[length];
+                    for (int j = 0; j < length; j++) {
+                        strings[j] = input.readUTF();
+                    }
+                    stringsByKey.put(key, strings);
+                }
+            }
+        }
+    }
+
+    /**
+     * Memory-map the given file
+     *
+     * @param path
+     * @return
+     */
+    public static KiePMMLTableFile open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel has been closed
+            return new KiePMMLTableFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new KiePMMLException("Failed to open " + path, e);
+        }
+    }
+
+    /**
+     * Read the given stream in a direct buffer
+     *
+     * @param inputStream
+     * @return
+     */
+    public static KiePMMLTableFile read(InputStream inputStream) {
+        try {
+            byte[] content = inputStream.readAllBytes();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+            buffer.put(content).flip();
+            return new KiePMMLTableFile(buffer);
+        } catch (IOException e) {
+            throw new KiePMMLException("Failed to read KiePMMLTableFile", e);
+        }
+    }
+
+    /**
+     * Load (once for the given <code>ClassLoader</code>) the <code>KiePMMLTableFile</code> with the given resource
+     * name, looking for it in the given <code>ClassLoader</code> and then in the tables directory
+     *
+     * @param resourceName
+     * @param classLoader
+     * @return
+     * @throws KiePMMLException if the resource is not found
+     */
+    public static KiePMMLTableFile load(String resourceName, ClassLoader classLoader) {
+        ClassLoader toUse = classLoader != null ? classLoader : KiePMMLTableFile.class.getClassLoader();
+        Map<String, KiePMMLTableFile> loaded = LOADED.computeIfAbsent(toUse, key -> new ConcurrentHashMap<>());
+        return loaded.computeIfAbsent(resourceName, key -> find(resourceName, toUse));
+    }
+
+    /**
+     * Discard the <code>KiePMMLTableFile</code>s loaded with the given <code>ClassLoader</code>, e.g. once the
+     * model classes it defines are not used anymore
+     *
+     * @param classLoader
+     */
+    public static void release(ClassLoader classLoader) {
+        if (LOADED.remove(classLoader) != null) {
+            logger.debug("Released the table files of {}", classLoader);
+        }
+    }
+
+    /**
+     * @param fullClassName
+     * @param content
+     * @return the resource name of the <code>KiePMMLTableFile</code> of the given generated class with the given
+     * content, i.e. the path of the class followed by the hash of the content
+     */
+    public static String getResourceName(String fullClassName, byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hash = new StringBuilder();
+            for (int i = 0; i < HASH_LENGTH / 2; i++) {
+                hash.append(String.format("%02x", digest[i]));
+            }
+            return fullClassName.replace('.', '/') + "-" + hash + TABLE_FILE_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new KiePMMLException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param valuesCount
+     * @return <code>true</code> if a model with the given number of values should store them in a
+     * <code>KiePMMLTableFile</code>
+     */
+    public static boolean isOffHeapEnabled(int valuesCount) {
+        if (MemoryIndexFiles.isEnabled()) {
+            return false;
+        }
+        int threshold = Integer.parseInt(System.getProperty(OFFHEAP_TABLES_THRESHOLD_PROPERTY, "0").trim());
+        return threshold > 0 && valuesCount >= threshold;
+    }
+
+    public static Path getTablesDirectory() {
+        String defaultDirectory = System.getProperty(INDEXFILE_DIRECTORY_PROPERTY, DEFAULT_TABLES_DIRECTORY);
+        return Paths.get(System.getProperty(OFFHEAP_TABLES_DIRECTORY_PROPERTY, defaultDirectory));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Discard all the loaded <code>KiePMMLTableFile</code>s
+     */
+    public static void clearLoaded() {
+        LOADED.clear();
+    }
+
+    static boolean isLoaded(String resourceName, ClassLoader classLoader) {
+        Map<String, KiePMMLTableFile> loaded = LOADED.get(classLoader);
+        return loaded != null && loaded.containsKey(resourceName);
+    }
+
+    public Set<String> getKeys() {
+        Set<String> toReturn = new TreeSet<>(doublesByKey.keySet());
+        toReturn.addAll(stringsByKey.keySet());
+        return Collections.unmodifiableSet(toReturn);
+    }
+
+    public KiePMMLDoubleTable getDoubles(String key) {
+        KiePMMLDoubleTable toReturn = doublesByKey.get(key);
+        if (toReturn == null) {
+            throw new KiePMMLException("Missing doubles " + key);
+        }
+        return toReturn;
+    }
+
+    public String[] getStrings(String key) {
+        String[] toReturn = stringsByKey.get(key);
+        if (toReturn == null) {
+            throw new KiePMMLException("Missing strings " + key);
+        }
+        return toReturn.clone();
+    }
+
+    /**
+     * @return <code>true</code> if the doubles are stored outside the heap
+     */
+    public boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    private static KiePMMLTableFile find(String resourceName, ClassLoader classLoader) {
+        URL url = classLoader != null ? classLoader.getResource(resourceName) : null;
+        if (url != null) {
+            return load(url);
+        }
+        Path path = getTablesDirectory().resolve(resourceName);
+        if (!Files.isRegularFile(path)) {
+            throw new KiePMMLException("Failed to find " + resourceName);
+        }
+        return open(path);
+    }
+
+    private static KiePMMLTableFile load(URL url) {
+        logger.debug("Loading {}", url);
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return open(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new KiePMMLException("Failed to open " + url, e);
+            }
+        }
+        try (InputStream inputStream = url.openStream()) {
+            return read(inputStream);
+        } catch (IOException e) {
+            throw new KiePMMLException("Failed to read " + url, e);
+        }
+    }
+
+    private static int align(int position) {
+        return (position + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+    }
+
+    /**
+     * Builder of the <code>KiePMMLTableFile</code> of a generated model
+     */
+    public static final class Builder {
+
+        private final Map<String, double[]> doubles = new LinkedHashMap<>();
+        private final Map<String, String[]> strings = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder withDoubles(String key, double[] values) {
+            doubles.put(key, values.clone());
+            return this;
+        }
+
+        public Builder withStrings(String key, String[] values) {
+            strings.put(key, values.clone());
+            return this;
+        }
+
+        /**
+         * Write the table file of the given generated class inside the given directory
+         *
+         * @param directory
+         * @param fullClassName
+         * @return the resource name of the written table file (see {@link #getResourceName(String, byte[])})
+         */
+        public String write(Path directory, String fullClassName) {
+            byte[] content = toByteArray();
+            String toReturn = getResourceName(fullClassName, content);
+            write(directory.resolve(toReturn), content);
+            return toReturn;
+        }
+
+        /**
+         * Write the table file at the given path, creating the parent directories. The content is written to a
+         * temporary file, then moved to the given path, so that an existing file is replaced, never overwritten
+         *
+         * @param path
+         */
+        public void write(Path path) {
+            write(path, toByteArray());
+        }
+
+        public byte[] toByteArray() {
+            try {
+                ByteArrayOutputStream toReturn = new ByteArrayOutputStream();
+                write(toReturn);
+                return toReturn.toByteArray();
+            } catch (IOException e) {
+                throw new KiePMMLException("Failed to write KiePMMLTableFile", e);
+            }
+        }
+
+        private static void write(Path path, byte[] content) {
+            Path tempFile = null;
+            try {
+                Path directory = path.toAbsolutePath().getParent();
+                Files.createDirectories(directory);
+                tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+                Files.write(tempFile, content);
+                try {
+                    Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+                logger.debug("Written {}", path);
+            } catch (IOException e) {
+                deleteQuietly(tempFile);
+                throw new KiePMMLException("Failed to write " + path, e);
+            }
+        }
+
+        private static void deleteQuietly(Path path) {
+            if (path == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete {}", path, e);
+            }
+        }
+
+        void write(OutputStream outputStream) throws IOException {
+            ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            try (DataOutputStream header = new DataOutputStream(headerBytes)) {
+                header.writeInt(doubles.size() + strings.size());
+                int offset = 0;
+                for (Map.Entry<String, double[]> entry : doubles.entrySet()) {
+                    header.writeUTF(entry.getKey());
+                    header.writeByte(DOUBLES);
+                    header.writeInt(entry.getValue().length);
+                    header.writeInt(offset);
+                    offset += entry.getValue().length;
+                }
+                for (Map.Entry<String, String[]> entry : strings.entrySet()) {
+                    header.writeUTF(entry.getKey());
+                    header.writeByte(STRINGS);
+                    header.writeInt(entry.getValue().length);
+                    for (String value : entry.getValue()) {
+                        header.writeUTF(value);
+                    }
+                }
+            }
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(headerBytes.size());
+            headerBytes.writeTo(output);
+            for (int i = 12 + headerBytes.size(); i < align(12 + headerBytes.size()); i++) {
+                output.writeByte(0);
+            }
+            for (double[] values : doubles.values()) {
+                for (double value : values) {
+                    output.writeDouble(value);
+                }
+            }
+            output.flush();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.model;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getEmptyClass;
+
+class DeferredKiePMMLModelsTest {
+
+    private static final FRI FRI_FIRST = new FRI("document/First", "pmml");
+    private static final FRI FRI_SECOND = new FRI("document/Second", "pmml");
+    private static final FRI FRI_OTHER = new FRI("other/First", "pmml");
+
+    @AfterEach
+    void cleanUp() {
+        DeferredKiePMMLModels.clear();
+    }
+
+    @Test
+    void loadCompiledClasses() throws ClassNotFoundException {
+        AtomicInteger compilations = new AtomicInteger();
+        DeferredKiePMMLModels.register(FRI_FIRST, getDeferredCompilation("org.kie.pmml.deferred.FirstFactory", compilations));
+        assertThat(DeferredKiePMMLModels.isRegistered(FRI_FIRST)).isTrue();
+        assertThat(DeferredKiePMMLModels.isCompiled(FRI_FIRST)).isFalse();
+        assertThat(compilations).hasValue(0);
+
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(getClass().getClassLoader());
+        assertThat(DeferredKiePMMLModels.loadCompiledClasses(FRI_FIRST, memoryCompilerClassLoader)).isTrue();
+        assertThat(memoryCompilerClassLoader.loadClass("org.kie.pmml.deferred.FirstFactory")).isNotNull();
+        assertThat(DeferredKiePMMLModels.isCompiled(FRI_FIRST)).isTrue();
+
+        // compiled only once, but still available to other class loaders
+        KieMemoryCompiler.MemoryCompilerClassLoader otherClassLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(getClass().getClassLoader());
+        assertThat(DeferredKiePMMLModels.loadCompiledClasses(FRI_FIRST, otherClassLoader)).isTrue();
+        assertThat(otherClassLoader.loadClass("org.kie.pmml.deferred.FirstFactory")).isNotNull();
+        assertThat(compilations).hasValue(1);
+
+        assertThat(DeferredKiePMMLModels.loadCompiledClasses(FRI_SECOND, memoryCompilerClassLoader)).isFalse();
+        assertThat(DeferredKiePMMLModels.getCompiledClasses(FRI_SECOND, memoryCompilerClassLoader)).isEmpty();
+    }
+
+    @Test
+    void warmUp() {
+        AtomicInteger compilations = new AtomicInteger();
+        DeferredKiePMMLModels.register(FRI_FIRST, getDeferredCompilation("org.kie.pmml.deferred.FirstFactory", compilations));
+        DeferredKiePMMLModels.register(FRI_SECOND, getDeferredCompilation("org.kie.pmml.deferred.SecondFactory", compilations));
+        DeferredKiePMMLModels.register(FRI_OTHER, getDeferredCompilation("org.kie.pmml.other.FirstFactory", compilations));
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(getClass().getClassLoader());
+        assertThat(DeferredKiePMMLModels.warmUp(new FRI("document", "pmml"), memoryCompilerClassLoader))
+                .containsExactlyInAnyOrder(FRI_FIRST, FRI_SECOND);
+        assertThat(compilations).hasValue(2);
+        assertThat(DeferredKiePMMLModels.isCompiled(FRI_OTHER)).isFalse();
+    }
+
+    @Test
+    void remove() {
+        DeferredKiePMMLModels.register(FRI_FIRST, getDeferredCompilation("org.kie.pmml.deferred.FirstFactory", new AtomicInteger()));
+        DeferredKiePMMLModels.remove(FRI_FIRST);
+        assertThat(DeferredKiePMMLModels.isRegistered(FRI_FIRST)).isFalse();
+    }
+
+    @Test
+    void removeMatching() {
+        DeferredKiePMMLModels.register(FRI_FIRST, getDeferredCompilation("org.kie.pmml.deferred.FirstFactory", new AtomicInteger()));
+        DeferredKiePMMLModels.register(FRI_SECOND, getDeferredCompilation("org.kie.pmml.deferred.SecondFactory", new AtomicInteger()));
+        DeferredKiePMMLModels.register(FRI_OTHER, getDeferredCompilation("org.kie.pmml.other.FirstFactory", new AtomicInteger()));
+        DeferredKiePMMLModels.remove(new FRI("document", "pmml")::contains);
+        assertThat(DeferredKiePMMLModels.isRegistered(FRI_FIRST)).isFalse();
+        assertThat(DeferredKiePMMLModels.isRegistered(FRI_SECOND)).isFalse();
+        assertThat(DeferredKiePMMLModels.isRegistered(FRI_OTHER)).isTrue();
+    }
+
+    private static DeferredKiePMMLModels.DeferredCompilation getDeferredCompilation(String fullClassName, AtomicInteger compilations) {
+        return memoryCompilerClassLoader -> {
+            compilations.incrementAndGet();
+            return Collections.singletonMap(fullClassName, getEmptyClass(fullClassName));
+        };
+    }
+}
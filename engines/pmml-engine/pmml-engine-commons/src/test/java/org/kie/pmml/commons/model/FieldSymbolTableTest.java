@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.kie.pmml.api.enums.DATA_TYPE;
+import org.kie.pmml.api.enums.OP_TYPE;
+import org.kie.pmml.api.models.MiningField;
+import org.kie.pmml.commons.model.expressions.KiePMMLConstant;
+import org.kie.pmml.commons.model.tuples.KiePMMLNameValue;
+import org.kie.pmml.commons.transformations.KiePMMLDerivedField;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldSymbolTableTest {
+
+    private static final String MINING_FIELD = "MINING_FIELD";
+    private static final String DERIVED_FIELD = "DERIVED_FIELD";
+    private static final String OUTPUT_FIELD = "OUTPUT_FIELD";
+
+    @Test
+    void of() {
+        KiePMMLDerivedField derivedField = getDerivedField(DERIVED_FIELD, 1);
+        KiePMMLDerivedField duplicatedDerivedField = getDerivedField(DERIVED_FIELD, 2);
+        KiePMMLOutputField outputField = KiePMMLOutputField.builder(OUTPUT_FIELD, Collections.emptyList()).build();
+        FieldSymbolTable retrieved = FieldSymbolTable.of(Collections.singletonList(getMiningField(MINING_FIELD)),
+                                                         Arrays.asList(derivedField, duplicatedDerivedField),
+                                                         Collections.singletonList(outputField));
+        assertThat(retrieved.size()).isEqualTo(3);
+        assertThat(retrieved.getId(MINING_FIELD)).isZero();
+        assertThat(retrieved.getId(DERIVED_FIELD)).isEqualTo(1);
+        assertThat(retrieved.getId(OUTPUT_FIELD)).isEqualTo(2);
+        assertThat(retrieved.getId("NOT_EXISTING")).isEqualTo(FieldSymbolTable.UNKNOWN);
+        assertThat(retrieved.getId(null)).isEqualTo(FieldSymbolTable.UNKNOWN);
+        // names are interned
+        assertThat(retrieved.getName(1)).isSameAs(new String(DERIVED_FIELD.toCharArray()).intern());
+        assertThat(retrieved.getDerivedField(1)).isSameAs(derivedField);
+        assertThat(retrieved.getDerivedField(0)).isNull();
+        assertThat(retrieved.getDerivedField(FieldSymbolTable.UNKNOWN)).isNull();
+        assertThat(retrieved.getOutputField(2)).isSameAs(outputField);
+        assertThat(retrieved.getOutputField(1)).isNull();
+    }
+
+    @Test
+    void processingDTOLookups() {
+        KiePMMLDerivedField derivedField = getDerivedField(DERIVED_FIELD, 1);
+        List<KiePMMLNameValue> kiePMMLNameValues = new ArrayList<>();
+        kiePMMLNameValues.add(new KiePMMLNameValue(MINING_FIELD, 10));
+        kiePMMLNameValues.add(new KiePMMLNameValue("NOT_DECLARED", 20));
+        ProcessingDTO processingDTO = new ProcessingDTO(Collections.emptyList(),
+                                                        Collections.singletonList(derivedField),
+                                                        Collections.emptyList(),
+                                                        Collections.emptyList(),
+                                                        kiePMMLNameValues,
+                                                        Collections.singletonList(getMiningField(MINING_FIELD)),
+                                                        new ArrayList<>());
+        assertThat(processingDTO.getKiePMMLNameValue(MINING_FIELD).map(KiePMMLNameValue::getValue)).contains(10);
+        assertThat(processingDTO.getKiePMMLNameValue("NOT_DECLARED").map(KiePMMLNameValue::getValue)).contains(20);
+        assertThat(processingDTO.getKiePMMLNameValue(DERIVED_FIELD)).isEmpty();
+        assertThat(processingDTO.getDerivedField(DERIVED_FIELD)).containsSame(derivedField);
+        assertThat(processingDTO.getOutputField(DERIVED_FIELD)).isEmpty();
+
+        processingDTO.addKiePMMLNameValue(new KiePMMLNameValue(DERIVED_FIELD, 30));
+        processingDTO.addKiePMMLNameValue(new KiePMMLNameValue(MINING_FIELD, 40));
+        processingDTO.addKiePMMLNameValue(new KiePMMLNameValue("NOT_DECLARED", 50));
+        assertThat(processingDTO.getKiePMMLNameValue(DERIVED_FIELD).map(KiePMMLNameValue::getValue)).contains(30);
+        assertThat(processingDTO.getKiePMMLNameValue(MINING_FIELD).map(KiePMMLNameValue::getValue)).contains(40);
+        assertThat(processingDTO.getKiePMMLNameValue("NOT_DECLARED").map(KiePMMLNameValue::getValue)).contains(50);
+        assertThat(processingDTO.getKiePMMLNameValues()).extracting(KiePMMLNameValue::getName)
+                .containsExactly(DERIVED_FIELD, MINING_FIELD, "NOT_DECLARED");
+
+        // the given list is copied, so changing it does not affect the lookups
+        kiePMMLNameValues.clear();
+        kiePMMLNameValues.add(new KiePMMLNameValue(MINING_FIELD, 60));
+        assertThat(processingDTO.getKiePMMLNameValue(MINING_FIELD).map(KiePMMLNameValue::getValue)).contains(40);
+        assertThat(processingDTO.getKiePMMLNameValues()).hasSize(3);
+
+        // replacing a value keeps the size unchanged
+        processingDTO.addKiePMMLNameValue(new KiePMMLNameValue(DERIVED_FIELD, 70));
+        assertThat(processingDTO.getKiePMMLNameValue(DERIVED_FIELD).map(KiePMMLNameValue::getValue)).contains(70);
+        assertThat(processingDTO.getKiePMMLNameValues()).extracting(KiePMMLNameValue::getName)
+                .containsExactly(MINING_FIELD, "NOT_DECLARED", DERIVED_FIELD);
+    }
+
+    private static MiningField getMiningField(String name) {
+        return new MiningField(name, null, null, null, null, null, null, null, null, null);
+    }
+
+    private static KiePMMLDerivedField getDerivedField(String name, Object value) {
+        return KiePMMLDerivedField.builder(name, Collections.emptyList(), DATA_TYPE.INTEGER, OP_TYPE.CONTINUOUS,
+                                           new KiePMMLConstant("CONSTANT", Collections.emptyList(), value, null))
+                .build();
+    }
+}
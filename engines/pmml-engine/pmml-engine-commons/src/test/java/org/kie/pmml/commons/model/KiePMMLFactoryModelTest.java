@@ -56,6 +56,16 @@ public class KiePMMLFactoryModelTest {
     }
 
 
+    @Test
+    void getCompiledClasses() {
+        assertThat(kiePMMLFactoryModel.getCompiledClasses()).isEmpty();
+        byte[] bytecode = {1, 2, 3};
+        KiePMMLFactoryModel retrieved = new KiePMMLFactoryModel("Factory", "org.kie", new HashMap<>(), Collections.singletonMap("org.kie.Factory", bytecode));
+        assertThat(retrieved.getSourcesMap()).isEmpty();
+        assertThat(retrieved.getCompiledClasses()).containsOnlyKeys("org.kie.Factory");
+        assertThat(retrieved.getFullClassName()).isEqualTo("org.kie.Factory");
+    }
+
     @Test
     void evaluate() {
         assertThatExceptionOfType(KiePMMLException.class).isThrownBy(() -> {
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.commons.tables;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.pmml.api.exceptions.KiePMMLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_IN_MEMORY_PROPERTY;
+
+class KiePMMLTableFileTest {
+
+    private static final double[] COEFFICIENTS = {1.5, -2.25, 3.0, Double.NaN};
+    private static final double[] EXPONENTS = {1.0, 2.0, 1.0, 3.0};
+    private static final String[] PREDICTORS = {"first", "second", "third", "\u00e0ccented"};
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void cleanUp() {
+        KiePMMLTableFile.clearLoaded();
+        System.clearProperty(KiePMMLTableFile.OFFHEAP_TABLES_THRESHOLD_PROPERTY);
+        System.clearProperty(INDEXFILE_IN_MEMORY_PROPERTY);
+    }
+
+    @Test
+    void open() {
+        Path path = tempDir.resolve("org/kie/Model.kpmt");
+        getBuilder().write(path);
+        KiePMMLTableFile retrieved = KiePMMLTableFile.open(path);
+        assertThat(retrieved.isDirect()).isTrue();
+        assertThat(retrieved.getKeys()).containsExactly("coefficients", "empty", "exponents", "predictors");
+        commonVerifyTables(retrieved);
+    }
+
+    @Test
+    void read() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        getBuilder().write(outputStream);
+        KiePMMLTableFile retrieved = KiePMMLTableFile.read(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertThat(retrieved.isDirect()).isTrue();
+        commonVerifyTables(retrieved);
+        assertThatThrownBy(() -> KiePMMLTableFile.read(new ByteArrayInputStream(new byte[16])))
+                .isInstanceOf(KiePMMLException.class);
+    }
+
+    @Test
+    void writeReplacesMappedFile() {
+        Path path = tempDir.resolve("org/kie/Model.kpmt");
+        getBuilder().write(path);
+        KiePMMLTableFile mapped = KiePMMLTableFile.open(path);
+        KiePMMLTableFile.builder().withDoubles("coefficients", EXPONENTS).write(path);
+        // the mapped file has been replaced, not overwritten
+        commonVerifyTables(mapped);
+        assertThat(KiePMMLTableFile.open(path).getDoubles("coefficients").toArray()).containsExactly(EXPONENTS);
+        assertThat(path.getParent()).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void getResourceName() {
+        String resourceName = KiePMMLTableFile.getResourceName("org.kie.Model", getBuilder().toByteArray());
+        assertThat(resourceName).matches("org/kie/Model-[0-9a-f]{16}\\.kpmt");
+        assertThat(KiePMMLTableFile.getResourceName("org.kie.Model", getBuilder().toByteArray())).isEqualTo(resourceName);
+        byte[] otherContent = KiePMMLTableFile.builder().withDoubles("coefficients", EXPONENTS).toByteArray();
+        assertThat(KiePMMLTableFile.getResourceName("org.kie.Model", otherContent)).isNotEqualTo(resourceName);
+    }
+
+    @Test
+    void load() throws IOException {
+        String resourceName = getBuilder().write(tempDir, "org.kie.Model");
+        assertThat(resourceName).isEqualTo(KiePMMLTableFile.getResourceName("org.kie.Model", getBuilder().toByteArray()));
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null);
+             URLClassLoader otherClassLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null)) {
+            KiePMMLTableFile retrieved = KiePMMLTableFile.load(resourceName, classLoader);
+            commonVerifyTables(retrieved);
+            assertThat(KiePMMLTableFile.load(resourceName, classLoader)).isSameAs(retrieved);
+            assertThat(KiePMMLTableFile.load(resourceName, otherClassLoader)).isNotSameAs(retrieved);
+            KiePMMLTableFile.release(classLoader);
+            assertThat(KiePMMLTableFile.isLoaded(resourceName, classLoader)).isFalse();
+            assertThat(KiePMMLTableFile.isLoaded(resourceName, otherClassLoader)).isTrue();
+            assertThat(KiePMMLTableFile.load(resourceName, classLoader)).isNotSameAs(retrieved);
+        }
+        assertThatThrownBy(() -> KiePMMLTableFile.load("org/kie/NotExisting.kpmt", getClass().getClassLoader()))
+                .isInstanceOf(KiePMMLException.class);
+    }
+
+    @Test
+    void isOffHeapEnabled() {
+        assertThat(KiePMMLTableFile.isOffHeapEnabled(Integer.MAX_VALUE)).isFalse();
+        System.setProperty(KiePMMLTableFile.OFFHEAP_TABLES_THRESHOLD_PROPERTY, "100");
+        assertThat(KiePMMLTableFile.isOffHeapEnabled(99)).isFalse();
+        assertThat(KiePMMLTableFile.isOffHeapEnabled(100)).isTrue();
+        // table files can not be written with in-memory IndexFiles
+        System.setProperty(INDEXFILE_IN_MEMORY_PROPERTY, "true");
+        assertThat(KiePMMLTableFile.isOffHeapEnabled(100)).isFalse();
+    }
+
+    @Test
+    void doubleTable() throws IOException, ClassNotFoundException {
+        KiePMMLDoubleTable table = KiePMMLDoubleTable.of(COEFFICIENTS);
+        assertThat(table.isDirect()).isFalse();
+        assertThat(table.asList()).hasSize(4).startsWith(1.5, -2.25, 3.0);
+        COEFFICIENTS[0] = 0;
+        assertThat(table.get(0)).isEqualTo(1.5);
+        COEFFICIENTS[0] = 1.5;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Path path = tempDir.resolve("Model.kpmt");
+        getBuilder().write(path);
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(KiePMMLTableFile.open(path).getDoubles("coefficients"));
+        }
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            KiePMMLDoubleTable retrieved = (KiePMMLDoubleTable) objectInputStream.readObject();
+            assertThat(retrieved.isDirect()).isFalse();
+            assertThat(retrieved.toArray()).containsExactly(COEFFICIENTS);
+        }
+    }
+
+    private static KiePMMLTableFile.Builder getBuilder() {
+        return KiePMMLTableFile.builder()
+                .withStrings("predictors", PREDICTORS)
+                .withDoubles("coefficients", COEFFICIENTS)
+                .withDoubles("empty", new double[0])
+                .withDoubles("exponents", EXPONENTS);
+    }
+
+    private static void commonVerifyTables(KiePMMLTableFile retrieved) {
+        assertThat(retrieved.getStrings("predictors")).containsExactly(PREDICTORS);
+        KiePMMLDoubleTable coefficients = retrieved.getDoubles("coefficients");
+        assertThat(coefficients.isDirect()).isTrue();
+        assertThat(coefficients.toArray()).containsExactly(COEFFICIENTS);
+        assertThat(coefficients.get(1)).isEqualTo(-2.25);
+        assertThat(retrieved.getDoubles("exponents").toArray()).containsExactly(EXPONENTS);
+        assertThat(retrieved.getDoubles("empty").size()).isZero();
+        assertThatThrownBy(() -> coefficients.get(4)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> retrieved.getDoubles("predictors")).isInstanceOf(KiePMMLException.class);
+        assertThatThrownBy(() -> retrieved.getStrings("notExisting")).isInstanceOf(KiePMMLException.class);
+    }
+}
@@ -60,7 +60,9 @@ public interface ModelImplementationProvider<T extends Model, E extends KiePMMLM
                 compilationDTO.getKieOutputFields(),
                 compilationDTO.getKieTargetFields(),
                 sourcesMap,
-                isInterpreted);
+                isInterpreted,
+                compilationDTO.getMINING_FUNCTION(),
+                compilationDTO.getTargetFieldName());
     }
 
     Map<String, String> getSourcesMap(final CompilationDTO<T> compilationDTO);
@@ -26,15 +26,19 @@ import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import org.kie.pmml.api.exceptions.KiePMMLException;
+import org.kie.pmml.commons.model.KiePMMLModel;
+import org.kie.pmml.commons.model.KiePMMLModelFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.github.javaparser.StaticJavaParser.parseClassOrInterfaceType;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getListProviderClass;
 import static org.kie.pmml.commons.Constants.GET_MODEL;
 import static org.kie.pmml.compilation.commons.utils.JavaParserUtils.MAIN_CLASS_NOT_FOUND;
 import static org.kie.pmml.compilation.commons.utils.JavaParserUtils.getFromFileName;
@@ -47,6 +51,7 @@ public class KiePMMLFactoryFactory {
     private static final String KIE_PMML_MODEL_FACTORY_TEMPLATE_JAVA = "KiePMMLModelFactoryTemplate.tmpl";
     private static final String KIE_PMML_MODEL_FACTORY_TEMPLATE = "KiePMMLModelFactoryTemplate";
     private static final String KIE_PMML_MODELS_FIELD = "KIE_PMML_MODELS";
+    private static final String GET_KIE_PMML_MODELS = "getKiePMMLModels";
 
     private static final Logger logger = LoggerFactory.getLogger(KiePMMLFactoryFactory.class.getName());
 
@@ -74,6 +79,38 @@ public class KiePMMLFactoryFactory {
         return toReturn;
     }
 
+    /**
+     * Returns the <code>bytecode</code> of the same <b>Factory</b> generated by
+     * {@link #getFactorySourceCode(String, String, Map)}, emitted directly (see <code>BytecodeUtils</code>).
+     * Only compiled models are supported, since the exact signature of the <code>getModel()</code> method of the
+     * interpreted ones is not known before their compilation
+     *
+     * @param factoryClassName
+     * @param packageName
+     * @param generatedClassesModelTypeMap
+     * @return
+     * @throws KiePMMLException if any of the given models is interpreted
+     */
+    public static Map<String, byte[]> getFactoryBytecode(String factoryClassName, String packageName, Map<String,
+            Boolean> generatedClassesModelTypeMap) {
+        logger.trace("getFactoryBytecode {} {} {}", factoryClassName, packageName, generatedClassesModelTypeMap);
+        if (!isFactoryBytecodeSupported(generatedClassesModelTypeMap)) {
+            throw new KiePMMLException("Bytecode emission is not supported for interpreted models " + generatedClassesModelTypeMap);
+        }
+        String fullClassName = packageName + "." + factoryClassName;
+        byte[] bytecode = getListProviderClass(fullClassName,
+                KiePMMLModelFactory.class.getName(),
+                GET_KIE_PMML_MODELS,
+                KIE_PMML_MODELS_FIELD,
+                KiePMMLModel.class.getName(),
+                generatedClassesModelTypeMap.keySet());
+        return Collections.singletonMap(fullClassName, bytecode);
+    }
+
+    public static boolean isFactoryBytecodeSupported(Map<String, Boolean> generatedClassesModelTypeMap) {
+        return !generatedClassesModelTypeMap.containsValue(Boolean.TRUE);
+    }
+
     public static Expression getInstantiationExpression(String kiePMMLModelClass, boolean isInterpreted) {
         ClassOrInterfaceType classOrInterfaceType = parseClassOrInterfaceType(kiePMMLModelClass);
         if (isInterpreted) {
@@ -16,6 +16,8 @@
 package org.kie.pmml.compilation.commons.implementations;
 
 import org.dmg.pmml.Model;
+import org.kie.efesto.common.api.spi.ServiceRegistries;
+import org.kie.efesto.common.api.spi.ServiceRegistry;
 import org.kie.pmml.commons.model.KiePMMLModel;
 import org.kie.pmml.compilation.api.provider.ModelImplementationProvider;
 import org.kie.pmml.compilation.api.provider.ModelImplementationProviderFinder;
@@ -25,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.ServiceLoader;
 
 /**
@@ -52,6 +55,11 @@ public class ModelImplementationProviderFinderImpl implements ModelImplementatio
 
     @SuppressWarnings("rawtypes")
     private Iterator<ModelImplementationProvider> getProviders(boolean refresh) {
+        Optional<ServiceRegistry<ModelImplementationProvider>> registry = ServiceRegistries.getRegistry(ModelImplementationProvider.class);
+        if (registry.isPresent()) {
+            // bootstrapped: instances are shared and never reloaded
+            return registry.get().getServices().iterator();
+        }
         if (refresh) {
             loader.reload();
         }
@@ -30,6 +30,7 @@ import org.kie.pmml.api.enums.OP_TYPE;
 import org.kie.pmml.api.exceptions.KiePMMLException;
 import org.kie.pmml.api.exceptions.KiePMMLInternalException;
 import org.kie.pmml.commons.model.tuples.KiePMMLNameValue;
+import org.kie.pmml.commons.tables.KiePMMLTableFile;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -368,6 +369,43 @@ public class CommonCodegenUtils {
         return toReturn;
     }
 
+    /**
+     * Write the given <code>KiePMMLTableFile</code> as <i>sidecar</i> resource of the given generated class (inside
+     * the tables directory, named after the class and the hash of the content) and return
+     * <pre>
+     *     org.kie.pmml.commons.tables.KiePMMLTableFile.load("(<i>resourceName</i>)", (<i>fullClassName</i>).class.getClassLoader())
+     * </pre>
+     * expression, to be used as scope of <code>getDoubles</code>/<code>getStrings</code> invocations
+     *
+     * @param tableFile
+     * @param fullClassName
+     * @return
+     */
+    public static MethodCallExpr writeTableFile(final KiePMMLTableFile.Builder tableFile, final String fullClassName) {
+        String resourceName = tableFile.write(KiePMMLTableFile.getTablesDirectory(), fullClassName);
+        MethodCallExpr classLoaderExpr = new MethodCallExpr(new ClassExpr(parseClassOrInterfaceType(fullClassName)),
+                                                            "getClassLoader");
+        return new MethodCallExpr(new NameExpr(KiePMMLTableFile.class.getCanonicalName()), "load",
+                                  NodeList.nodeList(new StringLiteralExpr(resourceName), classLoaderExpr));
+    }
+
+    /**
+     * Returns
+     * <pre>
+     *     (<i>tableFileExpr</i>).(<i>methodName</i>)("(<i>key</i>)")
+     * </pre>
+     * expression
+     *
+     * @param tableFileExpr
+     * @param methodName either <code>getDoubles</code> or <code>getStrings</code>
+     * @param key
+     * @return
+     */
+    public static MethodCallExpr tableFileGetterExprFrom(final Expression tableFileExpr, final String methodName,
+                                                         final String key) {
+        return new MethodCallExpr(tableFileExpr.clone(), methodName, NodeList.nodeList(new StringLiteralExpr(key)));
+    }
+
     /**
      * Returns
      * <pre>
@@ -46,7 +46,19 @@ public class JavaParserUtils {
     private JavaParserUtils() {
     }
 
+    /**
+     * Returns a <b>clone</b> of the template parsed from the given <b>file</b>; each template is parsed only once
+     * for each <code>ClassLoader</code>
+     *
+     * @param fileName
+     * @return
+     */
     public static CompilationUnit getFromFileName(String fileName) {
+        return org.kie.efesto.common.utils.JavaParserUtils.getTemplateCompilationUnit(fileName,
+                JavaParserUtils::parseFromFileName);
+    }
+
+    static CompilationUnit parseFromFileName(String fileName) {
         try {
             final InputStream resource = Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName);
             return StaticJavaParser.parse(resource);
@@ -81,8 +93,7 @@ public class JavaParserUtils {
                                                                  final String javaTemplate,
                                                                  final String modelClassName) {
         logger.trace("getKiePMMLModelCompilationUnit {} {}", className, packageName);
-        CompilationUnit templateCU = getFromFileName(javaTemplate);
-        CompilationUnit toReturn = templateCU.clone();
+        CompilationUnit toReturn = getFromFileName(javaTemplate);
         if (packageName != null && !packageName.isEmpty()) {
             toReturn.setPackageDeclaration(packageName);
         }
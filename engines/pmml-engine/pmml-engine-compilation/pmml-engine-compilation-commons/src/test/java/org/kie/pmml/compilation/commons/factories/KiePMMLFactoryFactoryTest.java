@@ -18,12 +18,61 @@ import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import org.junit.jupiter.api.Test;
+import org.kie.memorycompiler.JavaConfiguration;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.kie.pmml.api.exceptions.KiePMMLException;
+import org.kie.pmml.commons.model.KiePMMLModelFactory;
+import org.kie.pmml.commons.testingutility.KiePMMLTestingModel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.kie.pmml.commons.Constants.GET_MODEL;
 
 public class KiePMMLFactoryFactoryTest {
 
+    private static final String PACKAGE_NAME = "org.kie.test";
+    private static final String FACTORY_CLASS_NAME = "TestFactory";
+    private static final String MODEL_CLASS_NAME = PACKAGE_NAME + ".TestModel";
+    private static final String MODEL_SOURCE = "package org.kie.test;\n" +
+            "public class TestModel extends " + KiePMMLTestingModel.class.getName() + " {\n" +
+            "    public TestModel() {\n" +
+            "        super(\"TestModel\", java.util.Collections.emptyList());\n" +
+            "    }\n" +
+            "}";
+
+    @Test
+    void getFactoryBytecode() throws Exception {
+        Map<String, Boolean> generatedClassesModelTypeMap = Collections.singletonMap(MODEL_CLASS_NAME, false);
+        Map<String, String> sourcesMap = new HashMap<>(KiePMMLFactoryFactory.getFactorySourceCode(FACTORY_CLASS_NAME, PACKAGE_NAME, generatedClassesModelTypeMap));
+        sourcesMap.put(MODEL_CLASS_NAME, MODEL_SOURCE);
+        KiePMMLModelFactory expected = getKiePMMLModelFactory(compile(sourcesMap));
+
+        Map<String, byte[]> retrieved = KiePMMLFactoryFactory.getFactoryBytecode(FACTORY_CLASS_NAME, PACKAGE_NAME, generatedClassesModelTypeMap);
+        assertThat(retrieved).containsOnlyKeys(PACKAGE_NAME + "." + FACTORY_CLASS_NAME);
+        Map<String, byte[]> compiledClasses = new HashMap<>(compile(Collections.singletonMap(MODEL_CLASS_NAME, MODEL_SOURCE)));
+        compiledClasses.putAll(retrieved);
+        KiePMMLModelFactory kiePMMLModelFactory = getKiePMMLModelFactory(compiledClasses);
+        assertThat(kiePMMLModelFactory.getKiePMMLModels()).hasSameSizeAs(expected.getKiePMMLModels());
+        assertThat(kiePMMLModelFactory.getKiePMMLModels().get(0).getClass().getName())
+                .isEqualTo(expected.getKiePMMLModels().get(0).getClass().getName())
+                .isEqualTo(MODEL_CLASS_NAME);
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> kiePMMLModelFactory.getKiePMMLModels().clear());
+    }
+
+    @Test
+    void getFactoryBytecodeInterpreted() {
+        Map<String, Boolean> generatedClassesModelTypeMap = Collections.singletonMap(MODEL_CLASS_NAME, true);
+        assertThat(KiePMMLFactoryFactory.isFactoryBytecodeSupported(generatedClassesModelTypeMap)).isFalse();
+        assertThat(KiePMMLFactoryFactory.isFactoryBytecodeSupported(Collections.singletonMap(MODEL_CLASS_NAME, false))).isTrue();
+        assertThatExceptionOfType(KiePMMLException.class)
+                .isThrownBy(() -> KiePMMLFactoryFactory.getFactoryBytecode(FACTORY_CLASS_NAME, PACKAGE_NAME, generatedClassesModelTypeMap));
+    }
+
     @Test
     void getInstantiationExpression() {
         final String kiePMMLModelClass = "org.kie.model.ClassModel";
@@ -47,4 +96,14 @@ public class KiePMMLFactoryFactoryTest {
         ObjectCreationExpr objectCreationExpr = (ObjectCreationExpr) toValidate;
         assertThat(objectCreationExpr.getType().asString()).isEqualTo(kiePMMLModelClass);
     }
-}
\ No newline at end of file
+
+    private static Map<String, byte[]> compile(Map<String, String> sourcesMap) {
+        return KieMemoryCompiler.compileNoLoad(sourcesMap, KiePMMLFactoryFactoryTest.class.getClassLoader(), JavaConfiguration.CompilerType.NATIVE);
+    }
+
+    private static KiePMMLModelFactory getKiePMMLModelFactory(Map<String, byte[]> compiledClasses) throws Exception {
+        KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(KiePMMLFactoryFactoryTest.class.getClassLoader());
+        compiledClasses.forEach(classLoader::addCode);
+        return (KiePMMLModelFactory) classLoader.loadClass(PACKAGE_NAME + "." + FACTORY_CLASS_NAME).getDeclaredConstructor().newInstance();
+    }
+}
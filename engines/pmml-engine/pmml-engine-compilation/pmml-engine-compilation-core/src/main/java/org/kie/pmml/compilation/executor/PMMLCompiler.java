@@ -22,6 +22,7 @@ import org.kie.pmml.commons.model.KiePMMLModel;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Actual implementations are required to convert a <b>PMML</b> xml to
@@ -42,4 +43,19 @@ public interface PMMLCompiler {
      * @throws ExternalException if any other kind of <code>Exception</code> has been thrown during execution
      */
     List<KiePMMLModel> getKiePMMLModelsWithSources(final String packageName, final InputStream inputStream, final String fileName, final HasClassLoader hasClassloader);
+
+    /**
+     * Same as {@link #getKiePMMLModelsWithSources(String, InputStream, String, HasClassLoader)}, generating code only
+     * for the models whose name is accepted by the given filter
+     *
+     * @param packageName    the package into which put all the generated classes out of the given <code>InputStream</code>
+     * @param inputStream
+     * @param fileName
+     * @param hasClassloader Using <code>HasClassloader</code>
+     * @param modelNameFilter
+     * @return
+     * @throws KiePMMLException  if any <code>KiePMMLInternalException</code> has been thrown during execution
+     * @throws ExternalException if any other kind of <code>Exception</code> has been thrown during execution
+     */
+    List<KiePMMLModel> getKiePMMLModelsWithSources(final String packageName, final InputStream inputStream, final String fileName, final HasClassLoader hasClassloader, final Predicate<String> modelNameFilter);
 }
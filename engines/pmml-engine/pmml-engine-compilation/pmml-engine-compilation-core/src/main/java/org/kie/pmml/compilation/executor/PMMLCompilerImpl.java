@@ -31,12 +31,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.isBytecodeEnabled;
 import static org.kie.pmml.commons.Constants.PACKAGE_CLASS_TEMPLATE;
 import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedClassName;
 import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedPackageName;
+import static org.kie.pmml.compilation.commons.factories.KiePMMLFactoryFactory.getFactoryBytecode;
 import static org.kie.pmml.compilation.commons.factories.KiePMMLFactoryFactory.getFactorySourceCode;
+import static org.kie.pmml.compilation.commons.factories.KiePMMLFactoryFactory.isFactoryBytecodeSupported;
 import static org.kie.pmml.compilation.commons.implementations.KiePMMLModelRetriever.getFromCommonDataAndTransformationDictionaryAndModelWithSources;
 import static org.kie.pmml.compilation.commons.implementations.KiePMMLModelRetriever.getSourcesMapFromCommonDataAndTransformationDictionaryAndModel;
 
@@ -47,16 +51,27 @@ public class PMMLCompilerImpl implements PMMLCompiler {
 
     private static final Logger logger = LoggerFactory.getLogger(PMMLCompilerImpl.class.getName());
 
+    private static final String PMML_MODEL_TYPE = "pmml";
+
     @Override
     public List<KiePMMLModel> getKiePMMLModelsWithSources(final String packageName,
                                                           final InputStream inputStream,
                                                           final String fileName,
                                                           final HasClassLoader hasClassLoader) {
+        return getKiePMMLModelsWithSources(packageName, inputStream, fileName, hasClassLoader, modelName -> true);
+    }
+
+    @Override
+    public List<KiePMMLModel> getKiePMMLModelsWithSources(final String packageName,
+                                                          final InputStream inputStream,
+                                                          final String fileName,
+                                                          final HasClassLoader hasClassLoader,
+                                                          final Predicate<String> modelNameFilter) {
         logger.trace("getModels {} {}", inputStream, hasClassLoader);
         try {
             PMML commonPMMLModel = KiePMMLUtil.load(inputStream, fileName);
             List<Model> models = commonPMMLModel.getModels();
-            final List<KiePMMLModel> toReturn = getModelsWithSources(packageName, commonPMMLModel, hasClassLoader, fileName);
+            final List<KiePMMLModel> toReturn = getModelsWithSources(packageName, commonPMMLModel, hasClassLoader, fileName, modelNameFilter);
             final List<KiePMMLFactoryModel> toAdd = toReturn.stream()
                     .map(kiePMMLModel -> getKiePMMLFactoryModel(kiePMMLModel, models, packageName)).collect(Collectors.toList());
             toReturn.addAll(toAdd);
@@ -98,6 +113,10 @@ public class PMMLCompilerImpl implements PMMLCompiler {
             throw new KiePMMLException("Expected generated class " + missingClasses + " not found");
         }
         String factoryClassName = getSanitizedClassName(kiePMMLModel.getName()) + "Factory";
+        if (isBytecodeEnabled(PMML_MODEL_TYPE) && isFactoryBytecodeSupported(expectedClassModelTypeMap)) {
+            return new KiePMMLFactoryModel(factoryClassName, packageName, new HashMap<>(),
+                    getFactoryBytecode(factoryClassName, packageName, expectedClassModelTypeMap));
+        }
         Map<String, String> factorySourceMap = getFactorySourceCode(factoryClassName, packageName, expectedClassModelTypeMap);
         return new KiePMMLFactoryModel(factoryClassName, packageName,
                 factorySourceMap);
@@ -163,16 +182,19 @@ public class PMMLCompilerImpl implements PMMLCompiler {
      * @param packageName    the package into which put all the generated classes out of the given <code>PMML</code>
      * @param hasClassLoader Using <code>HasClassloader</code>
      * @param fileName
+     * @param modelNameFilter
      * @return
      * @throws KiePMMLException if any <code>KiePMMLInternalException</code> has been thrown during execution
      */
     private List<KiePMMLModel> getModelsWithSources(final String packageName, final PMML pmml,
                                                     final HasClassLoader hasClassLoader,
-                                                    final String fileName) {
+                                                    final String fileName,
+                                                    final Predicate<String> modelNameFilter) {
         logger.trace("getModels {}", pmml);
         return pmml
                 .getModels()
                 .stream()
+                .filter(model -> modelNameFilter.test(model.getModelName()))
                 .map(model -> {
                     final CommonCompilationDTO<?> compilationDTO =
                             CommonCompilationDTO.fromGeneratedPackageNameAndFields(packageName, pmml, model,
@@ -15,6 +15,7 @@
  */
 package org.kie.pmml.compilation.impl;
 
+import org.kie.efesto.common.api.jfr.JavacEvent;
 import org.kie.memorycompiler.JavaConfiguration;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.kie.pmml.commons.model.HasClassLoader;
@@ -36,7 +37,16 @@ public class HasClassloaderImpl implements HasClassLoader {
 
     @Override
     public Map<String, byte[]> compileClasses(Map<String, String> sourcesMap, String fullClassName) {
-        return KieMemoryCompiler.compileNoLoad(sourcesMap, memoryCompilerClassLoader, JavaConfiguration.CompilerType.NATIVE);
+        JavacEvent event = new JavacEvent();
+        event.begin();
+        Map<String, byte[]> toReturn = KieMemoryCompiler.compileNoLoad(sourcesMap, memoryCompilerClassLoader, JavaConfiguration.CompilerType.NATIVE);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sources = sourcesMap.size();
+            event.classes = toReturn.size();
+            event.commit();
+        }
+        return toReturn;
 //
 //
 //        ClassLoader classLoader = getClassLoader();
@@ -16,13 +16,26 @@
 package org.kie.pmml.compilation.model;
 
 import org.kie.efesto.common.api.model.FRI;
-import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputClassesContainer;
+import org.kie.efesto.common.api.model.ModelMetadata;
+import org.kie.efesto.compilationmanager.api.model.EfestoCallableOutputSourcesContainer;
 
 import java.util.Map;
 
-public class EfestoCallableOutputPMMLClassesContainer extends EfestoCallableOutputClassesContainer {
+public class EfestoCallableOutputPMMLClassesContainer extends EfestoCallableOutputSourcesContainer {
 
-    public EfestoCallableOutputPMMLClassesContainer(FRI fri, String fullClassName, Map<String, byte[]> compiledClassMap) {
-        super(fri, fullClassName, compiledClassMap);
+    private final ModelMetadata metadata;
+
+    public EfestoCallableOutputPMMLClassesContainer(FRI fri, String fullClassName, Map<String, String> sourcesMap) {
+        this(fri, fullClassName, sourcesMap, null);
+    }
+
+    public EfestoCallableOutputPMMLClassesContainer(FRI fri, String fullClassName, Map<String, String> sourcesMap, ModelMetadata metadata) {
+        super(fri, fullClassName, sourcesMap);
+        this.metadata = metadata;
+    }
+
+    @Override
+    public ModelMetadata getMetadata() {
+        return metadata;
     }
 }
@@ -15,14 +15,17 @@
  */
 package org.kie.pmml.compilation.service;
 
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
-import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoResource;
 import org.kie.efesto.compilationmanager.api.service.KieCompilerService;
 import org.kie.memorycompiler.KieMemoryCompiler;
+import org.kie.pmml.commons.model.DeferredKiePMMLModels;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.kie.pmml.compilation.service.PMMLCompilerService.getEfestoCompilationOutputPMML;
 
@@ -30,7 +33,7 @@ public class KieCompilerServicePMML implements KieCompilerService {
 
     @Override
     public <T extends EfestoResource> boolean canManageResource(T toProcess) {
-        return toProcess instanceof EfestoFileResource && ((EfestoFileResource) toProcess).getModelType().equalsIgnoreCase("pmml");
+        return toProcess instanceof EfestoModelResource && ((EfestoModelResource<?>) toProcess).getModelType().equalsIgnoreCase("pmml");
     }
 
     @Override
@@ -41,6 +44,14 @@ public class KieCompilerServicePMML implements KieCompilerService {
                     this.getClass().getName(),
                     toProcess.getClass().getName()));
         }
-        return (List<E>) getEfestoCompilationOutputPMML((EfestoFileResource) toProcess, memoryCompilerClassLoader);
+        return (List<E>) getEfestoCompilationOutputPMML((EfestoModelResource<?>) toProcess, memoryCompilerClassLoader);
+    }
+
+    /**
+     * Lazily compiled models (see <code>DeferredKiePMMLModels</code>) are dropped once unloaded
+     */
+    @Override
+    public void unloadModels(Predicate<FRI> toUnload) {
+        DeferredKiePMMLModels.remove(toUnload);
     }
 }
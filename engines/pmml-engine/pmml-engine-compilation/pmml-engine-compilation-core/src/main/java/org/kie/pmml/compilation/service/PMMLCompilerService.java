@@ -15,20 +15,30 @@
  */
 package org.kie.pmml.compilation.service;
 
+import org.dmg.pmml.Model;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.mining.MiningModel;
+import org.dmg.pmml.mining.Segment;
+import org.dmg.pmml.mining.Segmentation;
+import org.dmg.pmml.scorecard.Scorecard;
+import org.dmg.pmml.tree.TreeModel;
 import org.kie.efesto.common.api.io.IndexFile;
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.ModelMetadata;
 import org.kie.efesto.common.utils.StringUtils;
 import org.kie.efesto.compilationmanager.api.exceptions.KieCompilerServiceException;
 import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
-import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.efesto.compilationmanager.api.model.EfestoModelResource;
 import org.kie.efesto.compilationmanager.api.model.EfestoSetResource;
 import org.kie.efesto.compilationmanager.api.service.CompilationManager;
-import org.kie.memorycompiler.JavaConfiguration;
 import org.kie.memorycompiler.KieMemoryCompiler;
+import org.kie.pmml.api.enums.FIELD_USAGE_TYPE;
 import org.kie.pmml.api.exceptions.ExternalException;
 import org.kie.pmml.api.exceptions.KiePMMLException;
+import org.kie.pmml.api.models.MiningField;
 import org.kie.pmml.commons.HasRedirectOutput;
 import org.kie.pmml.commons.model.*;
+import org.kie.pmml.compilation.commons.utils.KiePMMLUtil;
 import org.kie.pmml.compilation.executor.PMMLCompiler;
 import org.kie.pmml.compilation.executor.PMMLCompilerImpl;
 import org.kie.pmml.compilation.impl.HasClassloaderImpl;
@@ -37,14 +47,20 @@ import org.kie.pmml.compilation.model.EfestoRedirectOutputPMML;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static org.kie.efesto.common.api.model.FRI.SLASH;
 import static org.kie.efesto.common.api.utils.FileNameUtils.getFileName;
 import static org.kie.efesto.common.api.utils.FileNameUtils.removeSuffix;
+import static org.kie.efesto.compilationmanager.api.utils.CompilationBatchUtils.compileOrDefer;
 import static org.kie.efesto.compilationmanager.api.utils.SPIUtils.getCompilationManager;
+import static org.kie.pmml.commons.Constants.PACKAGE_CLASS_TEMPLATE;
+import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedClassName;
 
 
 /**
@@ -54,6 +70,12 @@ public class PMMLCompilerService {
 
     private static final Logger logger = LoggerFactory.getLogger(PMMLCompilerService.class.getName());
 
+    /**
+     * When <code>true</code>, PMML documents are compiled in <b>index-only</b> mode (see
+     * {@link #getIndexedEfestoFinalOutputPMML(EfestoModelResource, KieMemoryCompiler.MemoryCompilerClassLoader)})
+     */
+    public static final String LAZY_COMPILATION_PROPERTY = "efesto.pmml.compilation.lazy";
+
     private static final PMMLCompiler PMML_COMPILER = new PMMLCompilerImpl();
 
     private PMMLCompilerService() {
@@ -61,19 +83,25 @@ public class PMMLCompilerService {
     }
 
 
-    public static List<EfestoCompilationOutput> getEfestoCompilationOutputPMML(EfestoFileResource resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+    public static List<EfestoCompilationOutput> getEfestoCompilationOutputPMML(EfestoModelResource<?> resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
         return getEfestoFinalOutputPMML(resource, memoryClassLoader);
     }
 
-    static List<EfestoCompilationOutput> getEfestoFinalOutputPMML(EfestoFileResource resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        List<EfestoCompilationOutput> toReturn = new ArrayList<>();
+    static List<EfestoCompilationOutput> getEfestoFinalOutputPMML(EfestoModelResource<?> resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        if (isLazyCompilationEnabled()) {
+            return getIndexedEfestoFinalOutputPMML(resource, memoryClassLoader);
+        }
         List<KiePMMLModel> kiePmmlModels = getKiePMMLModelsFromResourcesWithConfigurationsWithSources(new HasClassloaderImpl(memoryClassLoader), Collections.singletonList(resource));
+        return getEfestoFinalOutputPMML(kiePmmlModels, removeSuffix(resource.getFileName()), memoryClassLoader);
+    }
+
+    static List<EfestoCompilationOutput> getEfestoFinalOutputPMML(List<KiePMMLModel> kiePmmlModels, String fileName, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        List<EfestoCompilationOutput> toReturn = new ArrayList<>();
         List<KiePMMLModelWithSources> kiePmmlModelsWithSources = kiePmmlModels
                 .stream()
                 .filter(KiePMMLModelWithSources.class::isInstance)
                 .map(KiePMMLModelWithSources.class::cast)
                 .collect(Collectors.toList());
-        String fileName = removeSuffix((resource.getContent()).getName());
         Map<String, String> allSourcesMap = new HashMap<>();
         iterateOverKiePmmlModelsWithSources(kiePmmlModelsWithSources, toReturn, allSourcesMap, memoryClassLoader);
 
@@ -93,18 +121,174 @@ public class PMMLCompilerService {
                 .filter(KiePMMLFactoryModel.class::isInstance)
                 .map(KiePMMLFactoryModel.class::cast)
                 .collect(Collectors.toList());
-        kiePMMLFactoryModels.forEach(kiePMMLFactoryModel -> allSourcesMap.putAll(kiePMMLFactoryModel.getSourcesMap()));
-        Map<String, byte[]> compiledClasses = compileClasses(allSourcesMap, memoryClassLoader);
+        // factories could be emitted directly as bytecode, instead of being generated as source
+        Map<String, byte[]> allCompiledClasses = new HashMap<>();
+        kiePMMLFactoryModels.forEach(kiePMMLFactoryModel -> {
+            allSourcesMap.putAll(kiePMMLFactoryModel.getSourcesMap());
+            allCompiledClasses.putAll(kiePMMLFactoryModel.getCompiledClasses());
+        });
+        // all the factories share the same sources: they are compiled once
+        List<EfestoCallableOutputPMMLClassesContainer> toCompile = new ArrayList<>();
         kiePMMLFactoryModels.forEach(kiePMMLFactoryModel -> {
             String modelName = kiePMMLFactoryModel.getName().substring(0, kiePMMLFactoryModel.getName().lastIndexOf("Factory"));
             String basePath = fileName + SLASH + modelName;
             FRI fri = new FRI(basePath, "pmml");
-            String fullResourceClassName = kiePMMLFactoryModel.getSourcesMap().keySet().iterator().next();
-            toReturn.add(new EfestoCallableOutputPMMLClassesContainer(fri, fullResourceClassName, compiledClasses));
+            String fullResourceClassName = kiePMMLFactoryModel.getFullClassName();
+            ModelMetadata metadata = getModelMetadata(kiePmmlModelsWithSources, modelName);
+            EfestoCallableOutputPMMLClassesContainer toAdd = new EfestoCallableOutputPMMLClassesContainer(fri, fullResourceClassName, allSourcesMap, metadata);
+            toAdd.getCompiledClassesMap().putAll(allCompiledClasses);
+            toCompile.add(toAdd);
         });
+        toReturn.addAll(compileOrDefer(toCompile, memoryClassLoader));
         return toReturn;
     }
 
+    public static boolean isLazyCompilationEnabled() {
+        return Boolean.getBoolean(LAZY_COMPILATION_PROPERTY);
+    }
+
+    /**
+     * <b>Index-only</b> compilation: every model of the given document gets its <code>IndexFile</code> entry, but
+     * code generation and compilation are deferred until the first request targeting it (see
+     * <code>DeferredKiePMMLModels</code>). Models translated to rules are still compiled eagerly, since their
+     * redirect resources have to be indexed now
+     *
+     * @param resource
+     * @param memoryClassLoader
+     * @return
+     */
+    static List<EfestoCompilationOutput> getIndexedEfestoFinalOutputPMML(EfestoModelResource<?> resource, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        String packageName = getFactoryClassNamePackageName(resource)[1];
+        String sourceFileName = getFileName(resource.getSourcePath());
+        String fileName = removeSuffix(resource.getFileName());
+        byte[] content = getContent(resource);
+        List<EfestoCompilationOutput> toReturn = new ArrayList<>();
+        Set<String> eagerModelNames = new HashSet<>();
+        for (Model model : loadPMML(content, sourceFileName).getModels()) {
+            String modelName = model.getModelName();
+            if (!isDeferrable(model)) {
+                eagerModelNames.add(modelName);
+                continue;
+            }
+            String sanitizedModelName = getSanitizedClassName(modelName);
+            FRI fri = new FRI(fileName + SLASH + sanitizedModelName, "pmml");
+            String fullFactoryClassName = String.format(PACKAGE_CLASS_TEMPLATE, packageName, sanitizedModelName + "Factory");
+            EfestoCallableOutputPMMLClassesContainer toAdd = new EfestoCallableOutputPMMLClassesContainer(fri, fullFactoryClassName, new HashMap<>(), getModelMetadata(model));
+            // nothing to compile now: only the IndexFile entry is written
+            toAdd.setCompiledClasses(Collections.emptyMap());
+            DeferredKiePMMLModels.register(fri, classLoader -> getDeferredCompiledClasses(content, packageName, sourceFileName, fileName, modelName, classLoader));
+            toReturn.add(toAdd);
+        }
+        logger.debug("{} models of {} indexed, {} compiled eagerly", toReturn.size(), fileName, eagerModelNames.size());
+        if (!eagerModelNames.isEmpty()) {
+            List<KiePMMLModel> kiePmmlModels = getKiePMMLModelsWithSources(new HasClassloaderImpl(memoryClassLoader), packageName, content, sourceFileName, eagerModelNames::contains);
+            toReturn.addAll(getEfestoFinalOutputPMML(kiePmmlModels, fileName, memoryClassLoader));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Generate and compile the code of a single model indexed by {@link #getIndexedEfestoFinalOutputPMML(EfestoModelResource, KieMemoryCompiler.MemoryCompilerClassLoader)}
+     *
+     * @param content
+     * @param packageName
+     * @param sourceFileName
+     * @param fileName
+     * @param modelName
+     * @param memoryClassLoader
+     * @return
+     */
+    static Map<String, byte[]> getDeferredCompiledClasses(byte[] content, String packageName, String sourceFileName, String fileName, String modelName, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
+        List<KiePMMLModel> kiePmmlModels = getKiePMMLModelsWithSources(new HasClassloaderImpl(memoryClassLoader), packageName, content, sourceFileName, modelName::equals);
+        Map<String, byte[]> toReturn = new HashMap<>();
+        for (EfestoCompilationOutput compilationOutput : getEfestoFinalOutputPMML(kiePmmlModels, fileName, memoryClassLoader)) {
+            if (compilationOutput instanceof EfestoCallableOutputPMMLClassesContainer) {
+                EfestoCallableOutputPMMLClassesContainer classesContainer = (EfestoCallableOutputPMMLClassesContainer) compilationOutput;
+                if (!classesContainer.isCompiled()) {
+                    throw new KiePMMLException(String.format("Deferred model %s can not be compiled inside a compilation batch", classesContainer.getFri()));
+                }
+                toReturn.putAll(classesContainer.getCompiledClassesMap());
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Models translated to rules (see <code>HasRedirectOutput</code>), directly or as segments, can not be deferred
+     *
+     * @param model
+     * @return
+     */
+    static boolean isDeferrable(Model model) {
+        if (model instanceof TreeModel || model instanceof Scorecard) {
+            return false;
+        }
+        if (model instanceof MiningModel) {
+            Segmentation segmentation = ((MiningModel) model).getSegmentation();
+            return segmentation == null || segmentation.getSegments().stream()
+                    .map(Segment::getModel)
+                    .allMatch(PMMLCompilerService::isDeferrable);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the <code>ModelMetadata</code> read from the <b>MiningSchema</b> of the given model, without generating
+     * any code
+     *
+     * @param model
+     * @return
+     */
+    static ModelMetadata getModelMetadata(Model model) {
+        List<org.dmg.pmml.MiningField> miningFields = model.getMiningSchema() != null ? model.getMiningSchema().getMiningFields() : Collections.emptyList();
+        List<String> inputFields = miningFields.stream()
+                .filter(miningField -> org.dmg.pmml.MiningField.UsageType.ACTIVE.equals(miningField.getUsageType()))
+                .map(miningField -> miningField.getName().getValue())
+                .collect(Collectors.toList());
+        String target = miningFields.stream()
+                .filter(miningField -> org.dmg.pmml.MiningField.UsageType.TARGET.equals(miningField.getUsageType()) ||
+                        org.dmg.pmml.MiningField.UsageType.PREDICTED.equals(miningField.getUsageType()))
+                .map(miningField -> miningField.getName().getValue())
+                .findFirst()
+                .orElse(null);
+        String modelFunction = model.getMiningFunction() != null ? model.getMiningFunction().value() : null;
+        return new ModelMetadata(model.getModelName(), inputFields, target, modelFunction);
+    }
+
+    /**
+     * Returns the <code>ModelMetadata</code> of the model whose (sanitized) name is the given one, if any
+     *
+     * @param kiePmmlModelsWithSources
+     * @param sanitizedModelName
+     * @return
+     */
+    static ModelMetadata getModelMetadata(List<KiePMMLModelWithSources> kiePmmlModelsWithSources, String sanitizedModelName) {
+        return kiePmmlModelsWithSources.stream()
+                .filter(kiePMMLModel -> sanitizedModelName.equals(getSanitizedClassName(kiePMMLModel.getName())))
+                .findFirst()
+                .map(PMMLCompilerService::getModelMetadata)
+                .orElse(null);
+    }
+
+    static ModelMetadata getModelMetadata(KiePMMLModel kiePMMLModel) {
+        List<MiningField> miningFields = kiePMMLModel.getMiningFields() != null ? kiePMMLModel.getMiningFields() : Collections.emptyList();
+        List<String> inputFields = miningFields.stream()
+                .filter(miningField -> miningField.getUsageType() == null || FIELD_USAGE_TYPE.ACTIVE.equals(miningField.getUsageType()))
+                .map(MiningField::getName)
+                .collect(Collectors.toList());
+        String target = kiePMMLModel.getTargetField();
+        if (target == null) {
+            target = miningFields.stream()
+                    .filter(miningField -> FIELD_USAGE_TYPE.TARGET.equals(miningField.getUsageType()) ||
+                            FIELD_USAGE_TYPE.PREDICTED.equals(miningField.getUsageType()))
+                    .map(MiningField::getName)
+                    .findFirst()
+                    .orElse(null);
+        }
+        String modelFunction = kiePMMLModel.getMiningFunction() != null ? kiePMMLModel.getMiningFunction().getName() : null;
+        return new ModelMetadata(kiePMMLModel.getName(), inputFields, target, modelFunction);
+    }
+
     static void iterateOverKiePmmlModelsWithSources(
             List<KiePMMLModelWithSources> toIterate,
             List<EfestoCompilationOutput> darCompilationOutputs,
@@ -147,7 +331,7 @@ public class PMMLCompilerService {
      * @throws KiePMMLException  if any <code>KiePMMLInternalException</code> has been thrown during execution
      * @throws ExternalException if any other kind of <code>Exception</code> has been thrown during execution
      */
-    static List<KiePMMLModel> getKiePMMLModelsFromResourcesWithConfigurationsWithSources(HasClassLoader hasClassLoader, Collection<EfestoFileResource> resources) {
+    static List<KiePMMLModel> getKiePMMLModelsFromResourcesWithConfigurationsWithSources(HasClassLoader hasClassLoader, Collection<? extends EfestoModelResource<?>> resources) {
         return resources.stream()
                 .flatMap(resource -> getKiePMMLModelsFromResourceWithSources(hasClassLoader, resource).stream())
                 .collect(Collectors.toList());
@@ -159,12 +343,12 @@ public class PMMLCompilerService {
      * @return
      */
     static List<KiePMMLModel> getKiePMMLModelsFromResourceWithSources(HasClassLoader hasClassLoader,
-                                                                      EfestoFileResource resource) {
+                                                                      EfestoModelResource<?> resource) {
         String[] classNamePackageName = getFactoryClassNamePackageName(resource);
         String packageName = classNamePackageName[1];
-        try {
+        try (InputStream inputStream = resource.getInputStream()) {
             final List<KiePMMLModel> toReturn = PMML_COMPILER.getKiePMMLModelsWithSources(packageName,
-                    resource.getInputStream(),
+                    inputStream,
                     getFileName(resource.getSourcePath()),
                     hasClassLoader);
             return toReturn;
@@ -173,6 +357,31 @@ public class PMMLCompilerService {
         }
     }
 
+    static List<KiePMMLModel> getKiePMMLModelsWithSources(HasClassLoader hasClassLoader, String packageName, byte[] content,
+                                                         String sourceFileName, Predicate<String> modelNameFilter) {
+        return PMML_COMPILER.getKiePMMLModelsWithSources(packageName,
+                new ByteArrayInputStream(content),
+                sourceFileName,
+                hasClassLoader,
+                modelNameFilter);
+    }
+
+    static byte[] getContent(EfestoModelResource<?> resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new ExternalException("ExternalException", e);
+        }
+    }
+
+    static PMML loadPMML(byte[] content, String sourceFileName) {
+        try {
+            return KiePMMLUtil.load(new ByteArrayInputStream(content), sourceFileName);
+        } catch (Exception e) {
+            throw new ExternalException("ExternalException", e);
+        }
+    }
+
     /**
      * Returns an array where the first item is the <b>factory class</b> name and the second item is the <b>package</b> name,
      * built starting from the given <code>Resource</code>
@@ -180,7 +389,7 @@ public class PMMLCompilerService {
      * @param resource
      * @return
      */
-    static String[] getFactoryClassNamePackageName(EfestoFileResource resource) {
+    static String[] getFactoryClassNamePackageName(EfestoModelResource<?> resource) {
         String sourcePath = resource.getSourcePath();
         if (sourcePath == null || sourcePath.isEmpty()) {
             throw new IllegalArgumentException("Missing required sourcePath in resource " + resource + " -> " + resource.getClass().getName());
@@ -188,16 +397,4 @@ public class PMMLCompilerService {
         return StringUtils.getFactoryClassNamePackageName(sourcePath);
     }
 
-    /**
-     * Compile the given sources and add them to given <code>Classloader</code> of the current instance.
-     * Returns the <code>compiled bytecode</code>
-     *
-     * @param sourcesMap
-     * @return
-     */
-    static Map<String, byte[]> compileClasses(Map<String, String> sourcesMap, KieMemoryCompiler.MemoryCompilerClassLoader memoryClassLoader) {
-        return KieMemoryCompiler.compileNoLoad(sourcesMap, memoryClassLoader, JavaConfiguration.CompilerType.NATIVE);
-    }
-
-
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.compilation.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.dmg.pmml.FieldName;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.mining.MiningModel;
+import org.dmg.pmml.mining.Segment;
+import org.dmg.pmml.mining.Segmentation;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.scorecard.Scorecard;
+import org.dmg.pmml.tree.TreeModel;
+import org.junit.jupiter.api.Test;
+import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.ModelMetadata;
+import org.kie.efesto.compilationmanager.api.model.EfestoCompilationOutput;
+import org.kie.efesto.compilationmanager.api.model.EfestoFileResource;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.kie.pmml.api.enums.DATA_TYPE;
+import org.kie.pmml.api.enums.FIELD_USAGE_TYPE;
+import org.kie.pmml.api.enums.MINING_FUNCTION;
+import org.kie.pmml.api.enums.OP_TYPE;
+import org.kie.pmml.api.models.MiningField;
+import org.kie.pmml.commons.model.DeferredKiePMMLModels;
+import org.kie.pmml.commons.model.KiePMMLModelWithSources;
+import org.kie.pmml.compilation.model.EfestoCallableOutputPMMLClassesContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.efesto.common.api.utils.FileUtils.getFileFromFileName;
+import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedClassName;
+
+class PMMLCompilerServiceTest {
+
+    @Test
+    void getModelMetadata() {
+        List<MiningField> miningFields = Arrays.asList(getMiningField("input1", FIELD_USAGE_TYPE.ACTIVE),
+                                                       getMiningField("input2", FIELD_USAGE_TYPE.ACTIVE),
+                                                       getMiningField("result", FIELD_USAGE_TYPE.TARGET));
+        KiePMMLModelWithSources kiePMMLModel = new KiePMMLModelWithSources("The model", "org.kie.pmml", miningFields,
+                                                                          Collections.emptyList(), Collections.emptyList(),
+                                                                          new HashMap<>(), false,
+                                                                          MINING_FUNCTION.REGRESSION, null);
+        ModelMetadata retrieved = PMMLCompilerService.getModelMetadata(Collections.singletonList(kiePMMLModel), "Themodel");
+        assertThat(retrieved).isEqualTo(new ModelMetadata("The model", Arrays.asList("input1", "input2"), "result", "regression"));
+        assertThat(PMMLCompilerService.getModelMetadata(Collections.singletonList(kiePMMLModel), "Other")).isNull();
+    }
+
+    @Test
+    void getModelMetadataFromModel() {
+        MiningSchema miningSchema = new MiningSchema()
+                .addMiningFields(new org.dmg.pmml.MiningField(FieldName.create("input1")),
+                                 new org.dmg.pmml.MiningField(FieldName.create("input2")),
+                                 new org.dmg.pmml.MiningField(FieldName.create("result")).setUsageType(org.dmg.pmml.MiningField.UsageType.TARGET));
+        RegressionModel model = new RegressionModel()
+                .setModelName("The model")
+                .setMiningFunction(MiningFunction.REGRESSION)
+                .setMiningSchema(miningSchema);
+        ModelMetadata retrieved = PMMLCompilerService.getModelMetadata(model);
+        assertThat(retrieved).isEqualTo(new ModelMetadata("The model", Arrays.asList("input1", "input2"), "result", "regression"));
+    }
+
+    @Test
+    void isDeferrable() {
+        assertThat(PMMLCompilerService.isDeferrable(new RegressionModel())).isTrue();
+        assertThat(PMMLCompilerService.isDeferrable(new TreeModel())).isFalse();
+        assertThat(PMMLCompilerService.isDeferrable(new Scorecard())).isFalse();
+        MiningModel miningModel = new MiningModel()
+                .setSegmentation(new Segmentation().addSegments(new Segment().setModel(new RegressionModel())));
+        assertThat(PMMLCompilerService.isDeferrable(miningModel)).isTrue();
+        miningModel.getSegmentation().addSegments(new Segment().setModel(new TreeModel()));
+        assertThat(PMMLCompilerService.isDeferrable(miningModel)).isFalse();
+    }
+
+    @Test
+    void getIndexedEfestoFinalOutputPMML() {
+        KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+        EfestoFileResource resource = new EfestoFileResource(getFileFromFileName("LinearRegressionSample.pmml"));
+        try {
+            List<EfestoCompilationOutput> retrieved = PMMLCompilerService.getIndexedEfestoFinalOutputPMML(resource, memoryCompilerClassLoader);
+            assertThat(retrieved).hasSize(1);
+            EfestoCallableOutputPMMLClassesContainer output = (EfestoCallableOutputPMMLClassesContainer) retrieved.get(0);
+            String sanitizedModelName = getSanitizedClassName("Sample for linear regression");
+            FRI expectedFri = new FRI("LinearRegressionSample/" + sanitizedModelName, "pmml");
+            assertThat(output.getFri()).isEqualTo(expectedFri);
+            assertThat(output.getFullClassNames()).allSatisfy(fullClassName -> assertThat(fullClassName).endsWith("." + sanitizedModelName + "Factory"));
+            assertThat(output.getMetadata()).isEqualTo(new ModelMetadata("Sample for linear regression",
+                                                                         Arrays.asList("age", "salary", "car_location"),
+                                                                         "number_of_claims", "regression"));
+            // nothing generated until the first request
+            assertThat(output.isCompiled()).isTrue();
+            assertThat(output.getSourcesMap()).isEmpty();
+            assertThat(output.getCompiledClassesMap()).isEmpty();
+            assertThat(DeferredKiePMMLModels.isRegistered(expectedFri)).isTrue();
+            assertThat(DeferredKiePMMLModels.isCompiled(expectedFri)).isFalse();
+        } finally {
+            DeferredKiePMMLModels.clear();
+        }
+    }
+
+    private static MiningField getMiningField(String name, FIELD_USAGE_TYPE usageType) {
+        return new MiningField(name, usageType, OP_TYPE.CONTINUOUS, DATA_TYPE.DOUBLE, null, null, null, null, null, null);
+    }
+}
@@ -31,6 +31,7 @@ import org.dmg.pmml.clustering.ClusteringModel;
 import org.dmg.pmml.clustering.MissingValueWeights;
 import org.kie.pmml.api.exceptions.KiePMMLException;
 import org.kie.pmml.api.exceptions.KiePMMLInternalException;
+import org.kie.pmml.commons.tables.KiePMMLTableFile;
 import org.kie.pmml.compilation.api.dto.CompilationDTO;
 import org.kie.pmml.compilation.commons.codegenfactories.KiePMMLModelFactoryUtils;
 import org.kie.pmml.compilation.commons.utils.JavaParserUtils;
@@ -54,6 +55,7 @@ public class KiePMMLClusteringModelFactory {
     static final String KIE_PMML_CLUSTERING_MODEL_TEMPLATE = "KiePMMLClusteringModelTemplate";
     static final String GET_CLUSTERS = "getClusters";
     static final String GET_CLUSTERING_FIELDS = "getClusteringFields";
+    static final String CLUSTER_TABLE_KEY = "cluster.";
 
     private static final Logger logger = LoggerFactory.getLogger(KiePMMLClusteringModelFactory.class.getName());
 
@@ -108,7 +110,7 @@ public class KiePMMLClusteringModelFactory {
         ClassOrInterfaceDeclaration modelTemplate = compilationUnit.getClassByName(simpleClassName)
                 .orElseThrow(() -> new KiePMMLException(MAIN_CLASS_NOT_FOUND + ": " + simpleClassName));
         setStaticGetter(compilationDTO, modelTemplate);
-        populateGetClustersMethod(modelTemplate, compilationDTO.getModel());
+        populateGetClustersMethod(modelTemplate, compilationDTO.getModel(), getFullClassName(compilationUnit));
         populateGetClusteringFieldsMethod(modelTemplate, compilationDTO.getModel());
 
         Map<String, String> sourcesMap = new HashMap<>();
@@ -184,12 +186,47 @@ public class KiePMMLClusteringModelFactory {
 
     static void populateGetClustersMethod(final ClassOrInterfaceDeclaration toPopulate,
                                           final ClusteringModel clusteringModel) {
+        populateGetClustersMethod(toPopulate, clusteringModel, null);
+    }
+
+    /**
+     * Populate the <b>getClusters</b> method; when the clusters values exceed the
+     * <code>KiePMMLTableFile.OFFHEAP_TABLES_THRESHOLD_PROPERTY</code>, they are written in the
+     * <code>KiePMMLTableFile</code> of the given generated class instead of being inlined
+     *
+     * @param toPopulate
+     * @param clusteringModel
+     * @param fullClassName the generated class, or <code>null</code> to always inline the values
+     */
+    static void populateGetClustersMethod(final ClassOrInterfaceDeclaration toPopulate,
+                                          final ClusteringModel clusteringModel,
+                                          final String fullClassName) {
         MethodDeclaration methodDeclaration = getMethodDeclaration(toPopulate, GET_CLUSTERS)
                 .orElseThrow(() -> new KiePMMLInternalException(String.format(MISSING_METHOD_IN_CLASS, toPopulate,
                         GET_CLUSTERS)));
-        List<ObjectCreationExpr> objectCreationExprStream = clusteringModel.getClusters().stream()
-                .map(KiePMMLClusteringModelFactory::clusterCreationExprFrom)
+        final List<Cluster> clusters = clusteringModel.getClusters();
+        final List<List<Double>> clustersValues = clusters.stream()
+                .map(KiePMMLClusteringModelFactory::getClusterDoubleValues)
                 .collect(Collectors.toList());
+        final int valuesCount = clustersValues.stream().mapToInt(List::size).sum();
+        List<ObjectCreationExpr> objectCreationExprStream = new ArrayList<>();
+        if (fullClassName != null && KiePMMLTableFile.isOffHeapEnabled(valuesCount)) {
+            KiePMMLTableFile.Builder tableFile = KiePMMLTableFile.builder();
+            for (int i = 0; i < clusters.size(); i++) {
+                tableFile.withDoubles(CLUSTER_TABLE_KEY + i,
+                                      clustersValues.get(i).stream().mapToDouble(Double::doubleValue).toArray());
+            }
+            MethodCallExpr tableFileExpr = writeTableFile(tableFile, fullClassName);
+            for (int i = 0; i < clusters.size(); i++) {
+                objectCreationExprStream.add(clusterCreationExprFrom(clusters.get(i),
+                                                                     tableFileGetterExprFrom(tableFileExpr, "getDoubles", CLUSTER_TABLE_KEY + i)));
+            }
+        } else {
+            for (int i = 0; i < clusters.size(); i++) {
+                objectCreationExprStream.add(clusterCreationExprFrom(clusters.get(i),
+                                                                     createArraysAsListFromList(clustersValues.get(i)).getExpression()));
+            }
+        }
         populateListInListGetter(objectCreationExprStream, methodDeclaration, TO_RETURN);
     }
 
@@ -204,12 +241,11 @@ public class KiePMMLClusteringModelFactory {
         populateListInListGetter(objectCreationExprStream, methodDeclaration, TO_RETURN);
     }
 
-    private static ObjectCreationExpr clusterCreationExprFrom(Cluster cluster) {
+    private static ObjectCreationExpr clusterCreationExprFrom(Cluster cluster, Expression valuesExpr) {
         NodeList<Expression> arguments = new NodeList<>();
         arguments.add(literalExprFrom(cluster.getId()));
         arguments.add(literalExprFrom(cluster.getName()));
-        final List<Double> values = getClusterDoubleValues(cluster);
-        arguments.add(createArraysAsListFromList(values).getExpression());
+        arguments.add(valuesExpr);
         return new ObjectCreationExpr(null, new ClassOrInterfaceType(null, KiePMMLCluster.class.getCanonicalName()),
                 arguments);
     }
@@ -22,35 +22,50 @@ import org.dmg.pmml.clustering.Cluster;
 import org.dmg.pmml.clustering.ClusteringField;
 import org.dmg.pmml.clustering.ClusteringModel;
 import org.dmg.pmml.clustering.MissingValueWeights;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.kie.pmml.api.runtime.PMMLContext;
+import org.kie.pmml.commons.tables.KiePMMLTableFile;
 import org.kie.pmml.compilation.api.dto.CommonCompilationDTO;
+import org.kie.pmml.compilation.api.testutils.TestUtils;
 import org.kie.pmml.compilation.commons.mocks.HasClassLoaderMock;
 import org.kie.pmml.compilation.commons.utils.JavaParserUtils;
 import org.kie.pmml.models.clustering.compilation.dto.ClusteringCompilationDTO;
 import org.kie.pmml.models.clustering.model.*;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.kie.efesto.common.api.utils.FileUtils.getFileContent;
 import static org.kie.pmml.commons.Constants.GET_MODEL;
 import static org.kie.pmml.commons.Constants.PACKAGE_NAME;
+import static org.kie.pmml.commons.tables.KiePMMLTableFile.OFFHEAP_TABLES_DIRECTORY_PROPERTY;
+import static org.kie.pmml.commons.tables.KiePMMLTableFile.OFFHEAP_TABLES_THRESHOLD_PROPERTY;
+import static org.kie.pmml.commons.tables.KiePMMLTableFile.TABLE_FILE_SUFFIX;
 import static org.kie.pmml.compilation.api.testutils.PMMLModelTestUtils.*;
 import static org.kie.pmml.compilation.api.utils.ModelUtils.getObjectsFromArray;
 import static org.kie.pmml.compilation.commons.utils.JavaParserUtils.getFromFileName;
 import static org.kie.pmml.models.clustering.compilation.factories.KiePMMLClusteringConversionUtils.AGGREGATE_FN_MAP;
 import static org.kie.pmml.models.clustering.compilation.factories.KiePMMLClusteringModelFactory.KIE_PMML_CLUSTERING_MODEL_TEMPLATE;
 import static org.kie.pmml.models.clustering.compilation.factories.KiePMMLClusteringModelFactory.KIE_PMML_CLUSTERING_MODEL_TEMPLATE_JAVA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class KiePMMLClusteringModelFactoryTest {
 
     private static CompilationUnit COMPILATION_UNIT;
     private static ClassOrInterfaceDeclaration MODEL_TEMPLATE;
     private static final String TEST_01_SOURCE = "KiePMMLClusteringModelFactoryTest_01.txt";
+    private static final String IRIS_SOURCE = "SingleIrisKMeansClustering.pmml";
 
     private static final String modelName = "firstModel";
     private static List<ClusteringField> clusteringFields;
@@ -97,6 +112,13 @@ public class KiePMMLClusteringModelFactoryTest {
         pmml.addModels(clusteringModel);
     }
 
+    @AfterEach
+    void cleanup() {
+        System.clearProperty(OFFHEAP_TABLES_THRESHOLD_PROPERTY);
+        System.clearProperty(OFFHEAP_TABLES_DIRECTORY_PROPERTY);
+        KiePMMLTableFile.clearLoaded();
+    }
+
     @Test
     void getKiePMMLClusteringModel() {
         final CommonCompilationDTO<ClusteringModel> compilationDTO =
@@ -136,6 +158,47 @@ public class KiePMMLClusteringModelFactoryTest {
         assertThat(retrieved).hasSize(1);
     }
 
+    @Test
+    void getKiePMMLClusteringModelSourcesMapWithOffHeapTables(@TempDir Path tablesDirectory) throws Exception {
+        final PMML irisPmml = TestUtils.loadFromFile(IRIS_SOURCE);
+        final ClusteringModel irisModel = (ClusteringModel) irisPmml.getModels().get(0);
+        final ClusteringCompilationDTO compilationDTO = ClusteringCompilationDTO.fromCompilationDTO(
+                CommonCompilationDTO.fromGeneratedPackageNameAndFields(PACKAGE_NAME,
+                        irisPmml,
+                        irisModel,
+                        new HasClassLoaderMock(), "fileName"));
+        final List<Map<String, Object>> inputs = Arrays.asList(getIrisInput(6.9, 3.1, 5.4, 2.1),
+                                                               getIrisInput(6.0, 2.7, 5.1, 1.6),
+                                                               getIrisInput(5.1, 3.5, 1.4, 0.2),
+                                                               getIrisInput(5.5, 2.4, 3.7, 1.0));
+
+        Map<String, String> inlined = KiePMMLClusteringModelFactory.getKiePMMLClusteringModelSourcesMap(compilationDTO);
+        assertThat(inlined.values()).noneMatch(source -> source.contains(KiePMMLTableFile.class.getSimpleName()));
+        KiePMMLClusteringModel expected = compileClusteringModel(inlined);
+
+        System.setProperty(OFFHEAP_TABLES_THRESHOLD_PROPERTY, "1");
+        System.setProperty(OFFHEAP_TABLES_DIRECTORY_PROPERTY, tablesDirectory.toString());
+        Map<String, String> offHeap = KiePMMLClusteringModelFactory.getKiePMMLClusteringModelSourcesMap(compilationDTO);
+        assertThat(offHeap.values()).allMatch(source -> source.contains(KiePMMLTableFile.class.getSimpleName()));
+        try (Stream<Path> paths = Files.walk(tablesDirectory)) {
+            assertThat(paths.filter(path -> path.toString().endsWith(TABLE_FILE_SUFFIX))).hasSize(1);
+        }
+        KiePMMLClusteringModel retrieved = compileClusteringModel(offHeap);
+
+        assertThat(retrieved.getClusters()).hasSameSizeAs(expected.getClusters());
+        IntStream.range(0, expected.getClusters().size()).forEach(i ->
+                assertThat(retrieved.getClusters().get(i).getValues())
+                        .containsExactlyElementsOf(expected.getClusters().get(i).getValues()));
+        for (Map<String, Object> input : inputs) {
+            PMMLContext expectedContext = mock(PMMLContext.class);
+            PMMLContext retrievedContext = mock(PMMLContext.class);
+            Object expectedResult = expected.evaluate(input, expectedContext);
+            assertThat(retrieved.evaluate(input, retrievedContext)).isEqualTo(expectedResult);
+            verify(expectedContext).setEntityId(Integer.parseInt(expectedResult.toString()));
+            verify(retrievedContext).setEntityId(Integer.parseInt(expectedResult.toString()));
+        }
+    }
+
     @Test
     void getKiePMMLCluster() {
         Cluster cluster = new Cluster();
@@ -235,6 +298,23 @@ public class KiePMMLClusteringModelFactoryTest {
         assertThat(JavaParserUtils.equalsNode(expected, retrieved)).isTrue();
     }
 
+    private static Map<String, Object> getIrisInput(double sepalLength, double sepalWidth, double petalLength,
+                                                    double petalWidth) {
+        Map<String, Object> toReturn = new HashMap<>();
+        toReturn.put("sepal_length", sepalLength);
+        toReturn.put("sepal_width", sepalWidth);
+        toReturn.put("petal_length", petalLength);
+        toReturn.put("petal_width", petalWidth);
+        return toReturn;
+    }
+
+    private static KiePMMLClusteringModel compileClusteringModel(Map<String, String> sourcesMap) throws Exception {
+        Map<String, Class<?>> compiled = KieMemoryCompiler.compile(sourcesMap,
+                                                                   Thread.currentThread().getContextClassLoader());
+        String fullClassName = sourcesMap.keySet().iterator().next();
+        return (KiePMMLClusteringModel) compiled.get(fullClassName).getMethod(GET_MODEL).invoke(null);
+    }
+
     private void commonEvaluateKiePMMLCluster(KiePMMLCluster retrieved, Cluster cluster) {
         assertThat(retrieved).isNotNull();
         assertThat(retrieved.getId()).isPresent();
@@ -17,6 +17,7 @@
 package org.kie.pmml.models.clustering.model;
 
 import org.kie.pmml.api.enums.Named;
+import org.kie.pmml.commons.tables.KiePMMLDoubleTable;
 
 import java.util.List;
 
@@ -43,6 +44,10 @@ public enum KiePMMLAggregateFunction implements Named {
     }
 
     public double apply(List<KiePMMLClusteringField> fields, KiePMMLCompareFunction defaultCompare, Double[] inputs, double[] seeds, double adjust) {
+        return apply(fields, defaultCompare, inputs, KiePMMLDoubleTable.of(seeds), adjust);
+    }
+
+    public double apply(List<KiePMMLClusteringField> fields, KiePMMLCompareFunction defaultCompare, Double[] inputs, KiePMMLDoubleTable seeds, double adjust) {
         switch (this) {
             case EUCLIDEAN:
                 return euclidean(fields, defaultCompare, inputs, seeds, adjust);
@@ -60,18 +65,18 @@ public enum KiePMMLAggregateFunction implements Named {
         throw new IllegalStateException("Unknown aggregate function: " + this);
     }
 
-    static double euclidean(List<KiePMMLClusteringField> fields, KiePMMLCompareFunction defaultCompare, Double[] inputs, double[] seeds, double adjust) {
+    static double euclidean(List<KiePMMLClusteringField> fields, KiePMMLCompareFunction defaultCompare, Double[] inputs, KiePMMLDoubleTable seeds, double adjust) {
         return Math.sqrt(squaredEuclidean(fields, defaultCompare, inputs, seeds, adjust));
     }
 
-    static double squaredEuclidean(List<KiePMMLClusteringField> fields, KiePMMLCompareFunction defaultCompare, Double[] inputs, double[] seeds, double adjust) {
+    static double squaredEuclidean(List<KiePMMLClusteringField> fields, KiePMMLCompareFunction defaultCompare, Double[] inputs, KiePMMLDoubleTable seeds, double adjust) {
         double sum = 0.0;
         for (int i = 0; i < fields.size(); i++) {
             if (inputs[i] != null) {
                 KiePMMLClusteringField field = fields.get(i);
                 double weight = field.getFieldWeight();
                 KiePMMLCompareFunction compare = field.getCompareFunction().orElse(defaultCompare);
-                sum += weight * Math.pow(compare.apply(field, inputs[i], seeds[i]), 2.0);
+                sum += weight * Math.pow(compare.apply(field, inputs[i], seeds.get(i)), 2.0);
             }
         }
         return sum * adjust;
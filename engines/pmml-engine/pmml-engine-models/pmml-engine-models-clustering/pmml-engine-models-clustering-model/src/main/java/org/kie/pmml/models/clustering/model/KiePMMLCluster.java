@@ -15,28 +15,42 @@
  */
 package org.kie.pmml.models.clustering.model;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.kie.pmml.commons.tables.KiePMMLDoubleTable;
+
 public class KiePMMLCluster {
 
-    private final List<Double> values;
+    private final KiePMMLDoubleTable values;
     private final Optional<String> id;
     private final Optional<String> name;
 
     public KiePMMLCluster(String id, String name, List<Double> values) {
-        this.values = Collections.unmodifiableList(values);
+        this(id, name, KiePMMLDoubleTable.of(values));
+    }
+
+    /**
+     * @param id
+     * @param name
+     * @param values the center of the cluster, possibly stored off-heap (see <code>KiePMMLTableFile</code>)
+     */
+    public KiePMMLCluster(String id, String name, KiePMMLDoubleTable values) {
+        this.values = values;
         this.id = Optional.ofNullable(id);
         this.name = Optional.ofNullable(name);
     }
 
     public List<Double> getValues() {
-        return values;
+        return values.asList();
     }
 
     public double[] getValuesArray() {
-        return values.stream().mapToDouble(Double::doubleValue).toArray();
+        return values.toArray();
+    }
+
+    public KiePMMLDoubleTable getValuesTable() {
+        return values;
     }
 
     public Optional<String> getId() {
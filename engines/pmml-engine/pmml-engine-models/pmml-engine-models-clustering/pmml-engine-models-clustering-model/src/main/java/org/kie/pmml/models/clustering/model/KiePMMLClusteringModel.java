@@ -101,7 +101,7 @@ public class KiePMMLClusteringModel extends KiePMMLModel implements IsInterprete
         for (int i = 0; i < clusters.size(); i++) {
             aggregates[i] = comparisonMeasure.getAggregateFunction()
                     .apply(clusteringFields, comparisonMeasure.getCompareFunction(), inputs,
-                            clusters.get(i).getValuesArray(), adjustmentFactor);
+                            clusters.get(i).getValuesTable(), adjustmentFactor);
         }
 
         final int selectedIndex = findMinIndex(aggregates);
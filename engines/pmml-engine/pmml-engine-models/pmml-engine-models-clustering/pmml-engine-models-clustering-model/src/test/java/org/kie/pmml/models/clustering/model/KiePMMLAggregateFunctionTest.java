@@ -18,6 +18,7 @@ package org.kie.pmml.models.clustering.model;
 
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.Test;
+import org.kie.pmml.commons.tables.KiePMMLDoubleTable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +37,7 @@ public class KiePMMLAggregateFunctionTest {
     private static final Double[] TEST_INPUTS = new Double[2];
     private static final double[] TEST_SEEDS = new double[2];
     private static final double TEST_ADJUST = 1.0;
+    private static final KiePMMLDoubleTable TEST_SEEDS_TABLE;
 
     static {
         TEST_FIELDS.add(new KiePMMLClusteringField("test1", 1.0, true, null, null));
@@ -44,6 +46,7 @@ public class KiePMMLAggregateFunctionTest {
         TEST_INPUTS[1] = 3.0;
         TEST_SEEDS[0] = 1.0;
         TEST_SEEDS[1] = 6.0;
+        TEST_SEEDS_TABLE = KiePMMLDoubleTable.of(TEST_SEEDS);
     }
 
     @Test
@@ -62,9 +65,11 @@ public class KiePMMLAggregateFunctionTest {
     @Test
     void testApply() {
         assertThat(EUCLIDEAN.apply(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST))
-                .isEqualTo(euclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST), DOUBLE_OFFSET);
+                .isEqualTo(euclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS_TABLE, TEST_ADJUST), DOUBLE_OFFSET);
         assertThat(SQUARED_EUCLIDEAN.apply(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST))
-                .isEqualTo(squaredEuclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST), DOUBLE_OFFSET);
+                .isEqualTo(squaredEuclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS_TABLE, TEST_ADJUST), DOUBLE_OFFSET);
+        assertThat(EUCLIDEAN.apply(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS_TABLE, TEST_ADJUST))
+                .isEqualTo(EUCLIDEAN.apply(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST), DOUBLE_OFFSET);
         assertThatThrownBy(() -> CHEBYCHEV.apply(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST))
                 .isInstanceOf(UnsupportedOperationException.class);
         assertThatThrownBy(() -> CITY_BLOCK.apply(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST))
@@ -83,12 +88,12 @@ public class KiePMMLAggregateFunctionTest {
 
     @Test
     void testEuclidean() {
-        assertThat(euclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST)).isEqualTo(5.0, DOUBLE_OFFSET);
+        assertThat(euclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS_TABLE, TEST_ADJUST)).isEqualTo(5.0, DOUBLE_OFFSET);
     }
 
     @Test
     void testSquaredEuclidean() {
-        assertThat(squaredEuclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS, TEST_ADJUST)).isEqualTo(25.0, DOUBLE_OFFSET);
+        assertThat(squaredEuclidean(TEST_FIELDS, TEST_COMPARE_FN, TEST_INPUTS, TEST_SEEDS_TABLE, TEST_ADJUST)).isEqualTo(25.0, DOUBLE_OFFSET);
     }
 
 }
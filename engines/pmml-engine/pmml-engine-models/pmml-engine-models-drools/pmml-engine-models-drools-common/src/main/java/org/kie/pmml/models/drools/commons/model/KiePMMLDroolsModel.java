@@ -23,6 +23,8 @@ import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.model.*;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpan;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracing;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.kie.pmml.api.enums.MINING_FUNCTION;
 import org.kie.pmml.api.enums.PMML_MODEL;
@@ -56,6 +58,11 @@ public abstract class KiePMMLDroolsModel extends KiePMMLModel implements IsDrool
 
     private static final Logger logger = LoggerFactory.getLogger(KiePMMLDroolsModel.class);
 
+    /**
+     * Span of the evaluation of the rules generated for the model
+     */
+    private static final String REDIRECT_SPAN = "pmml.redirect";
+
     private static final AgendaEventListener agendaEventListener = getAgendaEventListener(logger);
     private static final long serialVersionUID = 5471400949048174357L;
 
@@ -96,17 +103,19 @@ public abstract class KiePMMLDroolsModel extends KiePMMLModel implements IsDrool
 
         String basePath = context.getFileName() + SLASH + this.getName();
         FRI fri = new FRI(basePath, "drl");
-        EfestoInput<EfestoMapInputDTO> input = new AbstractEfestoInput(fri, darMapInputDTO) {
-        };
-
-        Optional<RuntimeManager> runtimeManager = getRuntimeManager(true);
-        if (runtimeManager.isEmpty()) {
-            throw new KieRuntimeServiceException("Cannot find RuntimeManager");
-        }
-        Optional<EfestoOutput> output = runtimeManager.get().evaluateInput(input, (KieMemoryCompiler.MemoryCompilerClassLoader) context.getMemoryClassLoader());
-        // TODO manage for different kind of retrieved output
-        if (output.isEmpty()) {
-            throw new KiePMMLException("Failed to retrieve value for " + this.getName());
+        try (EfestoSpan span = EfestoTracing.startSpan(REDIRECT_SPAN, fri)) {
+            EfestoInput<EfestoMapInputDTO> input = new AbstractEfestoInput(fri, darMapInputDTO, span.getContext()) {
+            };
+
+            Optional<RuntimeManager> runtimeManager = getRuntimeManager(true);
+            if (runtimeManager.isEmpty()) {
+                throw new KieRuntimeServiceException("Cannot find RuntimeManager");
+            }
+            Optional<EfestoOutput> output = runtimeManager.get().evaluateInput(input, (KieMemoryCompiler.MemoryCompilerClassLoader) context.getMemoryClassLoader());
+            // TODO manage for different kind of retrieved output
+            if (output.isEmpty()) {
+                throw new KiePMMLException("Failed to retrieve value for " + this.getName());
+            }
         }
         return toReturn;
     }
@@ -34,6 +34,7 @@ import org.kie.pmml.models.mining.model.enums.MULTIPLE_MODEL_METHOD;
 import org.kie.pmml.models.mining.model.segmentation.KiePMMLSegment;
 import org.kie.pmml.runtime.api.exceptions.KiePMMLModelException;
 import org.kie.pmml.runtime.core.executor.PMMLModelEvaluator;
+import org.kie.pmml.runtime.core.jfr.SegmentEvaluationEvent;
 import org.kie.pmml.runtime.core.utils.PMMLRuntimeHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +46,7 @@ import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static org.kie.efesto.runtimemanager.api.utils.DeadlineUtils.checkDeadline;
 import static org.kie.pmml.api.enums.ResultCode.FAIL;
 import static org.kie.pmml.api.enums.ResultCode.OK;
 import static org.kie.pmml.runtime.core.utils.Converter.getUnwrappedParametersMap;
@@ -258,7 +260,18 @@ public class PMMLMiningModelEvaluator implements PMMLModelEvaluator<KiePMMLMinin
         final List<KiePMMLSegment> segments = toEvaluate.getSegmentation().getSegments();
         final LinkedHashMap<String, KiePMMLNameValueProbabilityMapTuple> inputData = new LinkedHashMap<>();
         for (KiePMMLSegment segment : segments) {
+            // segments may be many (e.g. random forests): stop as soon as the evaluation deadline expires
+            checkDeadline();
+            SegmentEvaluationEvent event = new SegmentEvaluationEvent();
+            event.begin();
             Optional<PMML4Result> segmentResult = evaluateSegment(segment, pmmlContext);
+            event.end();
+            if (event.shouldCommit()) {
+                event.miningModel = toEvaluate.getName();
+                event.segment = segment.getId();
+                event.selected = segmentResult.isPresent();
+                event.commit();
+            }
             segmentResult.ifPresent(pmml4Result -> populateInputDataWithSegmentResult(pmml4Result,
                     pmmlContext,
                     multipleModelMethod,
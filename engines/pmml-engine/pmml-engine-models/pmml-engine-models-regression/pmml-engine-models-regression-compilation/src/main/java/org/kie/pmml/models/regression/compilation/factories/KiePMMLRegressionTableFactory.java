@@ -30,6 +30,7 @@ import org.dmg.pmml.regression.*;
 import org.kie.pmml.api.exceptions.KiePMMLException;
 import org.kie.pmml.api.exceptions.KiePMMLInternalException;
 import org.kie.pmml.api.iinterfaces.SerializableFunction;
+import org.kie.pmml.commons.tables.KiePMMLTableFile;
 import org.kie.pmml.compilation.commons.utils.JavaParserUtils;
 import org.kie.pmml.models.regression.compilation.dto.RegressionCompilationDTO;
 import org.kie.pmml.models.regression.model.AbstractKiePMMLTable;
@@ -43,6 +44,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import static com.github.javaparser.StaticJavaParser.parseClassOrInterfaceType;
 import static java.util.stream.Collectors.groupingBy;
 import static org.kie.pmml.commons.Constants.*;
 import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedVariableName;
@@ -57,6 +59,13 @@ public class KiePMMLRegressionTableFactory {
     static final String NUMERIC_FUNCTION_MAP = "numericFunctionMap";
     static final String CATEGORICAL_FUNCTION_MAP = "categoricalFunctionMap";
     static final String PREDICTOR_TERM_FUNCTION_MAP = "predictorTermFunctionMap";
+    static final String TABLE_FILE = "tableFile";
+    static final String NUMERIC_PREDICTORS_KEY = "numeric.predictors";
+    static final String NUMERIC_COEFFICIENTS_KEY = "numeric.coefficients";
+    static final String NUMERIC_EXPONENTS_KEY = "numeric.exponents";
+    static final String CATEGORICAL_FIELDS_KEY = "categorical.fields";
+    static final String CATEGORICAL_VALUES_KEY = "categorical.values";
+    static final String CATEGORICAL_COEFFICIENTS_KEY = "categorical.coefficients";
     static final ClassOrInterfaceDeclaration REGRESSION_TABLE_TEMPLATE;
 
     static {
@@ -157,7 +166,8 @@ public class KiePMMLRegressionTableFactory {
                 .orElseThrow(() -> new KiePMMLException(MAIN_CLASS_NOT_FOUND + ": " + className));
         final MethodDeclaration staticGetterMethod =
                 tableTemplate.getMethodsByName(GETKIEPMML_TABLE).get(0);
-        setStaticGetter(regressionTable, compilationDTO, staticGetterMethod, className.toLowerCase());
+        setStaticGetter(regressionTable, compilationDTO, staticGetterMethod, className.toLowerCase(),
+                        getFullClassName(cloneCU));
         return new AbstractMap.SimpleEntry<>(getFullClassName(cloneCU), cloneCU.toString());
     }
 
@@ -311,19 +321,41 @@ public class KiePMMLRegressionTableFactory {
                                 final RegressionCompilationDTO compilationDTO,
                                 final MethodDeclaration staticGetterMethod,
                                 final String variableName) {
+        setStaticGetter(regressionTable, compilationDTO, staticGetterMethod, variableName, null);
+    }
+
+    /**
+     * Populate the static getter; when the number of <b>NumericPredictor</b>s and <b>CategoricalPredictor</b>s
+     * exceeds the <code>KiePMMLTableFile.OFFHEAP_TABLES_THRESHOLD_PROPERTY</code>, they are written in the
+     * <code>KiePMMLTableFile</code> of the given generated class instead of being generated as functions
+     *
+     * @param regressionTable
+     * @param compilationDTO
+     * @param staticGetterMethod
+     * @param variableName
+     * @param fullClassName the generated class, or <code>null</code> to always generate functions
+     */
+    static void setStaticGetter(final RegressionTable regressionTable,
+                                final RegressionCompilationDTO compilationDTO,
+                                final MethodDeclaration staticGetterMethod,
+                                final String variableName,
+                                final String fullClassName) {
         final BlockStmt regressionTableBody =
                 staticGetterMethod.getBody().orElseThrow(() -> new KiePMMLException(String.format(MISSING_BODY_TEMPLATE, staticGetterMethod)));
+        final boolean offHeap = fullClassName != null &&
+                KiePMMLTableFile.isOffHeapEnabled(regressionTable.getNumericPredictors().size() +
+                                                          regressionTable.getCategoricalPredictors().size());
 
         final BlockStmt newBody = new BlockStmt();
         // populate maps
         String numericFunctionMapName = String.format(VARIABLE_NAME_TEMPLATE, NUMERIC_FUNCTION_MAP, variableName);
-        final Map<String, Expression> numericPredictorsMap =
+        final Map<String, Expression> numericPredictorsMap = offHeap ? Collections.emptyMap() :
                 getNumericPredictorsExpressions(regressionTable.getNumericPredictors());
         createPopulatedHashMap(newBody, numericFunctionMapName, Arrays.asList(String.class.getSimpleName(),
                         "SerializableFunction<Double, Double>"),
                 numericPredictorsMap);
 
-        final Map<String, Expression> categoricalPredictorFunctionsMap =
+        final Map<String, Expression> categoricalPredictorFunctionsMap = offHeap ? Collections.emptyMap() :
                 getCategoricalPredictorsExpressions(regressionTable.getCategoricalPredictors(), newBody, variableName);
         String categoricalFunctionMapName = String.format(VARIABLE_NAME_TEMPLATE, CATEGORICAL_FUNCTION_MAP,
                 variableName);
@@ -366,10 +398,86 @@ public class KiePMMLRegressionTableFactory {
         final Expression resultUpdaterExpression =
                 getResultUpdaterExpression(compilationDTO.getDefaultNormalizationMethod());
         getChainedMethodCallExprFrom("withResultUpdater", initializer).setArgument(0, resultUpdaterExpression);
+        if (offHeap) {
+            addPredictorsTables(regressionTable, fullClassName, newBody, initializer, variableName);
+        }
         regressionTableBody.getStatements().forEach(newBody::addStatement);
         staticGetterMethod.setBody(newBody);
     }
 
+    /**
+     * Write the <b>NumericPredictor</b>s and <b>CategoricalPredictor</b>s in the <code>KiePMMLTableFile</code> of the
+     * given generated class, declare it in the given body and add
+     * <pre>
+     *     .withNumericPredictorsTable(...)
+     *     .withCategoricalPredictorsTable(...)
+     * </pre>
+     * invocations before the final <b>build()</b> one of the given initializer
+     *
+     * @param regressionTable
+     * @param fullClassName
+     * @param body
+     * @param initializer
+     * @param variableName
+     */
+    static void addPredictorsTables(final RegressionTable regressionTable,
+                                    final String fullClassName,
+                                    final BlockStmt body,
+                                    final MethodCallExpr initializer,
+                                    final String variableName) {
+        final List<NumericPredictor> numericPredictors = regressionTable.getNumericPredictors();
+        final KiePMMLTableFile.Builder tableFile = KiePMMLTableFile.builder()
+                .withStrings(NUMERIC_PREDICTORS_KEY, numericPredictors.stream()
+                        .map(numericPredictor -> numericPredictor.getName().getValue())
+                        .toArray(String[]::new))
+                .withDoubles(NUMERIC_COEFFICIENTS_KEY, numericPredictors.stream()
+                        .mapToDouble(numericPredictor -> numericPredictor.getCoefficient().doubleValue())
+                        .toArray())
+                .withDoubles(NUMERIC_EXPONENTS_KEY, numericPredictors.stream()
+                        .mapToDouble(numericPredictor -> numericPredictor.getExponent().doubleValue())
+                        .toArray());
+        // same value of the same field: the last one wins, as in getGroupedCategoricalPredictorMap
+        final Map<String, Map<String, Double>> categoricalPredictorsMap = new LinkedHashMap<>();
+        for (CategoricalPredictor categoricalPredictor : regressionTable.getCategoricalPredictors()) {
+            categoricalPredictorsMap.computeIfAbsent(categoricalPredictor.getField().getValue(), field -> new LinkedHashMap<>())
+                    .put(categoricalPredictor.getValue().toString(), categoricalPredictor.getCoefficient().doubleValue());
+        }
+        final List<String> categoricalFields = new ArrayList<>();
+        final List<String> categoricalValues = new ArrayList<>();
+        final List<Double> categoricalCoefficients = new ArrayList<>();
+        categoricalPredictorsMap.forEach((field, coefficientsMap) -> coefficientsMap.forEach((value, coefficient) -> {
+            categoricalFields.add(field);
+            categoricalValues.add(value);
+            categoricalCoefficients.add(coefficient);
+        }));
+        tableFile.withStrings(CATEGORICAL_FIELDS_KEY, categoricalFields.toArray(new String[0]))
+                .withStrings(CATEGORICAL_VALUES_KEY, categoricalValues.toArray(new String[0]))
+                .withDoubles(CATEGORICAL_COEFFICIENTS_KEY, categoricalCoefficients.stream()
+                        .mapToDouble(Double::doubleValue)
+                        .toArray());
+
+        final String tableFileName = String.format(VARIABLE_NAME_TEMPLATE, TABLE_FILE, variableName);
+        final VariableDeclarator tableFileDeclarator =
+                new VariableDeclarator(parseClassOrInterfaceType(KiePMMLTableFile.class.getCanonicalName()),
+                                       tableFileName, writeTableFile(tableFile, fullClassName));
+        body.addStatement(new ExpressionStmt(new VariableDeclarationExpr(tableFileDeclarator)));
+        final NameExpr tableFileExpr = new NameExpr(tableFileName);
+        final Expression builderScope = initializer.getScope()
+                .orElseThrow(() -> new KiePMMLException(String.format(MISSING_CHAINED_METHOD_DECLARATION_TEMPLATE,
+                                                                      "build", initializer)));
+        final MethodCallExpr withNumericPredictorsTable = new MethodCallExpr(builderScope,
+                "withNumericPredictorsTable",
+                NodeList.nodeList(tableFileGetterExprFrom(tableFileExpr, "getStrings", NUMERIC_PREDICTORS_KEY),
+                                  tableFileGetterExprFrom(tableFileExpr, "getDoubles", NUMERIC_COEFFICIENTS_KEY),
+                                  tableFileGetterExprFrom(tableFileExpr, "getDoubles", NUMERIC_EXPONENTS_KEY)));
+        final MethodCallExpr withCategoricalPredictorsTable = new MethodCallExpr(withNumericPredictorsTable,
+                "withCategoricalPredictorsTable",
+                NodeList.nodeList(tableFileGetterExprFrom(tableFileExpr, "getStrings", CATEGORICAL_FIELDS_KEY),
+                                  tableFileGetterExprFrom(tableFileExpr, "getStrings", CATEGORICAL_VALUES_KEY),
+                                  tableFileGetterExprFrom(tableFileExpr, "getDoubles", CATEGORICAL_COEFFICIENTS_KEY)));
+        initializer.setScope(withCategoricalPredictorsTable);
+    }
+
     static Expression getResultUpdaterExpression(final RegressionModel.NormalizationMethod normalizationMethod) {
         if (UNSUPPORTED_NORMALIZATION_METHODS.contains(normalizationMethod)) {
             return new NullLiteralExpr();
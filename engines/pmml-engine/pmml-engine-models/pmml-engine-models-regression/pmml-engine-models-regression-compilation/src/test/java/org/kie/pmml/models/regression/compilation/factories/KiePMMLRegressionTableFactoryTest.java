@@ -26,11 +26,16 @@ import com.github.javaparser.ast.stmt.ExpressionStmt;
 import org.assertj.core.data.Offset;
 import org.dmg.pmml.*;
 import org.dmg.pmml.regression.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.memorycompiler.KieMemoryCompiler;
 import org.kie.pmml.api.enums.RESULT_FEATURE;
 import org.kie.pmml.api.iinterfaces.SerializableFunction;
+import org.kie.pmml.api.runtime.PMMLContext;
 import org.kie.pmml.commons.model.KiePMMLOutputField;
+import org.kie.pmml.commons.tables.KiePMMLTableFile;
 import org.kie.pmml.compilation.api.dto.CommonCompilationDTO;
 import org.kie.pmml.compilation.api.testutils.PMMLModelTestUtils;
 import org.kie.pmml.compilation.commons.mocks.HasClassLoaderMock;
@@ -40,21 +45,28 @@ import org.kie.pmml.models.regression.model.KiePMMLRegressionTable;
 import org.kie.pmml.models.regression.model.tuples.KiePMMLTableSourceCategory;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.groupingBy;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.kie.efesto.common.api.utils.FileUtils.getFileContent;
+import static org.kie.pmml.commons.tables.KiePMMLTableFile.OFFHEAP_TABLES_DIRECTORY_PROPERTY;
+import static org.kie.pmml.commons.tables.KiePMMLTableFile.OFFHEAP_TABLES_THRESHOLD_PROPERTY;
+import static org.kie.pmml.commons.tables.KiePMMLTableFile.TABLE_FILE_SUFFIX;
 import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getGeneratedClassName;
 import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedVariableName;
 import static org.kie.pmml.compilation.commons.testutils.CodegenTestUtils.commonValidateCompilation;
 import static org.kie.pmml.compilation.commons.testutils.CodegenTestUtils.commonValidateCompilationWithImports;
 import static org.kie.pmml.compilation.commons.utils.JavaParserUtils.getFromFileName;
 import static org.kie.pmml.models.regression.compilation.factories.KiePMMLRegressionTableFactory.*;
+import static org.mockito.Mockito.mock;
 
 public class KiePMMLRegressionTableFactoryTest extends AbstractKiePMMLRegressionTableRegressionFactoryTest {
 
@@ -78,6 +90,13 @@ public class KiePMMLRegressionTableFactoryTest extends AbstractKiePMMLRegression
         STATIC_GETTER_METHOD = MODEL_TEMPLATE.getMethodsByName(GETKIEPMML_TABLE).get(0);
     }
 
+    @AfterEach
+    void cleanup() {
+        System.clearProperty(OFFHEAP_TABLES_THRESHOLD_PROPERTY);
+        System.clearProperty(OFFHEAP_TABLES_DIRECTORY_PROPERTY);
+        KiePMMLTableFile.clearLoaded();
+    }
+
     @Test
     void getRegressionTables() {
         regressionTable = getRegressionTable(3.5, "professional");
@@ -235,6 +254,31 @@ public class KiePMMLRegressionTableFactoryTest extends AbstractKiePMMLRegression
         commonValidateCompilation(sources);
     }
 
+    @Test
+    void getRegressionTableBuilderWithOffHeapTables(@TempDir Path tablesDirectory) throws Exception {
+        regressionTable = getRegressionTable(3.5, "professional");
+        final RegressionCompilationDTO compilationDTO = getRegressionCompilationDTO(regressionTable);
+        final Map<String, Object> input = new HashMap<>();
+        numericPredictors.forEach(numericPredictor -> input.put(numericPredictor.getName().getValue(), 2.5));
+        categoricalPredictors.forEach(categoricalPredictor -> input.put(categoricalPredictor.getField().getValue(),
+                                                                         categoricalPredictor.getValue()));
+
+        Map.Entry<String, String> inlined = KiePMMLRegressionTableFactory.getRegressionTableBuilder(regressionTable,
+                                                                                                   compilationDTO);
+        assertThat(inlined.getValue()).doesNotContain("withNumericPredictorsTable");
+        final double expected = evaluateRegressionTable(inlined, input);
+
+        System.setProperty(OFFHEAP_TABLES_THRESHOLD_PROPERTY, "1");
+        System.setProperty(OFFHEAP_TABLES_DIRECTORY_PROPERTY, tablesDirectory.toString());
+        Map.Entry<String, String> offHeap = KiePMMLRegressionTableFactory.getRegressionTableBuilder(regressionTable,
+                                                                                                   compilationDTO);
+        assertThat(offHeap.getValue()).contains("withNumericPredictorsTable", "withCategoricalPredictorsTable");
+        try (Stream<Path> paths = Files.walk(tablesDirectory)) {
+            assertThat(paths.filter(path -> path.toString().endsWith(TABLE_FILE_SUFFIX))).hasSize(1);
+        }
+        assertThat(evaluateRegressionTable(offHeap, input)).isCloseTo(expected, Offset.offset(0.000001));
+    }
+
     @Test
     void getNumericPredictorsMap() {
         final List<NumericPredictor> numericPredictors = IntStream.range(0, 3).mapToObj(index -> {
@@ -588,6 +632,45 @@ public class KiePMMLRegressionTableFactoryTest extends AbstractKiePMMLRegression
         outputFields.addAll(probabilityOutputFields);
     }
 
+    private RegressionCompilationDTO getRegressionCompilationDTO(final RegressionTable regressionTable) {
+        RegressionModel regressionModel = new RegressionModel();
+        regressionModel.setNormalizationMethod(RegressionModel.NormalizationMethod.CAUCHIT);
+        regressionModel.addRegressionTables(regressionTable);
+        regressionModel.setModelName(getGeneratedClassName("RegressionModel"));
+        DataField dataField = new DataField();
+        dataField.setName(FieldName.create("targetField"));
+        dataField.setOpType(OpType.CATEGORICAL);
+        DataDictionary dataDictionary = new DataDictionary();
+        dataDictionary.addDataFields(dataField);
+        MiningField miningField = new MiningField();
+        miningField.setUsageType(MiningField.UsageType.TARGET);
+        miningField.setName(dataField.getName());
+        MiningSchema miningSchema = new MiningSchema();
+        miningSchema.addMiningFields(miningField);
+        regressionModel.setMiningSchema(miningSchema);
+        PMML pmml = new PMML();
+        pmml.setDataDictionary(dataDictionary);
+        pmml.addModels(regressionModel);
+        final CommonCompilationDTO<RegressionModel> source =
+                CommonCompilationDTO.fromGeneratedPackageNameAndFields(PACKAGE_NAME,
+                        pmml,
+                        regressionModel,
+                        new HasClassLoaderMock(), "fileName");
+        return RegressionCompilationDTO.fromCompilationDTORegressionTablesAndNormalizationMethod(source,
+                regressionModel.getRegressionTables(),
+                regressionModel.getNormalizationMethod());
+    }
+
+    private double evaluateRegressionTable(final Map.Entry<String, String> source,
+                                           final Map<String, Object> input) throws Exception {
+        Map<String, Class<?>> compiled = KieMemoryCompiler.compile(Collections.singletonMap(source.getKey(),
+                                                                                            source.getValue()),
+                                                                   Thread.currentThread().getContextClassLoader());
+        KiePMMLRegressionTable retrieved =
+                (KiePMMLRegressionTable) compiled.get(source.getKey()).getMethod(GETKIEPMML_TABLE).invoke(null);
+        return (double) retrieved.evaluateRegression(input, mock(PMMLContext.class));
+    }
+
     private void commonEvaluateRegressionTable(KiePMMLRegressionTable retrieved, RegressionTable source) {
         Map<String, SerializableFunction<Double, Double>> numericFunctionMap = retrieved.getNumericFunctionMap();
         assertThat(numericFunctionMap).hasSameSizeAs(source.getNumericPredictors());
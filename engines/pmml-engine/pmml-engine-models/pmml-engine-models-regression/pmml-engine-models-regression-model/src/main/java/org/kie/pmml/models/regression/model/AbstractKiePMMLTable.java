@@ -16,10 +16,12 @@
 package org.kie.pmml.models.regression.model;
 
 import org.apache.commons.math3.distribution.NormalDistribution;
+import org.kie.pmml.api.exceptions.KiePMMLException;
 import org.kie.pmml.api.iinterfaces.SerializableFunction;
 import org.kie.pmml.api.runtime.PMMLContext;
 import org.kie.pmml.commons.model.KiePMMLExtension;
 import org.kie.pmml.commons.model.abstracts.AbstractKiePMMLComponent;
+import org.kie.pmml.commons.tables.KiePMMLDoubleTable;
 
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +35,12 @@ public abstract class AbstractKiePMMLTable extends AbstractKiePMMLComponent {
     protected Map<String, SerializableFunction<String, Double>> categoricalFunctionMap = new HashMap<>();
     protected Map<String, SerializableFunction<Map<String, Object>, Double>> predictorTermsFunctionMap =
             new HashMap<>();
+    // predictors read from a KiePMMLTableFile, evaluated as the function maps ones
+    protected String[] numericPredictors = new String[0];
+    protected KiePMMLDoubleTable numericCoefficients = KiePMMLDoubleTable.of();
+    protected KiePMMLDoubleTable numericExponents = KiePMMLDoubleTable.of();
+    protected Map<String, Map<String, Integer>> categoricalRowsMap = new HashMap<>();
+    protected KiePMMLDoubleTable categoricalCoefficients = KiePMMLDoubleTable.of();
     protected SerializableFunction<Double, Double> resultUpdater;
     protected double intercept;
     protected String targetField;
@@ -57,6 +65,23 @@ public abstract class AbstractKiePMMLTable extends AbstractKiePMMLComponent {
                 resultMap.put(key, entry.getValue().apply(input.get(key).toString()));
             }
         }
+        for (int i = 0; i < numericPredictors.length; i++) {
+            String key = numericPredictors[i];
+            if (input.containsKey(key)) {
+                double inputValue = ((Number) input.get(key)).doubleValue();
+                double exponent = numericExponents.get(i);
+                resultMap.put(key, exponent == 1.0 ?
+                        evaluateNumericWithoutExponent(inputValue, numericCoefficients.get(i)) :
+                        evaluateNumericWithExponent(inputValue, numericCoefficients.get(i), exponent));
+            }
+        }
+        for (Map.Entry<String, Map<String, Integer>> entry : categoricalRowsMap.entrySet()) {
+            String key = entry.getKey();
+            if (input.containsKey(key)) {
+                Integer row = entry.getValue().get(input.get(key).toString());
+                resultMap.put(key, row != null ? categoricalCoefficients.get(row) : 0.0);
+            }
+        }
         for (Map.Entry<String, SerializableFunction<Map<String, Object>, Double>> entry :
                 predictorTermsFunctionMap.entrySet()) {
             resultMap.put(entry.getKey(), entry.getValue().apply(input));
@@ -165,6 +190,47 @@ public abstract class AbstractKiePMMLTable extends AbstractKiePMMLComponent {
             return this;
         }
 
+        /**
+         * Add the <b>NumericPredictor</b>s stored as tables (e.g. read from a <code>KiePMMLTableFile</code>)
+         *
+         * @param predictors the predictors names
+         * @param coefficients the coefficients, by predictor
+         * @param exponents the exponents, by predictor
+         * @return
+         */
+        public Builder<T> withNumericPredictorsTable(String[] predictors, KiePMMLDoubleTable coefficients,
+                                                     KiePMMLDoubleTable exponents) {
+            if (predictors.length != coefficients.size() || predictors.length != exponents.size()) {
+                throw new KiePMMLException("Mismatching numeric predictors table sizes");
+            }
+            toBuild.numericPredictors = predictors;
+            toBuild.numericCoefficients = coefficients;
+            toBuild.numericExponents = exponents;
+            return this;
+        }
+
+        /**
+         * Add the <b>CategoricalPredictor</b>s stored as tables (e.g. read from a <code>KiePMMLTableFile</code>):
+         * each row holds a field, one of its values and the related coefficient
+         *
+         * @param fields the field, by row
+         * @param values the value, by row
+         * @param coefficients the coefficient, by row
+         * @return
+         */
+        public Builder<T> withCategoricalPredictorsTable(String[] fields, String[] values,
+                                                         KiePMMLDoubleTable coefficients) {
+            if (fields.length != values.length || fields.length != coefficients.size()) {
+                throw new KiePMMLException("Mismatching categorical predictors table sizes");
+            }
+            toBuild.categoricalRowsMap.clear();
+            for (int i = 0; i < fields.length; i++) {
+                toBuild.categoricalRowsMap.computeIfAbsent(fields[i], field -> new HashMap<>()).put(values[i], i);
+            }
+            toBuild.categoricalCoefficients = coefficients;
+            return this;
+        }
+
         public Builder<T> withResultUpdater(SerializableFunction<Double, Double> resultUpdater) {
             if (resultUpdater != null) {
                 toBuild.resultUpdater = resultUpdater;
@@ -16,10 +16,12 @@
 
 package org.kie.pmml.models.regression.model;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.kie.pmml.api.iinterfaces.SerializableFunction;
 import org.kie.pmml.api.runtime.PMMLContext;
+import org.kie.pmml.commons.tables.KiePMMLDoubleTable;
 
 import java.util.*;
 
@@ -76,6 +78,46 @@ public class KiePMMLRegressionTableTest {
         assertThat(retrieved).isEqualTo(expectedResult);
     }
 
+    @Test
+    void evaluateRegressionWithPredictorsTables() {
+        Map<String, SerializableFunction<Double, Double>> numericFunctionMapLocal = new HashMap<>();
+        numericFunctionMapLocal.put(FIRST_NUMERIC_INPUT,
+                                    input -> AbstractKiePMMLTable.evaluateNumericWithoutExponent(input, 2.5));
+        numericFunctionMapLocal.put(SECOND_NUMERIC_INPUT,
+                                    input -> AbstractKiePMMLTable.evaluateNumericWithExponent(input, -1.5, 2));
+        Map<String, Double> categoricalValues = new HashMap<>();
+        categoricalValues.put("a", 3.0);
+        categoricalValues.put("b", 7.0);
+        Map<String, SerializableFunction<String, Double>> categoricalFunctionMapLocal = new HashMap<>();
+        categoricalFunctionMapLocal.put(FIRST_CATEGORICAL_INPUT,
+                                        input -> AbstractKiePMMLTable.evaluateCategoricalPredictor(input, categoricalValues));
+        KiePMMLRegressionTable withFunctions = KiePMMLRegressionTable.builder("", Collections.emptyList())
+                .withNumericFunctionMap(numericFunctionMapLocal)
+                .withCategoricalFunctionMap(categoricalFunctionMapLocal)
+                .withIntercept(0.5)
+                .build();
+        KiePMMLRegressionTable withTables = KiePMMLRegressionTable.builder("", Collections.emptyList())
+                .withNumericPredictorsTable(new String[]{FIRST_NUMERIC_INPUT, SECOND_NUMERIC_INPUT},
+                                            KiePMMLDoubleTable.of(2.5, -1.5),
+                                            KiePMMLDoubleTable.of(1, 2))
+                .withCategoricalPredictorsTable(new String[]{FIRST_CATEGORICAL_INPUT, FIRST_CATEGORICAL_INPUT},
+                                                new String[]{"a", "b"},
+                                                KiePMMLDoubleTable.of(3.0, 7.0))
+                .withIntercept(0.5)
+                .build();
+        for (String categoricalInput : Arrays.asList("a", "b", "c")) {
+            Map<String, Object> input = new HashMap<>();
+            input.put(FIRST_NUMERIC_INPUT, 4.2);
+            input.put(SECOND_NUMERIC_INPUT, 1.3);
+            input.put(FIRST_CATEGORICAL_INPUT, categoricalInput);
+            assertThat(withTables.evaluateRegression(input, mock(PMMLContext.class)))
+                    .isEqualTo(withFunctions.evaluateRegression(input, mock(PMMLContext.class)));
+        }
+        Map<String, Object> missingInput = Collections.singletonMap(FIRST_NUMERIC_INPUT, 4.2);
+        assertThat(withTables.evaluateRegression(missingInput, mock(PMMLContext.class)))
+                .isEqualTo(withFunctions.evaluateRegression(missingInput, mock(PMMLContext.class)));
+    }
+
     private KiePMMLRegressionTable getKiePMMLRegressionTable() {
         Map<String, SerializableFunction<Double, Double>> numericFunctionMapLocal = new HashMap<>();
         numericFunctionMapLocal.put(FIRST_NUMERIC_INPUT, FIRST_NUMERIC_FUNCTION);
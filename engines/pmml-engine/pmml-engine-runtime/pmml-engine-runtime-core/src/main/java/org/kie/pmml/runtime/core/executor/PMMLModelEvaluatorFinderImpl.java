@@ -15,12 +15,15 @@
  */
 package org.kie.pmml.runtime.core.executor;
 
+import org.kie.efesto.common.api.spi.ServiceRegistries;
+import org.kie.efesto.common.api.spi.ServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.ServiceLoader;
 
 public class PMMLModelEvaluatorFinderImpl implements PMMLModelEvaluatorFinder {
@@ -43,6 +46,11 @@ public class PMMLModelEvaluatorFinderImpl implements PMMLModelEvaluatorFinder {
     }
 
     private Iterator<PMMLModelEvaluator> getProviders(boolean refresh) {
+        Optional<ServiceRegistry<PMMLModelEvaluator>> registry = ServiceRegistries.getRegistry(PMMLModelEvaluator.class);
+        if (registry.isPresent()) {
+            // bootstrapped: instances are shared and never reloaded
+            return registry.get().getServices().iterator();
+        }
         if (refresh) {
             loader.reload();
         }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.pmml.runtime.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.kie.pmml.Processing")
+@Label("PMML Processing")
+@Description("Pre-processing (input validation, transformations) or post-processing (output fields) of a PMML model evaluation")
+@Category({"Efesto", "PMML"})
+@StackTrace(false)
+public class PMMLProcessingEvent extends Event {
+
+    public static final String PRE_PROCESS = "pre";
+    public static final String POST_PROCESS = "post";
+
+    @Label("Model")
+    public String model;
+
+    @Label("Phase")
+    public String phase;
+}
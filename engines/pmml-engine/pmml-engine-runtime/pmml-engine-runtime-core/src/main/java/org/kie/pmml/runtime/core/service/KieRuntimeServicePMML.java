@@ -16,16 +16,25 @@
 package org.kie.pmml.runtime.core.service;
 
 import org.kie.api.pmml.PMML4Result;
+import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.efesto.runtimemanager.api.service.KieRuntimeService;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.kie.pmml.api.runtime.PMMLContext;
+import org.kie.pmml.commons.model.DeferredKiePMMLModels;
+import org.kie.pmml.commons.tables.KiePMMLTableFile;
 import org.kie.pmml.runtime.core.model.EfestoInputPMML;
 import org.kie.pmml.runtime.core.model.EfestoOutputPMML;
+import org.kie.pmml.runtime.core.utils.PMMLRuntimeHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
 
 import static org.kie.pmml.runtime.core.utils.PMMLRuntimeHelper.canManage;
 import static org.kie.pmml.runtime.core.utils.PMMLRuntimeHelper.execute;
@@ -45,4 +54,59 @@ public class KieRuntimeServicePMML implements KieRuntimeService<PMMLContext, PMM
         return execute(toEvaluate, memoryCompilerClassLoader);
 
     }
+
+    @Override
+    public Optional<EfestoBoundExecutor<EfestoInputPMML, EfestoOutputPMML>> getBoundExecutor(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        try {
+            return PMMLRuntimeHelper.getBoundExecutor(toEvaluate, memoryCompilerClassLoader);
+        } catch (Exception e) {
+            logger.warn("{} can not bind {}",
+                    this.getClass().getName(),
+                    toEvaluate.getFRI());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getModelType() {
+        return "pmml";
+    }
+
+    @Override
+    public Optional<EfestoInputPMML> getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.of(PMMLRuntimeHelper.getSyntheticInput(modelDescriptor, memoryCompilerClassLoader));
+    }
+
+    /**
+     * Only <code>Map</code> data are accepted, as the request parameters of the model
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<EfestoInputPMML> getInput(ModelDescriptor modelDescriptor, Object inputData, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        if (!(inputData instanceof Map)) {
+            return Optional.empty();
+        }
+        return Optional.of(PMMLRuntimeHelper.getInput(modelDescriptor, UUID.randomUUID().toString(), (Map<String, Object>) inputData, memoryCompilerClassLoader));
+    }
+
+    @Override
+    public Optional<Object> getModelInstance(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        return Optional.of(PMMLRuntimeHelper.loadKiePMMLModelFactory(modelDescriptor.getFri(), memoryCompilerClassLoader).getKiePMMLModels());
+    }
+
+    /**
+     * Table files (see <code>KiePMMLTableFile</code>) are cached for the <code>ClassLoader</code> of the model classes
+     */
+    @Override
+    public void releaseClassLoader(KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        KiePMMLTableFile.release(memoryCompilerClassLoader);
+    }
+
+    /**
+     * Lazily compiled models (see <code>DeferredKiePMMLModels</code>) are dropped once unloaded
+     */
+    @Override
+    public void unloadModels(Predicate<FRI> toUnload) {
+        DeferredKiePMMLModels.remove(toUnload);
+    }
 }
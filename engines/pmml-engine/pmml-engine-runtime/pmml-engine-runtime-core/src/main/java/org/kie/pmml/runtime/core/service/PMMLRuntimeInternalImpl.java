@@ -17,8 +17,10 @@ package org.kie.pmml.runtime.core.service;
 
 import org.kie.api.pmml.PMML4Result;
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.ModelMetadata;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.model.EfestoOutput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
 import org.kie.efesto.runtimemanager.api.service.RuntimeManager;
 import org.kie.efesto.runtimemanager.api.utils.SPIUtils;
 import org.kie.memorycompiler.KieMemoryCompiler;
@@ -30,16 +32,22 @@ import org.kie.pmml.runtime.core.model.EfestoOutputPMML;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.kie.efesto.common.api.model.FRI.SLASH;
 import static org.kie.pmml.commons.utils.KiePMMLModelUtils.getSanitizedClassName;
+import static org.kie.pmml.runtime.core.utils.PMMLRuntimeHelper.loadKiePMMLModelFactory;
 
 public class PMMLRuntimeInternalImpl implements PMMLRuntimeInternal {
 
     private static final Logger logger = LoggerFactory.getLogger(PMMLRuntimeInternalImpl.class);
 
+    private static final String PMML_MODEL_TYPE = "pmml";
+
+    // shared by all the instances, together with its model catalog
     private static final RuntimeManager runtimeManager = SPIUtils.getRuntimeManager(true).get();
 
     private final KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader;
@@ -64,14 +72,50 @@ public class PMMLRuntimeInternalImpl implements PMMLRuntimeInternal {
         return retrieved.map(EfestoOutputPMML.class::cast).map(EfestoOutputPMML::getOutputData).orElse(null);
     }
 
+    /**
+     * Returns the models listed by the model catalog of the <code>RuntimeManager</code> that are available to the
+     * current <code>ClassLoader</code>.
+     * The catalog is the one of the <code>RuntimeManager</code> held by this class, i.e. it is shared by all the
+     * <code>PMMLRuntimeInternalImpl</code>s, but not with other <code>RuntimeManager</code> instances
+     *
+     * @return
+     */
     @Override
     public List<PMMLModel> getPMMLModels() {
-        return null;
+        return runtimeManager.getModels(PMML_MODEL_TYPE).stream()
+                .flatMap(modelDescriptor -> loadPMMLModels(modelDescriptor).stream())
+                .collect(Collectors.toList());
     }
 
     @Override
     public Optional<PMMLModel> getPMMLModel(String modelName) {
-        return Optional.empty();
+        List<ModelDescriptor> modelDescriptors = runtimeManager.getModels(PMML_MODEL_TYPE);
+        // models compiled with metadata are found without loading the other ones
+        Optional<PMMLModel> toReturn = modelDescriptors.stream()
+                .filter(modelDescriptor -> modelDescriptor.getMetadata().map(ModelMetadata::getName).filter(modelName::equals).isPresent())
+                .flatMap(modelDescriptor -> loadPMMLModels(modelDescriptor).stream())
+                .filter(pmmlModel -> modelName.equals(pmmlModel.getName()))
+                .findFirst();
+        if (toReturn.isPresent()) {
+            return toReturn;
+        }
+        return modelDescriptors.stream()
+                .filter(modelDescriptor -> modelDescriptor.getMetadata().isEmpty())
+                .flatMap(modelDescriptor -> loadPMMLModels(modelDescriptor).stream())
+                .filter(pmmlModel -> modelName.equals(pmmlModel.getName()))
+                .findFirst();
+    }
+
+    private List<PMMLModel> loadPMMLModels(ModelDescriptor modelDescriptor) {
+        if (modelDescriptor.getRedirectTarget().isPresent()) {
+            return Collections.emptyList();
+        }
+        try {
+            return Collections.unmodifiableList(loadKiePMMLModelFactory(modelDescriptor.getFri(), memoryCompilerClassLoader).getKiePMMLModels());
+        } catch (Exception e) {
+            logger.debug("{} is not available to the current runtime", modelDescriptor.getFri(), e);
+            return Collections.emptyList();
+        }
     }
 
     //    private final PMMLModelEvaluatorFinderImpl pmmlModelExecutorFinder;
@@ -16,10 +16,16 @@
 package org.kie.pmml.runtime.core.utils;
 
 import org.kie.api.pmml.PMML4Result;
+import org.kie.api.pmml.PMMLRequestData;
 import org.kie.efesto.common.api.model.FRI;
 import org.kie.efesto.common.api.model.GeneratedExecutableResource;
+import org.kie.efesto.common.api.model.ModelMetadata;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoSpan;
+import org.kie.efesto.runtimemanager.api.tracing.EfestoTracing;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.kie.pmml.api.enums.PMML_MODEL;
 import org.kie.pmml.api.exceptions.KiePMMLException;
@@ -27,26 +33,43 @@ import org.kie.pmml.api.runtime.PMMLContext;
 import org.kie.pmml.commons.model.KiePMMLModel;
 import org.kie.pmml.commons.model.KiePMMLModelFactory;
 import org.kie.pmml.commons.model.ProcessingDTO;
+import org.kie.pmml.runtime.core.PMMLContextImpl;
 import org.kie.pmml.runtime.core.executor.PMMLModelEvaluator;
 import org.kie.pmml.runtime.core.executor.PMMLModelEvaluatorFinder;
 import org.kie.pmml.runtime.core.executor.PMMLModelEvaluatorFinderImpl;
+import org.kie.pmml.runtime.core.jfr.PMMLProcessingEvent;
 import org.kie.pmml.runtime.core.model.EfestoInputPMML;
 import org.kie.pmml.runtime.core.model.EfestoOutputPMML;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
+import static org.kie.efesto.common.api.model.FRI.SLASH;
 import static org.kie.efesto.runtimemanager.api.utils.GeneratedResourceUtils.getGeneratedExecutableResource;
 import static org.kie.efesto.runtimemanager.api.utils.GeneratedResourceUtils.isPresentExecutableOrRedirect;
+import static org.kie.pmml.commons.model.DeferredKiePMMLModels.loadCompiledClasses;
 import static org.kie.pmml.runtime.core.utils.PostProcess.postProcess;
 import static org.kie.pmml.runtime.core.utils.PreProcess.preProcess;
 
 public class PMMLRuntimeHelper {
 
     private static final Logger logger = LoggerFactory.getLogger(PMMLRuntimeHelper.class.getName());
+
+    /**
+     * Spans of the engine phases of an evaluation
+     */
+    static final String PRE_PROCESS_SPAN = "pmml.preProcess";
+    static final String EVALUATE_SPAN = "pmml.evaluate";
+    static final String POST_PROCESS_SPAN = "pmml.postProcess";
+    static final String MODEL_ATTRIBUTE = "model";
+
+    static final String SYNTHETIC_CORRELATION_ID = "synthetic";
+
     private static final PMMLModelEvaluatorFinder pmmlModelExecutorFinder = new PMMLModelEvaluatorFinderImpl();
 
 
@@ -68,6 +91,26 @@ public class PMMLRuntimeHelper {
                     toEvaluate.getFRI());
             return Optional.empty();
         }
+        return execute(kiePMMLModelFactory, toEvaluate);
+    }
+
+    /**
+     * Returns an <code>EfestoBoundExecutor</code> bound to the already loaded <code>KiePMMLModelFactory</code>
+     *
+     * @param toEvaluate
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    public static Optional<EfestoBoundExecutor<EfestoInputPMML, EfestoOutputPMML>> getBoundExecutor(EfestoInput toEvaluate, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        if (!(toEvaluate instanceof EfestoInputPMML)) {
+            return Optional.empty();
+        }
+        return getGeneratedExecutableResource(toEvaluate.getFRI(), "pmml")
+                .map(finalResource -> loadKiePMMLModelFactory(finalResource, memoryCompilerClassLoader))
+                .map(kiePMMLModelFactory -> input -> execute(kiePMMLModelFactory, input));
+    }
+
+    static Optional<EfestoOutputPMML> execute(KiePMMLModelFactory kiePMMLModelFactory, EfestoInputPMML toEvaluate) {
         try {
             return Optional.of(getEfestoOutput(kiePMMLModelFactory, toEvaluate));
         } catch (KiePMMLException e) {
@@ -79,20 +122,86 @@ public class PMMLRuntimeHelper {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    static KiePMMLModelFactory loadKiePMMLModelFactory(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+    /**
+     * Returns an input for the given model with all its input fields set to <code>0</code>; the model name is read
+     * from the <code>ModelMetadata</code>, if available, or else from the <code>FRI</code>
+     *
+     * @param modelDescriptor
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    public static EfestoInputPMML getSyntheticInput(ModelDescriptor modelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        Map<String, Object> requestParams = new LinkedHashMap<>();
+        modelDescriptor.getMetadata()
+                .ifPresent(metadata -> metadata.getInputFields().forEach(inputField -> requestParams.put(inputField, 0.0)));
+        return getInput(modelDescriptor, SYNTHETIC_CORRELATION_ID, requestParams, memoryCompilerClassLoader);
+    }
+
+    /**
+     * Returns an input for the given model with the given request parameters (e.g. decoded from JSON); the model
+     * name is read as in {@link #getSyntheticInput(ModelDescriptor, KieMemoryCompiler.MemoryCompilerClassLoader)}
+     *
+     * @param modelDescriptor
+     * @param correlationId
+     * @param requestParams
+     * @param memoryCompilerClassLoader
+     * @return
+     */
+    public static EfestoInputPMML getInput(ModelDescriptor modelDescriptor, String correlationId, Map<String, Object> requestParams, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
+        FRI fri = modelDescriptor.getFri();
+        String basePath = fri.getBasePath();
+        int separatorIndex = basePath.lastIndexOf(SLASH);
+        String fileName = basePath.substring(0, Math.max(separatorIndex, 0));
+        String modelName = modelDescriptor.getMetadata()
+                .map(ModelMetadata::getName)
+                .orElse(basePath.substring(separatorIndex + 1));
+        PMMLRequestData pmmlRequestData = new PMMLRequestData(correlationId, modelName);
+        requestParams.forEach((name, value) -> {
+            if (value != null) {
+                pmmlRequestData.addRequestParam(name, value);
+            }
+        });
+        return new EfestoInputPMML(fri, new PMMLContextImpl(pmmlRequestData, fileName, memoryCompilerClassLoader));
+    }
+
+    public static KiePMMLModelFactory loadKiePMMLModelFactory(FRI fri, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         GeneratedExecutableResource finalResource = getGeneratedExecutableResource(fri, "pmml")
                 .orElseThrow(() -> new KieRuntimeServiceException("Can not find expected GeneratedExecutableResource for " + fri));
+        return loadKiePMMLModelFactory(finalResource, memoryCompilerClassLoader);
+    }
+
+    @SuppressWarnings("unchecked")
+    static KiePMMLModelFactory loadKiePMMLModelFactory(GeneratedExecutableResource finalResource, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) {
         try {
             String fullKiePMMLModelFactorySourceClassName = finalResource.getFullClassNames().get(0);
-            final Class<? extends KiePMMLModelFactory> aClass =
-                    (Class<? extends KiePMMLModelFactory>) memoryCompilerClassLoader.loadClass(fullKiePMMLModelFactorySourceClassName);
-            return aClass.getDeclaredConstructor().newInstance();
+            return ((Class<? extends KiePMMLModelFactory>) loadFactoryClass(finalResource.getFri(), fullKiePMMLModelFactorySourceClassName, memoryCompilerClassLoader))
+                    .getDeclaredConstructor().newInstance();
         } catch (Exception e) {
             throw new KieRuntimeServiceException(e);
         }
     }
 
+    /**
+     * Load the given factory class; models indexed by a <b>lazy</b> compilation are compiled on first request
+     * (see <code>DeferredKiePMMLModels</code>)
+     *
+     * @param fri
+     * @param fullClassName
+     * @param memoryCompilerClassLoader
+     * @return
+     * @throws ClassNotFoundException
+     */
+    static Class<?> loadFactoryClass(FRI fri, String fullClassName, KieMemoryCompiler.MemoryCompilerClassLoader memoryCompilerClassLoader) throws ClassNotFoundException {
+        try {
+            return memoryCompilerClassLoader.loadClass(fullClassName);
+        } catch (ClassNotFoundException e) {
+            if (!loadCompiledClasses(fri, memoryCompilerClassLoader)) {
+                throw e;
+            }
+            return memoryCompilerClassLoader.loadClass(fullClassName);
+        }
+    }
+
     static EfestoOutputPMML getEfestoOutput(KiePMMLModelFactory kiePMMLModelFactory, EfestoInputPMML darInputPMML) {
         List<KiePMMLModel> kiePMMLModels = kiePMMLModelFactory.getKiePMMLModels();
         PMML4Result result = evaluate(kiePMMLModels, darInputPMML.getInputData());
@@ -114,18 +223,45 @@ public class PMMLRuntimeHelper {
         }
 //        pmmlListeners.forEach(context::addPMMLListener);
 //        addStep(() -> getStep(START, model, context.getRequestData()), context);
-        final ProcessingDTO processingDTO = preProcess(model, context);
+        PMMLProcessingEvent preProcessEvent = new PMMLProcessingEvent();
+        preProcessEvent.begin();
+        final ProcessingDTO processingDTO;
+        try (EfestoSpan span = startPhaseSpan(PRE_PROCESS_SPAN, model)) {
+            processingDTO = preProcess(model, context);
+        }
+        commitProcessingEvent(preProcessEvent, model, PMMLProcessingEvent.PRE_PROCESS);
 //        addStep(() -> getStep(PRE_EVALUATION, model, context.getRequestData()), context);
         PMMLModelEvaluator executor = getFromPMMLModelType(model.getPmmlMODEL())
                 .orElseThrow(() -> new KiePMMLException(String.format("PMMLModelEvaluator not found for model %s",
                         model.getPmmlMODEL())));
-        PMML4Result toReturn = executor.evaluate(model, context);
+        PMML4Result toReturn;
+        try (EfestoSpan span = startPhaseSpan(EVALUATE_SPAN, model)) {
+            toReturn = executor.evaluate(model, context);
+        }
 //        addStep(() -> getStep(POST_EVALUATION, model, context.getRequestData()), context);
-        postProcess(toReturn, model, context, processingDTO);
+        PMMLProcessingEvent postProcessEvent = new PMMLProcessingEvent();
+        postProcessEvent.begin();
+        try (EfestoSpan span = startPhaseSpan(POST_PROCESS_SPAN, model)) {
+            postProcess(toReturn, model, context, processingDTO);
+        }
+        commitProcessingEvent(postProcessEvent, model, PMMLProcessingEvent.POST_PROCESS);
 //        addStep(() -> getStep(END, model, context.getRequestData()), context);
         return toReturn;
     }
 
+    private static EfestoSpan startPhaseSpan(final String name, final KiePMMLModel model) {
+        return EfestoTracing.startSpan(name, (FRI) null).setAttribute(MODEL_ATTRIBUTE, model.getName());
+    }
+
+    private static void commitProcessingEvent(final PMMLProcessingEvent event, final KiePMMLModel model, final String phase) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.model = model.getName();
+            event.phase = phase;
+            event.commit();
+        }
+    }
+
     static Optional<KiePMMLModel> getModel(final List<KiePMMLModel> kiePMMLModels, String modelName) {
         logger.trace("getModel {} {}", kiePMMLModels, modelName);
         return kiePMMLModels
@@ -75,12 +75,9 @@ public class PreProcess {
     static void convertInputData(final List<KiePMMLMiningField> notTargetMiningFields,
                                  final PMMLRequestData requestData) {
         logger.debug("convertInputData {} {}", notTargetMiningFields, requestData);
-        Collection<ParameterInfo> requestParams = requestData.getRequestParams();
+        final Map<String, ParameterInfo> requestParams = getRequestParamsByName(requestData);
         notTargetMiningFields.forEach(miningField -> {
-            ParameterInfo parameterInfo = requestParams.stream()
-                    .filter(paramInfo -> miningField.getName().equals(paramInfo.getName()))
-                    .findFirst()
-                    .orElse(null);
+            ParameterInfo parameterInfo = requestParams.get(miningField.getName());
             if (parameterInfo != null) {
                 Object originalValue = parameterInfo.getValue();
                 Object requiredValue = miningField.getDataType().getActualValue(originalValue);
@@ -114,13 +111,10 @@ public class PreProcess {
     static void verifyFixInvalidValues(final List<KiePMMLMiningField> notTargetMiningFields,
                                        final PMMLRequestData requestData) {
         logger.debug("verifyInvalidValues {} {}", notTargetMiningFields, requestData);
-        final Collection<ParameterInfo> requestParams = requestData.getRequestParams();
+        final Map<String, ParameterInfo> requestParams = getRequestParamsByName(requestData);
         final List<ParameterInfo> toRemove = new ArrayList<>();
         notTargetMiningFields.forEach(miningField -> {
-            ParameterInfo parameterInfo = requestParams.stream()
-                    .filter(paramInfo -> miningField.getName().equals(paramInfo.getName()))
-                    .findFirst()
-                    .orElse(null);
+            ParameterInfo parameterInfo = requestParams.get(miningField.getName());
             if (parameterInfo != null) {
                 boolean match = isMatching(parameterInfo, miningField);
                 if (!match) {
@@ -147,19 +141,31 @@ public class PreProcess {
     static void verifyAddMissingValues(final List<KiePMMLMiningField> notTargetMiningFields,
                                        final PMMLRequestData requestData) {
         logger.debug("verifyMissingValues {} {}", notTargetMiningFields, requestData);
-        Collection<ParameterInfo> requestParams = requestData.getRequestParams();
+        final Map<String, ParameterInfo> requestParams = getRequestParamsByName(requestData);
         notTargetMiningFields
                 .forEach(miningField -> {
-                    ParameterInfo parameterInfo = requestParams.stream()
-                            .filter(paramInfo -> miningField.getName().equals(paramInfo.getName()))
-                            .findFirst()
-                            .orElse(null);
+                    ParameterInfo parameterInfo = requestParams.get(miningField.getName());
                     if (parameterInfo == null) {
                         manageMissingValues(miningField, requestData);
                     }
                 });
     }
 
+    /**
+     * Index the <code>ParameterInfo</code>s of the given <code>PMMLRequestData</code> by name, so that each mining
+     * field is looked up once instead of scanning all the parameters
+     *
+     * @param requestData
+     * @return
+     */
+    static Map<String, ParameterInfo> getRequestParamsByName(final PMMLRequestData requestData) {
+        final Map<String, ParameterInfo> toReturn = new HashMap<>();
+        for (ParameterInfo parameterInfo : requestData.getRequestParams()) {
+            toReturn.putIfAbsent(parameterInfo.getName(), parameterInfo);
+        }
+        return toReturn;
+    }
+
     static ProcessingDTO createProcessingDTO(final KiePMMLModel model,
                                              final Map<String, ParameterInfo> mappedRequestParams) {
         final List<KiePMMLNameValue> kiePMMLNameValues =
@@ -20,24 +20,32 @@ import org.junit.jupiter.api.Test;
 import org.kie.api.pmml.PMML4Result;
 import org.kie.api.pmml.PMMLRequestData;
 import org.kie.efesto.common.api.model.FRI;
+import org.kie.efesto.common.api.model.ModelMetadata;
 import org.kie.efesto.runtimemanager.api.exceptions.KieRuntimeServiceException;
 import org.kie.efesto.runtimemanager.api.model.AbstractEfestoInput;
 import org.kie.efesto.runtimemanager.api.model.EfestoInput;
+import org.kie.efesto.runtimemanager.api.model.ModelDescriptor;
+import org.kie.efesto.runtimemanager.api.service.EfestoBoundExecutor;
 import org.kie.memorycompiler.KieMemoryCompiler;
 import org.kie.pmml.api.runtime.PMMLContext;
+import org.kie.pmml.commons.model.DeferredKiePMMLModels;
 import org.kie.pmml.commons.model.KiePMMLModel;
 import org.kie.pmml.commons.model.KiePMMLModelFactory;
 import org.kie.pmml.runtime.core.PMMLContextImpl;
 import org.kie.pmml.runtime.core.model.EfestoInputPMML;
 import org.kie.pmml.runtime.core.model.EfestoOutputPMML;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
+import static org.kie.efesto.compilationmanager.api.utils.BytecodeUtils.getEmptyClass;
 import static org.kie.pmml.api.enums.ResultCode.OK;
 
 class PMMLRuntimeHelperTest {
@@ -72,10 +80,58 @@ class PMMLRuntimeHelperTest {
         commonEvaluateEfestoOutputPMML(retrieved.get(), darInputPMML);
     }
 
+    @Test
+    void getBoundExecutor() {
+        FRI fri = new FRI(basePath, "pmml");
+        EfestoInputPMML darInputPMML = new EfestoInputPMML(fri, getPMMLContext("fileName", "TestMod"));
+        Optional<EfestoBoundExecutor<EfestoInputPMML, EfestoOutputPMML>> retrieved = PMMLRuntimeHelper.getBoundExecutor(darInputPMML, memoryCompilerClassLoader);
+        assertThat(retrieved).isNotNull().isPresent();
+        Optional<EfestoOutputPMML> output = retrieved.get().evaluateInput(darInputPMML);
+        assertThat(output).isNotNull().isPresent();
+        commonEvaluateEfestoOutputPMML(output.get(), darInputPMML);
+        retrieved = PMMLRuntimeHelper.getBoundExecutor(new AbstractEfestoInput<>(fri, ""){}, memoryCompilerClassLoader);
+        assertThat(retrieved).isNotNull().isNotPresent();
+        darInputPMML = new EfestoInputPMML(new FRI("darfoo", "pmml"), getPMMLContext("fileName", "TestMod"));
+        retrieved = PMMLRuntimeHelper.getBoundExecutor(darInputPMML, memoryCompilerClassLoader);
+        assertThat(retrieved).isNotNull().isNotPresent();
+    }
+
     @Test
     void redirect() {
     }
 
+    @Test
+    void getSyntheticInput() {
+        FRI fri = new FRI("fileName/TestMod", "pmml");
+        ModelMetadata metadata = new ModelMetadata("TestMod", List.of("input1", "input2"), "target", "regression");
+        EfestoInputPMML retrieved = PMMLRuntimeHelper.getSyntheticInput(new ModelDescriptor(fri, metadata, null), memoryCompilerClassLoader);
+        assertThat(retrieved.getFRI()).isEqualTo(fri);
+        assertThat(retrieved.getInputData().getFileName()).isEqualTo("/fileName");
+        PMMLRequestData requestData = retrieved.getInputData().getRequestData();
+        assertThat(requestData.getModelName()).isEqualTo("TestMod");
+        assertThat(requestData.getMappedRequestParams()).containsOnlyKeys("input1", "input2");
+        retrieved = PMMLRuntimeHelper.getSyntheticInput(new ModelDescriptor(fri, null, null), memoryCompilerClassLoader);
+        assertThat(retrieved.getInputData().getRequestData().getModelName()).isEqualTo("TestMod");
+        assertThat(retrieved.getInputData().getRequestData().getMappedRequestParams()).isEmpty();
+    }
+
+    @Test
+    void getInput() {
+        FRI fri = new FRI("fileName/TestMod", "pmml");
+        Map<String, Object> requestParams = new LinkedHashMap<>();
+        requestParams.put("input1", 3.5);
+        requestParams.put("input2", "value");
+        requestParams.put("missing", null);
+        EfestoInputPMML retrieved = PMMLRuntimeHelper.getInput(new ModelDescriptor(fri, null, null), "correlation", requestParams, memoryCompilerClassLoader);
+        assertThat(retrieved.getFRI()).isEqualTo(fri);
+        assertThat(retrieved.getInputData().getFileName()).isEqualTo("/fileName");
+        PMMLRequestData requestData = retrieved.getInputData().getRequestData();
+        assertThat(requestData.getCorrelationId()).isEqualTo("correlation");
+        assertThat(requestData.getModelName()).isEqualTo("TestMod");
+        assertThat(requestData.getMappedRequestParams()).containsOnlyKeys("input1", "input2");
+        assertThat(requestData.getMappedRequestParams().get("input1").getValue()).isEqualTo(3.5);
+    }
+
     @Test
     void loadKiePMMLModelFactory() {
         KiePMMLModelFactory retrieved = PMMLRuntimeHelper.loadKiePMMLModelFactory(new FRI(basePath, "pmml"), memoryCompilerClassLoader);
@@ -95,6 +151,22 @@ class PMMLRuntimeHelperTest {
         }
     }
 
+    @Test
+    void loadFactoryClassDeferred() throws ClassNotFoundException {
+        FRI fri = new FRI("deferred/First", "pmml");
+        String fullClassName = "org.kie.pmml.deferred.FirstFactory";
+        try {
+            DeferredKiePMMLModels.register(fri, parentClassLoader -> Collections.singletonMap(fullClassName, getEmptyClass(fullClassName)));
+            KieMemoryCompiler.MemoryCompilerClassLoader classLoader = new KieMemoryCompiler.MemoryCompilerClassLoader(Thread.currentThread().getContextClassLoader());
+            assertThat(PMMLRuntimeHelper.loadFactoryClass(fri, fullClassName, classLoader).getName()).isEqualTo(fullClassName);
+            assertThat(DeferredKiePMMLModels.isCompiled(fri)).isTrue();
+            assertThatThrownBy(() -> PMMLRuntimeHelper.loadFactoryClass(new FRI("deferred/Second", "pmml"), "org.kie.pmml.deferred.SecondFactory", classLoader))
+                    .isInstanceOf(ClassNotFoundException.class);
+        } finally {
+            DeferredKiePMMLModels.clear();
+        }
+    }
+
     @Test
     void getEfestoOutput() {
         FRI fri = new FRI(basePath, "pmml");
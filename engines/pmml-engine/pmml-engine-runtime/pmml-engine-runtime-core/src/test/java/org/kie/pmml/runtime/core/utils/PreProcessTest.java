@@ -433,7 +433,7 @@ public class PreProcessTest {
         assertThat(mappedRequestParams).containsKey(CUSTOM_REF_FIELD);
         assertThat(mappedRequestParams.get(CUSTOM_REF_FIELD).getValue()).isEqualTo(expected);
         retrieved =
-                kiePMMLNameValues.stream().filter(kiePMMLNameValue -> kiePMMLNameValue.getName().equals(CUSTOM_REF_FIELD)).findFirst();
+                processingDTO.getKiePMMLNameValues().stream().filter(kiePMMLNameValue -> kiePMMLNameValue.getName().equals(CUSTOM_REF_FIELD)).findFirst();
         assertThat(retrieved).isPresent();
         assertThat(retrieved.get().getValue()).isEqualTo(expected);
     }